@@ -2,6 +2,7 @@ package com.votechain.backend.auth.controller;
 
 import com.votechain.backend.auth.dto.UserDto;
 import com.votechain.backend.auth.dto.UserUpdateRequest;
+import com.votechain.backend.auth.service.UserActivitySummaryService;
 import com.votechain.backend.auth.service.UserService;
 import com.votechain.backend.security.UserDetailsImpl;
 import io.swagger.v3.oas.annotations.Operation;
@@ -36,6 +37,9 @@ public class UserController {
     @Autowired
     private UserService userService;
 
+    @Autowired
+    private UserActivitySummaryService userActivitySummaryService;
+
     /**
      * Get current user profile
      */
@@ -160,6 +164,36 @@ public class UserController {
         return ResponseEntity.ok(users);
     }
 
+    /**
+     * Get all users by cursor (admin only)
+     */
+    @Operation(
+        summary = "Listar usuarios por cursor",
+        description = "Usuarios más recientes primero con un nextCursor para la página siguiente; " +
+                      "el total solo se calcula con includeTotal=true",
+        tags = { "Usuarios", "Administración" }
+    )
+    @SecurityRequirement(name = "bearer-jwt")
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Página de usuarios obtenida correctamente"),
+        @ApiResponse(responseCode = "400", description = "Cursor no válido"),
+        @ApiResponse(responseCode = "401", description = "No autorizado"),
+        @ApiResponse(responseCode = "403", description = "Acceso prohibido")
+    })
+    @GetMapping("/cursor")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> getAllUsersByCursor(
+            @Parameter(description = "nextCursor de la página anterior (vacío = primera página)") @RequestParam(required = false) String cursor,
+            @Parameter(description = "Tamaño de página (máximo 100)") @RequestParam(defaultValue = "10") int size,
+            @Parameter(description = "Buscar por texto en nombre o email") @RequestParam(required = false) String search,
+            @Parameter(description = "Calcular también el total de elementos") @RequestParam(defaultValue = "false") boolean includeTotal) {
+        try {
+            return ResponseEntity.ok(userService.getAllUsersByCursor(cursor, size, search, includeTotal));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
     /**
      * Change user password
      */
@@ -252,4 +286,31 @@ public class UserController {
                 .body(Map.of("error", "Error desactivando cuenta: " + e.getMessage()));
         }
     }
+
+    /**
+     * Rebuild activity summaries (admin only)
+     */
+    @Operation(
+        summary = "Reconstruir resúmenes de actividad",
+        description = "Recalcula en segundo plano user_activity_summary para todos los usuarios a partir de votos y votaciones",
+        tags = { "Usuarios", "Administración" }
+    )
+    @SecurityRequirement(name = "bearer-jwt")
+    @ApiResponses({
+        @ApiResponse(responseCode = "202", description = "Reconstrucción iniciada"),
+        @ApiResponse(responseCode = "409", description = "Ya hay una reconstrucción en curso"),
+        @ApiResponse(responseCode = "403", description = "Acceso prohibido")
+    })
+    @PostMapping("/admin/activity-summary/rebuild")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> rebuildActivitySummaries() {
+        try {
+            userActivitySummaryService.startRebuildAll();
+            return ResponseEntity.status(HttpStatus.ACCEPTED)
+                .body(Map.of("message", "Reconstrucción de resúmenes de actividad iniciada"));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                .body(Map.of("error", e.getMessage()));
+        }
+    }
 }
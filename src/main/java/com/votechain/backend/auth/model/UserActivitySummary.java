@@ -0,0 +1,122 @@
+package com.votechain.backend.auth.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Resumen de actividad por usuario para /dashboard/mis-stats y el perfil. Se actualiza con cada voto y cada
+ * cambio en las votaciones del usuario, y se puede reconstruir desde votes y votaciones en cualquier momento.
+ * Los contadores del año y del mes llevan el periodo al que corresponden: si no es el actual, valen 0
+ */
+@Entity
+@Table(name = "user_activity_summary")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class UserActivitySummary {
+
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    // Las actualizaciones incrementales también lo suben: una reconstrucción concurrente falla y se reintenta
+    @Version
+    private Long version;
+
+    @Column(name = "fecha_registro")
+    private LocalDateTime fechaRegistro;
+
+    // ========== VOTACIONES CREADAS ==========
+
+    @Column(name = "votaciones_creadas", nullable = false)
+    private long votacionesCreadas;
+
+    @Column(name = "votaciones_activas_creadas", nullable = false)
+    private long votacionesActivasCreadas;
+
+    // Map<String, Long> serializado: votaciones creadas por categoría
+    @Column(name = "votaciones_por_categoria_json", columnDefinition = "TEXT")
+    private String votacionesPorCategoriaJson;
+
+    @Column(name = "votaciones_anio", nullable = false)
+    private int votacionesAnio;
+
+    @Column(name = "votaciones_este_anio", nullable = false)
+    private long votacionesEsteAnio;
+
+    // yyyyMM
+    @Column(name = "votaciones_mes", nullable = false)
+    private int votacionesMes;
+
+    @Column(name = "votaciones_este_mes", nullable = false)
+    private long votacionesEsteMes;
+
+    @Column(name = "ultima_votacion_titulo")
+    private String ultimaVotacionTitulo;
+
+    @Column(name = "ultima_votacion_creada_en")
+    private LocalDateTime ultimaVotacionCreadaEn;
+
+    // ========== VOTOS EMITIDOS ==========
+
+    @Column(name = "votos_realizados", nullable = false)
+    private long votosRealizados;
+
+    @Column(name = "votos_anio", nullable = false)
+    private int votosAnio;
+
+    @Column(name = "votos_este_anio", nullable = false)
+    private long votosEsteAnio;
+
+    // yyyyMM
+    @Column(name = "votos_mes", nullable = false)
+    private int votosMes;
+
+    @Column(name = "votos_este_mes", nullable = false)
+    private long votosEsteMes;
+
+    @Column(name = "ultimo_voto_votacion_titulo")
+    private String ultimoVotoVotacionTitulo;
+
+    @Column(name = "ultimo_voto_en")
+    private LocalDateTime ultimoVotoEn;
+
+    // ========== VOTOS RECIBIDOS EN SUS VOTACIONES ==========
+
+    @Column(name = "votos_recibidos", nullable = false)
+    private long votosRecibidos;
+
+    @Column(name = "mejor_votacion_id")
+    private Long mejorVotacionId;
+
+    @Column(name = "mejor_votacion_votos", nullable = false)
+    private long mejorVotacionVotos;
+
+    @Column(name = "actualizado_en")
+    private LocalDateTime actualizadoEn;
+
+    public static int mesDe(LocalDate fecha) {
+        return fecha.getYear() * 100 + fecha.getMonthValue();
+    }
+
+    public long votacionesDelAnio(LocalDate hoy) {
+        return votacionesAnio == hoy.getYear() ? votacionesEsteAnio : 0;
+    }
+
+    public long votacionesDelMes(LocalDate hoy) {
+        return votacionesMes == mesDe(hoy) ? votacionesEsteMes : 0;
+    }
+
+    public long votosDelAnio(LocalDate hoy) {
+        return votosAnio == hoy.getYear() ? votosEsteAnio : 0;
+    }
+
+    public long votosDelMes(LocalDate hoy) {
+        return votosMes == mesDe(hoy) ? votosEsteMes : 0;
+    }
+}
@@ -0,0 +1,86 @@
+package com.votechain.backend.auth.repository;
+
+import com.votechain.backend.auth.model.UserActivitySummary;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+/**
+ * Las actualizaciones incrementales son UPDATE atómicos sobre la fila (sin leerla antes); devuelven 0 si el
+ * usuario aún no tiene resumen. Cada SET usa los valores anteriores de la fila
+ */
+@Repository
+public interface UserActivitySummaryRepository extends JpaRepository<UserActivitySummary, Long> {
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE UserActivitySummary s SET " +
+           "s.votosRealizados = s.votosRealizados + 1, " +
+           "s.votosEsteAnio = CASE WHEN s.votosAnio = :anio THEN s.votosEsteAnio + 1 ELSE 1 END, " +
+           "s.votosEsteMes = CASE WHEN s.votosMes = :mes THEN s.votosEsteMes + 1 ELSE 1 END, " +
+           "s.votosAnio = :anio, " +
+           "s.votosMes = :mes, " +
+           "s.ultimoVotoVotacionTitulo = CASE WHEN s.ultimoVotoEn IS NULL OR s.ultimoVotoEn <= :castAt " +
+           "THEN :votacionTitulo ELSE s.ultimoVotoVotacionTitulo END, " +
+           "s.ultimoVotoEn = CASE WHEN s.ultimoVotoEn IS NULL OR s.ultimoVotoEn <= :castAt " +
+           "THEN :castAt ELSE s.ultimoVotoEn END, " +
+           "s.version = s.version + 1, " +
+           "s.actualizadoEn = :now " +
+           "WHERE s.userId = :userId")
+    int recordVoteCast(@Param("userId") Long userId,
+                       @Param("anio") int anio,
+                       @Param("mes") int mes,
+                       @Param("votacionTitulo") String votacionTitulo,
+                       @Param("castAt") LocalDateTime castAt,
+                       @Param("now") LocalDateTime now);
+
+    // votos = total de la votación ya incluyendo este voto
+    @Transactional
+    @Modifying
+    @Query("UPDATE UserActivitySummary s SET " +
+           "s.votosRecibidos = s.votosRecibidos + 1, " +
+           "s.mejorVotacionId = CASE WHEN s.mejorVotacionId = :votacionId OR :votos > s.mejorVotacionVotos " +
+           "THEN :votacionId ELSE s.mejorVotacionId END, " +
+           "s.mejorVotacionVotos = CASE WHEN s.mejorVotacionId = :votacionId OR :votos > s.mejorVotacionVotos " +
+           "THEN :votos ELSE s.mejorVotacionVotos END, " +
+           "s.version = s.version + 1, " +
+           "s.actualizadoEn = :now " +
+           "WHERE s.userId = :userId")
+    int recordVoteReceived(@Param("userId") Long userId,
+                           @Param("votacionId") Long votacionId,
+                           @Param("votos") long votos,
+                           @Param("now") LocalDateTime now);
+
+    // Solo las columnas de votaciones creadas: no pisa los contadores de votos que se actualizan a la vez
+    @Transactional
+    @Modifying
+    @Query("UPDATE UserActivitySummary s SET " +
+           "s.votacionesCreadas = :creadas, " +
+           "s.votacionesActivasCreadas = :activas, " +
+           "s.votacionesPorCategoriaJson = :porCategoriaJson, " +
+           "s.votacionesAnio = :anio, " +
+           "s.votacionesEsteAnio = :esteAnio, " +
+           "s.votacionesMes = :mes, " +
+           "s.votacionesEsteMes = :esteMes, " +
+           "s.ultimaVotacionTitulo = :ultimaTitulo, " +
+           "s.ultimaVotacionCreadaEn = :ultimaCreadaEn, " +
+           "s.version = s.version + 1, " +
+           "s.actualizadoEn = :now " +
+           "WHERE s.userId = :userId")
+    int updateCreatedVotaciones(@Param("userId") Long userId,
+                                @Param("creadas") long creadas,
+                                @Param("activas") long activas,
+                                @Param("porCategoriaJson") String porCategoriaJson,
+                                @Param("anio") int anio,
+                                @Param("esteAnio") long esteAnio,
+                                @Param("mes") int mes,
+                                @Param("esteMes") long esteMes,
+                                @Param("ultimaTitulo") String ultimaTitulo,
+                                @Param("ultimaCreadaEn") LocalDateTime ultimaCreadaEn,
+                                @Param("now") LocalDateTime now);
+}
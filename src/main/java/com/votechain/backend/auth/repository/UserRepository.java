@@ -9,6 +9,7 @@ import org.springframework.stereotype.Repository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -41,4 +42,38 @@ public interface UserRepository extends JpaRepository<User, Long> {
     // Métodos adicionales para el dashboard
     @Query("SELECT COUNT(u) FROM User u WHERE u.createdAt >= :startDate AND u.createdAt <= :endDate")
     long countByCreatedAtBetween(@Param("startDate") java.time.LocalDateTime startDate, @Param("endDate") java.time.LocalDateTime endDate);
+
+    // [año, mes, número de usuarios] registrados desde una fecha
+    @Query("SELECT YEAR(u.createdAt), MONTH(u.createdAt), COUNT(u) FROM User u WHERE u.createdAt >= :since " +
+           "GROUP BY YEAR(u.createdAt), MONTH(u.createdAt)")
+    List<Object[]> countByMonthSince(@Param("since") java.time.LocalDateTime since);
+
+    // Recorrido por páginas de ids (reconstrucción de user_activity_summary)
+    @Query("SELECT u.id FROM User u WHERE u.id > :afterId ORDER BY u.id ASC")
+    List<Long> findIdsAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    // Listado de administración por cursor: (createdAt, id) descendente, sin OFFSET
+    @Query("SELECT u FROM User u WHERE (:searchTerm IS NULL OR " +
+           "LOWER(u.firstName) LIKE LOWER(CONCAT('%', :searchTerm, '%')) OR " +
+           "LOWER(u.lastName) LIKE LOWER(CONCAT('%', :searchTerm, '%')) OR " +
+           "LOWER(u.email) LIKE LOWER(CONCAT('%', :searchTerm, '%'))) " +
+           "ORDER BY u.createdAt DESC, u.id DESC")
+    List<User> findFirstKeysetPage(@Param("searchTerm") String searchTerm, Pageable pageable);
+
+    @Query("SELECT u FROM User u WHERE (:searchTerm IS NULL OR " +
+           "LOWER(u.firstName) LIKE LOWER(CONCAT('%', :searchTerm, '%')) OR " +
+           "LOWER(u.lastName) LIKE LOWER(CONCAT('%', :searchTerm, '%')) OR " +
+           "LOWER(u.email) LIKE LOWER(CONCAT('%', :searchTerm, '%'))) " +
+           "AND (u.createdAt < :createdAt OR (u.createdAt = :createdAt AND u.id < :id)) " +
+           "ORDER BY u.createdAt DESC, u.id DESC")
+    List<User> findKeysetPageAfter(@Param("searchTerm") String searchTerm,
+                                   @Param("createdAt") java.time.LocalDateTime createdAt,
+                                   @Param("id") Long id,
+                                   Pageable pageable);
+
+    @Query("SELECT COUNT(u) FROM User u WHERE :searchTerm IS NULL OR " +
+           "LOWER(u.firstName) LIKE LOWER(CONCAT('%', :searchTerm, '%')) OR " +
+           "LOWER(u.lastName) LIKE LOWER(CONCAT('%', :searchTerm, '%')) OR " +
+           "LOWER(u.email) LIKE LOWER(CONCAT('%', :searchTerm, '%'))")
+    long countBySearchTerm(@Param("searchTerm") String searchTerm);
 }
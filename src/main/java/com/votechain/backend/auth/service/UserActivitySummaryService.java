@@ -0,0 +1,474 @@
+package com.votechain.backend.auth.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.votechain.backend.auth.model.User;
+import com.votechain.backend.auth.model.UserActivitySummary;
+import com.votechain.backend.auth.repository.UserActivitySummaryRepository;
+import com.votechain.backend.auth.repository.UserRepository;
+import com.votechain.backend.vote.event.VoteCastEvent;
+import com.votechain.backend.vote.repository.VoteRepository;
+import com.votechain.backend.vote.service.VoteTallyRegistry;
+import com.votechain.backend.voting.event.VotacionChangedEvent;
+import com.votechain.backend.voting.model.VotacionCategoria;
+import com.votechain.backend.voting.model.VotacionEstado;
+import com.votechain.backend.voting.repository.VotacionRepository;
+import com.votechain.backend.voting.service.VotacionSnapshot;
+import com.votechain.backend.voting.service.VotacionSnapshotCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityNotFoundException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Mantiene user_activity_summary: cada voto confirmado suma en el votante y en el creador de la votación
+ * con un UPDATE atómico, y cada cambio en una votación recalcula las columnas de votaciones creadas de su
+ * creador. Las actualizaciones van fuera del hilo de la petición, en un pool acotado propio; si una se
+ * rechaza o falla, el usuario queda pendiente y reconcileDirty lo reconstruye en la siguiente pasada
+ */
+@Service
+@Slf4j
+public class UserActivitySummaryService {
+
+    private static final TypeReference<Map<String, Long>> CATEGORIAS_TYPE = new TypeReference<>() { };
+    private static final int MAX_REBUILD_ATTEMPTS = 3;
+
+    @Autowired
+    private UserActivitySummaryRepository summaryRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private VotacionRepository votacionRepository;
+
+    @Autowired
+    private VoteRepository voteRepository;
+
+    @Autowired
+    private VotacionSnapshotCache votacionSnapshotCache;
+
+    @Autowired
+    private VoteTallyRegistry voteTallyRegistry;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ObjectProvider<MeterRegistry> meterRegistry;
+
+    @Value("${user-activity.rebuild-page-size:500}")
+    private int rebuildPageSize;
+
+    @Value("${user-activity.rebuild-on-startup:false}")
+    private boolean rebuildOnStartup;
+
+    @Value("${user-activity.executor.threads:2}")
+    private int executorThreads;
+
+    @Value("${user-activity.executor.queue-capacity:10000}")
+    private int executorQueueCapacity;
+
+    @Value("${user-activity.reconcile-max-per-pass:200}")
+    private int reconcileMaxPerPass;
+
+    private final AtomicBoolean rebuildingAll = new AtomicBoolean();
+
+    // Usuarios y votaciones cuyas actualizaciones se rechazaron o fallaron; los recoge reconcileDirty
+    private final Set<Long> dirtyUsers = ConcurrentHashMap.newKeySet();
+    private final Set<Long> dirtyVotaciones = ConcurrentHashMap.newKeySet();
+
+    private ExecutorService executor;
+
+    @PostConstruct
+    public void init() {
+        AtomicInteger counter = new AtomicInteger();
+        ThreadPoolExecutor pool = new ThreadPoolExecutor(executorThreads, executorThreads, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, executorQueueCapacity)),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "user-activity-" + counter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        pool.allowCoreThreadTimeOut(true);
+
+        MeterRegistry registry = meterRegistry.getIfAvailable();
+        executor = registry != null
+                ? ExecutorServiceMetrics.monitor(registry, pool, "user-activity", "votechain.user-activity", Tags.empty())
+                : pool;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Resumen del usuario con una lectura por clave primaria. Si aún no tiene fila se calcula desde las tablas
+     * y se guarda en segundo plano
+     */
+    public UserActivitySummary get(Long userId) {
+        return summaryRepository.findById(userId).orElseGet(() -> {
+            UserActivitySummary summary = compute(userId);
+            if (!submit(() -> rebuildQuietly(userId))) {
+                dirtyUsers.add(userId);
+            }
+            return summary;
+        });
+    }
+
+    public Map<String, Long> getVotacionesPorCategoria(UserActivitySummary summary) {
+        Map<String, Long> porCategoria = emptyCategoryCounts();
+        if (summary.getVotacionesPorCategoriaJson() != null) {
+            try {
+                porCategoria.putAll(objectMapper.readValue(summary.getVotacionesPorCategoriaJson(), CATEGORIAS_TYPE));
+            } catch (JsonProcessingException e) {
+                throw new IllegalStateException("Activity summary of user " + summary.getUserId() + " is unreadable", e);
+            }
+        }
+        return porCategoria;
+    }
+
+    @EventListener
+    public void onVoteCast(VoteCastEvent event) {
+        boolean accepted = submit(() -> {
+            try {
+                recordVote(event);
+            } catch (RuntimeException e) {
+                log.warn("⚠️ No se pudo actualizar el resumen de actividad por el voto {}: {}",
+                        event.getVoteId(), e.getMessage());
+                markVoteDirty(event);
+            }
+        });
+        if (!accepted) {
+            markVoteDirty(event);
+        }
+    }
+
+    @EventListener
+    public void onVotacionChanged(VotacionChangedEvent event) {
+        Long creadorId = event.getCreadorId();
+        if (creadorId == null) {
+            return;
+        }
+        boolean accepted = submit(() -> {
+            try {
+                if (votacionRepository.existsById(event.getVotacionId())) {
+                    refreshCreatedVotaciones(creadorId);
+                } else {
+                    // Votación borrada: también cambian los votos recibidos
+                    rebuild(creadorId);
+                }
+            } catch (RuntimeException e) {
+                log.warn("⚠️ No se pudo actualizar el resumen de actividad del usuario {}: {}", creadorId, e.getMessage());
+                dirtyUsers.add(creadorId);
+            }
+        });
+        if (!accepted) {
+            dirtyUsers.add(creadorId);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (rebuildOnStartup) {
+            startRebuildAll();
+        }
+    }
+
+    /**
+     * Recalcula el resumen del usuario desde votes y votaciones y lo guarda. La versión se lee antes de
+     * calcular: si una actualización incremental cambia la fila mientras tanto, el guardado falla por bloqueo
+     * optimista y vuelve a empezar. Si se agotan los intentos, el usuario queda pendiente de reconciliar
+     */
+    public UserActivitySummary rebuild(Long userId) {
+        for (int attempt = 1; ; attempt++) {
+            Long version = summaryRepository.findById(userId).map(UserActivitySummary::getVersion).orElse(null);
+            UserActivitySummary summary = compute(userId);
+            summary.setVersion(version);
+            try {
+                return summaryRepository.save(summary);
+            } catch (OptimisticLockingFailureException | DataIntegrityViolationException e) {
+                if (attempt >= MAX_REBUILD_ATTEMPTS) {
+                    log.warn("⚠️ Resumen de actividad del usuario {} no guardado tras {} intentos", userId, attempt);
+                    dirtyUsers.add(userId);
+                    return summary;
+                }
+            }
+        }
+    }
+
+    /**
+     * Encola en el pool propio la reconstrucción de los resúmenes cuyas actualizaciones incrementales se
+     * rechazaron o fallaron, como mucho reconcileMaxPerPass por pasada: el hilo del scheduler, compartido con
+     * el resto de tareas programadas, solo encola. Las votaciones pendientes se resuelven a su creador, que es
+     * quien recibió el voto, y este se reconstruye en la pasada siguiente
+     */
+    @Scheduled(fixedDelayString = "${user-activity.reconcile-interval-ms:60000}")
+    public void reconcileDirty() {
+        if (!dirtyVotaciones.isEmpty() && !submit(this::resolveDirtyVotaciones)) {
+            return;
+        }
+        int submitted = 0;
+        for (Long userId : new ArrayList<>(dirtyUsers)) {
+            if (submitted >= reconcileMaxPerPass) {
+                break;
+            }
+            dirtyUsers.remove(userId);
+            if (!submit(() -> rebuildQuietly(userId))) {
+                dirtyUsers.add(userId);
+                break;
+            }
+            submitted++;
+        }
+    }
+
+    private void resolveDirtyVotaciones() {
+        for (Long votacionId : new ArrayList<>(dirtyVotaciones)) {
+            dirtyVotaciones.remove(votacionId);
+            try {
+                Long creadorId = votacionSnapshotCache.get(votacionId).getCreadorId();
+                if (creadorId != null) {
+                    dirtyUsers.add(creadorId);
+                }
+            } catch (EntityNotFoundException e) {
+                // Votación borrada: su borrado ya reconstruye al creador
+            } catch (RuntimeException e) {
+                dirtyVotaciones.add(votacionId);
+            }
+        }
+    }
+
+    public int getDirtyCount() {
+        return dirtyUsers.size() + dirtyVotaciones.size();
+    }
+
+    /**
+     * Reconstruye en segundo plano el resumen de todos los usuarios, por páginas de ids
+     */
+    public void startRebuildAll() {
+        if (rebuildingAll.get()) {
+            throw new IllegalStateException("An activity summary rebuild is already running");
+        }
+        boolean accepted = submit(() -> {
+            try {
+                rebuildAll();
+            } catch (RuntimeException e) {
+                log.error("❌ Error reconstruyendo los resúmenes de actividad", e);
+            }
+        });
+        if (!accepted) {
+            throw new IllegalStateException("Activity summary executor is saturated, try again later");
+        }
+    }
+
+    public int rebuildAll() {
+        if (!rebuildingAll.compareAndSet(false, true)) {
+            throw new IllegalStateException("An activity summary rebuild is already running");
+        }
+        try {
+            long start = System.currentTimeMillis();
+            int rebuilt = 0;
+            long afterId = 0;
+            List<Long> ids;
+            do {
+                ids = userRepository.findIdsAfter(afterId, PageRequest.of(0, rebuildPageSize));
+                for (Long userId : ids) {
+                    rebuildQuietly(userId);
+                    rebuilt++;
+                }
+                if (!ids.isEmpty()) {
+                    afterId = ids.get(ids.size() - 1);
+                }
+            } while (ids.size() == rebuildPageSize);
+
+            log.info("🔄 Resúmenes de actividad reconstruidos: {} usuarios en {} ms",
+                    rebuilt, System.currentTimeMillis() - start);
+            return rebuilt;
+        } finally {
+            rebuildingAll.set(false);
+        }
+    }
+
+    public boolean isRebuildingAll() {
+        return rebuildingAll.get();
+    }
+
+    private void recordVote(VoteCastEvent event) {
+        VotacionSnapshot votacion = votacionSnapshotCache.get(event.getVotacionId());
+        LocalDateTime castAt = event.getCastAt() != null ? event.getCastAt() : LocalDateTime.now();
+        LocalDate fecha = castAt.toLocalDate();
+        LocalDateTime now = LocalDateTime.now();
+
+        int updated = summaryRepository.recordVoteCast(event.getUserId(), fecha.getYear(),
+                UserActivitySummary.mesDe(fecha), votacion.getTitulo(), castAt, now);
+        if (updated == 0) {
+            rebuildQuietly(event.getUserId());
+        }
+
+        Long creadorId = votacion.getCreadorId();
+        if (creadorId != null) {
+            // VoteTallyRegistry ya contó este voto: su listener va antes que el resto
+            long votos = voteTallyRegistry.getTally(event.getVotacionId()).getTotal();
+            if (summaryRepository.recordVoteReceived(creadorId, event.getVotacionId(), votos, now) == 0) {
+                rebuildQuietly(creadorId);
+            }
+        }
+    }
+
+    private void refreshCreatedVotaciones(Long userId) {
+        UserActivitySummary created = new UserActivitySummary();
+        fillCreatedVotaciones(created, userId, LocalDate.now());
+        int updated = summaryRepository.updateCreatedVotaciones(userId,
+                created.getVotacionesCreadas(), created.getVotacionesActivasCreadas(),
+                created.getVotacionesPorCategoriaJson(),
+                created.getVotacionesAnio(), created.getVotacionesEsteAnio(),
+                created.getVotacionesMes(), created.getVotacionesEsteMes(),
+                created.getUltimaVotacionTitulo(), created.getUltimaVotacionCreadaEn(), LocalDateTime.now());
+        if (updated == 0) {
+            rebuild(userId);
+        }
+    }
+
+    private void rebuildQuietly(Long userId) {
+        try {
+            rebuild(userId);
+        } catch (EntityNotFoundException e) {
+            // Usuario borrado: no hay resumen que reconciliar
+            log.debug("Resumen de actividad del usuario {} omitido: {}", userId, e.getMessage());
+        } catch (RuntimeException e) {
+            log.warn("⚠️ No se pudo reconstruir el resumen de actividad del usuario {}: {}", userId, e.getMessage());
+            dirtyUsers.add(userId);
+        }
+    }
+
+    private boolean submit(Runnable task) {
+        try {
+            executor.execute(task);
+            return true;
+        } catch (RejectedExecutionException e) {
+            log.warn("⚠️ Cola del resumen de actividad llena; la actualización queda pendiente de reconciliar");
+            return false;
+        }
+    }
+
+    private void markVoteDirty(VoteCastEvent event) {
+        dirtyUsers.add(event.getUserId());
+        dirtyVotaciones.add(event.getVotacionId());
+    }
+
+    private UserActivitySummary compute(Long userId) {
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new EntityNotFoundException("User not found with id: " + userId));
+        LocalDate hoy = LocalDate.now();
+        LocalDateTime inicioMes = hoy.withDayOfMonth(1).atStartOfDay().minusNanos(1);
+
+        UserActivitySummary summary = UserActivitySummary.builder()
+                .userId(userId)
+                .fechaRegistro(user.getCreatedAt())
+                .build();
+        fillCreatedVotaciones(summary, userId, hoy);
+
+        summary.setVotosRealizados(voteRepository.countByUserId(userId));
+        summary.setVotosAnio(hoy.getYear());
+        summary.setVotosEsteAnio(voteRepository.countByUserIdThisYear(userId));
+        summary.setVotosMes(UserActivitySummary.mesDe(hoy));
+        summary.setVotosEsteMes(voteRepository.countByUserIdAndCreatedAtAfter(userId, inicioMes));
+        List<Object[]> ultimoVoto = voteRepository.findRecentSummariesByUser(userId, PageRequest.of(0, 1));
+        if (!ultimoVoto.isEmpty()) {
+            summary.setUltimoVotoEn((LocalDateTime) ultimoVoto.get(0)[1]);
+            summary.setUltimoVotoVotacionTitulo((String) ultimoVoto.get(0)[3]);
+        }
+
+        // Votos recibidos por cada votación del usuario, de más a menos
+        List<Object[]> votosPorVotacion = voteRepository.countGroupedByVotacionOfCreador(userId);
+        summary.setVotosRecibidos(votosPorVotacion.stream().mapToLong(row -> ((Number) row[1]).longValue()).sum());
+        if (!votosPorVotacion.isEmpty()) {
+            summary.setMejorVotacionId((Long) votosPorVotacion.get(0)[0]);
+            summary.setMejorVotacionVotos(((Number) votosPorVotacion.get(0)[1]).longValue());
+        }
+
+        summary.setActualizadoEn(LocalDateTime.now());
+        return summary;
+    }
+
+    private void fillCreatedVotaciones(UserActivitySummary summary, Long userId, LocalDate hoy) {
+        Map<String, Long> porCategoria = emptyCategoryCounts();
+        long creadas = 0;
+        long activas = 0;
+        for (Object[] row : votacionRepository.countByCreadorGroupedByCategoriaAndEstado(userId)) {
+            long count = ((Number) row[2]).longValue();
+            if (row[0] != null) {
+                porCategoria.merge(((VotacionCategoria) row[0]).name(), count, Long::sum);
+            }
+            if (row[1] == VotacionEstado.ABIERTA) {
+                activas += count;
+            }
+            creadas += count;
+        }
+
+        summary.setVotacionesCreadas(creadas);
+        summary.setVotacionesActivasCreadas(activas);
+        summary.setVotacionesPorCategoriaJson(toJson(porCategoria));
+        summary.setVotacionesAnio(hoy.getYear());
+        summary.setVotacionesEsteAnio(votacionRepository.countByCreadorIdThisYear(userId));
+        summary.setVotacionesMes(UserActivitySummary.mesDe(hoy));
+        summary.setVotacionesEsteMes(votacionRepository.countByCreadorIdAndCreatedAtAfter(userId,
+                hoy.withDayOfMonth(1).atStartOfDay().minusNanos(1)));
+
+        List<Object[]> ultima = votacionRepository.findRecentSummariesByCreador(userId, PageRequest.of(0, 1));
+        if (!ultima.isEmpty()) {
+            summary.setUltimaVotacionTitulo((String) ultima.get(0)[1]);
+            summary.setUltimaVotacionCreadaEn((LocalDateTime) ultima.get(0)[4]);
+        }
+    }
+
+    private String toJson(Map<String, Long> value) {
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize activity summary", e);
+        }
+    }
+
+    private static Map<String, Long> emptyCategoryCounts() {
+        Map<String, Long> counts = new LinkedHashMap<>();
+        for (VotacionCategoria categoria : VotacionCategoria.values()) {
+            counts.put(categoria.name(), 0L);
+        }
+        return counts;
+    }
+}
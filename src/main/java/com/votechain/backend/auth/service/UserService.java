@@ -3,9 +3,11 @@ package com.votechain.backend.auth.service;
 import com.votechain.backend.auth.dto.UserDto;
 import com.votechain.backend.auth.dto.UserUpdateRequest;
 import com.votechain.backend.auth.model.User;
+import com.votechain.backend.auth.model.UserActivitySummary;
 import com.votechain.backend.auth.repository.UserRepository;
 import com.votechain.backend.common.logging.SystemLogService;
-import com.votechain.backend.vote.repository.VoteRepository;
+import com.votechain.backend.common.pagination.Cursor;
+import com.votechain.backend.common.pagination.CursorPage;
 import com.votechain.backend.voting.repository.VotacionRepository;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.extern.slf4j.Slf4j;
@@ -18,9 +20,12 @@ import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.stream.Collectors;
 
 @Service
 @Slf4j
@@ -33,7 +38,7 @@ public class UserService {
     private VotacionRepository votacionRepository;
 
     @Autowired
-    private VoteRepository voteRepository;
+    private UserActivitySummaryService userActivitySummaryService;
 
     @Autowired
     private PasswordEncoder passwordEncoder;
@@ -51,8 +56,9 @@ public class UserService {
                 .orElseThrow(() -> new EntityNotFoundException("User not found with id: " + userId));
 
         // Get statistics
-        long totalVotacionesCreadas = votacionRepository.countByCreadorId(userId);
-        long totalVotosEmitidos = voteRepository.countByUserId(userId);
+        UserActivitySummary summary = userActivitySummaryService.get(userId);
+        long totalVotacionesCreadas = summary.getVotacionesCreadas();
+        long totalVotosEmitidos = summary.getVotosRealizados();
         long totalVotacionesDisponibles = votacionRepository.count();
 
         double participacionPorcentaje = totalVotacionesDisponibles > 0
@@ -84,7 +90,7 @@ public class UserService {
         }
 
         // Get only public statistics
-        long totalVotacionesCreadas = votacionRepository.countByCreadorId(userId);
+        long totalVotacionesCreadas = userActivitySummaryService.get(userId).getVotacionesCreadas();
 
         UserDto userDto = convertToDto(user);
         userDto.setTotalVotacionesCreadas(totalVotacionesCreadas);
@@ -158,6 +164,24 @@ public class UserService {
         return users.map(this::convertToDto);
     }
 
+    /**
+     * Users by cursor, newest first (admin only): no OFFSET and no COUNT unless includeTotal is set
+     */
+    public CursorPage<UserDto> getAllUsersByCursor(String cursorToken, int size, String search, boolean includeTotal) {
+        Cursor cursor = Cursor.decode(cursorToken);
+        int pageSize = Cursor.pageSize(size);
+        Pageable limit = PageRequest.of(0, pageSize + 1);
+        String searchTerm = search != null && !search.trim().isEmpty() ? search.trim() : null;
+
+        List<User> rows = cursor == null
+                ? userRepository.findFirstKeysetPage(searchTerm, limit)
+                : userRepository.findKeysetPageAfter(searchTerm, cursor.getCreatedAt(), cursor.getId(), limit);
+        Long total = includeTotal ? userRepository.countBySearchTerm(searchTerm) : null;
+
+        return CursorPage.of(rows, pageSize, user -> new Cursor(user.getCreatedAt(), user.getId()),
+                page -> page.stream().map(this::convertToDto).collect(Collectors.toList()), total);
+    }
+
     /**
      * Change user password
      */
@@ -195,15 +219,15 @@ public class UserService {
     public Map<String, Object> getUserStatistics(Long userId) {
         log.info("📊 Obteniendo estadísticas del usuario {}", userId);
 
-        if (!userRepository.existsById(userId)) {
-            throw new EntityNotFoundException("User not found with id: " + userId);
-        }
+        // Lanza EntityNotFoundException si el usuario no existe
+        UserActivitySummary summary = userActivitySummaryService.get(userId);
+        LocalDate today = LocalDate.now();
 
         Map<String, Object> statistics = new HashMap<>();
 
         // Voting statistics
-        long totalVotacionesCreadas = votacionRepository.countByCreadorId(userId);
-        long totalVotosEmitidos = voteRepository.countByUserId(userId);
+        long totalVotacionesCreadas = summary.getVotacionesCreadas();
+        long totalVotosEmitidos = summary.getVotosRealizados();
         long totalVotacionesDisponibles = votacionRepository.count();
 
         // Participation percentage
@@ -211,12 +235,9 @@ public class UserService {
             ? (totalVotosEmitidos * 100.0 / totalVotacionesDisponibles)
             : 0.0;
 
-        // Recent activity
-        long votosUltimoMes = voteRepository.countByUserIdAndCreatedAtAfter(
-                userId, LocalDateTime.now().minusMonths(1));
-
-        long votacionesCreadasUltimoMes = votacionRepository.countByCreadorIdAndCreatedAtAfter(
-                userId, LocalDateTime.now().minusMonths(1));
+        // Recent activity (mes en curso)
+        long votosUltimoMes = summary.votosDelMes(today);
+        long votacionesCreadasUltimoMes = summary.votacionesDelMes(today);
 
         statistics.put("totalVotacionesCreadas", totalVotacionesCreadas);
         statistics.put("totalVotosEmitidos", totalVotosEmitidos);
@@ -0,0 +1,143 @@
+package com.votechain.backend.blockchain.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Pools acotados para el trabajo con la blockchain, uno por tipo de carga para que un nodo RPC lento
+ * no acumule trabajo sin límite ni frene al resto:
+ * - writes: completar transacciones enviadas (hash, receipt, post-proceso); si se llena, ejecuta quien encola
+ * - reads: consultas al contrato; si se llena, rechaza
+ * - verification: verificación de votos contra receipts y bloques; si se llena, rechaza
+ * Métricas votechain.blockchain.executor.* con la etiqueta name (cola, hilos activos, latencia de tareas y rechazos)
+ */
+@Component
+@Slf4j
+public class BlockchainExecutors {
+
+    private final Map<String, ThreadPoolExecutor> pools = new LinkedHashMap<>();
+    private final ExecutorService writes;
+    private final ExecutorService reads;
+    private final ExecutorService verification;
+    private final long shutdownTimeoutMs;
+
+    public BlockchainExecutors(MeterRegistry meterRegistry,
+                               @Value("${blockchain.executor.write.threads:8}") int writeThreads,
+                               @Value("${blockchain.executor.write.queue-capacity:1000}") int writeQueueCapacity,
+                               @Value("${blockchain.executor.read.threads:4}") int readThreads,
+                               @Value("${blockchain.executor.read.queue-capacity:200}") int readQueueCapacity,
+                               @Value("${blockchain.executor.verification.threads:4}") int verificationThreads,
+                               @Value("${blockchain.executor.verification.queue-capacity:200}") int verificationQueueCapacity,
+                               @Value("${blockchain.executor.shutdown-timeout-ms:30000}") long shutdownTimeoutMs) {
+        this.shutdownTimeoutMs = shutdownTimeoutMs;
+
+        // Los resultados de transacciones ya enviadas no se pueden perder: con la cola llena se ejecutan en el hilo que encola
+        this.writes = createPool("write", writeThreads, writeQueueCapacity,
+                new ThreadPoolExecutor.CallerRunsPolicy(), meterRegistry);
+        this.reads = createPool("read", readThreads, readQueueCapacity,
+                new ThreadPoolExecutor.AbortPolicy(), meterRegistry);
+        this.verification = createPool("verification", verificationThreads, verificationQueueCapacity,
+                new ThreadPoolExecutor.AbortPolicy(), meterRegistry);
+    }
+
+    public ExecutorService writes() {
+        return writes;
+    }
+
+    public ExecutorService reads() {
+        return reads;
+    }
+
+    public ExecutorService verification() {
+        return verification;
+    }
+
+    /**
+     * Estado de cada pool para endpoints de diagnóstico
+     */
+    public Map<String, Map<String, Object>> getStatus() {
+        Map<String, Map<String, Object>> status = new LinkedHashMap<>();
+        pools.forEach((name, pool) -> status.put(name, describe(pool)));
+        return status;
+    }
+
+    /**
+     * Deja de aceptar trabajo y espera a que terminen las tareas en curso y encoladas antes de cortar
+     */
+    @PreDestroy
+    public void shutdown() {
+        pools.values().forEach(ThreadPoolExecutor::shutdown);
+
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(shutdownTimeoutMs);
+        for (Map.Entry<String, ThreadPoolExecutor> entry : pools.entrySet()) {
+            ThreadPoolExecutor pool = entry.getValue();
+            try {
+                long remaining = Math.max(0, deadline - System.nanoTime());
+                if (!pool.awaitTermination(remaining, TimeUnit.NANOSECONDS)) {
+                    int dropped = pool.shutdownNow().size();
+                    log.warn("⚠️ Pool blockchain-{} no terminó en {} ms; {} tareas descartadas",
+                            entry.getKey(), shutdownTimeoutMs, dropped);
+                }
+            } catch (InterruptedException e) {
+                pool.shutdownNow();
+                Thread.currentThread().interrupt();
+            }
+        }
+        log.info("Executors de blockchain detenidos");
+    }
+
+    private ExecutorService createPool(String name, int threads, int queueCapacity,
+                                       RejectedExecutionHandler policy, MeterRegistry meterRegistry) {
+        Counter rejected = Counter.builder("votechain.blockchain.executor.rejected")
+                .description("Tasks rejected because the pool queue was full")
+                .tag("name", name)
+                .register(meterRegistry);
+
+        AtomicInteger counter = new AtomicInteger();
+        ThreadPoolExecutor pool = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "blockchain-" + name + "-" + counter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                (task, executor) -> {
+                    rejected.increment();
+                    if (!executor.isShutdown()) {
+                        log.warn("⚠️ Pool blockchain-{} saturado ({} en cola)", name, executor.getQueue().size());
+                    }
+                    policy.rejectedExecution(task, executor);
+                });
+        pool.allowCoreThreadTimeOut(true);
+        pools.put(name, pool);
+
+        // executor.queued, executor.active, executor.pool.size, executor (duración) y executor.idle (espera en cola)
+        return ExecutorServiceMetrics.monitor(meterRegistry, pool, name, "votechain.blockchain", Tags.empty());
+    }
+
+    private static Map<String, Object> describe(ThreadPoolExecutor pool) {
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("poolSize", pool.getPoolSize());
+        status.put("maxPoolSize", pool.getMaximumPoolSize());
+        status.put("active", pool.getActiveCount());
+        status.put("queued", pool.getQueue().size());
+        status.put("queueRemaining", pool.getQueue().remainingCapacity());
+        status.put("completed", pool.getCompletedTaskCount());
+        return status;
+    }
+}
@@ -1,5 +1,15 @@
 package com.votechain.backend.blockchain.config;
 
+import com.votechain.backend.blockchain.transaction.NonceManagedTransactionSubmitter;
+import com.votechain.backend.blockchain.transaction.NonceManagerSettings;
+import com.votechain.backend.blockchain.transaction.SignerWalletPool;
+import com.votechain.backend.blockchain.transaction.TransactionReceiptTracker;
+import com.votechain.backend.blockchain.transaction.WalletRoutingStrategy;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import lombok.extern.slf4j.Slf4j;
 import okhttp3.OkHttpClient;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
@@ -11,12 +21,24 @@ import org.web3j.tx.gas.ContractGasProvider;
 import org.web3j.tx.gas.StaticGasProvider;
 
 import java.math.BigInteger;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Configuración de Web3j para interacciones con la blockchain Ethereum
  */
 @Configuration
+@Slf4j
 public class Web3jConfig {
 
     @Value("${blockchain.provider.url}")
@@ -25,6 +47,24 @@ public class Web3jConfig {
     @Value("${blockchain.wallet.private-key}")
     private String privateKey;
 
+    @Value("${blockchain.wallet.private-keys:}")
+    private String privateKeys;
+
+    @Value("${blockchain.wallet.routing:least-pending}")
+    private String walletRouting;
+
+    @Value("${blockchain.wallet.min-balance-wei:10000000000000000}")
+    private BigInteger minBalanceWei;
+
+    @Value("${blockchain.wallet.max-consecutive-failures:3}")
+    private Integer maxConsecutiveFailures;
+
+    @Value("${blockchain.wallet.reenable-backoff-ms:60000}")
+    private Long reenableBackoffMs;
+
+    @Value("${blockchain.wallet.reenable-max-backoff-ms:1800000}")
+    private Long reenableMaxBackoffMs;
+
     @Value("${blockchain.contract.address}")
     private String contractAddress;
 
@@ -37,6 +77,39 @@ public class Web3jConfig {
     @Value("${blockchain.connection.timeout:10000}")
     private Long connectionTimeout;
 
+    @Value("${blockchain.chain-id:0}")
+    private Long chainId;
+
+    @Value("${blockchain.nonce.stuck-after-ms:60000}")
+    private Long stuckAfterMs;
+
+    @Value("${blockchain.nonce.receipt-timeout-ms:600000}")
+    private Long receiptTimeoutMs;
+
+    @Value("${blockchain.nonce.gas-bump-percent:15}")
+    private Integer gasBumpPercent;
+
+    @Value("${blockchain.nonce.max-replacements:5}")
+    private Integer maxReplacements;
+
+    @Value("${blockchain.nonce.max-gas-price:200000000000}")
+    private BigInteger maxGasPrice;
+
+    @Value("${blockchain.receipt.batch-size:100}")
+    private Integer receiptBatchSize;
+
+    @Value("${blockchain.executor.signing.threads:4}")
+    private int signingThreads;
+
+    @Value("${blockchain.executor.signing.queue-capacity:1000}")
+    private int signingQueueCapacity;
+
+    @Value("${blockchain.executor.sender.queue-capacity:1000}")
+    private int sendQueueCapacity;
+
+    @Value("${blockchain.executor.shutdown-timeout-ms:30000}")
+    private long shutdownTimeoutMs;
+
     /**
      * Configura la instancia de Web3j para conectarse al nodo Ethereum
      */
@@ -73,4 +146,113 @@ public class Web3jConfig {
             BigInteger.valueOf(gasLimit)
         );
     }
+
+    /**
+     * Seguimiento compartido de receipts: un único sondeo por lotes para todas las wallets
+     */
+    @Bean
+    public TransactionReceiptTracker transactionReceiptTracker(Web3j web3j, MeterRegistry meterRegistry) {
+        TransactionReceiptTracker tracker = new TransactionReceiptTracker(web3j, receiptBatchSize);
+        meterRegistry.gauge("votechain.blockchain.receipts.pending", tracker, TransactionReceiptTracker::getTrackedCount);
+        return tracker;
+    }
+
+    /**
+     * Configura el pool de wallets firmantes; cada wallet gestiona su propia secuencia de nonces
+     */
+    @Bean(destroyMethod = "shutdown")
+    public SignerWalletPool signerWalletPool(Web3j web3j, Credentials credentials, MeterRegistry meterRegistry,
+                                             TransactionReceiptTracker receiptTracker) {
+        long resolvedChainId = resolveChainId(web3j);
+        ExecutorService signingExecutor = createSigningExecutor(meterRegistry);
+        NonceManagerSettings settings = nonceManagerSettings();
+
+        List<NonceManagedTransactionSubmitter> submitters = new ArrayList<>();
+        for (Credentials wallet : signerCredentials(credentials)) {
+            submitters.add(new NonceManagedTransactionSubmitter(web3j, wallet, resolvedChainId, signingExecutor, settings, receiptTracker));
+        }
+
+        return new SignerWalletPool(
+            web3j,
+            submitters,
+            signingExecutor,
+            WalletRoutingStrategy.valueOf(walletRouting.trim().toUpperCase(Locale.ROOT).replace('-', '_')),
+            minBalanceWei,
+            maxConsecutiveFailures,
+            Duration.ofMillis(reenableBackoffMs),
+            Duration.ofMillis(reenableMaxBackoffMs),
+            Duration.ofMillis(shutdownTimeoutMs),
+            meterRegistry
+        );
+    }
+
+    /**
+     * Wallet principal más las de blockchain.wallet.private-keys, sin duplicados
+     */
+    private List<Credentials> signerCredentials(Credentials primary) {
+        Map<String, Credentials> byAddress = new LinkedHashMap<>();
+        byAddress.put(primary.getAddress(), primary);
+        for (String key : privateKeys.split(",")) {
+            if (!key.isBlank()) {
+                Credentials wallet = Credentials.create(key.trim());
+                byAddress.putIfAbsent(wallet.getAddress(), wallet);
+            }
+        }
+        return new ArrayList<>(byAddress.values());
+    }
+
+    private NonceManagerSettings nonceManagerSettings() {
+        return NonceManagerSettings.builder()
+            .stuckAfter(Duration.ofMillis(stuckAfterMs))
+            .receiptTimeout(Duration.ofMillis(receiptTimeoutMs))
+            .gasBumpPercent(gasBumpPercent)
+            .maxReplacements(maxReplacements)
+            .maxGasPrice(maxGasPrice)
+            .sendQueueCapacity(sendQueueCapacity)
+            .build();
+    }
+
+    /**
+     * Pool de CPU para firmar transacciones en paralelo, con cola acotada: si se llena, la transacción falla y el
+     * gestor de nonces cierra el hueco. Lo apaga SignerWalletPool, que espera a las firmas en curso
+     */
+    private ExecutorService createSigningExecutor(MeterRegistry meterRegistry) {
+        Counter rejected = Counter.builder("votechain.blockchain.executor.rejected")
+            .description("Tasks rejected because the pool queue was full")
+            .tag("name", "tx-signer")
+            .register(meterRegistry);
+
+        AtomicInteger counter = new AtomicInteger();
+        ThreadPoolExecutor pool = new ThreadPoolExecutor(signingThreads, signingThreads, 60, TimeUnit.SECONDS,
+            new ArrayBlockingQueue<>(signingQueueCapacity),
+            runnable -> {
+                Thread thread = new Thread(runnable, "tx-signer-" + counter.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            },
+            (task, executor) -> {
+                rejected.increment();
+                if (!executor.isShutdown()) {
+                    log.warn("⚠️ Pool tx-signer saturado ({} en cola)", executor.getQueue().size());
+                }
+                throw new RejectedExecutionException("Signing pool queue full");
+            });
+        pool.allowCoreThreadTimeOut(true);
+        return ExecutorServiceMetrics.monitor(meterRegistry, pool, "tx-signer", "votechain.blockchain", Tags.empty());
+    }
+
+    /**
+     * Chain id para firmas EIP-155: el configurado o, si es 0, el que informa el nodo
+     */
+    private long resolveChainId(Web3j web3j) {
+        if (chainId != null && chainId > 0) {
+            return chainId;
+        }
+        try {
+            return web3j.ethChainId().send().getChainId().longValue();
+        } catch (Exception e) {
+            log.warn("No se pudo obtener el chain id del nodo, firmando sin EIP-155: {}", e.getMessage());
+            return -1;
+        }
+    }
 }
@@ -10,6 +10,7 @@ import org.web3j.abi.datatypes.Bool;
 import org.web3j.abi.datatypes.Event;
 import org.web3j.abi.datatypes.Type;
 import org.web3j.abi.datatypes.Utf8String;
+import org.web3j.abi.datatypes.generated.Bytes32;
 import org.web3j.abi.datatypes.generated.Uint256;
 import org.web3j.crypto.Credentials;
 import org.web3j.protocol.Web3j;
@@ -49,6 +50,8 @@ public class VoteChainContract extends Contract {
     public static final String FUNC_GET_OPTION_VOTE_COUNT = "getOptionVoteCount";
     public static final String FUNC_IS_VOTING_TIME_ENDED = "isVotingTimeEnded";
     public static final String FUNC_CLOSE_EXPIRED_VOTINGS = "closeExpiredVotings";
+    public static final String FUNC_ANCHOR_VOTE_BATCH = "anchorVoteBatch";
+    public static final String FUNC_IS_BATCH_ANCHORED = "isBatchAnchored";
 
     public static final Event VOTING_CREATED_EVENT = new Event("VotingCreated",
             Arrays.asList(new TypeReference<Uint256>(true) {},
@@ -98,24 +101,56 @@ public class VoteChainContract extends Contract {
     }
 
     public RemoteFunctionCall<TransactionReceipt> createVoting(String title, BigInteger startTime, BigInteger endTime) {
-        final org.web3j.abi.datatypes.Function function = new org.web3j.abi.datatypes.Function(
+        return executeRemoteCallTransaction(createVotingFunction(title, startTime, endTime));
+    }
+
+    public RemoteFunctionCall<TransactionReceipt> castVote(BigInteger votingId, BigInteger userId, BigInteger optionId, String voteHash) {
+        return executeRemoteCallTransaction(castVoteFunction(votingId, userId, optionId, voteHash));
+    }
+
+    /**
+     * ABI function for createVoting, for callers that sign and submit raw transactions themselves
+     */
+    public static org.web3j.abi.datatypes.Function createVotingFunction(String title, BigInteger startTime, BigInteger endTime) {
+        return new org.web3j.abi.datatypes.Function(
                 FUNC_CREATE_VOTING,
                 Arrays.asList(new Utf8String(title),
                         new Uint256(startTime),
                         new Uint256(endTime)),
                 Collections.emptyList());
-        return executeRemoteCallTransaction(function);
     }
 
-    public RemoteFunctionCall<TransactionReceipt> castVote(BigInteger votingId, BigInteger userId, BigInteger optionId, String voteHash) {
-        final org.web3j.abi.datatypes.Function function = new org.web3j.abi.datatypes.Function(
+    /**
+     * ABI function for castVote, for callers that sign and submit raw transactions themselves
+     */
+    public static org.web3j.abi.datatypes.Function castVoteFunction(BigInteger votingId, BigInteger userId, BigInteger optionId, String voteHash) {
+        return new org.web3j.abi.datatypes.Function(
                 FUNC_CAST_VOTE,
                 Arrays.asList(new Uint256(votingId),
                         new Uint256(userId),
                         new Uint256(optionId),
                         new Utf8String(voteHash)),
                 Collections.emptyList());
-        return executeRemoteCallTransaction(function);
+    }
+
+    /**
+     * ABI function for anchorVoteBatch (Merkle root of a batch of vote hashes)
+     */
+    public static org.web3j.abi.datatypes.Function anchorVoteBatchFunction(BigInteger votingId, byte[] merkleRoot, BigInteger leafCount) {
+        return new org.web3j.abi.datatypes.Function(
+                FUNC_ANCHOR_VOTE_BATCH,
+                Arrays.asList(new Uint256(votingId),
+                        new Bytes32(merkleRoot),
+                        new Uint256(leafCount)),
+                Collections.emptyList());
+    }
+
+    public RemoteFunctionCall<Boolean> isBatchAnchored(byte[] merkleRoot) {
+        final org.web3j.abi.datatypes.Function function = new org.web3j.abi.datatypes.Function(
+                FUNC_IS_BATCH_ANCHORED,
+                Collections.singletonList(new Bytes32(merkleRoot)),
+                Collections.singletonList(new TypeReference<Bool>() {}));
+        return executeRemoteCallSingleValueReturn(function, Boolean.class);
     }
 
     public RemoteFunctionCall<List<Type>> verifyVote(String voteHash) {
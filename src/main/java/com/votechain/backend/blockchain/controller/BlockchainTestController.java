@@ -21,7 +21,6 @@ import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Optional;
-import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeUnit;
 
 /**
@@ -56,8 +55,10 @@ public class BlockchainTestController {
             Vote vote = voteService.createVote(votacionId, userId, opcionId);
 
             // Registrar en blockchain
-            CompletableFuture<String> future = blockchainService.registerVote(vote);
-            String transactionHash = future.get(30, TimeUnit.SECONDS);
+            String transactionHash = blockchainService.registerVote(vote)
+                .getConfirmation()
+                .get(30, TimeUnit.SECONDS)
+                .getTransactionHash();
 
             // Verificar el voto
             BlockchainVerificationResult result = blockchainService.verifyVote(transactionHash);
@@ -84,6 +85,7 @@ public class BlockchainTestController {
             status.put("contractLoaded", blockchainService.isContractLoaded());
             status.put("contractAddress", blockchainService.getContractAddress());
             status.put("walletAddress", blockchainService.getWalletAddress());
+            status.put("signerWallets", blockchainService.getSignerWallets());
             status.put("networkVersion", blockchainService.getNetworkVersion());
             status.put("gasPrice", blockchainService.getCurrentGasPrice());
 
@@ -131,7 +133,7 @@ public class BlockchainTestController {
                     savedVotacion.getTitulo(),
                     savedVotacion.getFechaInicio(),
                     savedVotacion.getFechaFin()
-                ).get(30, TimeUnit.SECONDS);
+                ).getConfirmation().get(30, TimeUnit.SECONDS);
 
                 txHashVotacion = result.getTransactionHash();
                 blockchainVotingId = result.getBlockchainVotingId();
@@ -207,8 +209,10 @@ public class BlockchainTestController {
 
             // Registrar en blockchain usando el ID correcto
             log.info("Registrando voto en blockchain con ID de votación correcto: {}", blockchainVotingId);
-            CompletableFuture<String> future = blockchainService.registerVote(blockchainVote);
-            String transactionHash = future.get(30, TimeUnit.SECONDS);
+            String transactionHash = blockchainService.registerVote(blockchainVote)
+                .getConfirmation()
+                .get(30, TimeUnit.SECONDS)
+                .getTransactionHash();
             log.info("✅ Voto registrado en blockchain con hash: {}", transactionHash);
 
             // Actualizar el voto original en la base de datos con la información de blockchain
@@ -0,0 +1,115 @@
+package com.votechain.backend.blockchain.merkle;
+
+import org.web3j.crypto.Hash;
+import org.web3j.utils.Numeric;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Árbol Merkle (keccak256) sobre los voteHash de un lote; hojas y nodos llevan prefijos distintos
+ * y un nodo sin pareja se combina consigo mismo
+ */
+public final class MerkleTree {
+
+    private static final byte LEAF_PREFIX = 0x00;
+    private static final byte NODE_PREFIX = 0x01;
+
+    // levels.get(0) son las hojas; el último nivel contiene solo la raíz
+    private final List<byte[][]> levels;
+
+    private MerkleTree(List<byte[][]> levels) {
+        this.levels = levels;
+    }
+
+    /**
+     * Construye el árbol con las hojas en el orden recibido (el índice de hoja es la posición en la lista)
+     */
+    public static MerkleTree fromVoteHashes(List<String> voteHashes) {
+        if (voteHashes == null || voteHashes.isEmpty()) {
+            throw new IllegalArgumentException("A Merkle tree needs at least one leaf");
+        }
+
+        byte[][] leaves = new byte[voteHashes.size()][];
+        for (int i = 0; i < leaves.length; i++) {
+            leaves[i] = leafHash(voteHashes.get(i));
+        }
+
+        List<byte[][]> levels = new ArrayList<>();
+        levels.add(leaves);
+        byte[][] current = leaves;
+        while (current.length > 1) {
+            byte[][] parent = new byte[(current.length + 1) / 2][];
+            for (int i = 0; i < parent.length; i++) {
+                byte[] left = current[2 * i];
+                byte[] right = 2 * i + 1 < current.length ? current[2 * i + 1] : left;
+                parent[i] = nodeHash(left, right);
+            }
+            levels.add(parent);
+            current = parent;
+        }
+        return new MerkleTree(levels);
+    }
+
+    public byte[] getRoot() {
+        return levels.get(levels.size() - 1)[0].clone();
+    }
+
+    public String getRootHex() {
+        return Numeric.toHexString(levels.get(levels.size() - 1)[0]);
+    }
+
+    public int getLeafCount() {
+        return levels.get(0).length;
+    }
+
+    /**
+     * Hermanos de la hoja desde abajo hacia la raíz, en hexadecimal
+     */
+    public List<String> getProof(int leafIndex) {
+        if (leafIndex < 0 || leafIndex >= getLeafCount()) {
+            throw new IndexOutOfBoundsException("Leaf index " + leafIndex + " out of range for " + getLeafCount() + " leaves");
+        }
+
+        List<String> proof = new ArrayList<>(levels.size() - 1);
+        int index = leafIndex;
+        for (int level = 0; level < levels.size() - 1; level++) {
+            byte[][] nodes = levels.get(level);
+            int sibling = index ^ 1;
+            proof.add(Numeric.toHexString(sibling < nodes.length ? nodes[sibling] : nodes[index]));
+            index /= 2;
+        }
+        return proof;
+    }
+
+    /**
+     * Comprueba que el voteHash está en la posición indicada del árbol con la raíz dada
+     */
+    public static boolean verify(String voteHash, int leafIndex, List<String> proof, String rootHex) {
+        byte[] computed = leafHash(voteHash);
+        int index = leafIndex;
+        for (String siblingHex : proof) {
+            byte[] sibling = Numeric.hexStringToByteArray(siblingHex);
+            computed = (index & 1) == 0 ? nodeHash(computed, sibling) : nodeHash(sibling, computed);
+            index /= 2;
+        }
+        return Numeric.toHexString(computed).equalsIgnoreCase(rootHex);
+    }
+
+    private static byte[] leafHash(String voteHash) {
+        byte[] data = voteHash.getBytes(StandardCharsets.UTF_8);
+        byte[] input = new byte[data.length + 1];
+        input[0] = LEAF_PREFIX;
+        System.arraycopy(data, 0, input, 1, data.length);
+        return Hash.sha3(input);
+    }
+
+    private static byte[] nodeHash(byte[] left, byte[] right) {
+        byte[] input = new byte[left.length + right.length + 1];
+        input[0] = NODE_PREFIX;
+        System.arraycopy(left, 0, input, 1, left.length);
+        System.arraycopy(right, 0, input, 1 + left.length, right.length);
+        return Hash.sha3(input);
+    }
+}
@@ -0,0 +1,8 @@
+package com.votechain.backend.blockchain.model;
+
+public enum AnchorBatchStatus {
+    PENDING,         // Merkle tree built, root waiting to be anchored
+    SUBMITTED,       // Root transaction sent, waiting for its receipt
+    ANCHORED,        // Root confirmed on the blockchain
+    FAILED           // Gave up after the maximum number of attempts
+}
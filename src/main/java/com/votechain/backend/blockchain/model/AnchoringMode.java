@@ -0,0 +1,6 @@
+package com.votechain.backend.blockchain.model;
+
+public enum AnchoringMode {
+    PER_VOTE,        // One castVote transaction per ballot
+    MERKLE_BATCH     // Votes are grouped per votación and only the Merkle root is anchored
+}
@@ -0,0 +1,62 @@
+package com.votechain.backend.blockchain.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.time.LocalDateTime;
+
+/**
+ * Pending blockchain registration, written in the same transaction as the vote
+ */
+@Entity
+@Table(name = "blockchain_outbox", indexes = {
+        @Index(name = "idx_outbox_status_next_attempt", columnList = "status, next_attempt_at"),
+        @Index(name = "idx_outbox_vote", columnList = "vote_id"),
+        @Index(name = "idx_outbox_votacion_status", columnList = "votacion_id, status")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BlockchainOutboxEntry {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "vote_id", nullable = false)
+    private Long voteId;
+
+    @Column(name = "votacion_id", nullable = false)
+    private Long votacionId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private OutboxStatus status;
+
+    @Builder.Default
+    private int attempts = 0;
+
+    @Column(name = "next_attempt_at", nullable = false)
+    private LocalDateTime nextAttemptAt;
+
+    @Column(length = 1000)
+    private String lastError;
+
+    // Hash del último envío aceptado por el nodo; un reintento lo consulta antes de reenviar
+    @Column(name = "transaction_hash")
+    private String transactionHash;
+
+    // Lote Merkle que recogió la entrada (modo MERKLE_BATCH)
+    @Column(name = "anchor_batch_id")
+    private Long anchorBatchId;
+
+    @CreationTimestamp
+    private LocalDateTime createdAt;
+
+    @UpdateTimestamp
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,8 @@
+package com.votechain.backend.blockchain.model;
+
+public enum OutboxStatus {
+    PENDING,         // Waiting to be submitted (or re-submitted after a backoff)
+    IN_FLIGHT,       // Claimed by a dispatcher and being submitted to the blockchain
+    COMPLETED,       // Registered on the blockchain
+    FAILED           // Gave up after the maximum number of attempts
+}
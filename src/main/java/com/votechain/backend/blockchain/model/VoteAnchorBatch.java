@@ -0,0 +1,60 @@
+package com.votechain.backend.blockchain.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.time.LocalDateTime;
+
+/**
+ * Lote de votos de una votación anclado en blockchain mediante la raíz de su árbol Merkle
+ */
+@Entity
+@Table(name = "vote_anchor_batches", indexes = {
+        @Index(name = "idx_anchor_batch_status_next_attempt", columnList = "status, next_attempt_at"),
+        @Index(name = "idx_anchor_batch_votacion", columnList = "votacion_id")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class VoteAnchorBatch {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "votacion_id", nullable = false)
+    private Long votacionId;
+
+    // Raíz Merkle en hexadecimal (0x + 64 caracteres)
+    @Column(unique = true, length = 66)
+    private String merkleRoot;
+
+    private int leafCount;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private AnchorBatchStatus status;
+
+    private String transactionHash;
+
+    @Builder.Default
+    private int attempts = 0;
+
+    @Column(name = "next_attempt_at", nullable = false)
+    private LocalDateTime nextAttemptAt;
+
+    @Column(length = 1000)
+    private String lastError;
+
+    @CreationTimestamp
+    private LocalDateTime createdAt;
+
+    @UpdateTimestamp
+    private LocalDateTime updatedAt;
+
+    private LocalDateTime anchoredAt;
+}
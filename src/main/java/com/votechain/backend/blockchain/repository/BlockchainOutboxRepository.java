@@ -0,0 +1,61 @@
+package com.votechain.backend.blockchain.repository;
+
+import com.votechain.backend.blockchain.model.BlockchainOutboxEntry;
+import com.votechain.backend.blockchain.model.OutboxStatus;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface BlockchainOutboxRepository extends JpaRepository<BlockchainOutboxEntry, Long> {
+
+    @Query("SELECT e FROM BlockchainOutboxEntry e WHERE e.status = :status AND e.nextAttemptAt <= :now ORDER BY e.nextAttemptAt ASC")
+    List<BlockchainOutboxEntry> findDue(@Param("status") OutboxStatus status,
+                                        @Param("now") LocalDateTime now,
+                                        Pageable pageable);
+
+    long countByStatus(OutboxStatus status);
+
+    // Claim atómico: solo un dispatcher (o nodo) puede pasar la entrada de PENDING a IN_FLIGHT
+    @Modifying
+    @Query("UPDATE BlockchainOutboxEntry e SET e.status = :to, e.updatedAt = :now WHERE e.id = :id AND e.status = :from")
+    int transition(@Param("id") Long id,
+                   @Param("from") OutboxStatus from,
+                   @Param("to") OutboxStatus to,
+                   @Param("now") LocalDateTime now);
+
+    // Devuelve a PENDING las entradas que quedaron IN_FLIGHT tras un reinicio o un nodo caído
+    @Modifying
+    @Query("UPDATE BlockchainOutboxEntry e SET e.status = :to, e.updatedAt = :now WHERE e.status = :from AND e.updatedAt < :staleBefore")
+    int releaseStale(@Param("from") OutboxStatus from,
+                     @Param("to") OutboxStatus to,
+                     @Param("staleBefore") LocalDateTime staleBefore,
+                     @Param("now") LocalDateTime now);
+
+    // Pendientes por votación: [votacionId, número de entradas, creación de la más antigua]
+    @Query("SELECT e.votacionId, COUNT(e), MIN(e.createdAt) FROM BlockchainOutboxEntry e WHERE e.status = :status GROUP BY e.votacionId")
+    List<Object[]> summarizeByVotacion(@Param("status") OutboxStatus status);
+
+    @Query("SELECT e.id FROM BlockchainOutboxEntry e WHERE e.votacionId = :votacionId AND e.status = :status ORDER BY e.id ASC")
+    List<Long> findIdsByVotacionAndStatus(@Param("votacionId") Long votacionId,
+                                          @Param("status") OutboxStatus status,
+                                          Pageable pageable);
+
+    // Asigna entradas a un lote Merkle; solo se llevan las que siguen en el estado esperado
+    @Modifying
+    @Query("UPDATE BlockchainOutboxEntry e SET e.status = :to, e.anchorBatchId = :batchId, e.updatedAt = :now WHERE e.id IN :ids AND e.status = :from")
+    int assignToBatch(@Param("ids") List<Long> ids,
+                      @Param("batchId") Long batchId,
+                      @Param("from") OutboxStatus from,
+                      @Param("to") OutboxStatus to,
+                      @Param("now") LocalDateTime now);
+
+    @Query("SELECT e.voteId FROM BlockchainOutboxEntry e WHERE e.anchorBatchId = :batchId ORDER BY e.voteId ASC")
+    List<Long> findVoteIdsByAnchorBatch(@Param("batchId") Long batchId);
+}
@@ -0,0 +1,36 @@
+package com.votechain.backend.blockchain.repository;
+
+import com.votechain.backend.blockchain.model.AnchorBatchStatus;
+import com.votechain.backend.blockchain.model.VoteAnchorBatch;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface VoteAnchorBatchRepository extends JpaRepository<VoteAnchorBatch, Long> {
+
+    @Query("SELECT b FROM VoteAnchorBatch b WHERE b.status = :status AND b.nextAttemptAt <= :now ORDER BY b.nextAttemptAt ASC")
+    List<VoteAnchorBatch> findDue(@Param("status") AnchorBatchStatus status,
+                                  @Param("now") LocalDateTime now,
+                                  Pageable pageable);
+
+    @Modifying
+    @Query("UPDATE VoteAnchorBatch b SET b.status = :to, b.updatedAt = :now WHERE b.id = :id AND b.status = :from")
+    int transition(@Param("id") Long id,
+                   @Param("from") AnchorBatchStatus from,
+                   @Param("to") AnchorBatchStatus to,
+                   @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("UPDATE VoteAnchorBatch b SET b.status = :to, b.updatedAt = :now WHERE b.status = :from AND b.updatedAt < :staleBefore")
+    int releaseStale(@Param("from") AnchorBatchStatus from,
+                     @Param("to") AnchorBatchStatus to,
+                     @Param("staleBefore") LocalDateTime staleBefore,
+                     @Param("now") LocalDateTime now);
+}
@@ -0,0 +1,304 @@
+package com.votechain.backend.blockchain.service;
+
+import com.votechain.backend.blockchain.model.AnchorBatchStatus;
+import com.votechain.backend.blockchain.model.AnchoringMode;
+import com.votechain.backend.blockchain.model.BlockchainOutboxEntry;
+import com.votechain.backend.blockchain.model.OutboxStatus;
+import com.votechain.backend.blockchain.model.VoteAnchorBatch;
+import com.votechain.backend.blockchain.repository.BlockchainOutboxRepository;
+import com.votechain.backend.blockchain.repository.VoteAnchorBatchRepository;
+import com.votechain.backend.blockchain.transaction.SubmittedTransaction;
+import com.votechain.backend.vote.model.Vote;
+import com.votechain.backend.vote.repository.VoteRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityNotFoundException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.web3j.protocol.core.methods.response.TransactionReceipt;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Drena el outbox de blockchain en segundo plano con concurrencia acotada
+ */
+@Component
+@Slf4j
+public class BlockchainOutboxDispatcher {
+
+    @Autowired
+    private BlockchainOutboxRepository outboxRepository;
+
+    @Autowired
+    private BlockchainOutboxService outboxService;
+
+    @Autowired
+    private BlockchainService blockchainService;
+
+    @Autowired
+    private VoteRepository voteRepository;
+
+    @Autowired
+    private MerkleBatchAnchorService merkleBatchAnchorService;
+
+    @Autowired
+    private VoteAnchorBatchRepository anchorBatchRepository;
+
+    @Value("${blockchain.outbox.max-concurrency:8}")
+    private int maxConcurrency;
+
+    @Value("${blockchain.outbox.batch-size:50}")
+    private int batchSize;
+
+    @Value("${blockchain.outbox.in-flight-timeout-ms:900000}")
+    private long inFlightTimeoutMs;
+
+    @Value("${blockchain.anchoring.batch.max-size:1000}")
+    private int anchorBatchMaxSize;
+
+    @Value("${blockchain.anchoring.batch.max-wait-ms:30000}")
+    private long anchorBatchMaxWaitMs;
+
+    private Semaphore inFlight;
+
+    @PostConstruct
+    public void init() {
+        this.inFlight = new Semaphore(maxConcurrency);
+    }
+
+    /**
+     * Al arrancar, recupera las entradas que quedaron a medias y reanuda el envío
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumeOnStartup() {
+        try {
+            int released = outboxService.releaseStale(LocalDateTime.now().minusNanos(inFlightTimeoutMs * 1_000_000L));
+            log.info("📤 Outbox de blockchain: {} registros pendientes, {} recuperados tras reinicio",
+                    outboxService.countPending(), released);
+        } catch (Exception e) {
+            log.error("Error recuperando el outbox de blockchain al arrancar: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Envía a la blockchain los registros vencidos, sin superar el máximo de envíos en curso
+     */
+    @Scheduled(fixedDelayString = "${blockchain.outbox.poll-interval-ms:1000}",
+            initialDelayString = "${blockchain.outbox.poll-interval-ms:1000}")
+    public void dispatch() {
+        if (!blockchainService.isContractLoaded()) {
+            return;
+        }
+        if (blockchainService.getAnchoringMode() == AnchoringMode.MERKLE_BATCH) {
+            dispatchBatches();
+            return;
+        }
+
+        int capacity = Math.min(inFlight.availablePermits(), batchSize);
+        if (capacity <= 0) {
+            return;
+        }
+
+        List<BlockchainOutboxEntry> due = outboxRepository.findDue(
+                OutboxStatus.PENDING, LocalDateTime.now(), PageRequest.of(0, capacity));
+
+        for (BlockchainOutboxEntry entry : due) {
+            if (!inFlight.tryAcquire()) {
+                break;
+            }
+            if (!outboxService.claim(entry.getId())) {
+                inFlight.release();
+                continue;
+            }
+            submit(entry);
+        }
+    }
+
+    /**
+     * Recupera periódicamente entradas IN_FLIGHT abandonadas por otro nodo
+     */
+    @Scheduled(fixedDelayString = "${blockchain.outbox.recovery-interval-ms:60000}")
+    public void recoverStaleEntries() {
+        int released = outboxService.releaseStale(LocalDateTime.now().minusNanos(inFlightTimeoutMs * 1_000_000L));
+        if (released > 0) {
+            log.warn("⚠️ Outbox de blockchain: {} entradas IN_FLIGHT caducadas devueltas a PENDING", released);
+        }
+        int releasedBatches = merkleBatchAnchorService.releaseStale(LocalDateTime.now().minusNanos(inFlightTimeoutMs * 1_000_000L));
+        if (releasedBatches > 0) {
+            log.warn("⚠️ {} lotes Merkle SUBMITTED caducados devueltos a PENDING", releasedBatches);
+        }
+    }
+
+    /**
+     * Modo por lotes: cierra lotes llenos o que esperaron demasiado y ancla sus raíces Merkle
+     */
+    private void dispatchBatches() {
+        LocalDateTime oldestAllowed = LocalDateTime.now().minusNanos(anchorBatchMaxWaitMs * 1_000_000L);
+        for (Object[] row : outboxRepository.summarizeByVotacion(OutboxStatus.PENDING)) {
+            Long votacionId = (Long) row[0];
+            long pendingCount = ((Number) row[1]).longValue();
+            LocalDateTime oldest = (LocalDateTime) row[2];
+
+            if (pendingCount >= anchorBatchMaxSize || (oldest != null && oldest.isBefore(oldestAllowed))) {
+                try {
+                    merkleBatchAnchorService.assembleBatch(votacionId, anchorBatchMaxSize);
+                } catch (Exception e) {
+                    log.error("Error cerrando lote Merkle de la votación {}: {}", votacionId, e.getMessage(), e);
+                }
+            }
+        }
+
+        int capacity = Math.min(inFlight.availablePermits(), batchSize);
+        if (capacity <= 0) {
+            return;
+        }
+
+        List<VoteAnchorBatch> due = anchorBatchRepository.findDue(
+                AnchorBatchStatus.PENDING, LocalDateTime.now(), PageRequest.of(0, capacity));
+
+        for (VoteAnchorBatch batch : due) {
+            if (!inFlight.tryAcquire()) {
+                break;
+            }
+            if (!merkleBatchAnchorService.claim(batch.getId())) {
+                inFlight.release();
+                continue;
+            }
+            submitBatch(batch);
+        }
+    }
+
+    private void submitBatch(VoteAnchorBatch batch) {
+        // Un reintento tras un timeout puede encontrarse la raíz ya anclada por el envío anterior
+        if (batch.getAttempts() > 0 && blockchainService.isBatchAnchored(batch.getMerkleRoot())) {
+            completeBatch(batch, null, null);
+            inFlight.release();
+            return;
+        }
+
+        SubmittedTransaction<TransactionReceipt> submitted;
+        try {
+            submitted = blockchainService.anchorVoteBatch(batch.getVotacionId(), batch.getMerkleRoot(), batch.getLeafCount());
+        } catch (Exception e) {
+            completeBatch(batch, null, e);
+            inFlight.release();
+            return;
+        }
+
+        // El permiso se libera al conocerse el hash; la confirmación la entrega después el tracker de receipts
+        submitted.getTransactionHash()
+                .handle((transactionHash, ex) -> {
+                    try {
+                        if (ex == null) {
+                            merkleBatchAnchorService.markSubmitted(batch.getId(), transactionHash);
+                        }
+                    } catch (Exception e) {
+                        log.error("Error guardando el hash del lote Merkle {}: {}", batch.getId(), e.getMessage(), e);
+                    } finally {
+                        inFlight.release();
+                    }
+                    return null;
+                })
+                .thenCompose(ignored -> submitted.getConfirmation())
+                .whenComplete((receipt, ex) -> completeBatch(batch, receipt, ex));
+    }
+
+    private void completeBatch(VoteAnchorBatch batch, TransactionReceipt receipt, Throwable error) {
+        try {
+            if (error == null) {
+                merkleBatchAnchorService.markAnchored(batch.getId(), receipt != null ? receipt.getTransactionHash() : null);
+            } else {
+                merkleBatchAnchorService.markAttemptFailed(batch.getId(), error);
+            }
+        } catch (Exception e) {
+            // El lote queda SUBMITTED y se recupera cuando caduque
+            log.error("Error actualizando el lote Merkle {}: {}", batch.getId(), e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Envía una entrada que el llamante ya dejó IN_FLIGHT, fuera de la concurrencia del dispatcher.
+     * El futuro se completa con el hash en cuanto el nodo acepta la transacción (null si no se envió);
+     * la confirmación y los reintentos siguen su curso en el outbox
+     */
+    public CompletableFuture<String> submitClaimed(BlockchainOutboxEntry entry) {
+        return submit(entry, () -> { });
+    }
+
+    private void submit(BlockchainOutboxEntry entry) {
+        submit(entry, inFlight::release);
+    }
+
+    private CompletableFuture<String> submit(BlockchainOutboxEntry entry, Runnable releasePermit) {
+        SubmittedTransaction<TransactionReceipt> submitted;
+        try {
+            Vote vote = voteRepository.findForRegistrationById(entry.getVoteId())
+                    .orElseThrow(() -> new EntityNotFoundException("Vote not found with id: " + entry.getVoteId()));
+
+            // Un reintento tras un timeout o un receipt perdido puede encontrarse el voto ya registrado:
+            // reenviarlo solo conseguiría que el contrato lo rechace como duplicado
+            if (entry.getAttempts() > 0 || entry.getTransactionHash() != null) {
+                Optional<TransactionReceipt> landed = findLandedReceipt(entry.getTransactionHash());
+                if (landed.isPresent()
+                        || blockchainService.hasUserVoted(vote.getVotacion().getId(), vote.getUser().getId())) {
+                    complete(entry, landed.orElse(null), null);
+                    releasePermit.run();
+                    return CompletableFuture.completedFuture(entry.getTransactionHash());
+                }
+            }
+
+            submitted = blockchainService.registerVote(vote);
+        } catch (Exception e) {
+            complete(entry, null, e);
+            releasePermit.run();
+            return CompletableFuture.completedFuture(null);
+        }
+
+        // El permiso se libera al conocerse el hash; la confirmación la entrega después el tracker de receipts
+        CompletableFuture<String> accepted = submitted.getTransactionHash()
+                .handle((transactionHash, ex) -> {
+                    try {
+                        if (ex == null) {
+                            outboxService.markSubmitted(entry.getId(), transactionHash);
+                        }
+                    } catch (Exception e) {
+                        log.error("Error guardando el hash de la entrada {} del outbox: {}", entry.getId(), e.getMessage(), e);
+                    } finally {
+                        releasePermit.run();
+                    }
+                    return ex == null ? transactionHash : null;
+                });
+        accepted.thenCompose(ignored -> submitted.getConfirmation())
+                .whenComplete((receipt, ex) -> complete(entry, receipt, ex));
+        return accepted;
+    }
+
+    private Optional<TransactionReceipt> findLandedReceipt(String transactionHash) {
+        if (transactionHash == null) {
+            return Optional.empty();
+        }
+        return blockchainService.findTransactionReceipt(transactionHash).filter(TransactionReceipt::isStatusOK);
+    }
+
+    private void complete(BlockchainOutboxEntry entry, TransactionReceipt receipt, Throwable error) {
+        try {
+            if (error == null) {
+                outboxService.markCompleted(entry.getId(), receipt);
+            } else {
+                outboxService.markAttemptFailed(entry.getId(), error);
+            }
+        } catch (Exception e) {
+            // La entrada queda IN_FLIGHT y se recupera cuando caduque
+            log.error("Error actualizando la entrada {} del outbox de blockchain: {}", entry.getId(), e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,211 @@
+package com.votechain.backend.blockchain.service;
+
+import com.votechain.backend.blockchain.model.BlockchainOutboxEntry;
+import com.votechain.backend.blockchain.model.OutboxStatus;
+import com.votechain.backend.blockchain.repository.BlockchainOutboxRepository;
+import com.votechain.backend.common.logging.SystemLogService;
+import com.votechain.backend.vote.model.Vote;
+import com.votechain.backend.vote.model.VoteStatus;
+import com.votechain.backend.vote.repository.VoteRepository;
+import jakarta.persistence.EntityNotFoundException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.web3j.protocol.core.methods.response.TransactionReceipt;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Gestiona el outbox durable de registros de votos en blockchain
+ */
+@Service
+@Slf4j
+public class BlockchainOutboxService {
+
+    @Autowired
+    private BlockchainOutboxRepository outboxRepository;
+
+    @Autowired
+    private VoteRepository voteRepository;
+
+    @Autowired
+    private SystemLogService systemLogService;
+
+    @Value("${blockchain.outbox.max-attempts:10}")
+    private int maxAttempts;
+
+    @Value("${blockchain.outbox.initial-backoff-ms:2000}")
+    private long initialBackoffMs;
+
+    @Value("${blockchain.outbox.max-backoff-ms:300000}")
+    private long maxBackoffMs;
+
+    /**
+     * Encola el registro en blockchain de un voto; debe ejecutarse en la transacción que guarda el voto
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public BlockchainOutboxEntry enqueueVoteRegistration(Vote vote) {
+        return enqueue(vote, OutboxStatus.PENDING);
+    }
+
+    /**
+     * Encola el registro ya reclamado (IN_FLIGHT) para que lo envíe el llamante tras el commit; si no
+     * llega a enviarlo, la recuperación de entradas caducadas lo devuelve al dispatcher
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public BlockchainOutboxEntry enqueueClaimedVoteRegistration(Vote vote) {
+        return enqueue(vote, OutboxStatus.IN_FLIGHT);
+    }
+
+    private BlockchainOutboxEntry enqueue(Vote vote, OutboxStatus status) {
+        BlockchainOutboxEntry entry = BlockchainOutboxEntry.builder()
+                .voteId(vote.getId())
+                .votacionId(vote.getVotacion().getId())
+                .status(status)
+                .attempts(0)
+                .nextAttemptAt(LocalDateTime.now())
+                .build();
+
+        return outboxRepository.save(entry);
+    }
+
+    /**
+     * Reclama una entrada pendiente para enviarla; false si otro dispatcher ya la tomó
+     */
+    @Transactional
+    public boolean claim(Long entryId) {
+        return outboxRepository.transition(entryId, OutboxStatus.PENDING, OutboxStatus.IN_FLIGHT, LocalDateTime.now()) == 1;
+    }
+
+    /**
+     * El nodo aceptó la transacción: el voto pasa a PROCESSING con su hash mientras se espera el receipt.
+     * La entrada guarda el hash y renueva updatedAt, así el timeout IN_FLIGHT se mide desde el envío
+     */
+    @Transactional
+    public void markSubmitted(Long entryId, String transactionHash) {
+        BlockchainOutboxEntry entry = outboxRepository.findById(entryId)
+                .orElseThrow(() -> new EntityNotFoundException("Outbox entry not found with id: " + entryId));
+
+        entry.setTransactionHash(transactionHash);
+        entry.setUpdatedAt(LocalDateTime.now());
+        outboxRepository.save(entry);
+
+        voteRepository.findById(entry.getVoteId()).ifPresent(vote -> {
+            vote.setBlockchainTransactionHash(transactionHash);
+            vote.setStatus(VoteStatus.PROCESSING);
+            voteRepository.save(vote);
+        });
+    }
+
+    /**
+     * Marca la entrada como completada y persiste en el voto el receipt de la blockchain;
+     * sin receipt (voto encontrado ya registrado en el contrato) conserva el hash guardado
+     */
+    @Transactional
+    public void markCompleted(Long entryId, TransactionReceipt receipt) {
+        BlockchainOutboxEntry entry = outboxRepository.findById(entryId)
+                .orElseThrow(() -> new EntityNotFoundException("Outbox entry not found with id: " + entryId));
+
+        Vote vote = voteRepository.findById(entry.getVoteId())
+                .orElseThrow(() -> new EntityNotFoundException("Vote not found with id: " + entry.getVoteId()));
+
+        if (receipt != null) {
+            // El hash del receipt puede ser el de un reemplazo con más gas, no el del primer envío
+            vote.setBlockchainTransactionHash(receipt.getTransactionHash());
+            vote.setBlockchainMetadata(BlockchainService.describeReceipt(receipt));
+        } else if (vote.getBlockchainTransactionHash() == null) {
+            vote.setBlockchainTransactionHash(entry.getTransactionHash());
+        }
+        vote.setStatus(VoteStatus.CONFIRMED);
+        vote.setBlockchainVerified(true);
+        vote.setBlockchainVerifiedAt(LocalDateTime.now());
+        voteRepository.save(vote);
+
+        entry.setStatus(OutboxStatus.COMPLETED);
+        entry.setTransactionHash(vote.getBlockchainTransactionHash());
+        entry.setAttempts(entry.getAttempts() + 1);
+        entry.setLastError(null);
+        outboxRepository.save(entry);
+
+        systemLogService.logBlockchainInteraction(vote.getUser().getId(), "Vote Registration",
+                vote.getBlockchainTransactionHash());
+        log.info("Vote {} registered on blockchain with hash: {}", vote.getId(), vote.getBlockchainTransactionHash());
+    }
+
+    /**
+     * Registra un intento fallido: reprograma con backoff exponencial o marca como fallida definitivamente
+     */
+    @Transactional
+    public void markAttemptFailed(Long entryId, Throwable error) {
+        BlockchainOutboxEntry entry = outboxRepository.findById(entryId)
+                .orElseThrow(() -> new EntityNotFoundException("Outbox entry not found with id: " + entryId));
+
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        String message = cause.getMessage() != null ? cause.getMessage() : cause.getClass().getSimpleName();
+
+        int attempts = entry.getAttempts() + 1;
+        entry.setAttempts(attempts);
+        entry.setLastError(message.length() > 1000 ? message.substring(0, 1000) : message);
+
+        if (attempts >= maxAttempts || cause instanceof EntityNotFoundException) {
+            entry.setStatus(OutboxStatus.FAILED);
+            outboxRepository.save(entry);
+
+            voteRepository.findById(entry.getVoteId()).ifPresent(vote -> {
+                vote.setStatus(VoteStatus.REJECTED);
+                voteRepository.save(vote);
+            });
+
+            log.error("❌ Registro en blockchain del voto {} abandonado tras {} intentos: {}",
+                    entry.getVoteId(), attempts, message);
+            systemLogService.logError("Blockchain Vote Registration",
+                    "Giving up on vote " + entry.getVoteId() + " after " + attempts + " attempts: " + message);
+            return;
+        }
+
+        long delayMs = backoffDelayMs(attempts);
+        entry.setStatus(OutboxStatus.PENDING);
+        entry.setNextAttemptAt(LocalDateTime.now().plusNanos(delayMs * 1_000_000L));
+        outboxRepository.save(entry);
+
+        log.warn("⚠️ Intento {} de registrar el voto {} en blockchain falló ({}), reintento en {} ms",
+                attempts, entry.getVoteId(), message, delayMs);
+    }
+
+    /**
+     * Devuelve a PENDING las entradas IN_FLIGHT más antiguas que el umbral (reinicios, nodos caídos)
+     */
+    @Transactional
+    public int releaseStale(LocalDateTime staleBefore) {
+        return outboxRepository.releaseStale(OutboxStatus.IN_FLIGHT, OutboxStatus.PENDING, staleBefore, LocalDateTime.now());
+    }
+
+    /**
+     * Número de registros pendientes de enviar a la blockchain
+     */
+    public long countPending() {
+        return outboxRepository.countByStatus(OutboxStatus.PENDING);
+    }
+
+    /**
+     * Número máximo de intentos antes de abandonar un envío
+     */
+    public int getMaxAttempts() {
+        return maxAttempts;
+    }
+
+    /**
+     * Espera antes del siguiente intento: backoff exponencial con tope y jitter
+     */
+    public long backoffDelayMs(int attempts) {
+        long delay = initialBackoffMs << Math.min(attempts - 1, 20);
+        delay = Math.min(delay, maxBackoffMs);
+        // Jitter de hasta un 20% para no sincronizar los reintentos de un pico de votos
+        return delay + ThreadLocalRandom.current().nextLong(delay / 5 + 1);
+    }
+}
@@ -1,13 +1,22 @@
 package com.votechain.backend.blockchain.service;
 
+import com.votechain.backend.blockchain.config.BlockchainExecutors;
+import com.votechain.backend.blockchain.model.AnchoringMode;
 import com.votechain.backend.blockchain.model.BlockchainVerificationResult;
 import com.votechain.backend.blockchain.contract.VoteChainContract;
+import com.votechain.backend.blockchain.transaction.PendingTransaction;
+import com.votechain.backend.blockchain.transaction.SignerWalletPool;
+import com.votechain.backend.blockchain.transaction.SubmittedTransaction;
+import com.votechain.backend.blockchain.transaction.TransactionReceiptTracker;
 import com.votechain.backend.vote.model.Vote;
 import com.votechain.backend.vote.model.VoteStatus;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.web3j.abi.FunctionEncoder;
+import org.web3j.abi.datatypes.Function;
 import org.web3j.crypto.Credentials;
 import org.web3j.protocol.Web3j;
 import org.web3j.protocol.core.DefaultBlockParameter;
@@ -15,6 +24,7 @@ import org.web3j.protocol.core.methods.response.EthBlock;
 import org.web3j.protocol.core.methods.response.TransactionReceipt;
 import org.web3j.tx.gas.ContractGasProvider;
 import org.web3j.utils.Convert;
+import org.web3j.utils.Numeric;
 
 import jakarta.annotation.PostConstruct;
 import java.io.IOException;
@@ -28,7 +38,8 @@ import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.Executor;
-import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Supplier;
 
 @Service
 @Slf4j
@@ -37,20 +48,27 @@ public class BlockchainService {
     @Value("${blockchain.contract.address}")
     private String contractAddress;
 
-    @Value("${blockchain.transaction.receipt.wait.time:40}")
-    private Long receiptWaitTime;
+    @Value("${blockchain.anchoring.mode:per-vote}")
+    private String anchoringMode;
 
     private final Web3j web3j;
     private final Credentials credentials;
     private final ContractGasProvider gasProvider;
+    private final SignerWalletPool signerWalletPool;
+    private final TransactionReceiptTracker receiptTracker;
+    private final BlockchainExecutors executors;
     private VoteChainContract voteChainContract;
-    private final Executor executor = Executors.newFixedThreadPool(10);
 
     @Autowired
-    public BlockchainService(Web3j web3j, Credentials credentials, ContractGasProvider gasProvider) {
+    public BlockchainService(Web3j web3j, Credentials credentials, ContractGasProvider gasProvider,
+                             SignerWalletPool signerWalletPool, TransactionReceiptTracker receiptTracker,
+                             BlockchainExecutors executors) {
         this.web3j = web3j;
         this.credentials = credentials;
         this.gasProvider = gasProvider;
+        this.signerWalletPool = signerWalletPool;
+        this.receiptTracker = receiptTracker;
+        this.executors = executors;
     }
 
     @PostConstruct
@@ -83,54 +101,98 @@ public class BlockchainService {
     }
 
     /**
-     * Register a vote on the blockchain
+     * Register a vote on the blockchain; the hash is available as soon as the node accepts the transaction
      */
-    public CompletableFuture<String> registerVote(Vote vote) {
-        return CompletableFuture.supplyAsync(() -> {
-            try {
-                if (voteChainContract == null) {
-                    log.error("Contract not initialized");
-                    throw new IllegalStateException("Blockchain contract not initialized");
-                }
-
-                // Create a unique hash for the vote if not already created
-                if (vote.getVoteHash() == null) {
-                    vote.setVoteHash(createVoteHash(vote));
-                }
+    public SubmittedTransaction<TransactionReceipt> registerVote(Vote vote) {
+        if (voteChainContract == null) {
+            log.error("Contract not initialized");
+            return SubmittedTransaction.failed(new IllegalStateException("Blockchain contract not initialized"));
+        }
 
-                // Send the vote to the blockchain using the logical option order, not DB ID
-                TransactionReceipt receipt = voteChainContract.castVote(
-                        BigInteger.valueOf(vote.getVotacion().getId()),
-                        BigInteger.valueOf(vote.getUser().getId()),
-                        BigInteger.valueOf(vote.getOpcionSeleccionada().getOrden()), // ✅ USAR ORDEN en lugar de ID
-                        vote.getVoteHash()
-                ).send();
-
-                String transactionHash = receipt.getTransactionHash();
-                log.info("Vote registered on blockchain. Transaction hash: {}", transactionHash);
-
-                // Store blockchain metadata
-                Map<String, Object> metadata = new HashMap<>();
-                metadata.put("blockNumber", receipt.getBlockNumber());
-                metadata.put("blockHash", receipt.getBlockHash());
-                metadata.put("gasUsed", receipt.getGasUsed());
-                metadata.put("cumulativeGasUsed", receipt.getCumulativeGasUsed());
-
-                // Could implement JSON serialization of the metadata here
-                // For now, just create a basic string representation
-                vote.setBlockchainMetadata(metadata.toString());
-                vote.setBlockchainTransactionHash(transactionHash);
-                vote.setStatus(VoteStatus.CONFIRMED);
-                vote.setBlockchainVerified(true);
-                vote.setBlockchainVerifiedAt(LocalDateTime.now());
-
-                return transactionHash;
+        // Create a unique hash for the vote if not already created
+        if (vote.getVoteHash() == null) {
+            vote.setVoteHash(createVoteHash(vote));
+        }
 
-            } catch (Exception e) {
-                log.error("Error registering vote on blockchain: {}", e.getMessage(), e);
-                throw new RuntimeException("Failed to register vote on blockchain", e);
+        // Send the vote to the blockchain using the logical option order, not DB ID
+        Function function = VoteChainContract.castVoteFunction(
+                BigInteger.valueOf(vote.getVotacion().getId()),
+                BigInteger.valueOf(vote.getUser().getId()),
+                BigInteger.valueOf(vote.getOpcionSeleccionada().getOrden()), // ✅ USAR ORDEN en lugar de ID
+                vote.getVoteHash());
+
+        SubmittedTransaction<TransactionReceipt> submitted = submitTransaction(function, VoteChainContract.FUNC_CAST_VOTE);
+        submitted.getTransactionHash().thenAccept(transactionHash ->
+                log.info("Vote sent to blockchain. Transaction hash: {}", transactionHash));
+        submitted.getConfirmation().whenComplete((receipt, error) -> {
+            if (error != null) {
+                log.error("Error registering vote on blockchain: {}", error.getMessage());
+            } else {
+                log.info("Vote registered on blockchain. Transaction hash: {}", receipt.getTransactionHash());
             }
         });
+        return submitted;
+    }
+
+    /**
+     * Metadatos del receipt que se guardan junto al voto confirmado
+     */
+    public static String describeReceipt(TransactionReceipt receipt) {
+        Map<String, Object> metadata = new HashMap<>();
+        metadata.put("blockNumber", receipt.getBlockNumber());
+        metadata.put("blockHash", receipt.getBlockHash());
+        metadata.put("gasUsed", receipt.getGasUsed());
+        metadata.put("cumulativeGasUsed", receipt.getCumulativeGasUsed());
+
+        // Could implement JSON serialization of the metadata here
+        // For now, just create a basic string representation
+        return metadata.toString();
+    }
+
+    /**
+     * Firma y envía una transacción del contrato por una wallet del pool; la confirmación falla si el receipt indica revert.
+     * Los futuros se completan en el pool de escrituras, nunca en los hilos de envío o de seguimiento de receipts
+     */
+    private SubmittedTransaction<TransactionReceipt> submitTransaction(Function function, String functionName) {
+        PendingTransaction tx = signerWalletPool.submit(
+                contractAddress,
+                FunctionEncoder.encode(function),
+                gasProvider.getGasPrice(functionName),
+                gasProvider.getGasLimit(functionName));
+
+        CompletableFuture<String> transactionHash = tx.getSubmittedHash().thenApplyAsync(hash -> hash, executors.writes());
+        CompletableFuture<TransactionReceipt> confirmation = tx.getReceipt().thenApplyAsync(receipt -> {
+            if (!receipt.isStatusOK()) {
+                throw new IllegalStateException("Transaction " + receipt.getTransactionHash()
+                        + " reverted with status " + receipt.getStatus());
+            }
+            return receipt;
+        }, executors.writes());
+        return new SubmittedTransaction<>(transactionHash, confirmation);
+    }
+
+    /**
+     * Consulta en lote los receipts de todas las transacciones enviadas y completa las que ya se minaron
+     */
+    @Scheduled(fixedDelayString = "${blockchain.receipt.poll-interval-ms:2000}")
+    public void pollTransactionReceipts() {
+        receiptTracker.poll();
+    }
+
+    /**
+     * Revisa reenvíos, timeouts y nonces atascados de las transacciones en curso
+     */
+    @Scheduled(fixedDelayString = "${blockchain.nonce.monitor-interval-ms:2000}")
+    public void trackPendingTransactions() {
+        signerWalletPool.checkPending();
+    }
+
+    /**
+     * Comprueba saldo y salud de las wallets firmantes
+     */
+    @Scheduled(fixedDelayString = "${blockchain.wallet.health-check-interval-ms:60000}")
+    public void refreshWalletHealth() {
+        signerWalletPool.refreshHealth();
     }
 
     /**
@@ -172,6 +234,25 @@ public class BlockchainService {
         }
     }
 
+    /**
+     * Receipt minado de una transacción; vacío si aún no está en un bloque o el nodo no responde
+     */
+    public Optional<TransactionReceipt> findTransactionReceipt(String transactionHash) {
+        try {
+            return web3j.ethGetTransactionReceipt(transactionHash).send().getTransactionReceipt();
+        } catch (Exception e) {
+            log.error("Error getting receipt for transaction {}: {}", transactionHash, e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Verify a vote on the verification pool; fails fast if the pool is saturated
+     */
+    public CompletableFuture<BlockchainVerificationResult> verifyVoteAsync(String transactionHash) {
+        return supplyAsync(() -> verifyVote(transactionHash), executors.verification());
+    }
+
     /**
      * Get the current gas price from the network
      */
@@ -241,50 +322,113 @@ public class BlockchainService {
     }
 
     /**
-     * Crear una votación en la blockchain
+     * Modo de anclaje configurado: un registro por voto o raíces Merkle por lotes
      */
-    public CompletableFuture<VotingCreationResult> createVotacionInBlockchain(Long votacionId, String titulo, LocalDateTime fechaInicio, LocalDateTime fechaFin) {
-        return CompletableFuture.supplyAsync(() -> {
-            try {
-                if (voteChainContract == null) {
-                    log.error("Contract not initialized");
-                    throw new IllegalStateException("Blockchain contract not initialized");
-                }
+    public AnchoringMode getAnchoringMode() {
+        return AnchoringMode.valueOf(anchoringMode.trim().toUpperCase().replace('-', '_'));
+    }
+
+    /**
+     * Ancla en blockchain la raíz Merkle de un lote de votos
+     */
+    public SubmittedTransaction<TransactionReceipt> anchorVoteBatch(Long votacionId, String merkleRootHex, int leafCount) {
+        if (voteChainContract == null) {
+            log.error("Contract not initialized");
+            return SubmittedTransaction.failed(new IllegalStateException("Blockchain contract not initialized"));
+        }
+
+        Function function = VoteChainContract.anchorVoteBatchFunction(
+                BigInteger.valueOf(votacionId),
+                Numeric.hexStringToByteArray(merkleRootHex),
+                BigInteger.valueOf(leafCount));
 
-                // Convertir fechas a timestamps Unix (segundos desde 1970-01-01)
-                long startTime = fechaInicio.toEpochSecond(ZoneOffset.UTC);
-                long endTime = fechaFin.toEpochSecond(ZoneOffset.UTC);
+        SubmittedTransaction<TransactionReceipt> submitted = submitTransaction(function, VoteChainContract.FUNC_ANCHOR_VOTE_BATCH);
+        submitted.getConfirmation().thenAccept(receipt ->
+                log.info("Vote batch anchored on blockchain. Root: {}, transaction hash: {}", merkleRootHex, receipt.getTransactionHash()));
+        return submitted;
+    }
+
+    /**
+     * Comprueba si una raíz Merkle ya está anclada en el contrato
+     */
+    public boolean isBatchAnchored(String merkleRootHex) {
+        try {
+            if (voteChainContract == null) {
+                throw new IllegalStateException("Blockchain contract not initialized");
+            }
+            return voteChainContract.isBatchAnchored(Numeric.hexStringToByteArray(merkleRootHex)).send();
+        } catch (Exception e) {
+            log.error("Error checking anchored batch {}: {}", merkleRootHex, e.getMessage());
+            return false;
+        }
+    }
 
-                log.info("Creando votación en blockchain: id={}, titulo={}, inicio={}, fin={}",
-                    votacionId, titulo, startTime, endTime);
+    /**
+     * Crear una votación en la blockchain; el ID asignado por el contrato llega con la confirmación
+     */
+    public SubmittedTransaction<VotingCreationResult> createVotacionInBlockchain(Long votacionId, String titulo, LocalDateTime fechaInicio, LocalDateTime fechaFin) {
+        if (voteChainContract == null) {
+            log.error("Contract not initialized");
+            return SubmittedTransaction.failed(new IllegalStateException("Blockchain contract not initialized"));
+        }
 
-                // Llamar al método del smart contract para crear una votación
-                TransactionReceipt receipt = voteChainContract.createVoting(
-                    titulo,
-                    BigInteger.valueOf(startTime),
-                    BigInteger.valueOf(endTime)
-                ).send();
+        // Convertir fechas a timestamps Unix (segundos desde 1970-01-01)
+        long startTime = fechaInicio.toEpochSecond(ZoneOffset.UTC);
+        long endTime = fechaFin.toEpochSecond(ZoneOffset.UTC);
 
-                String transactionHash = receipt.getTransactionHash();
-                log.info("Votación creada en blockchain, tx hash: {}", transactionHash);
+        log.info("Creando votación en blockchain: id={}, titulo={}, inicio={}, fin={}",
+            votacionId, titulo, startTime, endTime);
 
-                // Extraer el ID real de la votación desde los eventos del contrato
-                Long blockchainVotingId = extractVotingIdFromReceipt(receipt);
-                if (blockchainVotingId == null) {
-                    // Si no podemos extraer el ID, obtener el contador actual
-                    blockchainVotingId = voteChainContract.votingCounter().send().longValue();
-                }
+        // Llamar al método del smart contract para crear una votación
+        Function function = VoteChainContract.createVotingFunction(
+            titulo,
+            BigInteger.valueOf(startTime),
+            BigInteger.valueOf(endTime));
 
-                log.info("🔑 ID real asignado por blockchain: {}", blockchainVotingId);
+        SubmittedTransaction<TransactionReceipt> submitted = submitTransaction(function, VoteChainContract.FUNC_CREATE_VOTING);
+        CompletableFuture<VotingCreationResult> confirmation = submitted.getConfirmation()
+            .thenApply(this::toVotingCreationResult);
+        return new SubmittedTransaction<>(submitted.getTransactionHash(), confirmation);
+    }
 
-                return new VotingCreationResult(transactionHash, blockchainVotingId);
-            } catch (Exception e) {
-                log.error("Error creating votacion on blockchain: {}", e.getMessage(), e);
-                throw new RuntimeException("Error creating votacion on blockchain: " + e.getMessage(), e);
+    /**
+     * Resultado de una creación de votación ya enviada, a partir de su receipt; vacío si aún no está minada
+     * o el contrato no está cargado. Falla si la transacción se revirtió
+     */
+    public Optional<VotingCreationResult> findVotingCreation(String transactionHash) {
+        if (voteChainContract == null) {
+            return Optional.empty();
+        }
+        return findTransactionReceipt(transactionHash).map(receipt -> {
+            if (!receipt.isStatusOK()) {
+                throw new IllegalStateException("Transaction " + receipt.getTransactionHash()
+                        + " reverted with status " + receipt.getStatus());
             }
+            return toVotingCreationResult(receipt);
         });
     }
 
+    private VotingCreationResult toVotingCreationResult(TransactionReceipt receipt) {
+        try {
+            String transactionHash = receipt.getTransactionHash();
+            log.info("Votación creada en blockchain, tx hash: {}", transactionHash);
+
+            // Extraer el ID real de la votación desde los eventos del contrato
+            Long blockchainVotingId = extractVotingIdFromReceipt(receipt);
+            if (blockchainVotingId == null) {
+                // Si no podemos extraer el ID, obtener el contador actual
+                blockchainVotingId = voteChainContract.votingCounter().send().longValue();
+            }
+
+            log.info("🔑 ID real asignado por blockchain: {}", blockchainVotingId);
+
+            return new VotingCreationResult(transactionHash, blockchainVotingId);
+        } catch (Exception e) {
+            log.error("Error creating votacion on blockchain: {}", e.getMessage(), e);
+            throw new RuntimeException("Error creating votacion on blockchain: " + e.getMessage(), e);
+        }
+    }
+
     /**
      * Extrae el ID de la votación desde los eventos del receipt de la transacción
      */
@@ -346,6 +490,13 @@ public class BlockchainService {
         return credentials.getAddress();
     }
 
+    /**
+     * Obtiene el estado de las wallets firmantes del pool
+     */
+    public List<Map<String, Object>> getSignerWallets() {
+        return signerWalletPool.getWalletStatus();
+    }
+
     /**
      * Obtiene la versión de la red Ethereum
      */
@@ -363,7 +514,7 @@ public class BlockchainService {
      * Usa métodos disponibles en el wrapper actual
      */
     public CompletableFuture<Boolean> checkVotacionExists(Long votacionId) {
-        return CompletableFuture.supplyAsync(() -> {
+        return supplyAsync(() -> {
             try {
                 if (voteChainContract == null) {
                     log.error("Contract not initialized");
@@ -398,14 +549,14 @@ public class BlockchainService {
                 log.error("Error general verificando votación: {}", e.getMessage(), e);
                 return false;
             }
-        }, executor);
+        }, executors.reads());
     }
 
     /**
      * Método alternativo que no lanza excepciones - simplemente devuelve false si hay error
      */
     public CompletableFuture<Boolean> checkVotacionExistsSafe(Long votacionId) {
-        return CompletableFuture.supplyAsync(() -> {
+        return supplyAsync(() -> {
             try {
                 if (voteChainContract == null) {
                     log.error("Contract not initialized");
@@ -429,7 +580,10 @@ public class BlockchainService {
                 log.error("Error en verificación segura de votación: {}", e.getMessage());
                 return false;
             }
-        }, executor);
+        }, executors.reads()).exceptionally(error -> {
+            log.warn("⚠️ Verificación segura de votación {} no ejecutada: {}", votacionId, error.getMessage());
+            return false;
+        });
     }
 
     /**
@@ -469,7 +623,7 @@ public class BlockchainService {
      * Finalize a voting on the blockchain
      */
     public CompletableFuture<String> finalizeVoting(Long votingId) {
-        return CompletableFuture.supplyAsync(() -> {
+        return supplyAsync(() -> {
             try {
                 if (voteChainContract == null) {
                     log.warn("Contract not initialized, cannot finalize voting");
@@ -494,6 +648,17 @@ public class BlockchainService {
                 log.error("Error finalizing voting {} on blockchain: {}", votingId, e.getMessage());
                 throw new RuntimeException("Failed to finalize voting on blockchain", e);
             }
-        }, executor);
+        }, executors.writes());
+    }
+
+    /**
+     * supplyAsync sobre un pool acotado: si el pool rechaza la tarea, el futuro falla en lugar de lanzar
+     */
+    private static <T> CompletableFuture<T> supplyAsync(Supplier<T> supplier, Executor executor) {
+        try {
+            return CompletableFuture.supplyAsync(supplier, executor);
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.failedFuture(e);
+        }
     }
 }
@@ -0,0 +1,191 @@
+package com.votechain.backend.blockchain.service;
+
+import com.votechain.backend.blockchain.merkle.MerkleTree;
+import com.votechain.backend.blockchain.model.AnchorBatchStatus;
+import com.votechain.backend.blockchain.model.OutboxStatus;
+import com.votechain.backend.blockchain.model.VoteAnchorBatch;
+import com.votechain.backend.blockchain.repository.BlockchainOutboxRepository;
+import com.votechain.backend.blockchain.repository.VoteAnchorBatchRepository;
+import com.votechain.backend.common.logging.SystemLogService;
+import com.votechain.backend.vote.model.Vote;
+import com.votechain.backend.vote.model.VoteStatus;
+import com.votechain.backend.vote.repository.VoteRepository;
+import jakarta.persistence.EntityNotFoundException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Agrupa los votos pendientes de una votación en lotes Merkle y gestiona el anclaje de sus raíces
+ */
+@Service
+@Slf4j
+public class MerkleBatchAnchorService {
+
+    @Autowired
+    private BlockchainOutboxRepository outboxRepository;
+
+    @Autowired
+    private VoteAnchorBatchRepository batchRepository;
+
+    @Autowired
+    private VoteRepository voteRepository;
+
+    @Autowired
+    private BlockchainOutboxService outboxService;
+
+    @Autowired
+    private SystemLogService systemLogService;
+
+    /**
+     * Cierra un lote con hasta maxSize votos pendientes de la votación; null si no quedaba ninguno
+     */
+    @Transactional
+    public VoteAnchorBatch assembleBatch(Long votacionId, int maxSize) {
+        List<Long> entryIds = outboxRepository.findIdsByVotacionAndStatus(
+                votacionId, OutboxStatus.PENDING, PageRequest.of(0, maxSize));
+        if (entryIds.isEmpty()) {
+            return null;
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        VoteAnchorBatch batch = batchRepository.save(VoteAnchorBatch.builder()
+                .votacionId(votacionId)
+                .status(AnchorBatchStatus.PENDING)
+                .leafCount(0)
+                .nextAttemptAt(now)
+                .build());
+
+        // Las entradas pasan al lote, que es a partir de ahora la unidad durable de reintento
+        int claimed = outboxRepository.assignToBatch(entryIds, batch.getId(), OutboxStatus.PENDING, OutboxStatus.COMPLETED, now);
+        if (claimed == 0) {
+            batchRepository.delete(batch);
+            return null;
+        }
+
+        List<Vote> votes = new ArrayList<>(voteRepository.findAllById(outboxRepository.findVoteIdsByAnchorBatch(batch.getId())));
+        votes.sort(Comparator.comparing(Vote::getId));
+
+        List<String> voteHashes = new ArrayList<>(votes.size());
+        for (int i = 0; i < votes.size(); i++) {
+            Vote vote = votes.get(i);
+            vote.setAnchorBatchId(batch.getId());
+            vote.setMerkleLeafIndex(i);
+            voteHashes.add(vote.getVoteHash());
+        }
+        voteRepository.saveAll(votes);
+
+        MerkleTree tree = MerkleTree.fromVoteHashes(voteHashes);
+        batch.setMerkleRoot(tree.getRootHex());
+        batch.setLeafCount(tree.getLeafCount());
+        batch = batchRepository.save(batch);
+
+        log.info("🌳 Lote Merkle {} de la votación {}: {} votos, raíz {}",
+                batch.getId(), votacionId, batch.getLeafCount(), batch.getMerkleRoot());
+        return batch;
+    }
+
+    /**
+     * Reclama un lote pendiente para anclarlo; false si otro dispatcher ya lo tomó
+     */
+    @Transactional
+    public boolean claim(Long batchId) {
+        return batchRepository.transition(batchId, AnchorBatchStatus.PENDING, AnchorBatchStatus.SUBMITTED, LocalDateTime.now()) == 1;
+    }
+
+    /**
+     * Guarda el hash de la transacción de anclaje en cuanto el nodo la acepta
+     */
+    @Transactional
+    public void markSubmitted(Long batchId, String transactionHash) {
+        batchRepository.findById(batchId).ifPresent(batch -> {
+            batch.setTransactionHash(transactionHash);
+            batchRepository.save(batch);
+        });
+    }
+
+    /**
+     * Marca el lote como anclado y confirma todos sus votos con el hash de la transacción
+     */
+    @Transactional
+    public void markAnchored(Long batchId, String transactionHash) {
+        VoteAnchorBatch batch = batchRepository.findById(batchId)
+                .orElseThrow(() -> new EntityNotFoundException("Anchor batch not found with id: " + batchId));
+
+        LocalDateTime now = LocalDateTime.now();
+        if (transactionHash != null) {
+            batch.setTransactionHash(transactionHash);
+        }
+        batch.setStatus(AnchorBatchStatus.ANCHORED);
+        batch.setAttempts(batch.getAttempts() + 1);
+        batch.setAnchoredAt(now);
+        batch.setLastError(null);
+        batchRepository.save(batch);
+
+        int confirmed = voteRepository.confirmAnchorBatch(batchId, VoteStatus.CONFIRMED, batch.getTransactionHash(), now);
+        log.info("✅ Lote Merkle {} anclado en blockchain ({} votos), tx: {}", batchId, confirmed, batch.getTransactionHash());
+    }
+
+    /**
+     * Registra un intento de anclaje fallido: reprograma con backoff o abandona el lote y rechaza sus votos
+     */
+    @Transactional
+    public void markAttemptFailed(Long batchId, Throwable error) {
+        VoteAnchorBatch batch = batchRepository.findById(batchId)
+                .orElseThrow(() -> new EntityNotFoundException("Anchor batch not found with id: " + batchId));
+
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        String message = cause.getMessage() != null ? cause.getMessage() : cause.getClass().getSimpleName();
+
+        int attempts = batch.getAttempts() + 1;
+        batch.setAttempts(attempts);
+        batch.setLastError(message.length() > 1000 ? message.substring(0, 1000) : message);
+
+        if (attempts >= outboxService.getMaxAttempts()) {
+            batch.setStatus(AnchorBatchStatus.FAILED);
+            batchRepository.save(batch);
+            voteRepository.updateStatusByAnchorBatch(batchId, VoteStatus.REJECTED);
+
+            log.error("❌ Anclaje del lote Merkle {} abandonado tras {} intentos: {}", batchId, attempts, message);
+            systemLogService.logError("Blockchain Batch Anchoring",
+                    "Giving up on anchor batch " + batchId + " after " + attempts + " attempts: " + message);
+            return;
+        }
+
+        long delayMs = outboxService.backoffDelayMs(attempts);
+        batch.setStatus(AnchorBatchStatus.PENDING);
+        batch.setNextAttemptAt(LocalDateTime.now().plusNanos(delayMs * 1_000_000L));
+        batchRepository.save(batch);
+
+        log.warn("⚠️ Intento {} de anclar el lote Merkle {} falló ({}), reintento en {} ms", attempts, batchId, message, delayMs);
+    }
+
+    /**
+     * Devuelve a PENDING los lotes enviados sin respuesta desde antes del umbral
+     */
+    @Transactional
+    public int releaseStale(LocalDateTime staleBefore) {
+        return batchRepository.releaseStale(AnchorBatchStatus.SUBMITTED, AnchorBatchStatus.PENDING, staleBefore, LocalDateTime.now());
+    }
+
+    public Optional<VoteAnchorBatch> getBatch(Long batchId) {
+        return batchRepository.findById(batchId);
+    }
+
+    /**
+     * Prueba Merkle (hermanos desde la hoja hasta la raíz) de un voto anclado por lotes
+     */
+    public List<String> getMerkleProof(Long batchId, int leafIndex) {
+        List<String> voteHashes = voteRepository.findVoteHashesByAnchorBatch(batchId);
+        return MerkleTree.fromVoteHashes(voteHashes).getProof(leafIndex);
+    }
+}
@@ -0,0 +1,390 @@
+package com.votechain.backend.blockchain.transaction;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.web3j.crypto.Credentials;
+import org.web3j.crypto.Hash;
+import org.web3j.crypto.RawTransaction;
+import org.web3j.crypto.TransactionEncoder;
+import org.web3j.protocol.Web3j;
+import org.web3j.protocol.core.DefaultBlockParameterName;
+import org.web3j.protocol.core.methods.response.EthSendTransaction;
+import org.web3j.protocol.exceptions.TransactionException;
+import org.web3j.utils.Numeric;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Envía transacciones de una wallet sin esperar receipts: nonce en memoria, firma en paralelo,
+ * envío en orden con eth_sendRawTransaction y seguimiento de receipts aparte
+ */
+@Slf4j
+public class NonceManagedTransactionSubmitter {
+
+    private final Web3j web3j;
+    private final Credentials credentials;
+    private final long chainId;
+    private final Executor signingExecutor;
+    private final NonceManagerSettings settings;
+    private final TransactionReceiptTracker receiptTracker;
+
+    // Un único hilo serializa envíos, reenvíos, reemplazos y resincronizaciones; cola acotada
+    private final ThreadPoolExecutor sendExecutor;
+    private final AtomicLong sendRejected = new AtomicLong();
+
+    private final Object nonceLock = new Object();
+    private final ConcurrentSkipListMap<BigInteger, PendingTransaction> pending = new ConcurrentSkipListMap<>();
+    private final AtomicBoolean checkQueued = new AtomicBoolean(false);
+
+    private BigInteger nextNonce; // guarded by nonceLock; null = sincronizar con la red
+    private CompletableFuture<Void> sendTail = CompletableFuture.completedFuture(null); // guarded by nonceLock
+    private volatile boolean resyncRequired;
+
+    public NonceManagedTransactionSubmitter(Web3j web3j, Credentials credentials, long chainId,
+                                            Executor signingExecutor, NonceManagerSettings settings,
+                                            TransactionReceiptTracker receiptTracker) {
+        this.web3j = web3j;
+        this.credentials = credentials;
+        this.chainId = chainId;
+        this.signingExecutor = signingExecutor;
+        this.settings = settings;
+        this.receiptTracker = receiptTracker;
+        String shortAddress = credentials.getAddress().substring(0, Math.min(10, credentials.getAddress().length()));
+        this.sendExecutor = new ThreadPoolExecutor(1, 1, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(settings.getSendQueueCapacity()),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "tx-sender-" + shortAddress);
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                (task, executor) -> {
+                    sendRejected.incrementAndGet();
+                    if (!executor.isShutdown()) {
+                        log.warn("⚠️ Cola de envío de {} saturada ({} en cola)", shortAddress, executor.getQueue().size());
+                    }
+                    throw new RejectedExecutionException("Send queue full for wallet " + getAddress());
+                });
+        this.sendExecutor.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * Asigna nonce, firma y encola el envío; el hash se publica al enviarse y el receipt lo completa el tracker
+     */
+    public PendingTransaction submit(String to, String data, BigInteger gasPrice, BigInteger gasLimit) {
+        synchronized (nonceLock) {
+            BigInteger nonce;
+            try {
+                nonce = allocateNonce();
+            } catch (IOException e) {
+                return PendingTransaction.failed(e);
+            }
+
+            PendingTransaction tx = new PendingTransaction(nonce, to, data, gasPrice, gasLimit);
+            pending.put(nonce, tx);
+            tx.getReceipt().whenComplete((receipt, error) -> pending.remove(tx.getNonce(), tx));
+            receiptTracker.track(tx);
+
+            CompletableFuture<PendingTransaction> signed = signAsync(tx);
+            signed.whenComplete((ignored, error) -> {
+                if (error != null) {
+                    // El nonce queda sin usar: hay que cerrar el hueco
+                    resyncRequired = true;
+                    fail(tx, error);
+                }
+            });
+
+            // Los envíos salen en el orden de asignación de nonce aunque la firma termine desordenada
+            sendTail = sendTail
+                    .handle((ignored, error) -> null)
+                    .thenCompose(ignored -> signed)
+                    .thenCompose(this::dispatchSend);
+
+            return tx;
+        }
+    }
+
+    /**
+     * Reenvía lo que falló por red, caduca lo que no se mina y reemplaza nonces atascados (se ejecuta en el hilo de envío)
+     */
+    public void checkPending() {
+        if (checkQueued.compareAndSet(false, true)) {
+            try {
+                sendExecutor.execute(() -> {
+                    try {
+                        doCheckPending();
+                    } catch (Exception e) {
+                        log.error("Error revisando transacciones pendientes de {}: {}", getAddress(), e.getMessage(), e);
+                    } finally {
+                        checkQueued.set(false);
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                // Se reintenta en la siguiente revisión
+                checkQueued.set(false);
+            }
+        }
+    }
+
+    public String getAddress() {
+        return credentials.getAddress();
+    }
+
+    public int getPendingCount() {
+        return pending.size();
+    }
+
+    /**
+     * Métricas de la cola de envío: votechain.blockchain.executor.* con name=tx-sender-{dirección de la wallet}
+     */
+    public void bindMetrics(MeterRegistry meterRegistry) {
+        String name = "tx-sender-" + getAddress();
+        new ExecutorServiceMetrics(sendExecutor, name, "votechain.blockchain", Tags.empty()).bindTo(meterRegistry);
+        FunctionCounter.builder("votechain.blockchain.executor.rejected", sendRejected, AtomicLong::get)
+                .description("Tasks rejected because the pool queue was full")
+                .tag("name", name)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Deja de aceptar envíos; los ya encolados siguen saliendo hasta awaitTermination
+     */
+    public void shutdown() {
+        sendExecutor.shutdown();
+    }
+
+    public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+        return sendExecutor.awaitTermination(timeout, unit);
+    }
+
+    /**
+     * Corta los envíos en curso; devuelve cuántos quedaron sin enviar
+     */
+    public int shutdownNow() {
+        return sendExecutor.shutdownNow().size();
+    }
+
+    /**
+     * Firma en el pool de firma; si su cola está llena la firma falla y el nonce se libera como en cualquier fallo
+     */
+    private CompletableFuture<PendingTransaction> signAsync(PendingTransaction tx) {
+        try {
+            return CompletableFuture.supplyAsync(() -> sign(tx), signingExecutor);
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    /**
+     * Encola el envío en el hilo de envío; si la cola está llena la transacción falla y su nonce queda libre
+     */
+    private CompletableFuture<Void> dispatchSend(PendingTransaction tx) {
+        try {
+            return CompletableFuture.runAsync(() -> send(tx), sendExecutor);
+        } catch (RejectedExecutionException e) {
+            // El nonce queda sin usar: hay que cerrar el hueco
+            resyncRequired = true;
+            fail(tx, e);
+            return CompletableFuture.completedFuture(null);
+        }
+    }
+
+    private BigInteger allocateNonce() throws IOException {
+        if (nextNonce == null) {
+            nextNonce = fetchPendingNonce();
+            log.info("🔢 Nonce inicial para {}: {}", getAddress(), nextNonce);
+        }
+        BigInteger nonce = nextNonce;
+        nextNonce = nextNonce.add(BigInteger.ONE);
+        return nonce;
+    }
+
+    private BigInteger fetchPendingNonce() throws IOException {
+        return web3j.ethGetTransactionCount(getAddress(), DefaultBlockParameterName.PENDING)
+                .send()
+                .getTransactionCount();
+    }
+
+    private PendingTransaction sign(PendingTransaction tx) {
+        BigInteger nonce = tx.getNonce();
+        RawTransaction rawTransaction = RawTransaction.createTransaction(
+                nonce, tx.getGasPrice(), tx.getGasLimit(), tx.getTo(), tx.getData());
+
+        byte[] signedMessage = chainId > 0
+                ? TransactionEncoder.signMessage(rawTransaction, chainId, credentials)
+                : TransactionEncoder.signMessage(rawTransaction, credentials);
+
+        String signedHex = Numeric.toHexString(signedMessage);
+        tx.signed(nonce, signedHex, Hash.sha3(signedHex));
+        return tx;
+    }
+
+    private void send(PendingTransaction tx) {
+        if (tx.getReceipt().isDone()) {
+            return;
+        }
+        if (!tx.isSignedForCurrentNonce()) {
+            sign(tx);
+        }
+
+        tx.markAttempted();
+        try {
+            EthSendTransaction response = web3j.ethSendRawTransaction(tx.getSignedTransaction()).send();
+            if (!response.hasError()) {
+                tx.markSent();
+                return;
+            }
+
+            String message = response.getError().getMessage();
+            String error = message != null ? message.toLowerCase() : "";
+
+            if (error.contains("already known") || error.contains("known transaction")) {
+                tx.markSent();
+            } else if (error.contains("nonce too low") || error.contains("correct nonce")) {
+                // Alguien más usó la wallet o perdimos la cuenta: se renumera en la próxima resincronización
+                log.warn("⚠️ Nonce {} de {} rechazado por bajo, resincronizando", tx.getNonce(), getAddress());
+                tx.markUnsent();
+                resyncRequired = true;
+            } else if (error.contains("underpriced")) {
+                tx.markUnsent();
+                if (!bumpGasPrice(tx)) {
+                    fail(tx, new TransactionException("Transaction underpriced at max gas price: " + message));
+                    resyncRequired = true;
+                }
+            } else {
+                fail(tx, new TransactionException("Transaction rejected by node: " + message));
+                resyncRequired = true;
+            }
+        } catch (IOException e) {
+            // El nonce sigue reservado; se reenvía la misma transacción firmada en la próxima revisión
+            log.warn("⚠️ Error de red enviando nonce {} de {}: {}", tx.getNonce(), getAddress(), e.getMessage());
+            tx.markUnsent();
+        }
+    }
+
+    private void doCheckPending() {
+        if (resyncRequired) {
+            resync();
+        }
+
+        Instant now = Instant.now();
+        for (PendingTransaction tx : pending.values()) {
+            if (tx.getReceipt().isDone()) {
+                // Confirmada por el tracker mientras se renumeraba
+                pending.remove(tx.getNonce(), tx);
+                continue;
+            }
+            if (!tx.isSent()) {
+                // Solo reenviar lo que ya se intentó; lo demás sigue su turno en la cola de envío
+                if (tx.getSendAttempts() > 0) {
+                    send(tx);
+                }
+                continue;
+            }
+
+            if (Duration.between(tx.getCreatedAt(), now).compareTo(settings.getReceiptTimeout()) > 0) {
+                fail(tx, new TransactionException("No receipt for nonce " + tx.getNonce() + " after "
+                        + settings.getReceiptTimeout().toSeconds() + "s, last hash " + tx.getCurrentHash()));
+                continue;
+            }
+
+            if (tx.getLastSentAt() != null
+                    && Duration.between(tx.getLastSentAt(), now).compareTo(settings.getStuckAfter()) > 0
+                    && tx.getReplacements() < settings.getMaxReplacements()) {
+                replace(tx);
+            }
+        }
+    }
+
+    private void replace(PendingTransaction tx) {
+        BigInteger previousGasPrice = tx.getGasPrice();
+        if (!bumpGasPrice(tx)) {
+            return;
+        }
+        tx.markReplaced();
+        log.info("⛽ Nonce {} de {} atascado, reemplazando: gas price {} -> {}",
+                tx.getNonce(), getAddress(), previousGasPrice, tx.getGasPrice());
+        send(tx);
+    }
+
+    private boolean bumpGasPrice(PendingTransaction tx) {
+        BigInteger current = tx.getGasPrice();
+        BigInteger max = settings.getMaxGasPrice();
+        if (max != null && current.compareTo(max) >= 0) {
+            return false;
+        }
+
+        BigInteger bumped = current.multiply(BigInteger.valueOf(100L + settings.getGasBumpPercent()))
+                .divide(BigInteger.valueOf(100))
+                .max(current.add(BigInteger.ONE));
+        if (max != null) {
+            bumped = bumped.min(max);
+        }
+        tx.bumpGasPrice(bumped);
+        return true;
+    }
+
+    /**
+     * Cierra huecos de nonce: renumera desde eth_getTransactionCount lo no enviado o encolado tras el hueco
+     */
+    private void resync() {
+        synchronized (nonceLock) {
+            BigInteger chainNonce;
+            try {
+                chainNonce = fetchPendingNonce();
+            } catch (IOException e) {
+                log.warn("⚠️ No se pudo resincronizar el nonce de {}: {}", getAddress(), e.getMessage());
+                return;
+            }
+
+            List<PendingTransaction> toRenumber = new ArrayList<>();
+            for (PendingTransaction tx : pending.values()) {
+                if (!tx.isSent() || tx.getNonce().compareTo(chainNonce) >= 0) {
+                    toRenumber.add(tx);
+                }
+            }
+            toRenumber.sort(Comparator.comparing(PendingTransaction::getNonce));
+            toRenumber.forEach(tx -> pending.remove(tx.getNonce(), tx));
+
+            BigInteger nonce = chainNonce;
+            for (PendingTransaction tx : toRenumber) {
+                if (!tx.getNonce().equals(nonce)) {
+                    // El hueco puede estar ocupado por una versión nuestra encolada: hace falta subir el gas
+                    if (tx.getSendAttempts() > 0) {
+                        bumpGasPrice(tx);
+                    }
+                    tx.renonce(nonce);
+                }
+                pending.put(nonce, tx);
+                nonce = nonce.add(BigInteger.ONE);
+            }
+
+            log.info("🔢 Nonce de {} resincronizado: red={}, siguiente={}, renumeradas={}",
+                    getAddress(), chainNonce, nonce, toRenumber.size());
+            nextNonce = nonce;
+            resyncRequired = false;
+        }
+    }
+
+    private void fail(PendingTransaction tx, Throwable error) {
+        pending.remove(tx.getNonce(), tx);
+        tx.getReceipt().completeExceptionally(error);
+    }
+}
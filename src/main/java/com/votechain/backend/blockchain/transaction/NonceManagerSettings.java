@@ -0,0 +1,34 @@
+package com.votechain.backend.blockchain.transaction;
+
+import lombok.Builder;
+import lombok.Getter;
+
+import java.math.BigInteger;
+import java.time.Duration;
+
+/**
+ * Parámetros del gestor de nonces: reemplazo de transacciones atascadas y límites de espera
+ */
+@Getter
+@Builder
+public class NonceManagerSettings {
+
+    /** Tiempo sin confirmación tras el cual una transacción se reemplaza con más gas */
+    private final Duration stuckAfter;
+
+    /** Tiempo máximo esperando un receipt antes de dar la transacción por fallida */
+    private final Duration receiptTimeout;
+
+    /** Incremento porcentual del gas price en cada reemplazo (los nodos exigen al menos un 10%) */
+    private final int gasBumpPercent;
+
+    /** Número máximo de reemplazos por nonce */
+    private final int maxReplacements;
+
+    /** Tope del gas price para reemplazos, en wei */
+    private final BigInteger maxGasPrice;
+
+    /** Envíos en cola por wallet; con la cola llena la transacción falla en lugar de acumularse */
+    @Builder.Default
+    private final int sendQueueCapacity = 1000;
+}
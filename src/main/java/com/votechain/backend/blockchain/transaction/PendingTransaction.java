@@ -0,0 +1,103 @@
+package com.votechain.backend.blockchain.transaction;
+
+import lombok.Getter;
+import org.web3j.protocol.core.methods.response.TransactionReceipt;
+
+import java.math.BigInteger;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Transacción firmada localmente que espera confirmación; conserva todos los hashes emitidos para su nonce
+ */
+@Getter
+public class PendingTransaction {
+
+    private final String to;
+    private final String data;
+    private final BigInteger gasLimit;
+    private final Instant createdAt = Instant.now();
+    private final List<String> transactionHashes = new CopyOnWriteArrayList<>();
+    private final CompletableFuture<TransactionReceipt> receipt = new CompletableFuture<>();
+    private final CompletableFuture<String> submittedHash = new CompletableFuture<>();
+
+    private volatile BigInteger nonce;
+    private volatile BigInteger gasPrice;
+    private volatile String signedTransaction;
+    private volatile BigInteger signedNonce;
+    private volatile boolean sent;
+    private volatile Instant lastSentAt;
+    private volatile int replacements;
+    private volatile int sendAttempts;
+
+    PendingTransaction(BigInteger nonce, String to, String data, BigInteger gasPrice, BigInteger gasLimit) {
+        this.nonce = nonce;
+        this.to = to;
+        this.data = data;
+        this.gasPrice = gasPrice;
+        this.gasLimit = gasLimit;
+        // Si la transacción termina antes del primer envío correcto, el hash sigue la misma suerte
+        receipt.whenComplete((minedReceipt, error) -> {
+            if (error != null) {
+                submittedHash.completeExceptionally(error);
+            } else {
+                submittedHash.complete(minedReceipt.getTransactionHash());
+            }
+        });
+    }
+
+    static PendingTransaction failed(Throwable error) {
+        PendingTransaction tx = new PendingTransaction(null, null, null, null, null);
+        tx.receipt.completeExceptionally(error);
+        return tx;
+    }
+
+    /**
+     * Hash de la última versión enviada (cambia si la transacción se reemplaza)
+     */
+    public String getCurrentHash() {
+        return transactionHashes.isEmpty() ? null : transactionHashes.get(transactionHashes.size() - 1);
+    }
+
+    synchronized void signed(BigInteger forNonce, String signedHex, String hash) {
+        this.signedNonce = forNonce;
+        this.signedTransaction = signedHex;
+        if (!transactionHashes.contains(hash)) {
+            transactionHashes.add(hash);
+        }
+    }
+
+    boolean isSignedForCurrentNonce() {
+        return signedTransaction != null && nonce.equals(signedNonce);
+    }
+
+    void renonce(BigInteger newNonce) {
+        this.nonce = newNonce;
+        this.sent = false;
+    }
+
+    void bumpGasPrice(BigInteger newGasPrice) {
+        this.gasPrice = newGasPrice;
+        this.signedTransaction = null;
+    }
+
+    void markAttempted() {
+        this.sendAttempts++;
+    }
+
+    void markSent() {
+        this.sent = true;
+        this.lastSentAt = Instant.now();
+        submittedHash.complete(getCurrentHash());
+    }
+
+    void markUnsent() {
+        this.sent = false;
+    }
+
+    void markReplaced() {
+        this.replacements++;
+    }
+}
@@ -0,0 +1,320 @@
+package com.votechain.backend.blockchain.transaction;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.web3j.protocol.Web3j;
+import org.web3j.protocol.core.DefaultBlockParameterName;
+import org.web3j.protocol.core.methods.response.EthGetTransactionCount;
+import org.web3j.utils.Convert;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Pool de wallets firmantes: reparte las transacciones entre varias cuentas, cada una con su propia secuencia de nonces.
+ * Una wallet excluida por fallos seguidos solo vuelve cuando ha pasado su espera y responden las consultas de saldo y
+ * nonce; vuelve a prueba y, si falla otra vez, la espera se duplica hasta maxReenableBackoff
+ */
+@Slf4j
+public class SignerWalletPool {
+
+    private final Web3j web3j;
+    private final List<ManagedWallet> wallets = new ArrayList<>();
+    private final ExecutorService signingExecutor;
+    private final WalletRoutingStrategy routingStrategy;
+    private final BigInteger minBalanceWei;
+    private final int maxConsecutiveFailures;
+    private final Duration reenableBackoff;
+    private final Duration maxReenableBackoff;
+    private final Duration shutdownTimeout;
+    private final AtomicInteger cursor = new AtomicInteger();
+
+    public SignerWalletPool(Web3j web3j, List<NonceManagedTransactionSubmitter> submitters,
+                            ExecutorService signingExecutor, WalletRoutingStrategy routingStrategy,
+                            BigInteger minBalanceWei, int maxConsecutiveFailures, Duration reenableBackoff,
+                            Duration maxReenableBackoff, Duration shutdownTimeout, MeterRegistry meterRegistry) {
+        if (submitters.isEmpty()) {
+            throw new IllegalArgumentException("At least one signer wallet is required");
+        }
+        this.web3j = web3j;
+        this.signingExecutor = signingExecutor;
+        this.shutdownTimeout = shutdownTimeout;
+        this.routingStrategy = routingStrategy;
+        this.minBalanceWei = minBalanceWei;
+        this.maxConsecutiveFailures = maxConsecutiveFailures;
+        this.reenableBackoff = reenableBackoff;
+        this.maxReenableBackoff = maxReenableBackoff.compareTo(reenableBackoff) < 0 ? reenableBackoff : maxReenableBackoff;
+
+        for (NonceManagedTransactionSubmitter submitter : submitters) {
+            ManagedWallet wallet = new ManagedWallet(submitter);
+            registerMetrics(wallet, meterRegistry);
+            submitter.bindMetrics(meterRegistry);
+            wallets.add(wallet);
+        }
+        log.info("👛 Pool de wallets firmantes: {} wallets, enrutado {}", wallets.size(), routingStrategy);
+    }
+
+    /**
+     * Envía la transacción por la wallet elegida según la estrategia de enrutado
+     */
+    public PendingTransaction submit(String to, String data, BigInteger gasPrice, BigInteger gasLimit) {
+        ManagedWallet wallet = route();
+        PendingTransaction tx = wallet.submitter.submit(to, data, gasPrice, gasLimit);
+        tx.getReceipt().whenComplete((receipt, error) -> wallet.recordOutcome(error == null));
+        return tx;
+    }
+
+    /**
+     * Revisa reenvíos, timeouts y nonces atascados de todas las wallets
+     */
+    public void checkPending() {
+        wallets.forEach(wallet -> wallet.submitter.checkPending());
+    }
+
+    /**
+     * Actualiza saldo y salud de cada wallet; una wallet sin saldo o con fallos seguidos deja de recibir tráfico
+     */
+    public void refreshHealth() {
+        Instant now = Instant.now();
+        for (ManagedWallet wallet : wallets) {
+            BigInteger balance;
+            try {
+                balance = web3j.ethGetBalance(wallet.getAddress(), DefaultBlockParameterName.LATEST)
+                        .send()
+                        .getBalance();
+            } catch (Exception e) {
+                log.warn("⚠️ No se pudo consultar el saldo de la wallet {}: {}", wallet.getAddress(), e.getMessage());
+                wallet.probeFailed(now);
+                continue;
+            }
+            wallet.balanceWei = balance;
+            wallet.lastHealthCheck = LocalDateTime.now();
+
+            boolean funded = minBalanceWei == null || balance.compareTo(minBalanceWei) >= 0;
+            if (!funded) {
+                log.warn("⚠️ Wallet {} con saldo insuficiente: {} ETH", wallet.getAddress(), wallet.getBalanceEth());
+            }
+            wallet.funded = funded;
+            if (wallet.isWaitingReenable(now)) {
+                wallet.tryReenable(now);
+            }
+            wallet.updateHealthy();
+        }
+    }
+
+    /**
+     * Estado de cada wallet del pool (dirección, saldo, pendientes, salud)
+     */
+    public List<Map<String, Object>> getWalletStatus() {
+        List<Map<String, Object>> status = new ArrayList<>();
+        for (ManagedWallet wallet : wallets) {
+            Map<String, Object> walletStatus = new HashMap<>();
+            walletStatus.put("address", wallet.getAddress());
+            walletStatus.put("healthy", wallet.healthy);
+            walletStatus.put("pendingTransactions", wallet.submitter.getPendingCount());
+            walletStatus.put("balanceEth", wallet.getBalanceEth());
+            walletStatus.put("consecutiveFailures", wallet.consecutiveFailures.get());
+            walletStatus.put("excludedUntil", wallet.excludedForFailures ? wallet.reenableAt : null);
+            walletStatus.put("lastHealthCheck", wallet.lastHealthCheck);
+            status.add(walletStatus);
+        }
+        return status;
+    }
+
+    public int size() {
+        return wallets.size();
+    }
+
+    /**
+     * Deja de aceptar transacciones y espera a que terminen las firmas y después los envíos ya encolados;
+     * lo que no termina en shutdownTimeout se descarta
+     */
+    public void shutdown() {
+        long deadline = System.nanoTime() + shutdownTimeout.toNanos();
+        signingExecutor.shutdown();
+        try {
+            if (!signingExecutor.awaitTermination(remaining(deadline), TimeUnit.NANOSECONDS)) {
+                log.warn("⚠️ Pool tx-signer no terminó en {} ms; {} firmas descartadas",
+                        shutdownTimeout.toMillis(), signingExecutor.shutdownNow().size());
+            }
+
+            wallets.forEach(wallet -> wallet.submitter.shutdown());
+            for (ManagedWallet wallet : wallets) {
+                if (!wallet.submitter.awaitTermination(remaining(deadline), TimeUnit.NANOSECONDS)) {
+                    log.warn("⚠️ Envíos de la wallet {} sin terminar en {} ms; {} descartados",
+                            wallet.getAddress(), shutdownTimeout.toMillis(), wallet.submitter.shutdownNow());
+                }
+            }
+        } catch (InterruptedException e) {
+            signingExecutor.shutdownNow();
+            wallets.forEach(wallet -> wallet.submitter.shutdownNow());
+            Thread.currentThread().interrupt();
+        }
+        log.info("Pool de wallets firmantes detenido");
+    }
+
+    private static long remaining(long deadline) {
+        return Math.max(0, deadline - System.nanoTime());
+    }
+
+    private ManagedWallet route() {
+        List<ManagedWallet> candidates = wallets.stream().filter(wallet -> wallet.healthy).toList();
+        if (candidates.isEmpty()) {
+            // Mejor intentar con una wallet dudosa que rechazar el envío
+            candidates = wallets;
+        }
+
+        int start = Math.floorMod(cursor.getAndIncrement(), candidates.size());
+        if (routingStrategy == WalletRoutingStrategy.ROUND_ROBIN) {
+            return candidates.get(start);
+        }
+
+        // LEAST_PENDING: se empieza a recorrer desde el cursor para repartir los empates
+        ManagedWallet best = candidates.get(start);
+        for (int i = 1; i < candidates.size(); i++) {
+            ManagedWallet candidate = candidates.get((start + i) % candidates.size());
+            if (candidate.submitter.getPendingCount() < best.submitter.getPendingCount()) {
+                best = candidate;
+            }
+        }
+        return best;
+    }
+
+    private static Duration min(Duration a, Duration b) {
+        return a.compareTo(b) <= 0 ? a : b;
+    }
+
+    private void registerMetrics(ManagedWallet wallet, MeterRegistry meterRegistry) {
+        String address = wallet.getAddress();
+        Gauge.builder("votechain.blockchain.wallet.pending", wallet, w -> w.submitter.getPendingCount())
+                .description("Transacciones sin confirmar de la wallet")
+                .tag("address", address)
+                .register(meterRegistry);
+        Gauge.builder("votechain.blockchain.wallet.balance", wallet, w -> w.getBalanceEth().doubleValue())
+                .description("Saldo de la wallet")
+                .baseUnit("ether")
+                .tag("address", address)
+                .register(meterRegistry);
+        Gauge.builder("votechain.blockchain.wallet.healthy", wallet, w -> w.healthy ? 1 : 0)
+                .description("1 si la wallet recibe tráfico, 0 si está excluida")
+                .tag("address", address)
+                .register(meterRegistry);
+        wallet.successCounter = Counter.builder("votechain.blockchain.wallet.transactions")
+                .tag("address", address)
+                .tag("outcome", "success")
+                .register(meterRegistry);
+        wallet.failureCounter = Counter.builder("votechain.blockchain.wallet.transactions")
+                .tag("address", address)
+                .tag("outcome", "failure")
+                .register(meterRegistry);
+    }
+
+    private class ManagedWallet {
+        private final NonceManagedTransactionSubmitter submitter;
+        private final AtomicInteger consecutiveFailures = new AtomicInteger();
+        private volatile boolean healthy = true;
+        private volatile boolean funded = true;
+        // Exclusión por fallos seguidos: instante a partir del cual se vuelve a probar y espera actual, que se
+        // duplica en cada recaída; se modifican con el monitor de la wallet
+        private volatile boolean excludedForFailures;
+        private volatile Instant reenableAt;
+        private Duration backoff;
+        private volatile BigInteger balanceWei = BigInteger.ZERO;
+        private volatile LocalDateTime lastHealthCheck;
+        private Counter successCounter;
+        private Counter failureCounter;
+
+        private ManagedWallet(NonceManagedTransactionSubmitter submitter) {
+            this.submitter = submitter;
+        }
+
+        private String getAddress() {
+            return submitter.getAddress();
+        }
+
+        private BigDecimal getBalanceEth() {
+            return Convert.fromWei(new BigDecimal(balanceWei), Convert.Unit.ETHER);
+        }
+
+        private void recordOutcome(boolean success) {
+            if (success) {
+                consecutiveFailures.set(0);
+                successCounter.increment();
+                synchronized (this) {
+                    if (!excludedForFailures) {
+                        // Confirmada tras volver: la próxima exclusión empieza otra vez con la espera mínima
+                        backoff = null;
+                    }
+                }
+                return;
+            }
+            failureCounter.increment();
+            if (consecutiveFailures.incrementAndGet() >= maxConsecutiveFailures) {
+                exclude(Instant.now());
+            }
+        }
+
+        private synchronized void exclude(Instant now) {
+            if (excludedForFailures) {
+                return;
+            }
+            backoff = backoff == null ? reenableBackoff : min(backoff.multipliedBy(2), maxReenableBackoff);
+            excludedForFailures = true;
+            reenableAt = now.plus(backoff);
+            healthy = false;
+            log.warn("⚠️ Wallet {} excluida del enrutado tras {} fallos seguidos, se volverá a probar en {} s",
+                    getAddress(), maxConsecutiveFailures, backoff.toSeconds());
+        }
+
+        private boolean isWaitingReenable(Instant now) {
+            return excludedForFailures && !now.isBefore(reenableAt);
+        }
+
+        /**
+         * Comprobación de nonce antes de devolver la wallet al enrutado: el nodo tiene que responder por esta cuenta
+         */
+        private void tryReenable(Instant now) {
+            try {
+                EthGetTransactionCount count = web3j.ethGetTransactionCount(getAddress(), DefaultBlockParameterName.PENDING)
+                        .send();
+                if (count.hasError()) {
+                    throw new IllegalStateException(count.getError().getMessage());
+                }
+                count.getTransactionCount();
+            } catch (Exception e) {
+                log.warn("⚠️ Wallet {} sigue excluida: no se pudo consultar su nonce: {}", getAddress(), e.getMessage());
+                probeFailed(now);
+                return;
+            }
+            synchronized (this) {
+                excludedForFailures = false;
+                // A prueba: un fallo más la vuelve a excluir, con el doble de espera
+                consecutiveFailures.set(Math.max(0, maxConsecutiveFailures - 1));
+            }
+            log.info("✅ Wallet {} vuelve al enrutado a prueba", getAddress());
+        }
+
+        private synchronized void probeFailed(Instant now) {
+            if (excludedForFailures && !now.isBefore(reenableAt)) {
+                backoff = min(backoff.multipliedBy(2), maxReenableBackoff);
+                reenableAt = now.plus(backoff);
+            }
+        }
+
+        private void updateHealthy() {
+            healthy = funded && !excludedForFailures;
+        }
+    }
+}
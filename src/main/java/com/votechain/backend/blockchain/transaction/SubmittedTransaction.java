@@ -0,0 +1,24 @@
+package com.votechain.backend.blockchain.transaction;
+
+import lombok.Getter;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Transacción enviada: el hash se conoce en cuanto el nodo la acepta, la confirmación llega cuando se mina
+ */
+@Getter
+public class SubmittedTransaction<T> {
+
+    private final CompletableFuture<String> transactionHash;
+    private final CompletableFuture<T> confirmation;
+
+    public SubmittedTransaction(CompletableFuture<String> transactionHash, CompletableFuture<T> confirmation) {
+        this.transactionHash = transactionHash;
+        this.confirmation = confirmation;
+    }
+
+    public static <T> SubmittedTransaction<T> failed(Throwable error) {
+        return new SubmittedTransaction<>(CompletableFuture.failedFuture(error), CompletableFuture.failedFuture(error));
+    }
+}
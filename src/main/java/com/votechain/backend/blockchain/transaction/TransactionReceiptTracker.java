@@ -0,0 +1,120 @@
+package com.votechain.backend.blockchain.transaction;
+
+import lombok.extern.slf4j.Slf4j;
+import org.web3j.protocol.Web3j;
+import org.web3j.protocol.core.BatchRequest;
+import org.web3j.protocol.core.Response;
+import org.web3j.protocol.core.methods.response.EthGetTransactionReceipt;
+import org.web3j.protocol.core.methods.response.TransactionReceipt;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Seguimiento único de receipts para todas las wallets: consulta en lote los hashes pendientes
+ * y completa las transacciones minadas, sin hilos bloqueados esperando cada una
+ */
+@Slf4j
+public class TransactionReceiptTracker {
+
+    private final Web3j web3j;
+    private final int batchSize;
+    private final Set<PendingTransaction> tracked = ConcurrentHashMap.newKeySet();
+    private volatile boolean batchSupported = true;
+
+    public TransactionReceiptTracker(Web3j web3j, int batchSize) {
+        this.web3j = web3j;
+        this.batchSize = Math.max(1, batchSize);
+    }
+
+    /**
+     * Sigue la transacción hasta que se complete (receipt, fallo o timeout)
+     */
+    public void track(PendingTransaction tx) {
+        tracked.add(tx);
+        tx.getReceipt().whenComplete((receipt, error) -> tracked.remove(tx));
+    }
+
+    public int getTrackedCount() {
+        return tracked.size();
+    }
+
+    /**
+     * Consulta los receipts de todos los hashes emitidos (originales y reemplazos) en peticiones por lotes
+     */
+    public void poll() {
+        Map<String, PendingTransaction> byHash = new HashMap<>();
+        for (PendingTransaction tx : tracked) {
+            if (tx.getReceipt().isDone() || tx.getSendAttempts() == 0) {
+                continue;
+            }
+            for (String hash : tx.getTransactionHashes()) {
+                byHash.put(hash.toLowerCase(Locale.ROOT), tx);
+            }
+        }
+        if (byHash.isEmpty()) {
+            return;
+        }
+
+        List<String> hashes = new ArrayList<>(byHash.keySet());
+        int found = 0;
+        for (int from = 0; from < hashes.size(); from += batchSize) {
+            List<String> chunk = hashes.subList(from, Math.min(from + batchSize, hashes.size()));
+            for (TransactionReceipt receipt : fetchReceipts(chunk)) {
+                PendingTransaction tx = byHash.get(receipt.getTransactionHash().toLowerCase(Locale.ROOT));
+                if (tx != null && tx.getReceipt().complete(receipt)) {
+                    found++;
+                }
+            }
+        }
+        log.debug("🧾 Receipts consultados: {} hashes, {} transacciones confirmadas", hashes.size(), found);
+    }
+
+    private List<TransactionReceipt> fetchReceipts(List<String> hashes) {
+        if (batchSupported && hashes.size() > 1) {
+            try {
+                return fetchBatch(hashes);
+            } catch (UnsupportedOperationException e) {
+                // El transporte no admite JSON-RPC por lotes: se consulta hash a hash
+                batchSupported = false;
+                log.warn("⚠️ El proveedor no admite peticiones por lotes, consultando receipts individualmente");
+            } catch (IOException e) {
+                log.warn("⚠️ Error consultando receipts en lote: {}", e.getMessage());
+                return List.of();
+            }
+        }
+        return fetchIndividually(hashes);
+    }
+
+    private List<TransactionReceipt> fetchBatch(List<String> hashes) throws IOException {
+        BatchRequest batch = web3j.newBatch();
+        hashes.forEach(hash -> batch.add(web3j.ethGetTransactionReceipt(hash)));
+
+        List<TransactionReceipt> receipts = new ArrayList<>();
+        for (Response<?> response : batch.send().getResponses()) {
+            if (response instanceof EthGetTransactionReceipt receiptResponse && !response.hasError()) {
+                receiptResponse.getTransactionReceipt().ifPresent(receipts::add);
+            }
+        }
+        return receipts;
+    }
+
+    private List<TransactionReceipt> fetchIndividually(List<String> hashes) {
+        List<TransactionReceipt> receipts = new ArrayList<>();
+        for (String hash : hashes) {
+            try {
+                web3j.ethGetTransactionReceipt(hash).send().getTransactionReceipt().ifPresent(receipts::add);
+            } catch (IOException e) {
+                log.debug("Error consultando receipt {}: {}", hash, e.getMessage());
+                break;
+            }
+        }
+        return receipts;
+    }
+}
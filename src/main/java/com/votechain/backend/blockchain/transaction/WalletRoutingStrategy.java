@@ -0,0 +1,6 @@
+package com.votechain.backend.blockchain.transaction;
+
+public enum WalletRoutingStrategy {
+    ROUND_ROBIN,     // Reparte las transacciones por turnos entre las wallets sanas
+    LEAST_PENDING    // Elige la wallet sana con menos transacciones sin confirmar
+}
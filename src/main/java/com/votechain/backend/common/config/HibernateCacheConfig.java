@@ -0,0 +1,128 @@
+package com.votechain.backend.common.config;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import com.votechain.backend.auth.model.User;
+import com.votechain.backend.voting.model.Votacion;
+import com.votechain.backend.voting.model.VotacionOpcion;
+import com.votechain.backend.voting.repository.VotacionOpcionRepository;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.JCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cache.spi.RegionFactory;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.net.URI;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Caché de segundo nivel de Hibernate (JCache sobre Caffeine) para Votacion, VotacionOpcion y User, más la
+ * caché de consultas de las opciones por votación. Cada región tiene su propio tamaño máximo.
+ * Las escrituras a través del EntityManager (save, delete, JPQL UPDATE/DELETE) invalidan las entradas
+ * afectadas al hacer commit; un UPDATE en SQL nativo sobre estas tablas debe desalojar la región a mano.
+ * Aciertos y fallos por región en /actuator/metrics/cache.gets?tag=cache:votaciones
+ */
+@Configuration
+@Slf4j
+public class HibernateCacheConfig {
+
+    // El proveedor JCache reutiliza gestores por URI dentro de la JVM: uno propio por contexto (tests)
+    private static final AtomicInteger CACHE_MANAGERS = new AtomicInteger();
+
+    @Value("${jpa.second-level-cache.enabled:true}")
+    private boolean enabled;
+
+    @Value("${jpa.second-level-cache.ttl-ms:3600000}")
+    private long ttlMs;
+
+    @Value("${jpa.second-level-cache.votaciones.max-size:10000}")
+    private long votacionesMaxSize;
+
+    @Value("${jpa.second-level-cache.votacion-opciones.max-size:50000}")
+    private long opcionesMaxSize;
+
+    @Value("${jpa.second-level-cache.users.max-size:50000}")
+    private long usersMaxSize;
+
+    @Value("${jpa.second-level-cache.opciones-por-votacion.max-size:10000}")
+    private long opcionesPorVotacionMaxSize;
+
+    @Value("${jpa.second-level-cache.query-results.max-size:1000}")
+    private long queryResultsMaxSize;
+
+    @Bean(destroyMethod = "close")
+    public CacheManager hibernateCacheManager() {
+        URI uri = URI.create("votechain-hibernate-" + CACHE_MANAGERS.incrementAndGet());
+        CacheManager cacheManager = Caching.getCachingProvider(CaffeineCachingProvider.class.getName())
+                .getCacheManager(uri, getClass().getClassLoader());
+
+        regions().forEach((region, maxSize) -> cacheManager.createCache(region, regionConfiguration(region, maxSize)));
+        log.info("🗄️ Caché de segundo nivel: regiones {}", regions());
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer secondLevelCacheCustomizer(CacheManager hibernateCacheManager) {
+        return properties -> {
+            if (!enabled) {
+                log.info("Caché de segundo nivel desactivada (jpa.second-level-cache.enabled=false)");
+                return;
+            }
+            properties.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, true);
+            properties.put(AvailableSettings.USE_QUERY_CACHE, true);
+            properties.put(AvailableSettings.CACHE_REGION_FACTORY, "jcache");
+            properties.put(ConfigSettings.CACHE_MANAGER, hibernateCacheManager);
+            // Una región sin configurar no arranca en lugar de crearse sin límite de tamaño
+            properties.put(ConfigSettings.MISSING_CACHE_STRATEGY, "fail");
+        };
+    }
+
+    @Bean
+    public MeterBinder hibernateCacheMetrics(CacheManager hibernateCacheManager) {
+        return registry -> regions().keySet().forEach(region ->
+                new JCacheMetrics<>(hibernateCacheManager.getCache(region), Tags.empty()).bindTo(registry));
+    }
+
+    /**
+     * Región -> tamaño máximo (0 = sin límite)
+     */
+    private Map<String, Long> regions() {
+        Map<String, Long> regions = new LinkedHashMap<>();
+        regions.put(Votacion.CACHE_REGION, votacionesMaxSize);
+        regions.put(VotacionOpcion.CACHE_REGION, opcionesMaxSize);
+        regions.put(User.CACHE_REGION, usersMaxSize);
+        regions.put(VotacionOpcionRepository.OPCIONES_POR_VOTACION_REGION, opcionesPorVotacionMaxSize);
+        regions.put(RegionFactory.DEFAULT_QUERY_RESULTS_REGION_UNQUALIFIED_NAME, queryResultsMaxSize);
+        // Marcas de última escritura por tabla: una entrada por tabla y no puede desalojarse antes que
+        // los resultados que valida
+        regions.put(RegionFactory.DEFAULT_UPDATE_TIMESTAMPS_REGION_UNQUALIFIED_NAME, 0L);
+        return regions;
+    }
+
+    private CaffeineConfiguration<Object, Object> regionConfiguration(String region, long maxSize) {
+        CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+        // Hibernate guarda el estado desensamblado de cada entidad: no hace falta copiarlo en cada lectura
+        configuration.setStoreByValue(false);
+        configuration.setStatisticsEnabled(true);
+        if (maxSize > 0) {
+            configuration.setMaximumSize(OptionalLong.of(maxSize));
+        }
+        // Con varias instancias cada una tiene su propia caché: la caducidad acota cuánto puede quedar obsoleta
+        if (ttlMs > 0 && !RegionFactory.DEFAULT_UPDATE_TIMESTAMPS_REGION_UNQUALIFIED_NAME.equals(region)) {
+            configuration.setExpireAfterWrite(OptionalLong.of(TimeUnit.MILLISECONDS.toNanos(ttlMs)));
+        }
+        return configuration;
+    }
+}
@@ -0,0 +1,12 @@
+package com.votechain.backend.common.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Habilita las tareas programadas (dispatcher del outbox de blockchain, etc.)
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
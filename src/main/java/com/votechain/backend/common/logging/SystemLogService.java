@@ -49,6 +49,15 @@ public class SystemLogService {
                         ", hash: " + voteHash);
     }
 
+    /**
+     * Log vote casting from a background thread, with the request origin captured on the request thread
+     */
+    public void logVoteCast(Long userId, Long votingId, String voteHash, String ipAddress, String userAgent) {
+        logUserActivity(userId, LogType.VOTE, LogLevel.INFO,
+                "Vote cast", "User cast vote in voting #" + votingId +
+                        ", hash: " + voteHash, ipAddress, userAgent);
+    }
+
     /**
      * Log general user actions (método que faltaba para UserService)
      */
@@ -104,6 +113,11 @@ public class SystemLogService {
      */
     private void logUserActivity(Long userId, LogType type, LogLevel level,
                                   String action, String description) {
+        logUserActivity(userId, type, level, action, description, getClientIpAddress(), getUserAgent());
+    }
+
+    private void logUserActivity(Long userId, LogType type, LogLevel level,
+                                  String action, String description, String ipAddress, String userAgent) {
         User user = new User();
         user.setId(userId);
 
@@ -114,8 +128,8 @@ public class SystemLogService {
                 .description(description)
                 .user(user)
                 .timestamp(LocalDateTime.now())
-                .ipAddress(getClientIpAddress())
-                .userAgent(getUserAgent())
+                .ipAddress(ipAddress)
+                .userAgent(userAgent)
                 .build();
 
         systemLogRepository.save(log);
@@ -124,7 +138,7 @@ public class SystemLogService {
     /**
      * Get client IP address from request
      */
-    private String getClientIpAddress() {
+    public String getClientIpAddress() {
         return Optional.ofNullable(RequestContextHolder.getRequestAttributes())
                 .filter(ServletRequestAttributes.class::isInstance)
                 .map(ServletRequestAttributes.class::cast)
@@ -153,7 +167,7 @@ public class SystemLogService {
     /**
      * Get user agent from request
      */
-    private String getUserAgent() {
+    public String getUserAgent() {
         return Optional.ofNullable(RequestContextHolder.getRequestAttributes())
                 .filter(ServletRequestAttributes.class::isInstance)
                 .map(ServletRequestAttributes.class::cast)
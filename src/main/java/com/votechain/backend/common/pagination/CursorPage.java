@@ -0,0 +1,33 @@
+package com.votechain.backend.common.pagination;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Página de un listado por cursor. nextCursor es null en la última página; totalElements solo se calcula
+ * si se pide, porque es la única parte cuyo coste crece con la tabla
+ */
+@Getter
+@AllArgsConstructor
+public class CursorPage<T> {
+
+    private final List<T> content;
+    private final int size;
+    private final boolean hasNext;
+    private final String nextCursor;
+    private final Long totalElements;
+
+    /**
+     * rows se consulta con size + 1 filas: la sobrante solo indica que hay otra página
+     */
+    public static <E, T> CursorPage<T> of(List<E> rows, int size, Function<E, Cursor> cursorOf,
+                                          Function<List<E>, List<T>> mapper, Long totalElements) {
+        boolean hasNext = rows.size() > size;
+        List<E> page = hasNext ? rows.subList(0, size) : rows;
+        String nextCursor = hasNext ? cursorOf.apply(page.get(page.size() - 1)).encode() : null;
+        return new CursorPage<>(mapper.apply(page), size, hasNext, nextCursor, totalElements);
+    }
+}
@@ -0,0 +1,215 @@
+package com.votechain.backend.dashboard.service;
+
+import com.votechain.backend.vote.event.VoteCastEvent;
+import com.votechain.backend.voting.event.VotacionChangedEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Instantánea precalculada de /dashboard/stats y /dashboard/public-stats (incluye topVotaciones). Las
+ * peticiones leen la última instantánea sin consultar la base de datos; se recalcula en segundo plano, de
+ * una en una, cada refresh-interval-ms y tras votos o cambios de votaciones (como mucho una vez por
+ * min-refresh-interval-ms). Las respuestas indican su antigüedad en antiguedadSnapshotMs
+ */
+@Service
+@Slf4j
+public class DashboardSnapshotService {
+
+    public static final String AGE_KEY = "antiguedadSnapshotMs";
+
+    @Autowired
+    private DashboardStatsService dashboardStatsService;
+
+    @Autowired
+    @Qualifier("applicationTaskExecutor")
+    private TaskExecutor taskExecutor;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${dashboard.snapshot.refresh-interval-ms:60000}")
+    private long refreshIntervalMs;
+
+    @Value("${dashboard.snapshot.min-refresh-interval-ms:5000}")
+    private long minRefreshIntervalMs;
+
+    @Value("${dashboard.snapshot.admin-max-age-ms:10000}")
+    private long adminMaxAgeMs;
+
+    @Value("${dashboard.snapshot.wait-timeout-ms:10000}")
+    private long waitTimeoutMs;
+
+    private final AtomicReference<Snapshot> current = new AtomicReference<>();
+    private final AtomicReference<CompletableFuture<Snapshot>> inFlight = new AtomicReference<>();
+    private final AtomicBoolean dirty = new AtomicBoolean();
+
+    @PostConstruct
+    public void init() {
+        meterRegistry.gauge("votechain.dashboard.snapshot.age", this, service -> {
+            Snapshot snapshot = service.current.get();
+            return snapshot != null ? snapshot.ageMs() : -1;
+        });
+    }
+
+    /**
+     * Estadísticas públicas: se sirve la instantánea aunque esté caducada y se pide un refresco en segundo plano
+     */
+    public Map<String, Object> getPublicStats() {
+        Snapshot snapshot = current.get();
+        if (snapshot == null) {
+            snapshot = awaitRefresh(null);
+        } else if (snapshot.ageMs() > refreshIntervalMs) {
+            refreshAsync();
+        }
+        return withAge(snapshot.publicStats, snapshot);
+    }
+
+    /**
+     * Estadísticas de administración: si la instantánea supera maxAgeMs (por defecto admin-max-age-ms, nunca
+     * más) se espera al refresco en curso o a uno nuevo. maxAgeMs = 0 fuerza un recálculo
+     */
+    public Map<String, Object> getSystemStats(Long maxAgeMs) {
+        long bound = maxAgeMs != null ? Math.max(0, Math.min(maxAgeMs, adminMaxAgeMs)) : adminMaxAgeMs;
+        Snapshot snapshot = current.get();
+        if (snapshot == null || snapshot.ageMs() > bound || bound == 0) {
+            snapshot = awaitRefresh(snapshot);
+        }
+        return withAge(snapshot.systemStats, snapshot);
+    }
+
+    @EventListener
+    public void onVoteCast(VoteCastEvent event) {
+        dirty.set(true);
+    }
+
+    @EventListener
+    public void onVotacionChanged(VotacionChangedEvent event) {
+        dirty.set(true);
+    }
+
+    /**
+     * Los eventos solo marcan la instantánea como pendiente: aquí se agrupan en un único refresco
+     */
+    @Scheduled(fixedDelayString = "${dashboard.snapshot.min-refresh-interval-ms:5000}")
+    public void refreshIfNeeded() {
+        Snapshot snapshot = current.get();
+        if (snapshot == null
+                || snapshot.ageMs() >= refreshIntervalMs
+                || (dirty.get() && snapshot.ageMs() >= minRefreshIntervalMs)) {
+            refreshAsync();
+        }
+    }
+
+    /**
+     * Refresco único: si ya hay uno en curso se devuelve ese mismo
+     */
+    public CompletableFuture<Snapshot> refreshAsync() {
+        CompletableFuture<Snapshot> future;
+        while (true) {
+            CompletableFuture<Snapshot> existing = inFlight.get();
+            if (existing != null) {
+                return existing;
+            }
+            future = new CompletableFuture<>();
+            if (inFlight.compareAndSet(null, future)) {
+                break;
+            }
+        }
+
+        // Los eventos que lleguen durante el cálculo vuelven a marcarla para el siguiente
+        dirty.set(false);
+        CompletableFuture<Snapshot> refresh = future;
+        try {
+            taskExecutor.execute(() -> refresh(refresh));
+        } catch (RuntimeException e) {
+            inFlight.compareAndSet(refresh, null);
+            dirty.set(true);
+            refresh.completeExceptionally(e);
+        }
+        return refresh;
+    }
+
+    private void refresh(CompletableFuture<Snapshot> future) {
+        long start = System.currentTimeMillis();
+        try {
+            Map<String, Object> systemStats = dashboardStatsService.getSystemStats();
+            Map<String, Object> publicStats = dashboardStatsService.getPublicStats();
+            if (Boolean.FALSE.equals(systemStats.get(DashboardStatsService.COMPLETE_KEY))) {
+                // Alguna sección no terminó: se sirve lo que hay y se reintenta en el siguiente ciclo
+                dirty.set(true);
+            }
+            Snapshot snapshot = new Snapshot(systemStats, publicStats, System.currentTimeMillis());
+            current.set(snapshot);
+            inFlight.compareAndSet(future, null);
+            future.complete(snapshot);
+            log.debug("Instantánea del dashboard recalculada en {} ms", System.currentTimeMillis() - start);
+        } catch (RuntimeException e) {
+            dirty.set(true);
+            inFlight.compareAndSet(future, null);
+            future.completeExceptionally(e);
+            log.warn("⚠️ No se pudo recalcular la instantánea del dashboard: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Espera un refresco; si falla o tarda más de wait-timeout-ms se sirve la instantánea anterior, si la hay
+     */
+    private Snapshot awaitRefresh(Snapshot fallback) {
+        try {
+            return refreshAsync().get(waitTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return fallbackOrThrow(fallback, e);
+        } catch (ExecutionException | TimeoutException e) {
+            return fallbackOrThrow(fallback, e);
+        }
+    }
+
+    private static Snapshot fallbackOrThrow(Snapshot fallback, Exception cause) {
+        if (fallback == null) {
+            throw new IllegalStateException("Dashboard statistics are not available yet", cause);
+        }
+        log.warn("⚠️ Sirviendo instantánea del dashboard de hace {} ms: {}", fallback.ageMs(), cause.toString());
+        return fallback;
+    }
+
+    private static Map<String, Object> withAge(Map<String, Object> stats, Snapshot snapshot) {
+        Map<String, Object> response = new HashMap<>(stats);
+        response.put(AGE_KEY, snapshot.ageMs());
+        return response;
+    }
+
+    public static final class Snapshot {
+        private final Map<String, Object> systemStats;
+        private final Map<String, Object> publicStats;
+        private final long generatedAtMillis;
+
+        private Snapshot(Map<String, Object> systemStats, Map<String, Object> publicStats, long generatedAtMillis) {
+            this.systemStats = Collections.unmodifiableMap(systemStats);
+            this.publicStats = Collections.unmodifiableMap(publicStats);
+            this.generatedAtMillis = generatedAtMillis;
+        }
+
+        public long ageMs() {
+            return Math.max(0, System.currentTimeMillis() - generatedAtMillis);
+        }
+    }
+}
@@ -0,0 +1,577 @@
+package com.votechain.backend.dashboard.service;
+
+import com.votechain.backend.auth.model.UserActivitySummary;
+import com.votechain.backend.auth.repository.UserRepository;
+import com.votechain.backend.auth.service.UserActivitySummaryService;
+import com.votechain.backend.vote.repository.VoteRepository;
+import com.votechain.backend.voting.model.VotacionCategoria;
+import com.votechain.backend.voting.model.VotacionEstado;
+import com.votechain.backend.voting.repository.VotacionRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.orm.jpa.EntityManagerHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Estadísticas del dashboard calculadas con agregados SQL (GROUP BY, COUNT, ORDER BY ... LIMIT) y proyecciones
+ * de columnas: el número de consultas por petición es fijo y no depende del tamaño de las tablas.
+ * Las secciones de /dashboard/stats se calculan en paralelo en un pool acotado, cada una con un límite de
+ * tiempo: la respuesta incluye las que terminaron y el estado de cada una en estadoSecciones. Cada sección
+ * corre en una transacción de solo lectura cuyo timeout llega a las consultas (jakarta.persistence.query.timeout):
+ * al vencer, la base de datos cancela la consulta y la conexión vuelve al pool
+ */
+@Service
+@Slf4j
+@Transactional(readOnly = true)
+public class DashboardStatsService {
+
+    private static final int RECENT_VOTACIONES = 5;
+    private static final int RECENT_VOTES = 10;
+    private static final int RECENT_USER_ITEMS = 5;
+    private static final int TOP_VOTACIONES = 5;
+    private static final int TREND_MONTHS = 6;
+    private static final int TREND_DAYS = 7;
+
+    private static final DateTimeFormatter MONTH_KEY = DateTimeFormatter.ofPattern("yyyy-MM");
+    private static final DateTimeFormatter DAY_KEY = DateTimeFormatter.ofPattern("yyyy-MM-dd");
+
+    public static final String SECTION_STATUS_KEY = "estadoSecciones";
+    public static final String COMPLETE_KEY = "completo";
+    public static final String SECTION_OK = "OK";
+    public static final String SECTION_TIMEOUT = "TIMEOUT";
+    public static final String SECTION_ERROR = "ERROR";
+    public static final String SECTION_REJECTED = "RECHAZADA";
+
+    @Autowired
+    private VotacionRepository votacionRepository;
+
+    @Autowired
+    private VoteRepository voteRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private UserActivitySummaryService userActivitySummaryService;
+
+    @Autowired
+    private ObjectProvider<MeterRegistry> meterRegistry;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    // 0 = secciones en secuencia en el hilo que llama (y dentro de su transacción, si la hay)
+    @Value("${dashboard.sections.threads:8}")
+    private int sectionThreads;
+
+    @Value("${dashboard.sections.queue-capacity:64}")
+    private int sectionQueueCapacity;
+
+    @Value("${dashboard.sections.timeout-ms:3000}")
+    private long sectionTimeoutMs;
+
+    private ExecutorService sectionExecutor;
+
+    @PostConstruct
+    public void init() {
+        if (sectionThreads <= 0) {
+            return;
+        }
+        AtomicInteger counter = new AtomicInteger();
+        ThreadPoolExecutor pool = new ThreadPoolExecutor(sectionThreads, sectionThreads, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, sectionQueueCapacity)),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "dashboard-section-" + counter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        pool.allowCoreThreadTimeOut(true);
+
+        MeterRegistry registry = meterRegistry.getIfAvailable();
+        sectionExecutor = registry != null
+                ? ExecutorServiceMetrics.monitor(registry, pool, "dashboard-sections", "votechain.dashboard", Tags.empty())
+                : pool;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (sectionExecutor != null) {
+            sectionExecutor.shutdownNow();
+        }
+    }
+
+    /**
+     * Estadísticas generales del sistema (/dashboard/stats). Sin transacción propia: cada sección consulta
+     * por su cuenta en el pool y el hilo que llama no retiene una conexión mientras espera
+     */
+    @Transactional(readOnly = true, propagation = Propagation.SUPPORTS)
+    public Map<String, Object> getSystemStats() {
+        Map<String, Supplier<?>> sections = new LinkedHashMap<>();
+        sections.put("estadisticasBasicas", this::getBasicStats);
+        sections.put("estadisticasPorCategoria", this::getStatsByCategory);
+        sections.put("votacionesRecientes", this::getRecentVotaciones);
+        sections.put("votosRecientes", this::getRecentVotes);
+        sections.put("estadisticasParticipacion", this::getParticipationStats);
+        sections.put("topVotaciones", () -> getTopVotaciones(TOP_VOTACIONES));
+        sections.put("tendencias", this::getTrends);
+        sections.put("blockchain", this::getBlockchainStats);
+
+        Map<String, Object> stats = computeSections(sections);
+        stats.put("generadoEn", LocalDateTime.now());
+        return stats;
+    }
+
+    /**
+     * Estadísticas públicas (/dashboard/public-stats)
+     */
+    public Map<String, Object> getPublicStats() {
+        Map<String, Object> stats = new HashMap<>();
+        Map<VotacionEstado, Long> porEstado = countVotacionesByEstado();
+        stats.put("totalVotaciones", porEstado.values().stream().mapToLong(Long::longValue).sum());
+        stats.put("votacionesActivas", porEstado.getOrDefault(VotacionEstado.ABIERTA, 0L));
+        stats.put("totalVotos", voteRepository.count());
+        stats.put("totalUsuarios", userRepository.count());
+        stats.put("topVotaciones", getTopVotaciones(3));
+        stats.put("generadoEn", LocalDateTime.now());
+        return stats;
+    }
+
+    /**
+     * Estadísticas del usuario (/dashboard/mis-stats). Los contadores salen de user_activity_summary; solo
+     * las listas de últimas votaciones y votos se consultan, por índice y con LIMIT
+     */
+    public Map<String, Object> getUserStats(Long userId) {
+        UserActivitySummary summary = userActivitySummaryService.get(userId);
+        LocalDate today = LocalDate.now();
+
+        Map<String, Object> basicStats = new HashMap<>();
+        basicStats.put("votacionesCreadas", summary.getVotacionesCreadas());
+        basicStats.put("votosRealizados", summary.getVotosRealizados());
+        basicStats.put("votacionesActivasCreadas", summary.getVotacionesActivasCreadas());
+        basicStats.put("fechaRegistro", summary.getFechaRegistro());
+
+        List<Map<String, Object>> ultimasVotaciones = toVotacionSummaries(
+                votacionRepository.findRecentSummariesByCreador(userId, PageRequest.of(0, RECENT_USER_ITEMS)), true);
+        List<Map<String, Object>> ultimosVotos = voteRepository
+                .findRecentSummariesByUser(userId, PageRequest.of(0, RECENT_USER_ITEMS)).stream()
+                .map(DashboardStatsService::toUserVoteSummary)
+                .collect(Collectors.toList());
+
+        Map<String, Object> actividadReciente = new HashMap<>();
+        actividadReciente.put("votacionesEsteAño", summary.votacionesDelAnio(today));
+        actividadReciente.put("votosEsteAño", summary.votosDelAnio(today));
+        actividadReciente.put("ultimaActividad", getLastUserActivity(summary));
+
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("estadisticasBasicas", basicStats);
+        stats.put("ultimasVotaciones", ultimasVotaciones);
+        stats.put("ultimosVotos", ultimosVotos);
+        stats.put("votacionesPorCategoria", userActivitySummaryService.getVotacionesPorCategoria(summary));
+        stats.put("votacionMasExitosa", getMostSuccessfulVotacion(summary, ultimasVotaciones));
+        stats.put("participacionEnMisVotaciones",
+                getParticipationInUserVotings(summary.getVotacionesCreadas(), summary.getVotosRecibidos()));
+        stats.put("actividadReciente", actividadReciente);
+        stats.put("generadoEn", LocalDateTime.now());
+        return stats;
+    }
+
+    // ========== SECCIONES DE /dashboard/stats ==========
+
+    public Map<String, Object> getBasicStats() {
+        Map<VotacionEstado, Long> porEstado = countVotacionesByEstado();
+
+        Map<String, Object> basicStats = new HashMap<>();
+        basicStats.put("totalVotaciones", porEstado.values().stream().mapToLong(Long::longValue).sum());
+        basicStats.put("votacionesActivas", porEstado.getOrDefault(VotacionEstado.ABIERTA, 0L));
+        basicStats.put("votacionesCreadas", porEstado.getOrDefault(VotacionEstado.CREADA, 0L));
+        basicStats.put("votacionesCerradas", porEstado.getOrDefault(VotacionEstado.CERRADA, 0L));
+        basicStats.put("totalVotos", voteRepository.count());
+        basicStats.put("totalUsuarios", userRepository.count());
+        return basicStats;
+    }
+
+    public Map<String, Long> getStatsByCategory() {
+        Map<String, Long> statsByCategory = emptyCategoryCounts();
+        for (Object[] row : votacionRepository.countGroupedByCategoria()) {
+            if (row[0] != null) {
+                statsByCategory.put(((VotacionCategoria) row[0]).name(), ((Number) row[1]).longValue());
+            }
+        }
+        return statsByCategory;
+    }
+
+    public List<Map<String, Object>> getRecentVotaciones() {
+        return toVotacionSummaries(votacionRepository.findRecentSummaries(PageRequest.of(0, RECENT_VOTACIONES)), false);
+    }
+
+    public List<Map<String, Object>> getRecentVotes() {
+        return voteRepository.findRecentSummaries(PageRequest.of(0, RECENT_VOTES)).stream()
+                .map(DashboardStatsService::toVoteSummary)
+                .collect(Collectors.toList());
+    }
+
+    public Map<String, Object> getParticipationStats() {
+        long totalUsers = userRepository.count();
+        long totalVotaciones = votacionRepository.count();
+        long totalVotes = voteRepository.count();
+
+        // Cada voto pertenece a una votación: la media de participación es total de votos / (usuarios * votaciones)
+        double promedio = totalUsers > 0 && totalVotaciones > 0
+                ? (totalVotes * 100.0) / totalUsers / totalVotaciones
+                : 0.0;
+
+        Map<String, Object> participationStats = new HashMap<>();
+        participationStats.put("promedioPorcentajeParticipacion", promedio);
+        participationStats.put("votacionConMasParticipacion", findHighestParticipationVoting(totalUsers));
+        participationStats.put("votosHoy", countVotesToday());
+        participationStats.put("votacionesEstaSemanea",
+                votacionRepository.countVotacionesThisWeek(LocalDateTime.now().minusDays(7)));
+        return participationStats;
+    }
+
+    /**
+     * Votaciones con más votos: un GROUP BY ... ORDER BY COUNT DESC LIMIT y una consulta de resúmenes
+     */
+    public List<Map<String, Object>> getTopVotaciones(int limit) {
+        List<Object[]> top = voteRepository.countGroupedByVotacionOrderByCountDesc(PageRequest.of(0, limit));
+        if (top.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        Map<Long, Long> votosPorVotacion = new LinkedHashMap<>();
+        top.forEach(row -> votosPorVotacion.put((Long) row[0], ((Number) row[1]).longValue()));
+
+        Map<Long, Map<String, Object>> summaries = new HashMap<>();
+        for (Object[] row : votacionRepository.findSummariesByIds(votosPorVotacion.keySet())) {
+            Map<String, Object> summary = toVotacionSummary(row, false);
+            summaries.put((Long) row[0], summary);
+        }
+
+        List<Map<String, Object>> result = new ArrayList<>();
+        votosPorVotacion.forEach((votacionId, votos) -> {
+            Map<String, Object> summary = summaries.get(votacionId);
+            if (summary != null) {
+                summary.put("totalVotos", votos);
+                result.add(summary);
+            }
+        });
+        return result;
+    }
+
+    public Map<String, Object> getTrends() {
+        LocalDate today = LocalDate.now();
+        LocalDateTime monthsStart = today.withDayOfMonth(1).minusMonths(TREND_MONTHS - 1).atStartOfDay();
+        LocalDateTime daysStart = today.minusDays(TREND_DAYS - 1).atStartOfDay();
+
+        Map<String, Long> votacionesPorMes = emptyMonthKeys(today);
+        for (Object[] row : votacionRepository.countByMonthSince(monthsStart)) {
+            votacionesPorMes.put(monthKey(row), ((Number) row[2]).longValue());
+        }
+
+        Map<String, Long> votosPorDia = new LinkedHashMap<>();
+        for (int i = 0; i < TREND_DAYS; i++) {
+            votosPorDia.put(today.minusDays(i).format(DAY_KEY), 0L);
+        }
+        for (Object[] row : voteRepository.countByDaySince(daysStart)) {
+            LocalDate day = LocalDate.of(((Number) row[0]).intValue(), ((Number) row[1]).intValue(), ((Number) row[2]).intValue());
+            votosPorDia.put(day.format(DAY_KEY), ((Number) row[3]).longValue());
+        }
+
+        Map<String, Long> usuariosPorMes = emptyMonthKeys(today);
+        for (Object[] row : userRepository.countByMonthSince(monthsStart)) {
+            usuariosPorMes.put(monthKey(row), ((Number) row[2]).longValue());
+        }
+
+        Map<String, Object> trends = new HashMap<>();
+        trends.put("votacionesPorMes", votacionesPorMes);
+        trends.put("votosPorDia", votosPorDia);
+        trends.put("usuariosRegistradosPorMes", usuariosPorMes);
+        return trends;
+    }
+
+    public Map<String, Object> getBlockchainStats() {
+        long totalVotes = voteRepository.count();
+        long verifiedVotes = voteRepository.countByBlockchainVerifiedTrue();
+
+        Map<String, Object> blockchainStats = new HashMap<>();
+        blockchainStats.put("votosVerificadosBlockchain", verifiedVotes);
+        blockchainStats.put("votacionesEnBlockchain", votacionRepository.countByBlockchainVerifiedTrue());
+        blockchainStats.put("porcentajeVerificacion", totalVotes > 0 ? (verifiedVotes * 100.0) / totalVotes : 0.0);
+        return blockchainStats;
+    }
+
+    // ========== MÉTODOS AUXILIARES ==========
+
+    /**
+     * Lanza todas las secciones a la vez y espera como mucho timeout-ms en total: la latencia es la de la
+     * sección más lenta. Las que no terminan a tiempo se cancelan y quedan fuera de la respuesta
+     */
+    private Map<String, Object> computeSections(Map<String, Supplier<?>> sections) {
+        Map<String, Object> stats = new HashMap<>();
+        Map<String, String> status = new LinkedHashMap<>();
+
+        if (sectionExecutor == null) {
+            sections.forEach((name, section) -> {
+                try {
+                    stats.put(name, section.get());
+                    status.put(name, SECTION_OK);
+                } catch (RuntimeException e) {
+                    log.warn("⚠️ Error calculando la sección {} del dashboard: {}", name, e.getMessage());
+                    status.put(name, SECTION_ERROR);
+                }
+            });
+        } else {
+            Map<String, Future<?>> futures = new LinkedHashMap<>();
+            long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(sectionTimeoutMs);
+            sections.forEach((name, section) -> {
+                try {
+                    futures.put(name, sectionExecutor.submit(() -> computeSection(section, deadline)));
+                } catch (RejectedExecutionException e) {
+                    log.warn("⚠️ Pool de secciones del dashboard saturado: sección {} descartada", name);
+                    status.put(name, SECTION_REJECTED);
+                }
+            });
+
+            futures.forEach((name, future) -> {
+                try {
+                    stats.put(name, future.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS));
+                    status.put(name, SECTION_OK);
+                } catch (TimeoutException e) {
+                    future.cancel(true);
+                    log.warn("⚠️ La sección {} del dashboard superó {} ms", name, sectionTimeoutMs);
+                    status.put(name, SECTION_TIMEOUT);
+                } catch (ExecutionException e) {
+                    log.warn("⚠️ Error calculando la sección {} del dashboard: {}", name, e.getCause().getMessage());
+                    status.put(name, SECTION_ERROR);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    future.cancel(true);
+                    status.put(name, SECTION_TIMEOUT);
+                }
+            });
+        }
+
+        stats.put(SECTION_STATUS_KEY, status);
+        stats.put(COMPLETE_KEY, status.values().stream().allMatch(SECTION_OK::equals));
+        return stats;
+    }
+
+    /**
+     * Una sección en el pool, en su propia transacción de solo lectura con el tiempo que le queda hasta deadline.
+     * future.cancel no detiene una consulta JDBC: el timeout de la transacción sí (Hibernate lo aplica a cada
+     * sentencia) y el del EntityManagerHolder se pasa en milisegundos a las consultas JPA
+     */
+    private Object computeSection(Supplier<?> section, long deadline) {
+        long remainingMs = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+        if (remainingMs <= 0) {
+            throw new IllegalStateException("Dashboard section timed out before starting");
+        }
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        template.setReadOnly(true);
+        template.setTimeout((int) Math.max(1, (remainingMs + 999) / 1000));
+        return template.execute(status -> {
+            EntityManagerHolder holder =
+                    (EntityManagerHolder) TransactionSynchronizationManager.getResource(entityManagerFactory);
+            if (holder != null) {
+                holder.setTimeoutInMillis(remainingMs);
+            }
+            return section.get();
+        });
+    }
+
+    private Map<VotacionEstado, Long> countVotacionesByEstado() {
+        Map<VotacionEstado, Long> porEstado = new EnumMap<>(VotacionEstado.class);
+        for (Object[] row : votacionRepository.countGroupedByEstado()) {
+            if (row[0] != null) {
+                porEstado.put((VotacionEstado) row[0], ((Number) row[1]).longValue());
+            }
+        }
+        return porEstado;
+    }
+
+    private long countVotesToday() {
+        LocalDateTime startOfDay = LocalDateTime.now().truncatedTo(ChronoUnit.DAYS);
+        return voteRepository.countByCreatedAtBetween(startOfDay, startOfDay.plusDays(1).minusNanos(1));
+    }
+
+    private Map<String, Object> findHighestParticipationVoting(long totalUsers) {
+        List<Map<String, Object>> top = getTopVotaciones(1);
+        if (top.isEmpty()) {
+            return Map.of("mensaje", "No hay votaciones disponibles");
+        }
+
+        Map<String, Object> votacion = top.get(0);
+        long votes = (Long) votacion.get("totalVotos");
+        Map<String, Object> info = new HashMap<>();
+        info.put("votacion", votacion);
+        info.put("participacion", totalUsers > 0 ? (votes * 100.0) / totalUsers : 0.0);
+        info.put("totalVotos", votes);
+        return info;
+    }
+
+    private Map<String, Object> getMostSuccessfulVotacion(UserActivitySummary activity,
+                                                          List<Map<String, Object>> ultimasVotaciones) {
+        if (activity.getMejorVotacionId() == null) {
+            // Ninguna votación del usuario tiene votos: cualquiera empata a cero
+            return ultimasVotaciones.isEmpty()
+                    ? Map.of("mensaje", "No tienes votaciones creadas")
+                    : ultimasVotaciones.get(0);
+        }
+
+        List<Object[]> rows = votacionRepository.findSummariesByIds(List.of(activity.getMejorVotacionId()));
+        if (rows.isEmpty()) {
+            return Map.of("mensaje", "No tienes votaciones creadas");
+        }
+        Map<String, Object> summary = toVotacionSummary(rows.get(0), true);
+        summary.put("totalVotos", activity.getMejorVotacionVotos());
+        return summary;
+    }
+
+    private Map<String, Object> getParticipationInUserVotings(long votacionesCreadas, long totalVotosRecibidos) {
+        if (votacionesCreadas == 0) {
+            return Map.of("mensaje", "No tienes votaciones creadas");
+        }
+
+        long totalUsers = userRepository.count();
+        Map<String, Object> participation = new HashMap<>();
+        participation.put("promedioParticipacion",
+                totalUsers > 0 ? (totalVotosRecibidos * 100.0) / totalUsers / votacionesCreadas : 0.0);
+        participation.put("totalVotacionesCreadas", votacionesCreadas);
+        participation.put("totalVotosRecibidos", totalVotosRecibidos);
+        return participation;
+    }
+
+    private static Map<String, Object> getLastUserActivity(UserActivitySummary summary) {
+        Map<String, Object> activity = new HashMap<>();
+        if (summary.getUltimaVotacionCreadaEn() != null) {
+            activity.put("ultimaVotacionCreada", Map.of(
+                    "titulo", summary.getUltimaVotacionTitulo() != null ? summary.getUltimaVotacionTitulo() : "N/A",
+                    "fecha", summary.getUltimaVotacionCreadaEn()));
+        }
+        if (summary.getUltimoVotoEn() != null) {
+            activity.put("ultimoVotoRealizado", Map.of(
+                    "votacionTitulo", summary.getUltimoVotoVotacionTitulo() != null ? summary.getUltimoVotoVotacionTitulo() : "N/A",
+                    "fecha", summary.getUltimoVotoEn()));
+        }
+        return activity;
+    }
+
+    /**
+     * Resúmenes de votaciones con su total de votos en una sola consulta IN ... GROUP BY
+     */
+    private List<Map<String, Object>> toVotacionSummaries(List<Object[]> rows, boolean detailed) {
+        if (rows.isEmpty()) {
+            return new ArrayList<>();
+        }
+        Collection<Long> ids = rows.stream().map(row -> (Long) row[0]).collect(Collectors.toList());
+        Map<Long, Long> votos = new HashMap<>();
+        voteRepository.countGroupedByVotacionIds(ids)
+                .forEach(row -> votos.put((Long) row[0], ((Number) row[1]).longValue()));
+
+        return rows.stream()
+                .map(row -> {
+                    Map<String, Object> summary = toVotacionSummary(row, detailed);
+                    summary.put("totalVotos", votos.getOrDefault((Long) row[0], 0L));
+                    return summary;
+                })
+                .collect(Collectors.toList());
+    }
+
+    private static Map<String, Object> toVotacionSummary(Object[] row, boolean detailed) {
+        Map<String, Object> summary = new HashMap<>();
+        summary.put("id", row[0]);
+        summary.put("titulo", row[1]);
+        summary.put("estado", row[2]);
+        summary.put("categoria", row[3]);
+        summary.put("fechaCreacion", row[4]);
+        summary.put("creador", row[5] != null || row[6] != null ? row[5] + " " + row[6] : "N/A");
+        if (detailed) {
+            summary.put("fechaInicio", row[7]);
+            summary.put("fechaFin", row[8]);
+            summary.put("descripcion", row[9]);
+        }
+        return summary;
+    }
+
+    private static Map<String, Object> toVoteSummary(Object[] row) {
+        Map<String, Object> summary = new HashMap<>();
+        summary.put("id", row[0]);
+        summary.put("fechaVoto", row[1]);
+        summary.put("votacionTitulo", row[3] != null ? row[3] : "N/A");
+        summary.put("blockchainVerified", row[5]);
+        // No incluimos información personal del votante por privacidad
+        return summary;
+    }
+
+    private static Map<String, Object> toUserVoteSummary(Object[] row) {
+        Map<String, Object> summary = new HashMap<>();
+        summary.put("id", row[0]);
+        summary.put("fechaVoto", row[1]);
+        summary.put("votacionTitulo", row[3] != null ? row[3] : "N/A");
+        summary.put("votacionId", row[2]);
+        summary.put("opcionSeleccionada", row[4] != null ? row[4] : "N/A");
+        summary.put("blockchainVerified", row[5]);
+        return summary;
+    }
+
+    private static Map<String, Long> emptyCategoryCounts() {
+        Map<String, Long> counts = new HashMap<>();
+        for (VotacionCategoria categoria : VotacionCategoria.values()) {
+            counts.put(categoria.name(), 0L);
+        }
+        return counts;
+    }
+
+    private static Map<String, Long> emptyMonthKeys(LocalDate today) {
+        Map<String, Long> months = new LinkedHashMap<>();
+        for (int i = 0; i < TREND_MONTHS; i++) {
+            months.put(today.minusMonths(i).format(MONTH_KEY), 0L);
+        }
+        return months;
+    }
+
+    private static String monthKey(Object[] row) {
+        return LocalDate.of(((Number) row[0]).intValue(), ((Number) row[1]).intValue(), 1).format(MONTH_KEY);
+    }
+}
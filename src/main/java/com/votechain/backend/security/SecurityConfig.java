@@ -72,6 +72,8 @@ public class SecurityConfig {
                         .requestMatchers("/webjars/**").permitAll()
                         .requestMatchers("/actuator/health").permitAll()
                         .requestMatchers("/actuator/info").permitAll()
+                        .requestMatchers("/actuator/voteadmission").hasRole("ADMIN")
+                        .requestMatchers("/actuator/metrics/**").hasRole("ADMIN")
                         .anyRequest().authenticated()
                 )
                 .headers(headers -> headers.frameOptions(frameOptions -> frameOptions.disable()));
@@ -103,7 +105,8 @@ public class SecurityConfig {
             "accept",
             "origin",
             "access-control-request-method",
-            "access-control-request-headers"
+            "access-control-request-headers",
+            "idempotency-key"
         ));
 
         // Headers que el cliente puede leer
@@ -111,7 +114,9 @@ public class SecurityConfig {
             "x-auth-token",
             "authorization",
             "content-type",
-            "content-length"
+            "content-length",
+            "retry-after",
+            "idempotent-replayed"
         ));
 
         // Permitir cookies y credenciales
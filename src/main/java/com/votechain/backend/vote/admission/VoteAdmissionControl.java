@@ -0,0 +1,260 @@
+package com.votechain.backend.vote.admission;
+
+import com.votechain.backend.blockchain.model.OutboxStatus;
+import com.votechain.backend.blockchain.repository.BlockchainOutboxRepository;
+import com.votechain.backend.blockchain.transaction.TransactionReceiptTracker;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Control de admisión delante de los endpoints de voto. Mira el backlog de blockchain (outbox pendiente más
+ * transacciones sin receipt) y la saturación del pool de conexiones:
+ * - backlog por encima de defer-anchoring-backlog: se aceptan votos solo en BD y el anclaje queda en el outbox
+ * - backlog por encima de shed-backlog: 503 con Retry-After
+ * - pool de BD saturado o demasiados votos en curso: 429 con Retry-After
+ * Si la última muestra del backlog tiene más de stale-after-intervals intervalos (scheduler atascado o BD sin
+ * responder), el modo por backlog deja de aplicarse y se admite como NORMAL; los límites de BD y concurrencia
+ * se miden en cada petición y siguen aplicando
+ */
+@Component
+@Slf4j
+public class VoteAdmissionControl {
+
+    public enum Mode {
+        NORMAL,
+        DEFERRED_ANCHORING,
+        SHEDDING
+    }
+
+    @Autowired
+    private BlockchainOutboxRepository outboxRepository;
+
+    @Autowired
+    private TransactionReceiptTracker receiptTracker;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${votes.admission.enabled:true}")
+    private boolean enabled;
+
+    @Value("${votes.admission.defer-anchoring-backlog:5000}")
+    private long deferAnchoringBacklog;
+
+    @Value("${votes.admission.shed-backlog:50000}")
+    private long shedBacklog;
+
+    @Value("${votes.admission.db.max-threads-awaiting:20}")
+    private int maxThreadsAwaitingConnection;
+
+    @Value("${votes.admission.max-concurrent-casts:200}")
+    private int maxConcurrentCasts;
+
+    @Value("${votes.admission.backlog-retry-after-seconds:10}")
+    private long backlogRetryAfterSeconds;
+
+    @Value("${votes.admission.overload-retry-after-seconds:1}")
+    private long overloadRetryAfterSeconds;
+
+    @Value("${votes.admission.sample-interval-ms:1000}")
+    private long sampleIntervalMs;
+
+    @Value("${votes.admission.stale-after-intervals:5}")
+    private int staleAfterIntervals;
+
+    private Semaphore castPermits;
+    private HikariDataSource hikariDataSource;
+
+    // Muestreado en segundo plano: decidir la admisión no cuesta ninguna consulta
+    private volatile long outboxBacklog;
+    private volatile long unconfirmedTransactions;
+    private volatile Mode mode = Mode.NORMAL;
+    private volatile LocalDateTime sampledAt;
+    private volatile long sampledAtNanos;
+    private volatile boolean sampled;
+
+    @PostConstruct
+    public void init() {
+        castPermits = new Semaphore(Math.max(1, maxConcurrentCasts));
+        hikariDataSource = resolveHikariDataSource();
+
+        meterRegistry.gauge("votechain.votes.admission.backlog", this, VoteAdmissionControl::getBlockchainBacklog);
+        meterRegistry.gauge("votechain.votes.admission.mode", this, control -> control.currentMode().ordinal());
+        meterRegistry.gauge("votechain.votes.admission.sample-age", this, VoteAdmissionControl::getSampleAgeMs);
+        meterRegistry.gauge("votechain.votes.admission.casts.in-flight", this,
+                control -> Math.max(1, maxConcurrentCasts) - control.castPermits.availablePermits());
+    }
+
+    /**
+     * Admite un voto o lanza VoteAdmissionRejectedException; el permiso devuelto se libera al cerrarlo
+     */
+    public Admission admit() {
+        if (!enabled) {
+            return new Admission(false, null);
+        }
+
+        Mode current = currentMode();
+        if (current == Mode.SHEDDING) {
+            reject("backlog", HttpStatus.SERVICE_UNAVAILABLE, backlogRetryAfterSeconds,
+                    "Blockchain backlog is too large, please retry later");
+        }
+
+        HikariPoolMXBean hikariPool = hikariPool();
+        if (hikariPool != null && hikariPool.getThreadsAwaitingConnection() > maxThreadsAwaitingConnection) {
+            reject("database", HttpStatus.TOO_MANY_REQUESTS, overloadRetryAfterSeconds,
+                    "Database is saturated, please retry shortly");
+        }
+
+        if (!castPermits.tryAcquire()) {
+            reject("concurrency", HttpStatus.TOO_MANY_REQUESTS, overloadRetryAfterSeconds,
+                    "Too many votes in progress, please retry shortly");
+        }
+
+        return new Admission(current == Mode.DEFERRED_ANCHORING, castPermits);
+    }
+
+    /**
+     * Recalcula el backlog de blockchain y el modo de admisión
+     */
+    @Scheduled(fixedDelayString = "${votes.admission.sample-interval-ms:1000}")
+    public void sample() {
+        try {
+            outboxBacklog = outboxRepository.countByStatus(OutboxStatus.PENDING)
+                    + outboxRepository.countByStatus(OutboxStatus.IN_FLIGHT);
+        } catch (Exception e) {
+            // Sin actualizar la hora de muestra: si el fallo persiste, la muestra caduca y se admite como NORMAL
+            log.warn("⚠️ No se pudo medir el backlog del outbox: {}", e.getMessage());
+            return;
+        }
+        unconfirmedTransactions = receiptTracker.getTrackedCount();
+        sampledAt = LocalDateTime.now();
+        sampledAtNanos = System.nanoTime();
+        sampled = true;
+
+        long backlog = getBlockchainBacklog();
+        Mode next = backlog >= shedBacklog ? Mode.SHEDDING
+                : backlog >= deferAnchoringBacklog ? Mode.DEFERRED_ANCHORING
+                : Mode.NORMAL;
+        if (next != mode) {
+            log.warn("🚦 Admisión de votos: {} -> {} (backlog blockchain {})", mode, next, backlog);
+            mode = next;
+        }
+    }
+
+    public long getBlockchainBacklog() {
+        return outboxBacklog + unconfirmedTransactions;
+    }
+
+    /**
+     * Milisegundos desde la última muestra del backlog; -1 si aún no hay ninguna
+     */
+    public long getSampleAgeMs() {
+        return sampled ? TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - sampledAtNanos) : -1;
+    }
+
+    /**
+     * Modo de la última muestra, o NORMAL si no hay muestra o ha caducado
+     */
+    public Mode currentMode() {
+        long age = getSampleAgeMs();
+        if (age < 0 || age > staleAfterIntervals * sampleIntervalMs) {
+            return Mode.NORMAL;
+        }
+        return mode;
+    }
+
+    /**
+     * Umbrales y estado actual para el endpoint de actuator
+     */
+    public Map<String, Object> getStatus() {
+        Map<String, Object> thresholds = new LinkedHashMap<>();
+        thresholds.put("deferAnchoringBacklog", deferAnchoringBacklog);
+        thresholds.put("shedBacklog", shedBacklog);
+        thresholds.put("maxThreadsAwaitingConnection", maxThreadsAwaitingConnection);
+        thresholds.put("maxConcurrentCasts", maxConcurrentCasts);
+        thresholds.put("staleAfterMs", staleAfterIntervals * sampleIntervalMs);
+
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("enabled", enabled);
+        status.put("mode", currentMode());
+        status.put("sampledMode", mode);
+        status.put("outboxBacklog", outboxBacklog);
+        status.put("unconfirmedTransactions", unconfirmedTransactions);
+        status.put("castsInFlight", Math.max(1, maxConcurrentCasts) - castPermits.availablePermits());
+        HikariPoolMXBean hikariPool = hikariPool();
+        if (hikariPool != null) {
+            status.put("dbActiveConnections", hikariPool.getActiveConnections());
+            status.put("dbTotalConnections", hikariPool.getTotalConnections());
+            status.put("dbThreadsAwaitingConnection", hikariPool.getThreadsAwaitingConnection());
+        }
+        status.put("sampledAt", sampledAt);
+        status.put("sampleAgeMs", getSampleAgeMs());
+        status.put("thresholds", thresholds);
+        return status;
+    }
+
+    private void reject(String reason, HttpStatus status, long retryAfterSeconds, String message) {
+        meterRegistry.counter("votechain.votes.admission.rejected", "reason", reason).increment();
+        throw new VoteAdmissionRejectedException(status, retryAfterSeconds, message);
+    }
+
+    // El MXBean no existe hasta que el pool arranca, así que se pide en cada uso
+    private HikariPoolMXBean hikariPool() {
+        return hikariDataSource != null ? hikariDataSource.getHikariPoolMXBean() : null;
+    }
+
+    private HikariDataSource resolveHikariDataSource() {
+        try {
+            if (dataSource.isWrapperFor(HikariDataSource.class)) {
+                return dataSource.unwrap(HikariDataSource.class);
+            }
+        } catch (SQLException e) {
+            log.warn("No se pudo acceder al pool Hikari: {}", e.getMessage());
+        }
+        log.info("DataSource sin pool Hikari: la admisión de votos no vigilará la saturación de la BD");
+        return null;
+    }
+
+    /**
+     * Permiso de un voto admitido; deferAnchoring indica que solo se guarda en BD y se ancla desde el outbox
+     */
+    public static final class Admission implements AutoCloseable {
+        private final boolean deferAnchoring;
+        private final Semaphore permits;
+
+        private Admission(boolean deferAnchoring, Semaphore permits) {
+            this.deferAnchoring = deferAnchoring;
+            this.permits = permits;
+        }
+
+        public boolean isDeferAnchoring() {
+            return deferAnchoring;
+        }
+
+        @Override
+        public void close() {
+            if (permits != null) {
+                permits.release();
+            }
+        }
+    }
+}
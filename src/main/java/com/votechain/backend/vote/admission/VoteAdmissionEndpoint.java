@@ -0,0 +1,24 @@
+package com.votechain.backend.vote.admission;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * /actuator/voteadmission: umbrales y estado del control de admisión de votos
+ */
+@Component
+@Endpoint(id = "voteadmission")
+public class VoteAdmissionEndpoint {
+
+    @Autowired
+    private VoteAdmissionControl voteAdmissionControl;
+
+    @ReadOperation
+    public Map<String, Object> status() {
+        return voteAdmissionControl.getStatus();
+    }
+}
@@ -0,0 +1,20 @@
+package com.votechain.backend.vote.admission;
+
+import lombok.Getter;
+import org.springframework.http.HttpStatus;
+
+/**
+ * Voto rechazado por sobrecarga antes de llegar a VoteService; el cliente debe reintentar tras retryAfterSeconds
+ */
+@Getter
+public class VoteAdmissionRejectedException extends RuntimeException {
+
+    private final HttpStatus status;
+    private final long retryAfterSeconds;
+
+    public VoteAdmissionRejectedException(HttpStatus status, long retryAfterSeconds, String message) {
+        super(message);
+        this.status = status;
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+}
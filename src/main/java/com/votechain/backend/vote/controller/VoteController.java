@@ -5,6 +5,10 @@ import com.votechain.backend.vote.dto.VoteDto;
 import com.votechain.backend.vote.dto.VoteVerificationDto;
 import com.votechain.backend.vote.dto.VoteVerificationStatus;
 import com.votechain.backend.security.UserDetailsImpl;
+import com.votechain.backend.vote.admission.VoteAdmissionControl;
+import com.votechain.backend.vote.admission.VoteAdmissionRejectedException;
+import com.votechain.backend.vote.service.IdempotencyKeyInProgressException;
+import com.votechain.backend.vote.service.VoteIdempotencyService;
 import com.votechain.backend.vote.service.VoteService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -14,6 +18,7 @@ import jakarta.validation.Valid;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -21,6 +26,7 @@ import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.Map;
+import java.util.Optional;
 
 @RestController
 @RequestMapping("/votes")  // ✅ CORREGIDO: Sin /api porque ya está en context-path
@@ -29,9 +35,18 @@ import java.util.Map;
 @Slf4j
 public class VoteController {
 
+    private static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+    private static final String IDEMPOTENT_REPLAY_HEADER = "Idempotent-Replayed";
+
     @Autowired
     private VoteService voteService;
 
+    @Autowired
+    private VoteAdmissionControl voteAdmissionControl;
+
+    @Autowired
+    private VoteIdempotencyService voteIdempotencyService;
+
     /**
      * Cast a vote with full blockchain integration
      */
@@ -45,16 +60,38 @@ public class VoteController {
     public ResponseEntity<?> castVote(
             @Parameter(description = "Datos del voto a emitir", required = true)
             @Valid @RequestBody CastVoteRequest request,
+            @Parameter(description = "Clave para reintentos seguros: la misma clave devuelve la primera respuesta")
+            @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey,
             @AuthenticationPrincipal UserDetailsImpl userDetails) {
         try {
+            Optional<VoteDto> replay = reserveOrReplay(userDetails.getId(), idempotencyKey, request);
+            if (replay.isPresent()) {
+                return replayed(replay.get());
+            }
+        } catch (IdempotencyKeyInProgressException e) {
+            return inProgress(e);
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                .body(Map.of("error", e.getMessage()));
+        }
+
+        try (VoteAdmissionControl.Admission admission = voteAdmissionControl.admit()) {
             log.info("🗳️ Usuario {} intentando votar en votación {} por opción {}",
                 userDetails.getId(), request.getVotacionId(), request.getOpcionId());
 
-            VoteDto vote = voteService.castVoteWithBlockchain(userDetails.getId(), request);
+            // Con backlog alto de blockchain el voto se acepta solo en BD y se ancla desde el outbox
+            VoteDto vote = admission.isDeferAnchoring()
+                ? voteService.castVote(userDetails.getId(), request)
+                : voteService.castVoteWithBlockchain(userDetails.getId(), request);
 
             log.info("✅ Voto emitido exitosamente: {}", vote.getId());
+            rememberResponse(userDetails.getId(), idempotencyKey, request, vote);
             return new ResponseEntity<>(vote, HttpStatus.CREATED);
+        } catch (VoteAdmissionRejectedException e) {
+            releaseReservation(userDetails.getId(), idempotencyKey);
+            return rejected(e);
         } catch (Exception e) {
+            releaseReservation(userDetails.getId(), idempotencyKey);
             log.error("❌ Error al emitir voto para usuario {}: {}", userDetails.getId(), e.getMessage());
             return ResponseEntity.status(HttpStatus.BAD_REQUEST)
                 .body(Map.of("error", e.getMessage()));
@@ -74,16 +111,35 @@ public class VoteController {
     public ResponseEntity<?> castVoteLegacy(
             @Parameter(description = "Datos del voto a emitir", required = true)
             @Valid @RequestBody CastVoteRequest request,
+            @Parameter(description = "Clave para reintentos seguros: la misma clave devuelve la primera respuesta")
+            @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey,
             @AuthenticationPrincipal UserDetailsImpl userDetails) {
         try {
+            Optional<VoteDto> replay = reserveOrReplay(userDetails.getId(), idempotencyKey, request);
+            if (replay.isPresent()) {
+                return replayed(replay.get());
+            }
+        } catch (IdempotencyKeyInProgressException e) {
+            return inProgress(e);
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                .body(Map.of("error", e.getMessage()));
+        }
+
+        try (VoteAdmissionControl.Admission admission = voteAdmissionControl.admit()) {
             log.info("🗳️ Usuario {} votando (modo legado) en votación {} por opción {}",
                 userDetails.getId(), request.getVotacionId(), request.getOpcionId());
 
             VoteDto vote = voteService.castVote(userDetails.getId(), request);
 
             log.info("✅ Voto legado emitido exitosamente: {}", vote.getId());
+            rememberResponse(userDetails.getId(), idempotencyKey, request, vote);
             return new ResponseEntity<>(vote, HttpStatus.CREATED);
+        } catch (VoteAdmissionRejectedException e) {
+            releaseReservation(userDetails.getId(), idempotencyKey);
+            return rejected(e);
         } catch (Exception e) {
+            releaseReservation(userDetails.getId(), idempotencyKey);
             log.error("❌ Error al emitir voto legado para usuario {}: {}", userDetails.getId(), e.getMessage());
             return ResponseEntity.status(HttpStatus.BAD_REQUEST)
                 .body(Map.of("error", e.getMessage()));
@@ -126,6 +182,23 @@ public class VoteController {
         return ResponseEntity.ok(votes);
     }
 
+    /**
+     * Vote history by cursor for infinite scrolling (newest first)
+     */
+    @GetMapping("/user/history/cursor")
+    @PreAuthorize("hasRole('USER') or hasRole('ADMIN')")
+    public ResponseEntity<?> getUserVoteHistoryByCursor(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "false") boolean includeTotal,
+            @AuthenticationPrincipal UserDetailsImpl userDetails) {
+        try {
+            return ResponseEntity.ok(voteService.getUserVoteHistoryByCursor(userDetails.getId(), cursor, size, includeTotal));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
     /**
      * Get vote details by ID
      */
@@ -189,4 +262,56 @@ public class VoteController {
         VoteVerificationStatus status = voteService.getVoteVerificationStatus(userDetails.getId(), votacionId);
         return ResponseEntity.ok(status);
     }
+
+    /**
+     * Respuesta de sobrecarga (429/503) con Retry-After
+     */
+    private ResponseEntity<?> rejected(VoteAdmissionRejectedException e) {
+        log.warn("🚦 Voto rechazado por sobrecarga: {}", e.getMessage());
+        return ResponseEntity.status(e.getStatus())
+            .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+            .body(Map.of("error", e.getMessage()));
+    }
+
+    /**
+     * Misma Idempotency-Key que una petición que aún no ha terminado: 409 con Retry-After
+     */
+    private ResponseEntity<?> inProgress(IdempotencyKeyInProgressException e) {
+        log.info("🔁 Voto con Idempotency-Key en curso: {}", e.getMessage());
+        return ResponseEntity.status(HttpStatus.CONFLICT)
+            .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+            .body(Map.of("error", e.getMessage()));
+    }
+
+    /**
+     * Con Idempotency-Key: respuesta ya guardada para la clave o, si no la hay, reserva de la clave para esta petición
+     */
+    private Optional<VoteDto> reserveOrReplay(Long userId, String idempotencyKey, CastVoteRequest request) {
+        if (idempotencyKey == null) {
+            return Optional.empty();
+        }
+        return voteIdempotencyService.reserve(userId, idempotencyKey, request);
+    }
+
+    private void rememberResponse(Long userId, String idempotencyKey, CastVoteRequest request, VoteDto vote) {
+        if (idempotencyKey != null) {
+            voteIdempotencyService.complete(userId, idempotencyKey, request, vote);
+        }
+    }
+
+    private void releaseReservation(Long userId, String idempotencyKey) {
+        if (idempotencyKey != null) {
+            voteIdempotencyService.release(userId, idempotencyKey);
+        }
+    }
+
+    /**
+     * Reintento con una Idempotency-Key ya usada: la primera respuesta, sin volver a pasar por VoteService
+     */
+    private ResponseEntity<?> replayed(VoteDto vote) {
+        log.info("🔁 Reintento de voto {} respondido desde la caché de idempotencia", vote.getId());
+        return ResponseEntity.status(HttpStatus.CREATED)
+            .header(IDEMPOTENT_REPLAY_HEADER, "true")
+            .body(vote);
+    }
 }
@@ -0,0 +1,19 @@
+package com.votechain.backend.vote.dto;
+
+import com.votechain.backend.vote.model.VoteStatus;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Proyección de la actividad reciente de una votación (últimos votos)
+ */
+@Getter
+@AllArgsConstructor
+public class RecentVoteRow {
+    private final LocalDateTime createdAt;
+    private final String voteHash;
+    private final boolean blockchainVerified;
+    private final VoteStatus status;
+}
@@ -0,0 +1,32 @@
+package com.votechain.backend.vote.dto;
+
+import com.votechain.backend.vote.model.VoteStatus;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Proyección de un voto para el historial del usuario: solo las columnas que usa VoteDto, sin cargar las
+ * entidades User, Votacion y VotacionOpcion ni blockchainMetadata. El orden del constructor es el del
+ * SELECT new de VoteRepository
+ */
+@Getter
+@AllArgsConstructor
+public class VoteHistoryRow {
+    private final Long id;
+    private final Long userId;
+    private final String userEmail;
+    private final String userFirstName;
+    private final String userLastName;
+    private final Long votacionId;
+    private final String votacionTitulo;
+    private final Long opcionId;
+    private final String opcionTitulo;
+    private final LocalDateTime createdAt;
+    private final String voteHash;
+    private final String blockchainTransactionHash;
+    private final boolean blockchainVerified;
+    private final LocalDateTime blockchainVerifiedAt;
+    private final VoteStatus status;
+}
@@ -6,6 +6,7 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import java.time.LocalDateTime;
+import java.util.List;
 
 @Data
 @Builder
@@ -21,4 +22,10 @@ public class VoteVerificationDto {
     private String blockHash;
     private LocalDateTime blockTimestamp;
     private String message;
+
+    // Solo para votos anclados por lotes Merkle
+    private String merkleRoot;
+    private Integer merkleLeafIndex;
+    private List<String> merkleProof;
+    private Boolean merkleProofValid;
 }
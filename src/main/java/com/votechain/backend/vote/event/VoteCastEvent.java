@@ -0,0 +1,20 @@
+package com.votechain.backend.vote.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Voto guardado en base de datos; se publica después del commit, nunca para votos revertidos
+ */
+@Getter
+@AllArgsConstructor
+public class VoteCastEvent {
+    private final Long voteId;
+    private final Long votacionId;
+    private final Long userId;
+    private final Integer opcionOrden;
+    private final String voteHash;
+    private final LocalDateTime castAt;
+}
@@ -12,7 +12,22 @@ import org.hibernate.annotations.CreationTimestamp;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "votes")
+@NamedEntityGraph(name = Vote.GRAPH_DETALLE, attributeNodes = {
+        @NamedAttributeNode("user"),
+        @NamedAttributeNode("votacion"),
+        @NamedAttributeNode("opcionSeleccionada")
+})
+@NamedEntityGraph(name = Vote.GRAPH_REGISTRO, attributeNodes = {
+        @NamedAttributeNode("user"),
+        @NamedAttributeNode("opcionSeleccionada")
+})
+@Table(name = "votes", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_votes_votacion_user", columnNames = {"votacion_id", "user_id"})
+}, indexes = {
+        @Index(name = "idx_votes_created_at", columnList = "created_at"),
+        @Index(name = "idx_votes_votacion_created_at", columnList = "votacion_id, created_at"),
+        @Index(name = "idx_votes_user_created_at", columnList = "user_id, created_at")
+})
 @Getter
 @Setter
 @NoArgsConstructor
@@ -20,21 +35,27 @@ import java.time.LocalDateTime;
 @Builder
 public class Vote {
 
+    // VoteDto completo (detalle y verificación de un voto)
+    public static final String GRAPH_DETALLE = "Vote.detalle";
+    // Registro en blockchain: orden de la opción y DNI del votante
+    public static final String GRAPH_REGISTRO = "Vote.registro";
+
+    // Asociaciones LAZY: los listados usan proyecciones y cada caso de uso pide lo que necesita con un grafo
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id")
     @NotNull
     private User user;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "votacion_id")
     @NotNull
     private Votacion votacion;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "opcion_id")
     @NotNull
     private VotacionOpcion opcionSeleccionada;
@@ -64,4 +85,11 @@ public class Vote {
 
     // Timestamp when the vote was verified on the blockchain
     private LocalDateTime blockchainVerifiedAt;
+
+    // Merkle batch the vote was anchored in (only in MERKLE_BATCH anchoring mode)
+    @Column(name = "anchor_batch_id")
+    private Long anchorBatchId;
+
+    // Position of the vote hash among the leaves of its batch
+    private Integer merkleLeafIndex;
 }
@@ -0,0 +1,62 @@
+package com.votechain.backend.vote.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.LocalDateTime;
+
+/**
+ * Primera respuesta correcta a un voto enviado con Idempotency-Key; los reintentos con la misma clave la reciben de nuevo.
+ * La fila se inserta como IN_PROGRESS antes de emitir el voto y pasa a COMPLETED con la respuesta
+ */
+@Entity
+@Table(name = "vote_idempotency_keys", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_vote_idempotency_user_key", columnNames = {"user_id", "idempotency_key"})
+}, indexes = {
+        @Index(name = "idx_vote_idempotency_expires", columnList = "expires_at")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class VoteIdempotencyRecord {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "idempotency_key", nullable = false, length = 128)
+    private String idempotencyKey;
+
+    // votacionId:opcionId de la petición original; otra petición con la misma clave se rechaza
+    @Column(name = "request_fingerprint", nullable = false)
+    private String requestFingerprint;
+
+    // null en filas anteriores a las reservas: equivale a COMPLETED
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", length = 20)
+    private VoteIdempotencyStatus status;
+
+    @Column(name = "vote_id")
+    private Long voteId;
+
+    // VoteDto serializado tal como se devolvió la primera vez; vacío mientras está IN_PROGRESS
+    @Column(name = "response_body", columnDefinition = "TEXT", nullable = false)
+    private String responseBody;
+
+    @CreationTimestamp
+    private LocalDateTime createdAt;
+
+    // Para IN_PROGRESS, cuándo se libera la reserva de una petición que no terminó
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+
+    public boolean isInProgress() {
+        return status == VoteIdempotencyStatus.IN_PROGRESS;
+    }
+}
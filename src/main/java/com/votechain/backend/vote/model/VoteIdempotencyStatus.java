@@ -0,0 +1,6 @@
+package com.votechain.backend.vote.model;
+
+public enum VoteIdempotencyStatus {
+    IN_PROGRESS,     // Reserved by the first request, whose vote is still being cast
+    COMPLETED        // First successful response stored; retries receive it again
+}
@@ -0,0 +1,45 @@
+package com.votechain.backend.vote.repository;
+
+import com.votechain.backend.vote.model.VoteIdempotencyRecord;
+import com.votechain.backend.vote.model.VoteIdempotencyStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+@Repository
+public interface VoteIdempotencyRecordRepository extends JpaRepository<VoteIdempotencyRecord, Long> {
+
+    Optional<VoteIdempotencyRecord> findByUserIdAndIdempotencyKey(Long userId, String idempotencyKey);
+
+    @Modifying
+    @Query("DELETE FROM VoteIdempotencyRecord r WHERE r.expiresAt < :now")
+    int deleteExpired(@Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("DELETE FROM VoteIdempotencyRecord r WHERE r.id = :id AND r.expiresAt < :now")
+    int deleteExpiredById(@Param("id") Long id, @Param("now") LocalDateTime now);
+
+    // Reserva IN_PROGRESS -> COMPLETED con la respuesta; 0 si la reserva ya no existe
+    @Modifying
+    @Query("UPDATE VoteIdempotencyRecord r SET r.status = :to, r.voteId = :voteId, r.responseBody = :responseBody, " +
+           "r.expiresAt = :expiresAt WHERE r.userId = :userId AND r.idempotencyKey = :idempotencyKey AND r.status = :from")
+    int completeReservation(@Param("userId") Long userId,
+                            @Param("idempotencyKey") String idempotencyKey,
+                            @Param("from") VoteIdempotencyStatus from,
+                            @Param("to") VoteIdempotencyStatus to,
+                            @Param("voteId") Long voteId,
+                            @Param("responseBody") String responseBody,
+                            @Param("expiresAt") LocalDateTime expiresAt);
+
+    @Modifying
+    @Query("DELETE FROM VoteIdempotencyRecord r WHERE r.userId = :userId AND r.idempotencyKey = :idempotencyKey " +
+           "AND r.status = :status")
+    int deleteByStatus(@Param("userId") Long userId,
+                       @Param("idempotencyKey") String idempotencyKey,
+                       @Param("status") VoteIdempotencyStatus status);
+}
@@ -1,20 +1,31 @@
 package com.votechain.backend.vote.repository;
 
+import com.votechain.backend.vote.dto.RecentVoteRow;
+import com.votechain.backend.vote.dto.VoteHistoryRow;
 import com.votechain.backend.vote.model.Vote;
 import com.votechain.backend.vote.model.VoteStatus;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface VoteRepository extends JpaRepository<Vote, Long> {
+public interface VoteRepository extends JpaRepository<Vote, Long>, VoteRepositoryCustom {
+
+    // Columnas de VoteHistoryRow, en el orden de su constructor
+    String HISTORY_ROW = "SELECT new com.votechain.backend.vote.dto.VoteHistoryRow(" +
+            "v.id, u.id, u.email, u.firstName, u.lastName, vt.id, vt.titulo, o.id, o.titulo, v.createdAt, " +
+            "v.voteHash, v.blockchainTransactionHash, v.blockchainVerified, v.blockchainVerifiedAt, v.status) " +
+            "FROM Vote v JOIN v.user u JOIN v.votacion vt JOIN v.opcionSeleccionada o ";
 
     List<Vote> findByVotacionId(Long votacionId);
 
@@ -24,8 +35,16 @@ public interface VoteRepository extends JpaRepository<Vote, Long> {
 
     Page<Vote> findByUserId(Long userId, Pageable pageable);
 
+    @EntityGraph(Vote.GRAPH_DETALLE)
     Optional<Vote> findByVoteHash(String voteHash);
 
+    // Vote es LAZY: cada caso de uso carga con su grafo solo las asociaciones que va a leer
+    @EntityGraph(Vote.GRAPH_DETALLE)
+    Optional<Vote> findDetailById(Long id);
+
+    @EntityGraph(Vote.GRAPH_REGISTRO)
+    Optional<Vote> findForRegistrationById(Long id);
+
     Optional<Vote> findByBlockchainTransactionHash(String transactionHash);
 
     @Query("SELECT COUNT(v) FROM Vote v WHERE v.votacion.id = :votacionId AND v.opcionSeleccionada.id = :opcionId")
@@ -48,8 +67,9 @@ public interface VoteRepository extends JpaRepository<Vote, Long> {
 
     long countByVotacionIdAndStatus(Long votacionId, VoteStatus status);
 
-    @Query("SELECT v FROM Vote v WHERE v.votacion.id = :votacionId ORDER BY v.createdAt DESC")
-    List<Vote> findLatestVotesByVotacion(@Param("votacionId") Long votacionId, Pageable pageable);
+    @Query("SELECT new com.votechain.backend.vote.dto.RecentVoteRow(v.createdAt, v.voteHash, v.blockchainVerified, v.status) " +
+           "FROM Vote v WHERE v.votacion.id = :votacionId ORDER BY v.createdAt DESC")
+    List<RecentVoteRow> findRecentVoteRowsByVotacion(@Param("votacionId") Long votacionId, Pageable pageable);
 
     // Métodos adicionales para el dashboard
     long countByUserId(Long userId);
@@ -83,4 +103,107 @@ public interface VoteRepository extends JpaRepository<Vote, Long> {
     // Métodos adicionales que faltan para UserService
     @Query("SELECT COUNT(v) FROM Vote v WHERE v.user.id = :userId AND v.createdAt > :date")
     long countByUserIdAndCreatedAtAfter(@Param("userId") Long userId, @Param("date") java.time.LocalDateTime date);
+
+    // Carga por páginas (keyset sobre user_id) de los votantes de una votación
+    @Query("SELECT v.user.id FROM Vote v WHERE v.votacion.id = :votacionId AND v.user.id > :afterUserId ORDER BY v.user.id ASC")
+    List<Long> findVoterIdsAfter(@Param("votacionId") Long votacionId,
+                                 @Param("afterUserId") Long afterUserId,
+                                 Pageable pageable);
+
+    // Recuento por orden de opción de los votos creados antes de :before: [orden, número de votos]
+    @Query("SELECT v.opcionSeleccionada.orden, COUNT(v) FROM Vote v WHERE v.votacion.id = :votacionId " +
+           "AND v.createdAt < :before GROUP BY v.opcionSeleccionada.orden")
+    List<Object[]> countVotesByOpcionOrdenCreatedBefore(@Param("votacionId") Long votacionId,
+                                                        @Param("before") LocalDateTime before);
+
+    // Votos creados desde :since, uno a uno: [id, orden de opción]
+    @Query("SELECT v.id, v.opcionSeleccionada.orden FROM Vote v WHERE v.votacion.id = :votacionId AND v.createdAt >= :since")
+    List<Object[]> findVoteOrdenesCreatedSince(@Param("votacionId") Long votacionId, @Param("since") LocalDateTime since);
+
+    // [votacionId, orden de opción, número de votos] para varias votaciones a la vez, votos creados antes de :before
+    @Query("SELECT v.votacion.id, v.opcionSeleccionada.orden, COUNT(v) FROM Vote v WHERE v.votacion.id IN :votacionIds " +
+           "AND v.createdAt < :before GROUP BY v.votacion.id, v.opcionSeleccionada.orden")
+    List<Object[]> countVotesByVotacionIdsAndOpcionOrdenCreatedBefore(@Param("votacionIds") Collection<Long> votacionIds,
+                                                                      @Param("before") LocalDateTime before);
+
+    // [votacionId, id, orden de opción] de los votos creados desde :since en varias votaciones
+    @Query("SELECT v.votacion.id, v.id, v.opcionSeleccionada.orden FROM Vote v WHERE v.votacion.id IN :votacionIds " +
+           "AND v.createdAt >= :since")
+    List<Object[]> findVoteOrdenesByVotacionIdsCreatedSince(@Param("votacionIds") Collection<Long> votacionIds,
+                                                            @Param("since") LocalDateTime since);
+
+    // Votaciones de la lista en las que el usuario ya votó
+    @Query("SELECT v.votacion.id FROM Vote v WHERE v.user.id = :userId AND v.votacion.id IN :votacionIds")
+    List<Long> findVotedVotacionIds(@Param("userId") Long userId, @Param("votacionIds") Collection<Long> votacionIds);
+
+    @Query("SELECT v.votacion.id FROM Vote v WHERE v.user.id = :userId")
+    List<Long> findVotacionIdsByUserId(@Param("userId") Long userId);
+
+    // Historial del usuario como proyección: un SELECT con joins y sin hidratar Vote, User, Votacion ni opción
+    @Query(value = HISTORY_ROW + "WHERE u.id = :userId ORDER BY v.createdAt DESC, v.id DESC",
+           countQuery = "SELECT COUNT(v) FROM Vote v WHERE v.user.id = :userId")
+    Page<VoteHistoryRow> findHistoryRowsByUser(@Param("userId") Long userId, Pageable pageable);
+
+    // Historial por cursor: (createdAt, id) descendente sobre idx_votes_user_created_at, sin OFFSET
+    @Query(HISTORY_ROW + "WHERE u.id = :userId ORDER BY v.createdAt DESC, v.id DESC")
+    List<VoteHistoryRow> findHistoryFirstKeysetPage(@Param("userId") Long userId, Pageable pageable);
+
+    @Query(HISTORY_ROW + "WHERE u.id = :userId " +
+           "AND (v.createdAt < :createdAt OR (v.createdAt = :createdAt AND v.id < :id)) " +
+           "ORDER BY v.createdAt DESC, v.id DESC")
+    List<VoteHistoryRow> findHistoryKeysetPageAfter(@Param("userId") Long userId,
+                                          @Param("createdAt") LocalDateTime createdAt,
+                                          @Param("id") Long id,
+                                          Pageable pageable);
+
+    // Votos por minuto de los creados antes de :before: [año, mes, día, hora, minuto, número de votos]
+    @Query("SELECT YEAR(v.createdAt), MONTH(v.createdAt), DAY(v.createdAt), HOUR(v.createdAt), MINUTE(v.createdAt), COUNT(v) " +
+           "FROM Vote v WHERE v.votacion.id = :votacionId AND v.createdAt < :before " +
+           "GROUP BY YEAR(v.createdAt), MONTH(v.createdAt), DAY(v.createdAt), HOUR(v.createdAt), MINUTE(v.createdAt)")
+    List<Object[]> countVotesByMinuteCreatedBefore(@Param("votacionId") Long votacionId, @Param("before") LocalDateTime before);
+
+    // Votos creados desde :since, uno a uno: [id, fecha de creación]
+    @Query("SELECT v.id, v.createdAt FROM Vote v WHERE v.votacion.id = :votacionId AND v.createdAt >= :since")
+    List<Object[]> findVoteTimesCreatedSince(@Param("votacionId") Long votacionId, @Param("since") LocalDateTime since);
+
+    // Agregados del dashboard: [votacionId, número de votos], de más a menos votos
+    @Query("SELECT v.votacion.id, COUNT(v) FROM Vote v GROUP BY v.votacion.id ORDER BY COUNT(v) DESC")
+    List<Object[]> countGroupedByVotacionOrderByCountDesc(Pageable pageable);
+
+    @Query("SELECT v.votacion.id, COUNT(v) FROM Vote v WHERE v.votacion.id IN :votacionIds GROUP BY v.votacion.id")
+    List<Object[]> countGroupedByVotacionIds(@Param("votacionIds") Collection<Long> votacionIds);
+
+    // [votacionId, número de votos] de las votaciones de un creador, de más a menos votos
+    @Query("SELECT v.votacion.id, COUNT(v) FROM Vote v WHERE v.votacion.creador.id = :creadorId " +
+           "GROUP BY v.votacion.id ORDER BY COUNT(v) DESC")
+    List<Object[]> countGroupedByVotacionOfCreador(@Param("creadorId") Long creadorId);
+
+    // [año, mes, día, número de votos] desde una fecha
+    @Query("SELECT YEAR(v.createdAt), MONTH(v.createdAt), DAY(v.createdAt), COUNT(v) FROM Vote v WHERE v.createdAt >= :since " +
+           "GROUP BY YEAR(v.createdAt), MONTH(v.createdAt), DAY(v.createdAt)")
+    List<Object[]> countByDaySince(@Param("since") LocalDateTime since);
+
+    // Resúmenes sin cargar entidades: [id, createdAt, votacionId, titulo votación, titulo opción, blockchainVerified]
+    @Query("SELECT v.id, v.createdAt, vt.id, vt.titulo, o.titulo, v.blockchainVerified " +
+           "FROM Vote v LEFT JOIN v.votacion vt LEFT JOIN v.opcionSeleccionada o ORDER BY v.createdAt DESC")
+    List<Object[]> findRecentSummaries(Pageable pageable);
+
+    @Query("SELECT v.id, v.createdAt, vt.id, vt.titulo, o.titulo, v.blockchainVerified " +
+           "FROM Vote v LEFT JOIN v.votacion vt LEFT JOIN v.opcionSeleccionada o WHERE v.user.id = :userId ORDER BY v.createdAt DESC")
+    List<Object[]> findRecentSummariesByUser(@Param("userId") Long userId, Pageable pageable);
+
+    // Anclaje por lotes Merkle
+    @Query("SELECT v.voteHash FROM Vote v WHERE v.anchorBatchId = :batchId ORDER BY v.merkleLeafIndex ASC")
+    List<String> findVoteHashesByAnchorBatch(@Param("batchId") Long batchId);
+
+    @Modifying
+    @Query("UPDATE Vote v SET v.status = :status, v.blockchainTransactionHash = :transactionHash, v.blockchainVerified = true, v.blockchainVerifiedAt = :verifiedAt WHERE v.anchorBatchId = :batchId")
+    int confirmAnchorBatch(@Param("batchId") Long batchId,
+                           @Param("status") VoteStatus status,
+                           @Param("transactionHash") String transactionHash,
+                           @Param("verifiedAt") LocalDateTime verifiedAt);
+
+    @Modifying
+    @Query("UPDATE Vote v SET v.status = :status WHERE v.anchorBatchId = :batchId")
+    int updateStatusByAnchorBatch(@Param("batchId") Long batchId, @Param("status") VoteStatus status);
 }
@@ -0,0 +1,14 @@
+package com.votechain.backend.vote.repository;
+
+import com.votechain.backend.vote.model.Vote;
+
+import java.util.Optional;
+
+public interface VoteRepositoryCustom {
+
+    /**
+     * Inserta el voto solo si su votación está ABIERTA y el usuario aún no votó en ella, en una única sentencia
+     * que además bloquea la fila de la votación hasta el commit. Devuelve el id generado, o vacío si no se insertó
+     */
+    Optional<Long> insertIfOpen(Vote vote);
+}
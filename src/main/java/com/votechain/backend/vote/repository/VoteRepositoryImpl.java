@@ -0,0 +1,62 @@
+package com.votechain.backend.vote.repository;
+
+import com.votechain.backend.vote.model.Vote;
+import com.votechain.backend.voting.model.VotacionEstado;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.dialect.H2Dialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+
+import java.util.List;
+import java.util.Optional;
+
+class VoteRepositoryImpl implements VoteRepositoryCustom {
+
+    private static final String COLUMNS =
+            "(votacion_id, user_id, opcion_id, vote_hash, status, created_at, blockchain_verified) ";
+
+    private static final String SELECT_IF_OPEN =
+            "SELECT v.id, :userId, :opcionId, :voteHash, :status, :createdAt, FALSE FROM votaciones v " +
+            "WHERE v.id = :votacionId AND v.estado = :abierta ";
+
+    // FOR SHARE: el cierre (findByIdForUpdate) espera a este voto y los que llegan después ven ya CERRADA;
+    // el duplicado (votación, usuario) no inserta nada en lugar de abortar la transacción
+    private static final String POSTGRES_INSERT =
+            "INSERT INTO votes " + COLUMNS + SELECT_IF_OPEN + "FOR SHARE " +
+            "ON CONFLICT (votacion_id, user_id) DO NOTHING RETURNING id";
+
+    // H2 (tests) no admite ON CONFLICT ni bloqueo en INSERT ... SELECT: el duplicado se filtra con NOT EXISTS
+    private static final String H2_INSERT =
+            "SELECT id FROM FINAL TABLE (INSERT INTO votes " + COLUMNS + SELECT_IF_OPEN +
+            "AND NOT EXISTS (SELECT 1 FROM votes x WHERE x.votacion_id = v.id AND x.user_id = :userId))";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private volatile String insertSql;
+
+    @Override
+    public Optional<Long> insertIfOpen(Vote vote) {
+        List<?> ids = entityManager.createNativeQuery(insertSql())
+                .setParameter("votacionId", vote.getVotacion().getId())
+                .setParameter("userId", vote.getUser().getId())
+                .setParameter("opcionId", vote.getOpcionSeleccionada().getId())
+                .setParameter("voteHash", vote.getVoteHash())
+                .setParameter("status", vote.getStatus().name())
+                .setParameter("createdAt", vote.getCreatedAt())
+                .setParameter("abierta", VotacionEstado.ABIERTA.name())
+                .getResultList();
+        return ids.isEmpty() ? Optional.empty() : Optional.of(((Number) ids.get(0)).longValue());
+    }
+
+    private String insertSql() {
+        String sql = insertSql;
+        if (sql == null) {
+            SessionFactoryImplementor sessionFactory =
+                    entityManager.getEntityManagerFactory().unwrap(SessionFactoryImplementor.class);
+            sql = sessionFactory.getJdbcServices().getDialect() instanceof H2Dialect ? H2_INSERT : POSTGRES_INSERT;
+            insertSql = sql;
+        }
+        return sql;
+    }
+}
@@ -0,0 +1,18 @@
+package com.votechain.backend.vote.service;
+
+import lombok.Getter;
+
+/**
+ * Otra petición con la misma Idempotency-Key todavía está emitiendo el voto; el cliente debe reintentar tras
+ * retryAfterSeconds y recibirá la respuesta de aquella
+ */
+@Getter
+public class IdempotencyKeyInProgressException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public IdempotencyKeyInProgressException(long retryAfterSeconds, String message) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+}
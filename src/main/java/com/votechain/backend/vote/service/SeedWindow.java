@@ -0,0 +1,48 @@
+package com.votechain.backend.vote.service;
+
+import com.votechain.backend.vote.event.VoteCastEvent;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Fusión por id de los votos que se confirman alrededor de una siembra. La siembra agrega con un GROUP BY
+ * los votos creados antes de recentSince y lee uno a uno (id) los posteriores; mientras dure la ventana, un
+ * evento solo se aplica si su voto es posterior a recentSince y la siembra no lo contó ya. Supone que ningún
+ * voto tarda más que la ventana entre crearse y publicar su evento tras el commit
+ */
+final class SeedWindow {
+
+    private final LocalDateTime recentSince;
+    private final long settleUntil;
+    private final Set<Long> counted = ConcurrentHashMap.newKeySet();
+
+    SeedWindow(LocalDateTime recentSince, long settleUntil, Collection<Long> seededVoteIds) {
+        this.recentSince = recentSince;
+        this.settleUntil = settleUntil;
+        this.counted.addAll(seededVoteIds);
+    }
+
+    /**
+     * Inicio del tramo que la siembra lee voto a voto para una consulta que empieza ahora
+     */
+    static LocalDateTime recentSince(LocalDateTime seedStart, long settleWindowMs) {
+        return seedStart.minusNanos(settleWindowMs * 1_000_000L);
+    }
+
+    /**
+     * true si el evento aún no está contado; registra su id para no aplicarlo dos veces
+     */
+    boolean accept(VoteCastEvent event) {
+        if (event.getCastAt().isBefore(recentSince)) {
+            return false; // ya incluido en el GROUP BY
+        }
+        return event.getVoteId() == null || counted.add(event.getVoteId());
+    }
+
+    boolean isSettled(long now) {
+        return now > settleUntil;
+    }
+}
@@ -0,0 +1,68 @@
+package com.votechain.backend.vote.service;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * Actividad de una votación en un instante: votos por hora y por día (solo franjas con votos, en orden)
+ * y votos por minuto de la ventana reciente
+ */
+public final class VoteActivity {
+
+    private final Map<LocalDateTime, Long> votesByHour;
+    private final Map<LocalDateTime, Long> votesByDay;
+    private final Map<LocalDateTime, Long> recentVotesByMinute;
+
+    VoteActivity(Map<LocalDateTime, Long> votesByHour,
+                 Map<LocalDateTime, Long> votesByDay,
+                 Map<LocalDateTime, Long> recentVotesByMinute) {
+        this.votesByHour = Collections.unmodifiableMap(votesByHour);
+        this.votesByDay = Collections.unmodifiableMap(votesByDay);
+        this.recentVotesByMinute = Collections.unmodifiableMap(recentVotesByMinute);
+    }
+
+    public Map<LocalDateTime, Long> getVotesByHour() {
+        return votesByHour;
+    }
+
+    public Map<LocalDateTime, Long> getVotesByDay() {
+        return votesByDay;
+    }
+
+    public Map<LocalDateTime, Long> getRecentVotesByMinute() {
+        return recentVotesByMinute;
+    }
+
+    /**
+     * Media de votos en las horas que tuvieron alguno
+     */
+    public double getAverageVotesPerHour() {
+        return votesByHour.values().stream()
+                .mapToLong(Long::longValue)
+                .average()
+                .orElse(0.0);
+    }
+
+    /**
+     * Hora con más votos (la primera en caso de empate), o null sin votos
+     */
+    public LocalDateTime getPeakHour() {
+        LocalDateTime peak = null;
+        long max = 0;
+        for (Map.Entry<LocalDateTime, Long> entry : votesByHour.entrySet()) {
+            if (entry.getValue() > max) {
+                max = entry.getValue();
+                peak = entry.getKey();
+            }
+        }
+        return peak;
+    }
+
+    public long getVotesSince(LocalDateTime since) {
+        return recentVotesByMinute.entrySet().stream()
+                .filter(entry -> !entry.getKey().isBefore(since))
+                .mapToLong(Map.Entry::getValue)
+                .sum();
+    }
+}
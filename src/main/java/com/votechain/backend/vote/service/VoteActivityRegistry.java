@@ -0,0 +1,245 @@
+package com.votechain.backend.vote.service;
+
+import com.votechain.backend.vote.event.VoteCastEvent;
+import com.votechain.backend.vote.repository.VoteRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Histogramas de actividad por votación: votos por minuto (ventana circular reciente), por hora y por día
+ * en arrays de long. Se siembran con un GROUP BY por minuto en el primer acceso y se actualizan con cada
+ * voto confirmado, sin cargar entidades Vote. Igual que VoteTallyRegistry, los votos confirmados alrededor
+ * de la siembra se fusionan por id (ver SeedWindow) y se vuelven a sembrar tras max-age-ms
+ */
+@Component
+@Slf4j
+public class VoteActivityRegistry {
+
+    private static final int MINUTES_PER_HOUR = 60;
+    private static final int MINUTES_PER_DAY = 24 * 60;
+
+    @Autowired
+    private VoteRepository voteRepository;
+
+    @Value("${votes.activity.minute-window:1440}")
+    private int minuteWindow;
+
+    @Value("${votes.activity.max-age-ms:300000}")
+    private long maxAgeMs;
+
+    @Value("${votes.activity.idle-evict-ms:3600000}")
+    private long idleEvictMs;
+
+    @Value("${votes.activity.settle-window-ms:60000}")
+    private long settleWindowMs;
+
+    private final ConcurrentHashMap<Long, Histogram> histograms = new ConcurrentHashMap<>();
+
+    public VoteActivity getActivity(Long votacionId) {
+        return histograms.computeIfAbsent(votacionId, Histogram::new).snapshot();
+    }
+
+    /**
+     * Actividad recién sembrada desde la base de datos, p. ej. para congelar los resultados de una votación
+     */
+    public VoteActivity refresh(Long votacionId) {
+        histograms.remove(votacionId);
+        return getActivity(votacionId);
+    }
+
+    @EventListener
+    public void onVoteCast(VoteCastEvent event) {
+        Histogram histogram = histograms.get(event.getVotacionId());
+        if (histogram != null) {
+            histogram.onVoteCast(event);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${votes.activity.evict-interval-ms:60000}")
+    public void evictStale() {
+        long now = System.currentTimeMillis();
+        histograms.entrySet().removeIf(entry -> entry.getValue().isStale(now));
+    }
+
+    private static long epochMinute(LocalDateTime time) {
+        return Math.floorDiv(time.toEpochSecond(ZoneOffset.UTC), 60);
+    }
+
+    private static LocalDateTime fromEpochMinute(long minute) {
+        return LocalDateTime.ofEpochSecond(minute * 60, 0, ZoneOffset.UTC);
+    }
+
+    private class Histogram {
+        private final Long votacionId;
+        private final long createdAt = System.currentTimeMillis();
+        private volatile long lastAccess = createdAt;
+
+        // guarded by this
+        private final long[] minuteCounts = new long[minuteWindow];
+        private final long[] minuteStamps = new long[minuteWindow];
+        private long latestMinute = Long.MIN_VALUE;
+        private final BucketSeries hours = new BucketSeries();
+        private final BucketSeries days = new BucketSeries();
+        private final List<VoteCastEvent> pending = new ArrayList<>();
+        private boolean seeding;
+        private boolean loaded;
+        private SeedWindow window;
+
+        private final Object seedLock = new Object();
+
+        private Histogram(Long votacionId) {
+            this.votacionId = votacionId;
+            Arrays.fill(minuteStamps, Long.MIN_VALUE);
+        }
+
+        private VoteActivity snapshot() {
+            ensureLoaded();
+            lastAccess = System.currentTimeMillis();
+            synchronized (this) {
+                Map<LocalDateTime, Long> recent = new LinkedHashMap<>();
+                if (latestMinute != Long.MIN_VALUE) {
+                    for (long minute = latestMinute - minuteWindow + 1; minute <= latestMinute; minute++) {
+                        int slot = (int) Math.floorMod(minute, (long) minuteWindow);
+                        if (minuteStamps[slot] == minute && minuteCounts[slot] > 0) {
+                            recent.put(fromEpochMinute(minute), minuteCounts[slot]);
+                        }
+                    }
+                }
+                return new VoteActivity(hours.toMap(MINUTES_PER_HOUR), days.toMap(MINUTES_PER_DAY), recent);
+            }
+        }
+
+        private synchronized void onVoteCast(VoteCastEvent event) {
+            if (event.getCastAt() == null) {
+                return;
+            }
+            if (loaded) {
+                apply(event);
+            } else if (seeding) {
+                pending.add(event);
+            }
+            // Antes de la siembra: el voto ya está confirmado, la consulta lo contará
+        }
+
+        private boolean isStale(long now) {
+            return now - createdAt > maxAgeMs || now - lastAccess > idleEvictMs;
+        }
+
+        /**
+         * La consulta corre sin bloquear a quien registra votos; los que llegan mientras tanto se fusionan
+         * por id con los votos recientes que leyó la siembra
+         */
+        private void ensureLoaded() {
+            synchronized (seedLock) {
+                LocalDateTime recentSince;
+                synchronized (this) {
+                    if (loaded) {
+                        return;
+                    }
+                    seeding = true;
+                    recentSince = SeedWindow.recentSince(LocalDateTime.now(), settleWindowMs);
+                }
+
+                List<Object[]> rows = voteRepository.countVotesByMinuteCreatedBefore(votacionId, recentSince);
+                List<Object[]> recent = voteRepository.findVoteTimesCreatedSince(votacionId, recentSince);
+
+                synchronized (this) {
+                    for (Object[] row : rows) {
+                        LocalDateTime minute = LocalDateTime.of(
+                                ((Number) row[0]).intValue(), ((Number) row[1]).intValue(), ((Number) row[2]).intValue(),
+                                ((Number) row[3]).intValue(), ((Number) row[4]).intValue());
+                        record(epochMinute(minute), ((Number) row[5]).longValue());
+                    }
+                    List<Long> seededIds = new ArrayList<>(recent.size());
+                    for (Object[] row : recent) {
+                        seededIds.add((Long) row[0]);
+                        record(epochMinute((LocalDateTime) row[1]), 1);
+                    }
+                    window = new SeedWindow(recentSince, System.currentTimeMillis() + settleWindowMs, seededIds);
+                    pending.forEach(this::apply);
+                    pending.clear();
+                    seeding = false;
+                    loaded = true;
+                }
+                log.debug("Actividad de la votación {} sembrada: {} minutos con votos", votacionId, rows.size());
+            }
+        }
+
+        // guarded by this; durante la ventana de la siembra un voto ya contado no se vuelve a sumar
+        private void apply(VoteCastEvent event) {
+            if (window != null) {
+                if (window.isSettled(System.currentTimeMillis())) {
+                    window = null;
+                } else if (!window.accept(event)) {
+                    return;
+                }
+            }
+            record(epochMinute(event.getCastAt()), 1);
+        }
+
+        // guarded by this
+        private void record(long minute, long votes) {
+            hours.add(Math.floorDiv(minute, MINUTES_PER_HOUR), votes);
+            days.add(Math.floorDiv(minute, MINUTES_PER_DAY), votes);
+
+            if (latestMinute != Long.MIN_VALUE && minute <= latestMinute - minuteWindow) {
+                return; // fuera de la ventana reciente
+            }
+            int slot = (int) Math.floorMod(minute, (long) minuteWindow);
+            if (minuteStamps[slot] != minute) {
+                minuteStamps[slot] = minute;
+                minuteCounts[slot] = 0;
+            }
+            minuteCounts[slot] += votes;
+            latestMinute = Math.max(latestMinute, minute);
+        }
+    }
+
+    /**
+     * Serie de contadores contiguos a partir de un índice base; crece por ambos extremos
+     */
+    private static final class BucketSeries {
+        private long base;
+        private long[] counts = new long[0];
+
+        void add(long index, long votes) {
+            if (counts.length == 0) {
+                base = index;
+                counts = new long[16];
+            } else if (index < base) {
+                int shift = Math.toIntExact(base - index);
+                long[] grown = new long[counts.length + shift];
+                System.arraycopy(counts, 0, grown, shift, counts.length);
+                counts = grown;
+                base = index;
+            } else if (index - base >= counts.length) {
+                int needed = Math.toIntExact(index - base + 1);
+                counts = Arrays.copyOf(counts, Math.max(needed, counts.length * 2));
+            }
+            counts[(int) (index - base)] += votes;
+        }
+
+        Map<LocalDateTime, Long> toMap(int minutesPerBucket) {
+            Map<LocalDateTime, Long> map = new LinkedHashMap<>();
+            for (int i = 0; i < counts.length; i++) {
+                if (counts[i] > 0) {
+                    map.put(fromEpochMinute((base + i) * minutesPerBucket), counts[i]);
+                }
+            }
+            return map;
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package com.votechain.backend.vote.service;
+
+import com.votechain.backend.common.logging.SystemLogService;
+import com.votechain.backend.vote.event.VoteCastEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Registra cada voto en el log del sistema fuera de la transacción del voto y del hilo de la petición, en un
+ * pool acotado propio. Las entradas de auditoría no se descartan: con la cola llena las escribe el hilo que
+ * publica el evento (votechain.vote.audit.caller-runs cuenta cuántas)
+ */
+@Component
+@Slf4j
+public class VoteAuditListener {
+
+    @Autowired
+    private SystemLogService systemLogService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${votes.audit.threads:2}")
+    private int threads;
+
+    @Value("${votes.audit.queue-capacity:10000}")
+    private int queueCapacity;
+
+    @Value("${votes.audit.shutdown-timeout-ms:10000}")
+    private long shutdownTimeoutMs;
+
+    private ThreadPoolExecutor pool;
+    private ExecutorService executor;
+
+    @PostConstruct
+    public void init() {
+        Counter callerRuns = Counter.builder("votechain.vote.audit.caller-runs")
+                .description("Vote audit entries written on the publishing thread because the queue was full")
+                .register(meterRegistry);
+        ThreadPoolExecutor.CallerRunsPolicy policy = new ThreadPoolExecutor.CallerRunsPolicy();
+
+        AtomicInteger counter = new AtomicInteger();
+        pool = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, queueCapacity)),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "vote-audit-" + counter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                (task, executor) -> {
+                    callerRuns.increment();
+                    if (!executor.isShutdown()) {
+                        log.warn("⚠️ Pool de auditoría de votos saturado ({} en cola)", executor.getQueue().size());
+                    }
+                    policy.rejectedExecution(task, executor);
+                });
+        pool.allowCoreThreadTimeOut(true);
+        executor = ExecutorServiceMetrics.monitor(meterRegistry, pool, "vote-audit", "votechain.vote", Tags.empty());
+    }
+
+    /**
+     * Deja de aceptar entradas y espera a que se escriban las encoladas antes de cortar
+     */
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdown();
+        try {
+            if (!pool.awaitTermination(shutdownTimeoutMs, TimeUnit.MILLISECONDS)) {
+                int dropped = pool.shutdownNow().size();
+                log.warn("⚠️ Pool de auditoría de votos no terminó en {} ms; {} entradas descartadas",
+                        shutdownTimeoutMs, dropped);
+            }
+        } catch (InterruptedException e) {
+            pool.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @EventListener
+    public void onVoteCast(VoteCastEvent event) {
+        // El origen de la petición solo se puede leer en el hilo que la atiende
+        String ipAddress = systemLogService.getClientIpAddress();
+        String userAgent = systemLogService.getUserAgent();
+
+        executor.execute(() -> {
+            try {
+                systemLogService.logVoteCast(event.getUserId(), event.getVotacionId(), event.getVoteHash(),
+                        ipAddress, userAgent);
+            } catch (Exception e) {
+                log.warn("⚠️ No se pudo registrar en el log el voto {}: {}", event.getVoteId(), e.getMessage());
+            }
+        });
+    }
+}
@@ -0,0 +1,70 @@
+package com.votechain.backend.vote.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Locks por franjas para la sección comprobar-e-insertar de un voto: dos envíos del mismo usuario
+ * en la misma votación se serializan, votantes distintos casi nunca comparten franja
+ */
+@Component
+public class VoteCastLocks {
+
+    private final ReentrantLock[] stripes;
+    private final int mask;
+    private final long timeoutMs;
+
+    public VoteCastLocks(@Value("${votes.cast-lock.stripes:1024}") int stripeCount,
+                         @Value("${votes.cast-lock.timeout-ms:10000}") long timeoutMs) {
+        // Potencia de dos para elegir franja con una máscara
+        int size = Integer.highestOneBit(Math.max(1, stripeCount - 1)) << 1;
+        this.stripes = new ReentrantLock[size];
+        for (int i = 0; i < size; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+        this.mask = size - 1;
+        this.timeoutMs = timeoutMs;
+    }
+
+    /**
+     * Toma el lock de (votación, usuario) y lo libera al terminar la transacción actual, después del commit,
+     * para que quien espere vea ya el voto confirmado
+     */
+    public void lockUntilTransactionEnds(Long votacionId, Long userId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            throw new IllegalStateException("Vote cast lock requires an active transaction");
+        }
+
+        ReentrantLock lock = stripeFor(votacionId, userId);
+        try {
+            if (!lock.tryLock(timeoutMs, TimeUnit.MILLISECONDS)) {
+                throw new IllegalStateException("Another vote from this user is being processed, please try again");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting to cast vote", e);
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                lock.unlock();
+            }
+        });
+    }
+
+    int stripeIndex(Long votacionId, Long userId) {
+        long key = votacionId * 0x9E3779B97F4A7C15L + userId;
+        int hash = (int) (key ^ (key >>> 32));
+        return (hash ^ (hash >>> 16)) & mask;
+    }
+
+    private ReentrantLock stripeFor(Long votacionId, Long userId) {
+        return stripes[stripeIndex(votacionId, userId)];
+    }
+}
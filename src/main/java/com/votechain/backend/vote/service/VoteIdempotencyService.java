@@ -0,0 +1,218 @@
+package com.votechain.backend.vote.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.votechain.backend.vote.dto.CastVoteRequest;
+import com.votechain.backend.vote.dto.VoteDto;
+import com.votechain.backend.vote.model.VoteIdempotencyRecord;
+import com.votechain.backend.vote.model.VoteIdempotencyStatus;
+import com.votechain.backend.vote.repository.VoteIdempotencyRecordRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+/**
+ * Respuestas de votos por (usuario, Idempotency-Key): un reintento con la misma clave recibe la primera
+ * respuesta correcta sin pasar otra vez por VoteService. Caché acotada en memoria con TTL, respaldada por
+ * la tabla vote_idempotency_keys para sobrevivir a reinicios. La primera petición reserva la clave (fila
+ * IN_PROGRESS) antes de emitir el voto; las concurrentes con la misma clave reciben 409 con Retry-After
+ */
+@Service
+@Slf4j
+public class VoteIdempotencyService {
+
+    public static final int MAX_KEY_LENGTH = 128;
+    private static final int MAX_RESERVE_ATTEMPTS = 3;
+
+    @Autowired
+    private VoteIdempotencyRecordRepository recordRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${votes.idempotency.ttl-hours:24}")
+    private long ttlHours;
+
+    @Value("${votes.idempotency.cache.max-size:100000}")
+    private long cacheMaxSize;
+
+    // Una reserva de una petición que no terminó (nodo caído) se libera pasado este tiempo
+    @Value("${votes.idempotency.in-progress-timeout-ms:60000}")
+    private long inProgressTimeoutMs;
+
+    @Value("${votes.idempotency.in-progress-retry-after-seconds:2}")
+    private long inProgressRetryAfterSeconds;
+
+    private Cache<String, StoredResponse> cache;
+
+    // Reservas y respuestas se confirman por su cuenta, fuera de la transacción del voto
+    private TransactionTemplate requiresNew;
+
+    @PostConstruct
+    public void init() {
+        cache = Caffeine.newBuilder()
+                .maximumSize(cacheMaxSize)
+                .expireAfterWrite(Duration.ofHours(ttlHours))
+                .build();
+        requiresNew = new TransactionTemplate(transactionManager);
+        requiresNew.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * Reserva la clave antes de emitir el voto: inserta una fila IN_PROGRESS en su propia transacción, que
+     * solo una petición consigue. Si la clave ya tiene respuesta se devuelve; si otra petición la está usando
+     * todavía, IdempotencyKeyInProgressException. La clave usada con otra votación u opción se rechaza
+     */
+    public Optional<VoteDto> reserve(Long userId, String idempotencyKey, CastVoteRequest request) {
+        validateKey(idempotencyKey);
+        String fingerprint = fingerprint(request);
+        StoredResponse cached = cache.getIfPresent(cacheKey(userId, idempotencyKey));
+        if (cached != null) {
+            checkFingerprint(cached.fingerprint(), fingerprint);
+            return Optional.of(cached.response());
+        }
+
+        for (int attempt = 1; attempt <= MAX_RESERVE_ATTEMPTS; attempt++) {
+            try {
+                requiresNew.executeWithoutResult(status -> recordRepository.saveAndFlush(VoteIdempotencyRecord.builder()
+                        .userId(userId)
+                        .idempotencyKey(idempotencyKey)
+                        .requestFingerprint(fingerprint)
+                        .status(VoteIdempotencyStatus.IN_PROGRESS)
+                        .responseBody("")
+                        .expiresAt(LocalDateTime.now().plus(Duration.ofMillis(inProgressTimeoutMs)))
+                        .build()));
+                return Optional.empty();
+            } catch (DataIntegrityViolationException e) {
+                log.debug("Idempotency-Key {} del usuario {} ya registrada", idempotencyKey, userId);
+            }
+
+            VoteIdempotencyRecord existing = recordRepository.findByUserIdAndIdempotencyKey(userId, idempotencyKey)
+                    .orElse(null);
+            if (existing == null) {
+                // La petición que la tenía reservada falló y la liberó
+                continue;
+            }
+            if (!existing.getExpiresAt().isAfter(LocalDateTime.now())) {
+                requiresNew.executeWithoutResult(status ->
+                        recordRepository.deleteExpiredById(existing.getId(), LocalDateTime.now()));
+                continue;
+            }
+            checkFingerprint(existing.getRequestFingerprint(), fingerprint);
+            if (existing.isInProgress()) {
+                throw new IdempotencyKeyInProgressException(inProgressRetryAfterSeconds,
+                        "A request with this Idempotency-Key is still being processed");
+            }
+
+            StoredResponse stored = toStoredResponse(existing);
+            if (stored == null) {
+                return Optional.empty();
+            }
+            cache.put(cacheKey(userId, idempotencyKey), stored);
+            return Optional.of(stored.response());
+        }
+        throw new IdempotencyKeyInProgressException(inProgressRetryAfterSeconds,
+                "Idempotency-Key could not be reserved, try again");
+    }
+
+    /**
+     * Guarda la respuesta en la reserva de la petición: los reintentos con la misma clave la reciben
+     */
+    public void complete(Long userId, String idempotencyKey, CastVoteRequest request, VoteDto response) {
+        String body;
+        try {
+            body = objectMapper.writeValueAsString(response);
+        } catch (JsonProcessingException e) {
+            log.warn("⚠️ No se pudo serializar la respuesta del voto {} para Idempotency-Key: {}", response.getId(), e.getMessage());
+            release(userId, idempotencyKey);
+            return;
+        }
+
+        try {
+            Integer updated = requiresNew.execute(status -> recordRepository.completeReservation(userId, idempotencyKey,
+                    VoteIdempotencyStatus.IN_PROGRESS, VoteIdempotencyStatus.COMPLETED, response.getId(), body,
+                    LocalDateTime.now().plusHours(ttlHours)));
+            if (updated != null && updated > 0) {
+                cache.put(cacheKey(userId, idempotencyKey), new StoredResponse(fingerprint(request), response));
+            } else {
+                log.debug("Reserva de la Idempotency-Key {} del usuario {} ya no existía", idempotencyKey, userId);
+            }
+        } catch (DataAccessException e) {
+            // El voto ya está emitido: la reserva caduca y un reintento con esta clave recibirá "ya votó"
+            log.warn("⚠️ No se pudo guardar la Idempotency-Key {} del usuario {}: {}", idempotencyKey, userId, e.getMessage());
+        }
+    }
+
+    /**
+     * Libera la reserva de una petición que no emitió el voto, para que el cliente pueda reintentar con la misma clave
+     */
+    public void release(Long userId, String idempotencyKey) {
+        try {
+            requiresNew.executeWithoutResult(status ->
+                    recordRepository.deleteByStatus(userId, idempotencyKey, VoteIdempotencyStatus.IN_PROGRESS));
+        } catch (DataAccessException e) {
+            log.warn("⚠️ No se pudo liberar la Idempotency-Key {} del usuario {}; caduca en {} ms: {}",
+                    idempotencyKey, userId, inProgressTimeoutMs, e.getMessage());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${votes.idempotency.purge-interval-ms:3600000}")
+    @Transactional
+    public void purgeExpired() {
+        int deleted = recordRepository.deleteExpired(LocalDateTime.now());
+        if (deleted > 0) {
+            log.info("🧹 {} claves de idempotencia de votos caducadas eliminadas", deleted);
+        }
+    }
+
+    private static void validateKey(String idempotencyKey) {
+        if (idempotencyKey.isBlank() || idempotencyKey.length() > MAX_KEY_LENGTH) {
+            throw new IllegalArgumentException("Idempotency-Key must be between 1 and " + MAX_KEY_LENGTH + " characters");
+        }
+    }
+
+    private static void checkFingerprint(String stored, String fingerprint) {
+        if (!stored.equals(fingerprint)) {
+            throw new IllegalArgumentException("Idempotency-Key was already used for a different vote request");
+        }
+    }
+
+    private StoredResponse toStoredResponse(VoteIdempotencyRecord record) {
+        try {
+            return new StoredResponse(record.getRequestFingerprint(),
+                    objectMapper.readValue(record.getResponseBody(), VoteDto.class));
+        } catch (JsonProcessingException e) {
+            log.warn("⚠️ Respuesta guardada ilegible para Idempotency-Key {}: {}", record.getIdempotencyKey(), e.getMessage());
+            return null;
+        }
+    }
+
+    private static String cacheKey(Long userId, String idempotencyKey) {
+        return userId + ":" + idempotencyKey;
+    }
+
+    private static String fingerprint(CastVoteRequest request) {
+        return request.getVotacionId() + ":" + request.getOpcionId();
+    }
+
+    private record StoredResponse(String fingerprint, VoteDto response) {
+    }
+}
@@ -1,14 +1,25 @@
 package com.votechain.backend.vote.service;
 
 import com.votechain.backend.auth.model.User;
+import com.votechain.backend.blockchain.merkle.MerkleTree;
+import com.votechain.backend.blockchain.model.AnchoringMode;
+import com.votechain.backend.blockchain.model.BlockchainOutboxEntry;
+import com.votechain.backend.blockchain.service.BlockchainOutboxDispatcher;
+import com.votechain.backend.blockchain.service.BlockchainOutboxService;
+import com.votechain.backend.blockchain.service.MerkleBatchAnchorService;
 import com.votechain.backend.blockchain.service.BlockchainService;
 import com.votechain.backend.blockchain.model.BlockchainVerificationResult;
 import com.votechain.backend.common.logging.SystemLogService;
+import com.votechain.backend.common.pagination.Cursor;
+import com.votechain.backend.common.pagination.CursorPage;
+import com.votechain.backend.common.transaction.AfterCommit;
 import com.votechain.backend.vote.dto.CastVoteRequest;
 import com.votechain.backend.vote.dto.VoteDto;
+import com.votechain.backend.vote.dto.VoteHistoryRow;
 import com.votechain.backend.vote.dto.VoteVerificationDto;
 import com.votechain.backend.auth.repository.UserRepository;
 import com.votechain.backend.vote.dto.VoteVerificationStatus;
+import com.votechain.backend.vote.event.VoteCastEvent;
 import com.votechain.backend.vote.model.Vote;
 import com.votechain.backend.vote.model.VoteStatus;
 import com.votechain.backend.voting.repository.VotacionOpcionRepository;
@@ -17,24 +28,35 @@ import com.votechain.backend.vote.repository.VoteRepository;
 import com.votechain.backend.voting.model.Votacion;
 import com.votechain.backend.voting.model.VotacionEstado;
 import com.votechain.backend.voting.model.VotacionOpcion;
+import com.votechain.backend.voting.service.ResultadoFinal;
+import com.votechain.backend.voting.service.VotacionResultadoService;
+import com.votechain.backend.voting.service.VotacionSnapshot;
+import com.votechain.backend.voting.service.VotacionSnapshotCache;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
-import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
 import java.time.LocalDateTime;
-import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.HashMap;
+import java.util.HexFormat;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.stream.Collectors;
 import java.time.Duration;
 
@@ -42,6 +64,9 @@ import java.time.Duration;
 @Slf4j
 public class VoteService {
 
+    private static final String DUPLICATE_VOTE_CONSTRAINT = "uk_votes_votacion_user";
+    private static final SecureRandom SECURE_RANDOM = new SecureRandom();
+
     @Autowired
     private VoteRepository voteRepository;
 
@@ -60,228 +85,131 @@ public class VoteService {
     @Autowired
     private SystemLogService systemLogService;
 
-    /**
-     * Cast a vote
-     */
-    @Transactional
-    public VoteDto castVote(Long userId, CastVoteRequest request) {
-        // Validate votacion exists and is active
-        Votacion votacion = votacionRepository.findById(request.getVotacionId())
-                .orElseThrow(() -> new EntityNotFoundException("Votacion not found with id: " + request.getVotacionId()));
+    @Autowired
+    private BlockchainOutboxService blockchainOutboxService;
 
-        // Check if votacion is active
-        if (votacion.getEstado() != VotacionEstado.ABIERTA) {
-            throw new IllegalStateException("Voting is not open: current state is " + votacion.getEstado());
-        }
+    @Autowired
+    private BlockchainOutboxDispatcher blockchainOutboxDispatcher;
 
-        LocalDateTime now = LocalDateTime.now();
-        log.info("🕐 Validando fechas de votación:");
-        log.info("   Fecha actual del sistema: {}", now);
-        log.info("   Fecha inicio de votación: {}", votacion.getFechaInicio());
-        log.info("   Fecha fin de votación: {}", votacion.getFechaFin());
-        log.info("   ¿Antes del inicio? {}", now.isBefore(votacion.getFechaInicio()));
-        log.info("   ¿Después del fin? {}", now.isAfter(votacion.getFechaFin()));
-
-        if (now.isBefore(votacion.getFechaInicio()) || now.isAfter(votacion.getFechaFin())) {
-            String errorMsg = String.format("Voting is not currently active. Current time: %s, Voting period: %s to %s",
-                now, votacion.getFechaInicio(), votacion.getFechaFin());
-            log.error("❌ {}", errorMsg);
-            throw new IllegalStateException(errorMsg);
-        }
+    @Autowired
+    private MerkleBatchAnchorService merkleBatchAnchorService;
 
-        // Validate option exists and belongs to the voting
-        // ✅ CAMBIO: Buscar opción por votacionId y orden (ID público) en lugar de por ID de BD
-        VotacionOpcion opcion = opcionRepository.findByVotacionIdAndOrden(request.getVotacionId(), request.getOpcionId().intValue())
-                .orElseThrow(() -> new EntityNotFoundException("Option with order " + request.getOpcionId() + " not found in voting " + request.getVotacionId()));
+    @Autowired
+    private TransactionTemplate transactionTemplate;
 
-        // Ya no necesitamos validar que la opción pertenece a la votación porque ya la buscamos por votacionId
+    @Autowired
+    private VoterRegistry voterRegistry;
 
-        // Check if user already voted
-        if (voteRepository.existsByVotacionIdAndUserId(votacion.getId(), userId)) {
-            throw new IllegalStateException("User has already voted in this voting");
-        }
+    @Autowired
+    private VoteCastLocks voteCastLocks;
 
-        // Get user
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new EntityNotFoundException("User not found with id: " + userId));
+    @Autowired
+    private VotacionSnapshotCache votacionSnapshotCache;
 
-        // Create vote
-        Vote vote = Vote.builder()
-                .votacion(votacion)
-                .user(user)
-                .opcionSeleccionada(opcion)
-                .status(VoteStatus.PENDING)
-                .createdAt(LocalDateTime.now())
-                .build();
+    @Autowired
+    private VoteTallyRegistry voteTallyRegistry;
 
-        // Generate hash for the vote
-        String voteHash = generateVoteHash(vote);
-        vote.setVoteHash(voteHash);
+    @Autowired
+    private VoteActivityRegistry voteActivityRegistry;
 
-        // Save vote to database first
-        Vote savedVote = voteRepository.save(vote);
+    @Autowired
+    private VotacionResultadoService votacionResultadoService;
 
-        // Log vote cast
-        systemLogService.logVoteCast(userId, votacion.getId(), voteHash);
+    @Value("${blockchain.executor.verification.timeout-ms:10000}")
+    private long verificationTimeoutMs;
 
-        // Submit to blockchain asynchronously
-        CompletableFuture<String> blockchainFuture = blockchainService.registerVote(savedVote);
+    @Value("${votes.cast.submit-timeout-ms:10000}")
+    private long submitTimeoutMs;
 
-        // Process blockchain result
-        blockchainFuture.thenAccept(transactionHash -> {
-            // Update vote with blockchain transaction hash
-            savedVote.setBlockchainTransactionHash(transactionHash);
-            savedVote.setStatus(VoteStatus.CONFIRMED);
-            savedVote.setBlockchainVerified(true);
-            savedVote.setBlockchainVerifiedAt(LocalDateTime.now());
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
 
-            voteRepository.save(savedVote);
+    /**
+     * Cast a vote: validación contra el snapshot en memoria e inserción del voto y su entrada de outbox
+     */
+    @Transactional
+    public VoteDto castVote(Long userId, CastVoteRequest request) {
+        VotacionSnapshot votacion = votacionSnapshotCache.get(request.getVotacionId());
+        VotacionSnapshot.Opcion opcion = validateBallot(votacion, request);
+
+        // Serialize check-and-insert for this user until commit; the unique constraint on votes backs it up
+        voteCastLocks.lockUntilTransactionEnds(votacion.getId(), userId);
 
-            systemLogService.logBlockchainInteraction(userId, "Vote Registration", transactionHash);
-            log.info("Vote registered on blockchain with hash: {}", transactionHash);
-        }).exceptionally(ex -> {
-            log.error("Error registering vote on blockchain", ex);
-            systemLogService.logError("Blockchain Vote Registration",
-                    "Error registering vote on blockchain: " + ex.getMessage());
+        // Check if user already voted (in-memory voter set)
+        if (voterRegistry.hasVoted(votacion.getId(), userId)) {
+            throw new IllegalStateException("User has already voted in this voting");
+        }
 
-            // Still keep the vote in database with error status
-            savedVote.setStatus(VoteStatus.REJECTED);
-            voteRepository.save(savedVote);
+        // Referencias sin cargar: el INSERT solo necesita las claves foráneas
+        Vote savedVote = insertNewVote(buildVote(votacion.getId(), userId, opcion.getId()));
 
-            return null;
-        });
+        // Enqueue blockchain registration in the same transaction; the outbox dispatcher submits it
+        blockchainOutboxService.enqueueVoteRegistration(savedVote);
+        publishVoteCast(savedVote, opcion.getOrden());
 
         // Return vote DTO immediately without waiting for blockchain
-        return convertToDto(savedVote);
+        return convertToDto(savedVote, votacion, opcion);
     }
 
     /**
-     * Cast a vote with full blockchain integration (synchronous)
+     * Cast a vote and submit it to the blockchain right away. El voto y su entrada de outbox se confirman
+     * primero en su propia transacción; fuera de ella y del lock solo se espera el hash, y el receipt lo
+     * persiste después el outbox, que también reintenta si el envío falla
      */
-    @Transactional
     public VoteDto castVoteWithBlockchain(Long userId, CastVoteRequest request) {
         log.info("🗳️ Iniciando voto con integración blockchain para usuario {} en votación {}", userId, request.getVotacionId());
 
-        // Validate votacion exists and is active
-        Votacion votacion = votacionRepository.findById(request.getVotacionId())
-                .orElseThrow(() -> new EntityNotFoundException("Votacion not found with id: " + request.getVotacionId()));
-
-        // Check if votacion is active
-        if (votacion.getEstado() != VotacionEstado.ABIERTA) {
-            throw new IllegalStateException("Voting is not open: current state is " + votacion.getEstado());
+        // Con anclaje por lotes no hay transacción por voto que enviar: el voto entra en el siguiente lote Merkle
+        if (blockchainService.getAnchoringMode() == AnchoringMode.MERKLE_BATCH) {
+            return transactionTemplate.execute(status -> castVote(userId, request));
         }
 
-        LocalDateTime now = LocalDateTime.now();
-        if (now.isBefore(votacion.getFechaInicio()) || now.isAfter(votacion.getFechaFin())) {
-            throw new IllegalStateException("Voting is not currently active");
-        }
-
-        // Validate option exists and belongs to the voting
-        // ✅ CAMBIO: Buscar opción por votacionId y orden (ID público) en lugar de por ID de BD
-        VotacionOpcion opcion = opcionRepository.findByVotacionIdAndOrden(request.getVotacionId(), request.getOpcionId().intValue())
-                .orElseThrow(() -> new EntityNotFoundException("Option with order " + request.getOpcionId() + " not found in voting " + request.getVotacionId()));
-
-        // Ya no necesitamos validar que la opción pertenece a la votación porque ya la buscamos por votacionId
-
-        // 🔒 VERIFICACIÓN ROBUSTA DE DUPLICADOS
-        log.info("🔍 Realizando verificación robusta de votos duplicados...");
-        VoteVerificationStatus verificationStatus = getVoteVerificationStatus(userId, votacion.getId());
-
-        if (verificationStatus.isHasVotedInDB()) {
-            log.warn("❌ Usuario {} ya tiene voto registrado en base de datos para votación {}", userId, votacion.getId());
-            throw new IllegalStateException("User has already voted in this voting (verified in database)");
-        }
-
-        if (verificationStatus.getHasVotedInBlockchain() != null && verificationStatus.getHasVotedInBlockchain()) {
-            log.warn("❌ Usuario {} ya tiene voto registrado en blockchain para votación {} (ID blockchain: {})",
-                userId, votacion.getId(), verificationStatus.getBlockchainVotingId());
-            throw new IllegalStateException("User has already voted according to blockchain verification");
-        }
-
-        if (!verificationStatus.isConsistent()) {
-            log.error("❌ INCONSISTENCIA DETECTADA en verificación previa al voto: {}", verificationStatus.getStatusMessage());
-            systemLogService.logError("Pre-Vote Verification Inconsistency", verificationStatus.getStatusMessage());
-            throw new IllegalStateException("Vote verification inconsistency detected. Please contact support.");
-        }
-
-        log.info("✅ Verificación de duplicados completada: Usuario {} puede votar en votación {}", userId, votacion.getId());
-
-        // Get user
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new EntityNotFoundException("User not found with id: " + userId));
-
-        // Create vote
-        Vote vote = Vote.builder()
-                .votacion(votacion)
-                .user(user)
-                .opcionSeleccionada(opcion)
-                .status(VoteStatus.PENDING)
-                .createdAt(LocalDateTime.now())
-                .build();
+        AcceptedVote accepted = transactionTemplate.execute(status -> acceptForDirectSubmission(userId, request));
+        log.info("✅ Voto guardado en base de datos: ID={}, Hash={}", accepted.vote().getId(), accepted.vote().getVoteHash());
 
-        // Generate hash for the vote
-        String voteHash = generateVoteHash(vote);
-        vote.setVoteHash(voteHash);
-
-        // Save vote to database first
-        Vote savedVote = voteRepository.save(vote);
-        log.info("✅ Voto guardado en base de datos: ID={}, Hash={}", savedVote.getId(), voteHash);
-
-        // Log vote cast
-        systemLogService.logVoteCast(userId, votacion.getId(), voteHash);
-
-        // Register in blockchain synchronously
+        VoteDto dto = accepted.dto();
         try {
             log.info("🔗 Registrando voto en blockchain...");
-            CompletableFuture<String> future = blockchainService.registerVote(savedVote);
-            String transactionHash = future.get(30, TimeUnit.SECONDS);
-
-            log.info("✅ Voto registrado en blockchain con hash: {}", transactionHash);
-
-            // Update vote with blockchain information
-            savedVote.setBlockchainTransactionHash(transactionHash);
-            savedVote.setStatus(VoteStatus.CONFIRMED);
-            savedVote.setBlockchainVerified(true);
-            savedVote.setBlockchainVerifiedAt(LocalDateTime.now());
-
-            // Save updated vote
-            savedVote = voteRepository.save(savedVote);
-
-            // Verify the vote on blockchain
-            log.info("🔍 Verificando voto en blockchain...");
-            BlockchainVerificationResult verificationResult = blockchainService.verifyVote(transactionHash);
-            log.info("✅ Verificación blockchain: {}", verificationResult.isVerified() ? "Exitosa" : "Fallida");
-
-            // 🔍 VERIFICACIÓN FINAL POST-VOTO
-            log.info("🔍 Realizando verificación final post-voto...");
-            VoteVerificationStatus postVoteStatus = getVoteVerificationStatus(userId, votacion.getId());
-            log.info("📊 Estado post-voto: {}", postVoteStatus.getStatusMessage());
-
-            if (!postVoteStatus.isConsistent()) {
-                log.warn("⚠️ Inconsistencia detectada después del voto: {}", postVoteStatus.getStatusMessage());
-                systemLogService.logError("Post-Vote Verification Inconsistency", postVoteStatus.getStatusMessage());
+            String transactionHash = blockchainOutboxDispatcher.submitClaimed(accepted.entry())
+                    .get(submitTimeoutMs, TimeUnit.MILLISECONDS);
+            if (transactionHash != null) {
+                dto.setBlockchainTransactionHash(transactionHash);
+                dto.setBlockchainStatus(blockchainStatus(false, VoteStatus.PROCESSING, transactionHash));
+                dto.setStatus(VoteStatus.PROCESSING);
+                log.info("✅ Voto enviado a blockchain con hash: {}", transactionHash);
             }
+        } catch (TimeoutException e) {
+            log.warn("⏳ El nodo no aceptó el voto {} en {} ms; el outbox completa el registro", dto.getId(), submitTimeoutMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            // El fallo ya quedó registrado en el outbox, que reintenta con backoff
+            log.warn("⚠️ Envío a blockchain del voto {} fallido, se reintentará: {}", dto.getId(), e.getMessage());
+        }
+        return dto;
+    }
 
-            // Log blockchain interaction
-            systemLogService.logBlockchainInteraction(userId, "Vote Registration", transactionHash);
-
-            log.info("✅ Proceso de voto completado exitosamente");
-
-        } catch (Exception e) {
-            log.error("❌ Error al registrar voto en blockchain", e);
-
-            // Update vote status to rejected due to blockchain error
-            savedVote.setStatus(VoteStatus.REJECTED);
-            voteRepository.save(savedVote);
-
-            systemLogService.logError("Blockchain Vote Registration",
-                    "Error registering vote on blockchain: " + e.getMessage());
-
-            throw new RuntimeException("Error registering vote on blockchain: " + e.getMessage(), e);
+    /**
+     * Valida e inserta el voto con su entrada de outbox ya reclamada, para enviarla tras el commit
+     */
+    private AcceptedVote acceptForDirectSubmission(Long userId, CastVoteRequest request) {
+        VotacionSnapshot votacion = votacionSnapshotCache.get(request.getVotacionId());
+        VotacionSnapshot.Opcion opcion = validateBallot(votacion, request);
+
+        // 🔒 Verificación de duplicados en memoria; sin consultas a BD ni RPC a la blockchain
+        voteCastLocks.lockUntilTransactionEnds(votacion.getId(), userId);
+        if (voterRegistry.hasVoted(votacion.getId(), userId)) {
+            log.warn("❌ Usuario {} ya tiene voto registrado para votación {}", userId, votacion.getId());
+            throw new IllegalStateException("User has already voted in this voting (verified in database)");
         }
 
-        // Return vote DTO with complete information
-        return convertToDto(savedVote);
+        Vote savedVote = insertNewVote(buildVote(votacion.getId(), userId, opcion.getId()));
+        BlockchainOutboxEntry entry = blockchainOutboxService.enqueueClaimedVoteRegistration(savedVote);
+        publishVoteCast(savedVote, opcion.getOrden());
+        return new AcceptedVote(savedVote, entry, convertToDto(savedVote, votacion, opcion));
+    }
+
+    private record AcceptedVote(Vote vote, BlockchainOutboxEntry entry, VoteDto dto) {
     }
 
     /**
@@ -300,15 +228,14 @@ public class VoteService {
 
         // If the vote has a blockchain transaction hash, verify it on the blockchain
         if (vote.getBlockchainTransactionHash() != null) {
-            BlockchainVerificationResult result = blockchainService.verifyVote(
-                    vote.getBlockchainTransactionHash());
+            BlockchainVerificationResult result = verifyOnBlockchain(vote.getBlockchainTransactionHash());
 
             boolean isVerified = result.isVerified();
 
             systemLogService.logVoteVerification(vote.getUser().getId(), voteHash, isVerified);
 
             if (isVerified) {
-                return VoteVerificationDto.builder()
+                VoteVerificationDto dto = VoteVerificationDto.builder()
                         .verified(true)
                         .votacionId(vote.getVotacion().getId())
                         .votacionTitulo(vote.getVotacion().getTitulo())
@@ -319,6 +246,8 @@ public class VoteService {
                         .blockTimestamp(result.getTimestamp())
                         .message("Vote verified successfully")
                         .build();
+                attachMerkleProof(vote, dto);
+                return dto;
             } else {
                 return VoteVerificationDto.builder()
                         .verified(false)
@@ -342,11 +271,136 @@ public class VoteService {
         }
     }
 
+    /**
+     * Verificación en el pool de verificación con tiempo máximo: un nodo lento no retiene el hilo de la petición
+     */
+    private BlockchainVerificationResult verifyOnBlockchain(String transactionHash) {
+        try {
+            return blockchainService.verifyVoteAsync(transactionHash)
+                    .get(verificationTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return BlockchainVerificationResult.builder().verified(false).error("Verification interrupted").build();
+        } catch (Exception e) {
+            log.warn("⚠️ No se pudo verificar en blockchain la transacción {}: {}", transactionHash, e.toString());
+            return BlockchainVerificationResult.builder()
+                    .verified(false)
+                    .error("Verification unavailable: " + e.getMessage())
+                    .build();
+        }
+    }
+
+    /**
+     * Añade la prueba de inclusión Merkle si el voto se ancló dentro de un lote
+     */
+    private void attachMerkleProof(Vote vote, VoteVerificationDto dto) {
+        if (vote.getAnchorBatchId() == null || vote.getMerkleLeafIndex() == null) {
+            return;
+        }
+        merkleBatchAnchorService.getBatch(vote.getAnchorBatchId()).ifPresent(batch -> {
+            List<String> proof = merkleBatchAnchorService.getMerkleProof(batch.getId(), vote.getMerkleLeafIndex());
+            dto.setMerkleRoot(batch.getMerkleRoot());
+            dto.setMerkleLeafIndex(vote.getMerkleLeafIndex());
+            dto.setMerkleProof(proof);
+            dto.setMerkleProofValid(MerkleTree.verify(vote.getVoteHash(), vote.getMerkleLeafIndex(), proof, batch.getMerkleRoot()));
+        });
+    }
+
+    /**
+     * Comprueba estado, fechas y opción contra el snapshot; devuelve la opción elegida
+     */
+    private VotacionSnapshot.Opcion validateBallot(VotacionSnapshot votacion, CastVoteRequest request) {
+        if (votacion.getEstado() != VotacionEstado.ABIERTA) {
+            throw new IllegalStateException("Voting is not open: current state is " + votacion.getEstado());
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        if (!votacion.isOpenAt(now)) {
+            String errorMsg = String.format("Voting is not currently active. Current time: %s, Voting period: %s to %s",
+                    now, votacion.getFechaInicio(), votacion.getFechaFin());
+            log.debug("❌ {}", errorMsg);
+            throw new IllegalStateException(errorMsg);
+        }
+
+        // La opción se busca por su orden (ID público) dentro de la votación
+        return votacion.findOpcion(request.getOpcionId().intValue())
+                .orElseThrow(() -> new EntityNotFoundException("Option with order " + request.getOpcionId() + " not found in voting " + request.getVotacionId()));
+    }
+
+    /**
+     * Voto nuevo con referencias perezosas a votación, usuario y opción; no ejecuta ninguna consulta
+     */
+    private Vote buildVote(Long votacionId, Long userId, Long opcionId) {
+        Vote vote = Vote.builder()
+                .votacion(votacionRepository.getReferenceById(votacionId))
+                .user(userRepository.getReferenceById(userId))
+                .opcionSeleccionada(opcionRepository.getReferenceById(opcionId))
+                .status(VoteStatus.PENDING)
+                .createdAt(LocalDateTime.now())
+                .build();
+        vote.setVoteHash(generateVoteHash(vote));
+        return vote;
+    }
+
+    /**
+     * Inserta el voto en una sola sentencia que comprueba y bloquea la votación abierta hasta el commit: el
+     * cierre espera a este voto antes de contar, y un voto validado contra un snapshot anterior al cierre no se
+     * inserta. Solo si no se insertó se consulta el motivo; la restricción única respalda el caso duplicado
+     */
+    private Vote insertNewVote(Vote vote) {
+        Optional<Long> id;
+        try {
+            id = voteRepository.insertIfOpen(vote);
+        } catch (DataIntegrityViolationException e) {
+            if (isDuplicateVote(e)) {
+                log.warn("❌ Voto duplicado rechazado por la base de datos: usuario {} en votación {}",
+                        vote.getUser().getId(), vote.getVotacion().getId());
+                throw new IllegalStateException("User has already voted in this voting");
+            }
+            throw e;
+        }
+        vote.setId(id.orElseThrow(() -> rejectedVote(vote.getVotacion().getId(), vote.getUser().getId())));
+        return vote;
+    }
+
+    private RuntimeException rejectedVote(Long votacionId, Long userId) {
+        if (voteRepository.existsByVotacionIdAndUserId(votacionId, userId)) {
+            log.warn("❌ Voto duplicado rechazado por la base de datos: usuario {} en votación {}", userId, votacionId);
+            return new IllegalStateException("User has already voted in this voting");
+        }
+        return votacionRepository.findEstadoById(votacionId)
+                .<RuntimeException>map(estado -> new IllegalStateException("Voting is not open: current state is " + estado))
+                .orElseGet(() -> new EntityNotFoundException("Votacion not found with id: " + votacionId));
+    }
+
+    private boolean isDuplicateVote(DataIntegrityViolationException e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause.getMessage() != null && cause.getMessage().toLowerCase().contains(DUPLICATE_VOTE_CONSTRAINT)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Publica el voto tras el commit para que los registros en memoria lo incorporen
+     */
+    private void publishVoteCast(Vote vote, Integer opcionOrden) {
+        VoteCastEvent event = new VoteCastEvent(
+                vote.getId(),
+                vote.getVotacion().getId(),
+                vote.getUser().getId(),
+                opcionOrden,
+                vote.getVoteHash(),
+                vote.getCreatedAt());
+        AfterCommit.run(() -> eventPublisher.publishEvent(event));
+    }
+
     /**
      * Check if a user has already voted in a specific votacion
      */
     public boolean hasVoted(Long userId, Long votacionId) {
-        return voteRepository.existsByVotacionIdAndUserId(votacionId, userId);
+        return voterRegistry.hasVoted(votacionId, userId);
     }
 
     /**
@@ -355,8 +409,8 @@ public class VoteService {
     public boolean hasUserVoted(Long userId, Long votacionId) {
         log.info("🔍 Verificando si usuario {} ya votó en votación {}", userId, votacionId);
 
-        // 1. Check in database first (fastest check)
-        boolean hasVotedInDB = voteRepository.existsByVotacionIdAndUserId(votacionId, userId);
+        // 1. Check the in-memory voter set first (fastest check, loaded from the database)
+        boolean hasVotedInDB = voterRegistry.hasVoted(votacionId, userId);
         log.info("📊 Base de datos: Usuario {} votado = {}", userId, hasVotedInDB);
 
         // 2. If user has voted in DB, verify blockchain consistency
@@ -437,17 +491,35 @@ public class VoteService {
      * Get vote history for a specific user
      */
     public Page<VoteDto> getUserVoteHistory(Long userId, int page, int size) {
-        Pageable pageable = PageRequest.of(page, size, Sort.by("createdAt").descending());
-        Page<Vote> votes = voteRepository.findByUserId(userId, pageable);
+        // Newest first: the order is part of the projection query
+        Pageable pageable = PageRequest.of(page, size);
+        Page<VoteHistoryRow> votes = voteRepository.findHistoryRowsByUser(userId, pageable);
 
         return votes.map(this::convertToDto);
     }
 
+    /**
+     * Vote history by cursor, newest first: no OFFSET and no COUNT unless includeTotal is set
+     */
+    public CursorPage<VoteDto> getUserVoteHistoryByCursor(Long userId, String cursorToken, int size, boolean includeTotal) {
+        Cursor cursor = Cursor.decode(cursorToken);
+        int pageSize = Cursor.pageSize(size);
+        Pageable limit = PageRequest.of(0, pageSize + 1);
+
+        List<VoteHistoryRow> rows = cursor == null
+                ? voteRepository.findHistoryFirstKeysetPage(userId, limit)
+                : voteRepository.findHistoryKeysetPageAfter(userId, cursor.getCreatedAt(), cursor.getId(), limit);
+        Long total = includeTotal ? voteRepository.countByUserId(userId) : null;
+
+        return CursorPage.of(rows, pageSize, vote -> new Cursor(vote.getCreatedAt(), vote.getId()),
+                page -> page.stream().map(this::convertToDto).collect(Collectors.toList()), total);
+    }
+
     /**
      * Get vote by ID
      */
     public VoteDto getVoteById(Long voteId, Long userId) {
-        Vote vote = voteRepository.findById(voteId)
+        Vote vote = voteRepository.findDetailById(voteId)
                 .orElseThrow(() -> new EntityNotFoundException("Vote not found with id: " + voteId));
 
         // Security check - only the user who cast the vote or admins can see it
@@ -489,20 +561,24 @@ public class VoteService {
         vote.setVoteHash(voteHash);
 
         // Guardar en base de datos
-        return voteRepository.save(vote);
+        Vote savedVote = voteRepository.save(vote);
+        publishVoteCast(savedVote, opcion.getOrden());
+        return savedVote;
     }
 
     /**
-     * Generate a unique hash for a vote
+     * Generate a unique hash for a vote (solo ids y una sal aleatoria: no hace falta cargar el usuario)
      */
     private String generateVoteHash(Vote vote) {
         try {
+            byte[] salt = new byte[16];
+            SECURE_RANDOM.nextBytes(salt);
             String data = String.format("%d-%d-%d-%d-%s",
                     vote.getVotacion().getId(),
                     vote.getUser().getId(),
                     vote.getOpcionSeleccionada().getId(),
                     System.currentTimeMillis(),
-                    vote.getUser().getDni());
+                    HexFormat.of().formatHex(salt));
 
             MessageDigest digest = MessageDigest.getInstance("SHA-256");
             byte[] hash = digest.digest(data.getBytes());
@@ -525,14 +601,8 @@ public class VoteService {
      * Convert entity to DTO
      */
     private VoteDto convertToDto(Vote vote) {
-        String blockchainStatus = "PENDING";
-        if (vote.isBlockchainVerified()) {
-            blockchainStatus = "VERIFIED";
-        } else if (vote.getStatus() == VoteStatus.REJECTED) {
-            blockchainStatus = "FAILED";
-        } else if (vote.getBlockchainTransactionHash() != null) {
-            blockchainStatus = "CONFIRMED";
-        }
+        String blockchainStatus = blockchainStatus(
+                vote.isBlockchainVerified(), vote.getStatus(), vote.getBlockchainTransactionHash());
 
         return VoteDto.builder()
                 .id(vote.getId())
@@ -552,23 +622,85 @@ public class VoteService {
                 .build();
     }
 
+    /**
+     * DTO del historial a partir de la proyección, sin entidades
+     */
+    private VoteDto convertToDto(VoteHistoryRow row) {
+        return VoteDto.builder()
+                .id(row.getId())
+                .userId(row.getUserId())
+                .userEmail(row.getUserEmail())
+                .userName(row.getUserFirstName() + " " + row.getUserLastName())
+                .votacionId(row.getVotacionId())
+                .votacionTitulo(row.getVotacionTitulo())
+                .opcionId(row.getOpcionId())
+                .opcionTitulo(row.getOpcionTitulo())
+                .createdAt(row.getCreatedAt())
+                .voteHash(row.getVoteHash())
+                .blockchainTransactionHash(row.getBlockchainTransactionHash())
+                .blockchainStatus(blockchainStatus(row.isBlockchainVerified(), row.getStatus(),
+                        row.getBlockchainTransactionHash()))
+                .blockchainVerifiedAt(row.getBlockchainVerifiedAt())
+                .status(row.getStatus())
+                .build();
+    }
+
+    private static String blockchainStatus(boolean verified, VoteStatus status, String transactionHash) {
+        if (verified) {
+            return "VERIFIED";
+        } else if (status == VoteStatus.REJECTED) {
+            return "FAILED";
+        } else if (transactionHash != null) {
+            return "CONFIRMED";
+        }
+        return "PENDING";
+    }
+
+    /**
+     * DTO de un voto recién emitido a partir del snapshot. Solo se inicializa la referencia al usuario, que
+     * sale de la caché de segundo nivel (región users) salvo la primera vez
+     */
+    private VoteDto convertToDto(Vote vote, VotacionSnapshot votacion, VotacionSnapshot.Opcion opcion) {
+        return VoteDto.builder()
+                .id(vote.getId())
+                .userId(vote.getUser().getId())
+                .userEmail(vote.getUser().getEmail())
+                .userName(vote.getUser().getFullName())
+                .votacionId(votacion.getId())
+                .votacionTitulo(votacion.getTitulo())
+                .opcionId(opcion.getId())
+                .opcionTitulo(opcion.getTitulo())
+                .createdAt(vote.getCreatedAt())
+                .voteHash(vote.getVoteHash())
+                .blockchainStatus("PENDING")
+                .status(vote.getStatus())
+                .build();
+    }
+
     /**
      * Count total votes for a specific votacion
      */
     public long countByVotacionId(Long votacionId) {
-        return voteRepository.countByVotacionId(votacionId);
+        return findFrozenResultado(votacionId)
+                .map(ResultadoFinal::getTotalVotos)
+                .orElseGet(() -> voteRepository.countByVotacionId(votacionId));
     }
 
     /**
      * Get vote distribution by option for a specific votacion
      */
     public Map<String, Long> getVoteDistributionByOption(Long votacionId) {
+        Optional<ResultadoFinal> resultadoFinal = findFrozenResultado(votacionId);
+        if (resultadoFinal.isPresent()) {
+            return resultadoFinal.get().getDistribucion();
+        }
+
         List<VotacionOpcion> opciones = opcionRepository.findByVotacionIdOrderByOrden(votacionId);
+        VoteTally tally = voteTallyRegistry.getTally(votacionId);
         Map<String, Long> distribution = new HashMap<>();
 
         for (VotacionOpcion opcion : opciones) {
-            long voteCount = voteRepository.countByVotacionIdAndOpcionSeleccionadaId(votacionId, opcion.getId());
-            distribution.put(opcion.getTitulo(), voteCount);
+            distribution.put(opcion.getTitulo(), tally.getCount(opcion.getOrden()));
         }
 
         return distribution;
@@ -578,16 +710,31 @@ public class VoteService {
      * Get votes over time for temporal analysis
      */
     public Map<LocalDateTime, Long> getVotesOverTime(Long votacionId) {
-        List<Vote> votes = voteRepository.findByVotacionIdOrderByCreatedAt(votacionId);
-        Map<LocalDateTime, Long> votesOverTime = new HashMap<>();
+        // Votes grouped by hour, in chronological order
+        return getVoteActivity(votacionId).getVotesByHour();
+    }
 
-        // Group votes by hour
-        for (Vote vote : votes) {
-            LocalDateTime hourKey = vote.getCreatedAt().withMinute(0).withSecond(0).withNano(0);
-            votesOverTime.put(hourKey, votesOverTime.getOrDefault(hourKey, 0L) + 1);
-        }
+    /**
+     * Get per-minute, per-hour and per-day vote activity without loading votes
+     */
+    public VoteActivity getVoteActivity(Long votacionId) {
+        return findFrozenResultado(votacionId)
+                .map(resultado -> new VoteActivity(resultado.getVotosPorHora(), resultado.getVotosPorDia(), Map.of()))
+                .orElseGet(() -> voteActivityRegistry.getActivity(votacionId));
+    }
 
-        return votesOverTime;
+    /**
+     * Frozen result of a closed votacion, if one was stored at finalization
+     */
+    private Optional<ResultadoFinal> findFrozenResultado(Long votacionId) {
+        try {
+            if (votacionSnapshotCache.get(votacionId).getEstado() != VotacionEstado.CERRADA) {
+                return Optional.empty();
+            }
+        } catch (EntityNotFoundException e) {
+            return Optional.empty();
+        }
+        return votacionResultadoService.find(votacionId);
     }
 
     /**
@@ -0,0 +1,29 @@
+package com.votechain.backend.vote.service;
+
+import java.util.Map;
+
+/**
+ * Recuento de una votación en un instante: votos por orden de opción y total
+ */
+public final class VoteTally {
+
+    private final Map<Integer, Long> countsByOrden;
+    private final long total;
+
+    VoteTally(Map<Integer, Long> countsByOrden) {
+        this.countsByOrden = Map.copyOf(countsByOrden);
+        this.total = countsByOrden.values().stream().mapToLong(Long::longValue).sum();
+    }
+
+    public long getCount(Integer orden) {
+        return countsByOrden.getOrDefault(orden, 0L);
+    }
+
+    public long getTotal() {
+        return total;
+    }
+
+    public Map<Integer, Long> getCountsByOrden() {
+        return countsByOrden;
+    }
+}
@@ -0,0 +1,247 @@
+package com.votechain.backend.vote.service;
+
+import com.votechain.backend.vote.event.VoteCastEvent;
+import com.votechain.backend.vote.repository.VoteRepository;
+import com.votechain.backend.voting.event.VotacionChangedEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Recuento en vivo por votación: contadores por orden de opción, sembrados con un GROUP BY en el primer
+ * acceso e incrementados con cada voto confirmado. Los votos que se confirman alrededor de la siembra se
+ * fusionan por id (ver SeedWindow). Los recuentos se descartan tras max-age-ms y se vuelven a sembrar,
+ * lo que acota la desviación por votos emitidos en otra instancia
+ */
+@Component
+@Slf4j
+public class VoteTallyRegistry {
+
+    @Autowired
+    private VoteRepository voteRepository;
+
+    @Value("${votes.tally.max-age-ms:300000}")
+    private long maxAgeMs;
+
+    @Value("${votes.tally.idle-evict-ms:3600000}")
+    private long idleEvictMs;
+
+    @Value("${votes.tally.settle-window-ms:60000}")
+    private long settleWindowMs;
+
+    private final ConcurrentHashMap<Long, Tally> tallies = new ConcurrentHashMap<>();
+
+    public VoteTally getTally(Long votacionId) {
+        return tallies.computeIfAbsent(votacionId, Tally::new).snapshot();
+    }
+
+    /**
+     * Recuentos de varias votaciones: las que aún no están sembradas se siembran juntas con un solo GROUP BY
+     * (y una consulta de sus votos recientes)
+     */
+    public Map<Long, VoteTally> getTallies(Collection<Long> votacionIds) {
+        Map<Long, Tally> requested = new LinkedHashMap<>();
+        votacionIds.forEach(id -> requested.put(id, tallies.computeIfAbsent(id, Tally::new)));
+
+        // Solo las que nadie está sembrando ya; las demás esperan a esa siembra en snapshot()
+        List<Tally> owned = new ArrayList<>();
+        try {
+            for (Tally tally : requested.values()) {
+                if (!tally.loaded && tally.seedLock.tryLock()) {
+                    if (tally.loaded) {
+                        tally.seedLock.unlock();
+                    } else {
+                        owned.add(tally);
+                    }
+                }
+            }
+            if (!owned.isEmpty()) {
+                owned.forEach(Tally::beginSeed);
+                LocalDateTime recentSince = SeedWindow.recentSince(LocalDateTime.now(), settleWindowMs);
+
+                Map<Long, List<Object[]>> rowsByVotacion = new HashMap<>();
+                Map<Long, List<Object[]>> recentByVotacion = new HashMap<>();
+                owned.forEach(tally -> {
+                    rowsByVotacion.put(tally.votacionId, new ArrayList<>());
+                    recentByVotacion.put(tally.votacionId, new ArrayList<>());
+                });
+                for (Object[] row : voteRepository.countVotesByVotacionIdsAndOpcionOrdenCreatedBefore(
+                        rowsByVotacion.keySet(), recentSince)) {
+                    rowsByVotacion.get((Long) row[0]).add(new Object[]{row[1], row[2]});
+                }
+                for (Object[] row : voteRepository.findVoteOrdenesByVotacionIdsCreatedSince(
+                        recentByVotacion.keySet(), recentSince)) {
+                    recentByVotacion.get((Long) row[0]).add(new Object[]{row[1], row[2]});
+                }
+                owned.forEach(tally -> tally.completeSeed(rowsByVotacion.get(tally.votacionId),
+                        recentByVotacion.get(tally.votacionId), recentSince));
+            }
+        } finally {
+            owned.forEach(tally -> tally.seedLock.unlock());
+        }
+
+        Map<Long, VoteTally> result = new LinkedHashMap<>();
+        requested.forEach((id, tally) -> result.put(id, tally.snapshot()));
+        return result;
+    }
+
+    /**
+     * Recuento recién sembrado desde la base de datos, p. ej. para cerrar una votación con cifras exactas
+     */
+    public VoteTally refresh(Long votacionId) {
+        tallies.remove(votacionId);
+        return getTally(votacionId);
+    }
+
+    // Antes que cualquier oyente que lea el recuento (p. ej. los resultados en vivo)
+    @EventListener
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void onVoteCast(VoteCastEvent event) {
+        // Sin recuento cargado no hay nada que actualizar: la siembra leerá el voto de la BD
+        Tally tally = tallies.get(event.getVotacionId());
+        if (tally != null) {
+            tally.onVoteCast(event);
+        }
+    }
+
+    @EventListener
+    public void onVotacionChanged(VotacionChangedEvent event) {
+        // Opciones añadidas, renumeradas o votación eliminada
+        tallies.remove(event.getVotacionId());
+    }
+
+    @Scheduled(fixedDelayString = "${votes.tally.evict-interval-ms:60000}")
+    public void evictStale() {
+        long now = System.currentTimeMillis();
+        tallies.entrySet().removeIf(entry -> entry.getValue().isStale(now));
+    }
+
+    private class Tally {
+        private final Long votacionId;
+        private final ConcurrentHashMap<Integer, LongAdder> counts = new ConcurrentHashMap<>();
+        private final long createdAt = System.currentTimeMillis();
+        private volatile long lastAccess = createdAt;
+
+        // Una sola siembra a la vez, individual (ensureLoaded) o por lotes (getTallies)
+        private final ReentrantLock seedLock = new ReentrantLock();
+
+        // guarded by pendingLock: votos confirmados mientras corre la consulta de siembra
+        private final Object pendingLock = new Object();
+        private final List<VoteCastEvent> pending = new ArrayList<>();
+        private boolean seeding;
+        private volatile boolean loaded;
+        private volatile SeedWindow window;
+
+        private Tally(Long votacionId) {
+            this.votacionId = votacionId;
+        }
+
+        private VoteTally snapshot() {
+            ensureLoaded();
+            lastAccess = System.currentTimeMillis();
+            Map<Integer, Long> snapshot = new HashMap<>();
+            counts.forEach((orden, adder) -> snapshot.put(orden, adder.sum()));
+            return new VoteTally(snapshot);
+        }
+
+        private void onVoteCast(VoteCastEvent event) {
+            if (loaded) {
+                apply(event);
+                return;
+            }
+            synchronized (pendingLock) {
+                if (loaded) {
+                    apply(event);
+                } else if (seeding) {
+                    pending.add(event);
+                }
+                // Antes de la siembra: el voto ya está confirmado, la consulta lo contará
+            }
+        }
+
+        private boolean isStale(long now) {
+            return now - createdAt > maxAgeMs || now - lastAccess > idleEvictMs;
+        }
+
+        private void ensureLoaded() {
+            if (loaded) {
+                return;
+            }
+            seedLock.lock();
+            try {
+                if (loaded) {
+                    return;
+                }
+                LocalDateTime recentSince = SeedWindow.recentSince(beginSeed(), settleWindowMs);
+                List<Object[]> rows = voteRepository.countVotesByOpcionOrdenCreatedBefore(votacionId, recentSince);
+                List<Object[]> recent = voteRepository.findVoteOrdenesCreatedSince(votacionId, recentSince);
+                completeSeed(rows, recent, recentSince);
+            } finally {
+                seedLock.unlock();
+            }
+        }
+
+        // Con seedLock tomado
+        private LocalDateTime beginSeed() {
+            synchronized (pendingLock) {
+                seeding = true;
+                return LocalDateTime.now();
+            }
+        }
+
+        // Con seedLock tomado; rows = [orden, número de votos] hasta recentSince, recent = [id, orden] desde entonces
+        private void completeSeed(List<Object[]> rows, List<Object[]> recent, LocalDateTime recentSince) {
+            synchronized (pendingLock) {
+                for (Object[] row : rows) {
+                    counts.computeIfAbsent((Integer) row[0], orden -> new LongAdder()).add(((Number) row[1]).longValue());
+                }
+                List<Long> seededIds = new ArrayList<>(recent.size());
+                for (Object[] row : recent) {
+                    seededIds.add((Long) row[0]);
+                    increment((Integer) row[1]);
+                }
+                window = new SeedWindow(recentSince, System.currentTimeMillis() + settleWindowMs, seededIds);
+                pending.forEach(this::apply);
+                pending.clear();
+                seeding = false;
+                loaded = true;
+            }
+            log.debug("Recuento de la votación {} sembrado: {} opciones con votos", votacionId, rows.size());
+        }
+
+        // Durante la ventana de la siembra, un voto que la consulta ya contó no se vuelve a sumar
+        private void apply(VoteCastEvent event) {
+            SeedWindow current = window;
+            if (current != null) {
+                if (current.isSettled(System.currentTimeMillis())) {
+                    window = null;
+                } else if (!current.accept(event)) {
+                    return;
+                }
+            }
+            increment(event.getOpcionOrden());
+        }
+
+        private void increment(Integer orden) {
+            if (orden != null) {
+                counts.computeIfAbsent(orden, key -> new LongAdder()).increment();
+            }
+        }
+    }
+}
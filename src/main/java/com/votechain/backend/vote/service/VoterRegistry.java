@@ -0,0 +1,142 @@
+package com.votechain.backend.vote.service;
+
+import com.votechain.backend.vote.event.VoteCastEvent;
+import com.votechain.backend.vote.repository.VoteRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.roaringbitmap.longlong.Roaring64Bitmap;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Quién ha votado en cada votación: un bitmap comprimido de user ids por votación, cargado bajo demanda
+ * desde la tabla votes y actualizado tras cada voto confirmado. La restricción única de votes sigue
+ * siendo la garantía final frente a duplicados
+ */
+@Component
+@Slf4j
+public class VoterRegistry {
+
+    @Autowired
+    private VoteRepository voteRepository;
+
+    @Value("${votes.voter-registry.load-page-size:10000}")
+    private int loadPageSize;
+
+    @Value("${votes.voter-registry.idle-evict-ms:3600000}")
+    private long idleEvictMs;
+
+    private final ConcurrentHashMap<Long, VoterSet> voters = new ConcurrentHashMap<>();
+
+    /**
+     * Comprueba si el usuario ya votó, sin consultar la base de datos una vez cargada la votación
+     */
+    public boolean hasVoted(Long votacionId, Long userId) {
+        return voters.computeIfAbsent(votacionId, VoterSet::new).contains(userId);
+    }
+
+    @EventListener
+    public void onVoteCast(VoteCastEvent event) {
+        // Si la votación no está cargada no hay nada que actualizar: la carga leerá el voto de la BD
+        VoterSet set = voters.get(event.getVotacionId());
+        if (set != null) {
+            set.add(event.getUserId());
+        }
+    }
+
+    public void evict(Long votacionId) {
+        voters.remove(votacionId);
+    }
+
+    /**
+     * Libera los bitmaps de votaciones sin consultas recientes (cerradas o inactivas)
+     */
+    @Scheduled(fixedDelayString = "${votes.voter-registry.evict-interval-ms:600000}")
+    public void evictIdle() {
+        long cutoff = System.currentTimeMillis() - idleEvictMs;
+        voters.entrySet().removeIf(entry -> entry.getValue().lastAccess < cutoff);
+    }
+
+    private class VoterSet {
+        private final Long votacionId;
+        private final Roaring64Bitmap bitmap = new Roaring64Bitmap();
+        private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+        private volatile boolean loaded;
+        private volatile long lastAccess = System.currentTimeMillis();
+
+        private VoterSet(Long votacionId) {
+            this.votacionId = votacionId;
+        }
+
+        private boolean contains(long userId) {
+            ensureLoaded();
+            lastAccess = System.currentTimeMillis();
+            lock.readLock().lock();
+            try {
+                return bitmap.contains(userId);
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        private void add(long userId) {
+            lock.writeLock().lock();
+            try {
+                bitmap.addLong(userId);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        /**
+         * El conjunto ya está publicado en el mapa antes de leer la BD, así que los votos confirmados
+         * durante la carga llegan por evento o por la propia consulta
+         */
+        private void ensureLoaded() {
+            if (loaded) {
+                return;
+            }
+            synchronized (this) {
+                if (loaded) {
+                    return;
+                }
+                long start = System.currentTimeMillis();
+                long afterUserId = 0L;
+                long count = 0;
+                List<Long> page;
+                do {
+                    page = voteRepository.findVoterIdsAfter(votacionId, afterUserId, PageRequest.of(0, loadPageSize));
+                    lock.writeLock().lock();
+                    try {
+                        page.forEach(bitmap::addLong);
+                    } finally {
+                        lock.writeLock().unlock();
+                    }
+                    count += page.size();
+                    if (!page.isEmpty()) {
+                        afterUserId = page.get(page.size() - 1);
+                    }
+                } while (page.size() == loadPageSize);
+
+                long sizeInBytes;
+                lock.writeLock().lock();
+                try {
+                    bitmap.runOptimize();
+                    sizeInBytes = bitmap.getLongSizeInBytes();
+                } finally {
+                    lock.writeLock().unlock();
+                }
+                loaded = true;
+                log.info("🗂️ Votantes de la votación {} cargados en memoria: {} usuarios, {} bytes, {} ms",
+                        votacionId, count, sizeInBytes, System.currentTimeMillis() - start);
+            }
+        }
+    }
+}
@@ -3,8 +3,9 @@ package com.votechain.backend.voting.controller;
 import com.votechain.backend.auth.repository.UserRepository;
 import com.votechain.backend.auth.model.User;
 import com.votechain.backend.blockchain.service.BlockchainService; // ✅ AGREGAR: Import BlockchainService
-import com.votechain.backend.vote.model.Vote;
+import com.votechain.backend.vote.dto.RecentVoteRow;
 import com.votechain.backend.vote.repository.VoteRepository;
+import com.votechain.backend.vote.service.VoteActivity;
 import com.votechain.backend.vote.service.VoteService;
 import com.votechain.backend.voting.dto.CreateVotacionRequest;
 import com.votechain.backend.voting.dto.VotacionDto;
@@ -13,8 +14,10 @@ import com.votechain.backend.voting.model.VotacionCategoria;
 import com.votechain.backend.voting.model.VotacionEstado;
 import com.votechain.backend.voting.repository.VotacionRepository;
 import com.votechain.backend.security.UserDetailsImpl;
+import com.votechain.backend.voting.service.ResultadoFinal;
 import com.votechain.backend.voting.service.VotacionService;
 import com.votechain.backend.voting.service.VotacionPermissionService;
+import com.votechain.backend.voting.service.VotacionResultsStream;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -40,7 +43,6 @@ import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.TimeUnit; // ✅ AGREGAR: Import TimeUnit
 import java.util.stream.Collectors;
 
 @RestController
@@ -72,6 +74,9 @@ public class VotacionController {
     @Autowired
     private VotacionPermissionService permissionService;
 
+    @Autowired
+    private VotacionResultsStream resultsStream;
+
     @Operation(
         summary = "Obtener votaciones públicas",
         description = "Permite consultar todas las votaciones públicas con paginación y filtrado por estado, categoría y búsqueda de texto",
@@ -95,6 +100,30 @@ public class VotacionController {
         return ResponseEntity.ok(votaciones);
     }
 
+    @Operation(
+        summary = "Listar votaciones públicas por cursor",
+        description = "Scroll infinito: devuelve las votaciones más recientes primero y un nextCursor para pedir las siguientes. " +
+                      "El coste no depende de la profundidad; el total solo se calcula con includeTotal=true",
+        tags = { "Votaciones" }
+    )
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Página de votaciones obtenida correctamente"),
+        @ApiResponse(responseCode = "400", description = "Cursor no válido")
+    })
+    @GetMapping("/public/votaciones/cursor")
+    public ResponseEntity<?> getPublicVotacionesByCursor(
+            @Parameter(description = "nextCursor de la página anterior (vacío = primera página)") @RequestParam(required = false) String cursor,
+            @Parameter(description = "Tamaño de página (máximo 100)") @RequestParam(defaultValue = "10") int size,
+            @Parameter(description = "Filtrar por estado de la votación") @RequestParam(required = false) VotacionEstado estado,
+            @Parameter(description = "Filtrar por categoría") @RequestParam(required = false) VotacionCategoria categoria,
+            @Parameter(description = "Calcular también el total de elementos") @RequestParam(defaultValue = "false") boolean includeTotal) {
+        try {
+            return ResponseEntity.ok(votacionService.getPublicVotacionesByCursor(cursor, size, estado, categoria, includeTotal));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
     @Operation(
         summary = "Obtener votaciones activas",
         description = "Devuelve solo las votaciones que están activas en el momento actual",
@@ -150,10 +179,11 @@ public class VotacionController {
             @Parameter(description = "Tamaño de página") @RequestParam(defaultValue = "10") int size,
             @Parameter(description = "Filtrar por estado de la votación") @RequestParam(required = false) VotacionEstado estado,
             @Parameter(description = "Filtrar por categoría") @RequestParam(required = false) VotacionCategoria categoria,
-            @Parameter(description = "Filtrar por participación del usuario (true=solo las que ha votado)") @RequestParam(required = false) Boolean participated) {
+            @Parameter(description = "Filtrar por participación del usuario (true=solo las que ha votado)") @RequestParam(required = false) Boolean participated,
+            @Parameter(description = "Buscar por texto en título o descripción") @RequestParam(required = false) String search) {
 
         Page<VotacionDto> votaciones = votacionService.getUserVotaciones(
-                userDetails.getId(), page, size, estado, categoria, participated);
+                userDetails.getId(), page, size, estado, categoria, participated, search);
 
         return ResponseEntity.ok(votaciones);
     }
@@ -221,63 +251,28 @@ public class VotacionController {
             log.info("✅ Votación creada en BD local: ID={}, Título={}",
                 createdVotacion.getId(), createdVotacion.getTitulo());
 
-            // 2. 🔗 Crear la votación en blockchain
+            // 2. 🔗 Enviar la votación a blockchain (el ID del contrato llega con el receipt)
             log.info("🔗 Creando votación {} en blockchain...", createdVotacion.getId());
-            String txHashVotacion = null;
-            Long blockchainVotingId = null;
 
             try {
-                BlockchainService.VotingCreationResult result = blockchainService.createVotacionInBlockchain(
-                    createdVotacion.getId(),
-                    createdVotacion.getTitulo(),
-                    createdVotacion.getFechaInicio(),
-                    createdVotacion.getFechaFin()
-                ).get(30, TimeUnit.SECONDS);
-
-                txHashVotacion = result.getTransactionHash();
-                blockchainVotingId = result.getBlockchainVotingId();
-
-                log.info("✅ Votación creada en blockchain con hash: {}", txHashVotacion);
-                log.info("🔑 ID real en blockchain: {} (ID local: {})", blockchainVotingId, createdVotacion.getId());
-
-                // 3. 💾 Actualizar votación con datos blockchain
-                log.info("💾 Actualizando votación con datos blockchain...");
                 Votacion votacionEntity = votacionRepository.findById(createdVotacion.getId())
                     .orElseThrow(() -> new EntityNotFoundException("Votación no encontrada"));
 
-                votacionEntity.setBlockchainTransactionHash(txHashVotacion);
-                votacionEntity.setBlockchainVotingId(blockchainVotingId);
-                votacionEntity.setBlockchainVerified(true);
-                votacionEntity.setBlockchainVerifiedAt(LocalDateTime.now());
+                String txHashVotacion = votacionService.submitToBlockchain(votacionEntity);
+                log.info("✅ Votación enviada a blockchain con hash: {}", txHashVotacion);
 
-                // 4. 📥 Guardar cambios
-                Votacion savedVotacion = votacionRepository.save(votacionEntity);
-                log.info("✅ Votación actualizada con datos blockchain");
-
-                // 5. 🔍 Verificar que existe en blockchain
-                log.info("🔍 Verificando existencia en blockchain...");
-                boolean votacionExiste = blockchainService.checkVotacionExistsSafe(blockchainVotingId)
-                    .get(30, TimeUnit.SECONDS);
-
-                if (!votacionExiste) {
-                    log.warn("⚠️ La votación no se pudo verificar en blockchain con ID {}, pero continuamos", blockchainVotingId);
-                } else {
-                    log.info("✅ Verificación: La votación existe en blockchain con ID {}", blockchainVotingId);
-                }
-
-                // 6. 🎯 Crear respuesta enriquecida con información blockchain
+                // 3. 🎯 Crear respuesta con la transacción pendiente de confirmación
                 Map<String, Object> response = new HashMap<>();
-                response.put("votacion", votacionService.convertToDto(savedVotacion));
+                response.put("votacion", votacionService.convertToDto(votacionEntity));
                 response.put("blockchain", Map.of(
                     "transactionHash", txHashVotacion,
-                    "blockchainVotingId", blockchainVotingId,
-                    "verified", true,
-                    "verifiedAt", LocalDateTime.now(),
+                    "verified", false,
+                    "status", "PENDING_CONFIRMATION",
                     "networkId", blockchainService.getNetworkVersion(),
                     "contractAddress", blockchainService.getContractAddress()
                 ));
                 response.put("success", true);
-                response.put("message", "Votación creada exitosamente en base de datos y blockchain");
+                response.put("message", "Votación creada en base de datos y enviada a blockchain");
 
                 log.info("🎉 Proceso completo exitoso para votación {}", createdVotacion.getId());
                 return new ResponseEntity<>(response, HttpStatus.CREATED);
@@ -609,8 +604,9 @@ public class VotacionController {
                 opcionesConPorcentajes.put(opcion, opcionData);
             });
 
-            // ⏰ ESTADÍSTICAS TEMPORALES
-            Map<LocalDateTime, Long> votosEnTiempo = voteService.getVotesOverTime(id);
+            // ⏰ ESTADÍSTICAS TEMPORALES (histogramas en memoria, sin cargar votos)
+            VoteActivity actividad = voteService.getVoteActivity(id);
+            Map<LocalDateTime, Long> votosEnTiempo = actividad.getVotesByHour();
 
             // 🏆 OPCIÓN GANADORA
             String opcionGanadora = distribucionOpciones.entrySet().stream()
@@ -637,13 +633,15 @@ public class VotacionController {
 
             // 🔍 ESTADÍSTICAS ADICIONALES
             Map<String, Object> estadisticasAdicionales = new HashMap<>();
-            estadisticasAdicionales.put("promedioVotosPorHora", calcularPromedioVotosPorHora(votosEnTiempo));
-            estadisticasAdicionales.put("horaConMasVotos", encontrarHoraConMasVotos(votosEnTiempo));
+            estadisticasAdicionales.put("promedioVotosPorHora", actividad.getAverageVotesPerHour());
+            estadisticasAdicionales.put("horaConMasVotos", actividad.getPeakHour());
+            estadisticasAdicionales.put("votosUltimaHora", actividad.getVotesSince(LocalDateTime.now().minusHours(1)));
+            estadisticasAdicionales.put("votosPorDia", actividad.getVotesByDay());
             estadisticasAdicionales.put("tiempoRestante", calcularTiempoRestante(votacion));
             estadisticasAdicionales.put("duracionTotal", calcularDuracionTotal(votacion));
 
             // 🏃‍♂️ ÚLTIMOS VOTOS (para mostrar actividad reciente)
-            List<Vote> ultimosVotos = voteRepository.findLatestVotesByVotacion(id, PageRequest.of(0, 5));
+            List<RecentVoteRow> ultimosVotos = voteRepository.findRecentVoteRowsByVotacion(id, PageRequest.of(0, 5));
             List<Map<String, Object>> actividadReciente = ultimosVotos.stream()
                 .map(vote -> {
                     Map<String, Object> voteInfo = new HashMap<>();
@@ -682,22 +680,33 @@ public class VotacionController {
         }
     }
 
-    // Métodos auxiliares para cálculos adicionales
-    private double calcularPromedioVotosPorHora(Map<LocalDateTime, Long> votosEnTiempo) {
-        if (votosEnTiempo.isEmpty()) return 0.0;
-        return votosEnTiempo.values().stream()
-            .mapToLong(Long::longValue)
-            .average()
-            .orElse(0.0);
-    }
-
-    private LocalDateTime encontrarHoraConMasVotos(Map<LocalDateTime, Long> votosEnTiempo) {
-        return votosEnTiempo.entrySet().stream()
-            .max(Map.Entry.comparingByValue())
-            .map(Map.Entry::getKey)
-            .orElse(null);
+    /**
+     * Live results stream (Server-Sent Events) for a specific votacion
+     */
+    @Operation(
+        summary = "Resultados en vivo de una votación",
+        description = "Stream SSE con eventos 'resultados' (totalVotos y opciones con totalVotos/porcentaje). " +
+                      "Se envía el estado actual al suscribirse y después, como mucho unas pocas veces por segundo, cada cambio",
+        tags = { "Votaciones", "Estadísticas" }
+    )
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Stream de resultados abierto"),
+        @ApiResponse(responseCode = "404", description = "Votación no encontrada"),
+        @ApiResponse(responseCode = "503", description = "Demasiados suscriptores en este nodo")
+    })
+    @GetMapping("/votaciones/{id}/resultados/stream")
+    public ResponseEntity<?> streamResultados(@PathVariable Long id) {
+        try {
+            return ResponseEntity.ok(resultsStream.subscribe(id));
+        } catch (EntityNotFoundException e) {
+            return ResponseEntity.notFound().build();
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .body(Map.of("error", e.getMessage()));
+        }
     }
 
+    // Métodos auxiliares para cálculos adicionales
     private Map<String, Object> calcularTiempoRestante(Votacion votacion) {
         LocalDateTime now = LocalDateTime.now();
         Map<String, Object> tiempo = new HashMap<>();
@@ -817,6 +826,43 @@ public class VotacionController {
         }
     }
 
+    /**
+     * Recontar una votación cerrada - regenera su resultado congelado (solo admin)
+     */
+    @Operation(
+        summary = "Recontar una votación cerrada",
+        description = "Vuelve a contar los votos de una votación cerrada desde la base de datos y reemplaza su resultado congelado " +
+                     "(distribución, porcentajes, ganador(es) e histogramas). También crea el resultado de votaciones cerradas antes de que existiera.",
+        tags = { "Votaciones", "Gestión de Estado" }
+    )
+    @SecurityRequirement(name = "bearer-jwt")
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Resultado recalculado correctamente"),
+        @ApiResponse(responseCode = "400", description = "La votación no está cerrada"),
+        @ApiResponse(responseCode = "401", description = "No autorizado"),
+        @ApiResponse(responseCode = "403", description = "Acceso prohibido"),
+        @ApiResponse(responseCode = "404", description = "Votación no encontrada")
+    })
+    @PostMapping("/admin/votaciones/{id}/recuento")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> recontarVotacion(
+            @Parameter(description = "ID de la votación", required = true) @PathVariable Long id,
+            @AuthenticationPrincipal UserDetailsImpl userDetails) {
+        try {
+            ResultadoFinal resultado = votacionService.recontarVotacion(id, userDetails.getId());
+            return ResponseEntity.ok(Map.of("success", true, "resultados", resultado));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.badRequest()
+                .body(Map.of("error", e.getMessage()));
+        } catch (EntityNotFoundException e) {
+            return ResponseEntity.notFound().build();
+        } catch (Exception e) {
+            log.error("❌ Error recontando votación {}", id, e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .body(Map.of("error", "Error recontando votación: " + e.getMessage()));
+        }
+    }
+
     /**
      * Suspend a votacion temporarily - permite al creador o admin suspender su votación
      */
@@ -1001,7 +1047,7 @@ public class VotacionController {
             Map<String, Object> blockchainStats = voteService.getBlockchainStats(votacionId);
 
             // 🏃‍♂️ ACTIVIDAD RECIENTE
-            List<Vote> ultimosVotos = voteRepository.findLatestVotesByVotacion(votacionId, PageRequest.of(0, 10));
+            List<RecentVoteRow> ultimosVotos = voteRepository.findRecentVoteRowsByVotacion(votacionId, PageRequest.of(0, 10));
             List<Map<String, Object>> actividadReciente = ultimosVotos.stream()
                 .map(vote -> {
                     Map<String, Object> voteInfo = new HashMap<>();
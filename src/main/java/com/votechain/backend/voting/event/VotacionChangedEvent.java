@@ -0,0 +1,15 @@
+package com.votechain.backend.voting.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Una votación o alguna de sus opciones cambió; se publica después del commit. creadorId va en el evento
+ * porque tras un borrado ya no se puede consultar
+ */
+@Getter
+@AllArgsConstructor
+public class VotacionChangedEvent {
+    private final Long votacionId;
+    private final Long creadorId;
+}
@@ -6,6 +6,8 @@ import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 
@@ -14,7 +16,14 @@ import java.util.ArrayList;
 import java.util.List;
 
 @Entity
-@Table(name = "votaciones")
+@EntityListeners(VotacionChangeListener.class)
+@NamedEntityGraph(name = Votacion.GRAPH_CREADOR, attributeNodes = @NamedAttributeNode("creador"))
+@Table(name = "votaciones", indexes = {
+        @Index(name = "idx_votaciones_created_at", columnList = "created_at"),
+        @Index(name = "idx_votaciones_creador_created_at", columnList = "creador_id, created_at")
+})
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = Votacion.CACHE_REGION)
 @Getter
 @Setter
 @NoArgsConstructor
@@ -22,6 +31,12 @@ import java.util.List;
 @Builder
 public class Votacion {
 
+    // Listados: VotacionDto incluye el nombre del creador
+    public static final String GRAPH_CREADOR = "Votacion.creador";
+
+    // Región de la caché de segundo nivel (ver HibernateCacheConfig)
+    public static final String CACHE_REGION = "votaciones";
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -60,7 +75,7 @@ public class Votacion {
     private List<Vote> votos = new ArrayList<>();
 
     @NotNull
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "creador_id")
     private User creador;
 
@@ -121,13 +136,13 @@ public class Votacion {
                now.isBefore(fechaFin);
     }
 
-    // Helper method to get participation percentage
-    public double getParticipacionPorcentaje() {
+    // Helper method to get participation percentage from the vote count (never loads the votos collection)
+    public double getParticipacionPorcentaje(long totalVotos) {
         // Implementation would depend on total eligible voters vs. actual votes
-        if (votos.isEmpty()) {
+        if (totalVotos == 0) {
             return 0.0;
         }
         // This is a placeholder - actual implementation would need a way to know total eligible voters
-        return 100.0 * votos.size() / 100.0; // Assuming 100 eligible voters for simplicity
+        return 100.0 * totalVotos / 100.0; // Assuming 100 eligible voters for simplicity
     }
 }
@@ -0,0 +1,42 @@
+package com.votechain.backend.voting.model;
+
+import com.votechain.backend.common.transaction.AfterCommit;
+import com.votechain.backend.voting.event.VotacionChangedEvent;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+/**
+ * Avisa de cambios en votaciones y opciones para que las cachés en memoria se invaliden tras el commit
+ */
+@Component
+public class VotacionChangeListener {
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void onChange(Object entity) {
+        Votacion votacion = resolveVotacion(entity);
+        if (votacion != null && votacion.getId() != null) {
+            Long votacionId = votacion.getId();
+            Long creadorId = votacion.getCreador() != null ? votacion.getCreador().getId() : null;
+            AfterCommit.run(() -> eventPublisher.publishEvent(new VotacionChangedEvent(votacionId, creadorId)));
+        }
+    }
+
+    private Votacion resolveVotacion(Object entity) {
+        if (entity instanceof Votacion votacion) {
+            return votacion;
+        }
+        if (entity instanceof VotacionOpcion opcion) {
+            return opcion.getVotacion();
+        }
+        return null;
+    }
+}
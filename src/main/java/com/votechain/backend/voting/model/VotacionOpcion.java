@@ -5,9 +5,14 @@ import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 @Entity
+@EntityListeners(VotacionChangeListener.class)
 @Table(name = "votacion_opciones")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = VotacionOpcion.CACHE_REGION)
 @Getter
 @Setter
 @NoArgsConstructor
@@ -15,6 +20,9 @@ import lombok.*;
 @Builder
 public class VotacionOpcion {
 
+    // Región de la caché de segundo nivel (ver HibernateCacheConfig)
+    public static final String CACHE_REGION = "votacion-opciones";
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -30,22 +38,17 @@ public class VotacionOpcion {
     @NotNull
     private Integer orden;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "votacion_id")
     @JsonIgnore
     private Votacion votacion;
 
-    // Helper method to calculate the percentage of votes for this option
-    public double getPorcentajeVotos() {
-        if (votacion == null || votacion.getVotos().isEmpty()) {
+    // Helper method to calculate the percentage of votes for this option from counts (e.g. VoteTally)
+    public static double getPorcentajeVotos(long votosParaEstaOpcion, long totalVotos) {
+        if (totalVotos == 0) {
             return 0.0;
         }
 
-        long votosParaEstaOpcion = votacion.getVotos().stream()
-                .filter(voto -> voto.getOpcionSeleccionada() != null &&
-                       voto.getOpcionSeleccionada().getId().equals(this.id))
-                .count();
-
-        return 100.0 * votosParaEstaOpcion / votacion.getVotos().size();
+        return 100.0 * votosParaEstaOpcion / totalVotos;
     }
 }
@@ -0,0 +1,62 @@
+package com.votechain.backend.voting.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Resultado congelado de una votación cerrada, calculado al finalizar (o en un recuento de administración).
+ * Las lecturas de votaciones CERRADA salen de aquí en lugar de volver a contar los votos
+ */
+@Entity
+@Table(name = "votacion_resultados", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_votacion_resultados_votacion", columnNames = {"votacion_id"})
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class VotacionResultado {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "votacion_id", nullable = false)
+    private Long votacionId;
+
+    @Column(name = "total_votos", nullable = false)
+    private long totalVotos;
+
+    private String ganador;
+
+    @Column(name = "votos_ganadora", nullable = false)
+    private long votosGanadora;
+
+    @Column(name = "hay_empate", nullable = false)
+    private boolean hayEmpate;
+
+    // List<VotacionOpcionDto> serializada, en orden, con totalVotos y porcentaje
+    @Column(name = "opciones_json", columnDefinition = "TEXT", nullable = false)
+    private String opcionesJson;
+
+    // Títulos de las opciones con más votos (más de uno si hay empate)
+    @Column(name = "ganadoras_json", columnDefinition = "TEXT", nullable = false)
+    private String ganadorasJson;
+
+    // Votos por hora y por día: Map<LocalDateTime, Long> serializados
+    @Column(name = "votos_por_hora_json", columnDefinition = "TEXT", nullable = false)
+    private String votosPorHoraJson;
+
+    @Column(name = "votos_por_dia_json", columnDefinition = "TEXT", nullable = false)
+    private String votosPorDiaJson;
+
+    @Column(name = "calculado_en", nullable = false)
+    private LocalDateTime calculadoEn;
+
+    // 0 al finalizar; sube con cada recuento de administración
+    @Column(name = "recuentos", nullable = false)
+    private int recuentos;
+}
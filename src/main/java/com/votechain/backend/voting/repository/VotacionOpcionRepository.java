@@ -1,17 +1,28 @@
 package com.votechain.backend.voting.repository;
 
 import com.votechain.backend.voting.model.VotacionOpcion;
+import jakarta.persistence.QueryHint;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface VotacionOpcionRepository extends JpaRepository<VotacionOpcion, Long> {
 
+    // Región de la caché de consultas para las opciones de cada votación (ver HibernateCacheConfig)
+    String OPCIONES_POR_VOTACION_REGION = "votacion-opciones-por-votacion";
+
+    // Cacheada: se lee en cada voto y en cada conversión a DTO; cualquier escritura en votacion_opciones la invalida
+    @QueryHints({
+            @QueryHint(name = "org.hibernate.cacheable", value = "true"),
+            @QueryHint(name = "org.hibernate.cacheRegion", value = OPCIONES_POR_VOTACION_REGION)
+    })
     List<VotacionOpcion> findByVotacionIdOrderByOrden(Long votacionId);
 
     // ✅ AGREGAR: Método básico para buscar opciones por ID de votación
@@ -27,4 +38,9 @@ public interface VotacionOpcionRepository extends JpaRepository<VotacionOpcion,
 
     // Método para contar opciones de una votación
     long countByVotacionId(Long votacionId);
+
+    // [votacionId, orden, titulo, descripcion, imagen] de las opciones de varias votaciones, sin cargar entidades
+    @Query("SELECT o.votacion.id, o.orden, o.titulo, o.descripcion, o.imagen FROM VotacionOpcion o " +
+           "WHERE o.votacion.id IN :votacionIds ORDER BY o.votacion.id, o.orden")
+    List<Object[]> findSummariesByVotacionIds(@Param("votacionIds") Collection<Long> votacionIds);
 }
@@ -3,26 +3,43 @@ package com.votechain.backend.voting.repository;
 import com.votechain.backend.voting.model.Votacion;
 import com.votechain.backend.voting.model.VotacionCategoria;
 import com.votechain.backend.voting.model.VotacionEstado;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface VotacionRepository extends JpaRepository<Votacion, Long> {
 
+    // Los listados cargan el creador en la misma consulta (Votacion.creador es LAZY)
+    @Override
+    @EntityGraph(Votacion.GRAPH_CREADOR)
+    Page<Votacion> findAll(Pageable pageable);
+
+    @Override
+    @EntityGraph(Votacion.GRAPH_CREADOR)
+    List<Votacion> findAllById(Iterable<Long> ids);
+
+    @EntityGraph(Votacion.GRAPH_CREADOR)
     Page<Votacion> findByEstado(VotacionEstado estado, Pageable pageable);
 
+    @EntityGraph(Votacion.GRAPH_CREADOR)
     Page<Votacion> findByCategoria(VotacionCategoria categoria, Pageable pageable);
 
+    @EntityGraph(Votacion.GRAPH_CREADOR)
     Page<Votacion> findByEstadoAndCategoria(VotacionEstado estado, VotacionCategoria categoria, Pageable pageable);
 
+    @EntityGraph(Votacion.GRAPH_CREADOR)
     @Query("SELECT v FROM Votacion v WHERE v.fechaInicio <= :now AND v.fechaFin >= :now AND v.estado = 'ABIERTA'")
     Page<Votacion> findActiveVotaciones(@Param("now") LocalDateTime now, Pageable pageable);
 
@@ -33,9 +50,11 @@ public interface VotacionRepository extends JpaRepository<Votacion, Long> {
     Page<Votacion> findClosedVotaciones(@Param("now") LocalDateTime now, Pageable pageable);
 
     // Método para buscar votaciones por creador
+    @EntityGraph(Votacion.GRAPH_CREADOR)
     Page<Votacion> findByCreadorId(Long creadorId, Pageable pageable);
 
     // Método para búsqueda con texto
+    @EntityGraph(Votacion.GRAPH_CREADOR)
     @Query("SELECT v FROM Votacion v WHERE " +
            "(:searchTerm IS NULL OR LOWER(v.titulo) LIKE LOWER(CONCAT('%', :searchTerm, '%')) OR LOWER(v.descripcion) LIKE LOWER(CONCAT('%', :searchTerm, '%'))) " +
            "AND (:estado IS NULL OR v.estado = :estado) " +
@@ -46,6 +65,7 @@ public interface VotacionRepository extends JpaRepository<Votacion, Long> {
                                    Pageable pageable);
 
     // Método para encontrar votaciones en las que un usuario ha participado
+    @EntityGraph(Votacion.GRAPH_CREADOR)
     @Query("SELECT DISTINCT v FROM Votacion v JOIN v.votos vote WHERE vote.user.id = :userId")
     Page<Votacion> findVotacionesByUserId(@Param("userId") Long userId, Pageable pageable);
 
@@ -96,4 +116,78 @@ public interface VotacionRepository extends JpaRepository<Votacion, Long> {
 
     // Votaciones verificadas en blockchain
     long countByBlockchainVerifiedTrue();
+
+    // Agregados del dashboard: [estado, número de votaciones]
+    @Query("SELECT v.estado, COUNT(v) FROM Votacion v GROUP BY v.estado")
+    List<Object[]> countGroupedByEstado();
+
+    // [categoria, número de votaciones]
+    @Query("SELECT v.categoria, COUNT(v) FROM Votacion v GROUP BY v.categoria")
+    List<Object[]> countGroupedByCategoria();
+
+    // [categoria, estado, número de votaciones] de un creador
+    @Query("SELECT v.categoria, v.estado, COUNT(v) FROM Votacion v WHERE v.creador.id = :creadorId GROUP BY v.categoria, v.estado")
+    List<Object[]> countByCreadorGroupedByCategoriaAndEstado(@Param("creadorId") Long creadorId);
+
+    // [año, mes, número de votaciones] creadas desde una fecha
+    @Query("SELECT YEAR(v.createdAt), MONTH(v.createdAt), COUNT(v) FROM Votacion v WHERE v.createdAt >= :since " +
+           "GROUP BY YEAR(v.createdAt), MONTH(v.createdAt)")
+    List<Object[]> countByMonthSince(@Param("since") LocalDateTime since);
+
+    // Resúmenes sin cargar entidades: [id, titulo, estado, categoria, createdAt, nombre creador, apellido creador, fechaInicio, fechaFin, descripcion]
+    @Query("SELECT v.id, v.titulo, v.estado, v.categoria, v.createdAt, c.firstName, c.lastName, v.fechaInicio, v.fechaFin, v.descripcion " +
+           "FROM Votacion v LEFT JOIN v.creador c ORDER BY v.createdAt DESC")
+    List<Object[]> findRecentSummaries(Pageable pageable);
+
+    @Query("SELECT v.id, v.titulo, v.estado, v.categoria, v.createdAt, c.firstName, c.lastName, v.fechaInicio, v.fechaFin, v.descripcion " +
+           "FROM Votacion v LEFT JOIN v.creador c WHERE v.creador.id = :creadorId ORDER BY v.createdAt DESC")
+    List<Object[]> findRecentSummariesByCreador(@Param("creadorId") Long creadorId, Pageable pageable);
+
+    @Query("SELECT v.id, v.titulo, v.estado, v.categoria, v.createdAt, c.firstName, c.lastName, v.fechaInicio, v.fechaFin, v.descripcion " +
+           "FROM Votacion v LEFT JOIN v.creador c WHERE v.id IN :ids")
+    List<Object[]> findSummariesByIds(@Param("ids") Collection<Long> ids);
+
+    // Índice de búsqueda: [id, titulo, descripcion, estado, categoria, fechaInicio], por páginas de id
+    @Query("SELECT v.id, v.titulo, v.descripcion, v.estado, v.categoria, v.fechaInicio FROM Votacion v " +
+           "WHERE v.id > :afterId ORDER BY v.id")
+    List<Object[]> findSearchRowsAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    @Query("SELECT v.id, v.titulo, v.descripcion, v.estado, v.categoria, v.fechaInicio FROM Votacion v WHERE v.id IN :ids")
+    List<Object[]> findSearchRowsByIds(@Param("ids") Collection<Long> ids);
+
+    // Paginación por cursor: (createdAt, id) descendente, sin OFFSET; se pide una fila más que el tamaño de página
+    @EntityGraph(Votacion.GRAPH_CREADOR)
+    @Query("SELECT v FROM Votacion v WHERE (:estado IS NULL OR v.estado = :estado) " +
+           "AND (:categoria IS NULL OR v.categoria = :categoria) " +
+           "ORDER BY v.createdAt DESC, v.id DESC")
+    List<Votacion> findFirstKeysetPage(@Param("estado") VotacionEstado estado,
+                                       @Param("categoria") VotacionCategoria categoria,
+                                       Pageable pageable);
+
+    @EntityGraph(Votacion.GRAPH_CREADOR)
+    @Query("SELECT v FROM Votacion v WHERE (:estado IS NULL OR v.estado = :estado) " +
+           "AND (:categoria IS NULL OR v.categoria = :categoria) " +
+           "AND (v.createdAt < :createdAt OR (v.createdAt = :createdAt AND v.id < :id)) " +
+           "ORDER BY v.createdAt DESC, v.id DESC")
+    List<Votacion> findKeysetPageAfter(@Param("estado") VotacionEstado estado,
+                                       @Param("categoria") VotacionCategoria categoria,
+                                       @Param("createdAt") LocalDateTime createdAt,
+                                       @Param("id") Long id,
+                                       Pageable pageable);
+
+    @Query("SELECT COUNT(v) FROM Votacion v WHERE (:estado IS NULL OR v.estado = :estado) " +
+           "AND (:categoria IS NULL OR v.categoria = :categoria)")
+    long countFiltered(@Param("estado") VotacionEstado estado, @Param("categoria") VotacionCategoria categoria);
+
+    @Query("SELECT v.estado FROM Votacion v WHERE v.id = :id")
+    Optional<VotacionEstado> findEstadoById(@Param("id") Long id);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT v FROM Votacion v WHERE v.id = :id")
+    Optional<Votacion> findByIdForUpdate(@Param("id") Long id);
+
+    // Creaciones enviadas a la blockchain sin confirmación guardada ni error, sin tocar desde antes de :before
+    @Query("SELECT v FROM Votacion v WHERE v.blockchainTransactionHash IS NOT NULL AND v.blockchainVerified = false " +
+           "AND v.blockchainVotingId IS NULL AND v.blockchainError IS NULL AND v.updatedAt < :before ORDER BY v.id")
+    List<Votacion> findUnconfirmedBlockchainCreations(@Param("before") LocalDateTime before, Pageable pageable);
 }
@@ -0,0 +1,17 @@
+package com.votechain.backend.voting.repository;
+
+import com.votechain.backend.voting.model.VotacionResultado;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface VotacionResultadoRepository extends JpaRepository<VotacionResultado, Long> {
+
+    Optional<VotacionResultado> findByVotacionId(Long votacionId);
+
+    List<VotacionResultado> findByVotacionIdIn(Collection<Long> votacionIds);
+}
@@ -0,0 +1,83 @@
+package com.votechain.backend.voting.service;
+
+import com.votechain.backend.voting.dto.VotacionOpcionDto;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Vista inmutable de un VotacionResultado: opciones con votos y porcentaje, ganador(es) e histogramas
+ */
+@Getter
+public final class ResultadoFinal {
+
+    private final Long votacionId;
+    private final long totalVotos;
+    private final String ganador;
+    private final long votosGanadora;
+    private final boolean hayEmpate;
+    private final List<String> ganadoras;
+    private final Map<LocalDateTime, Long> votosPorHora;
+    private final Map<LocalDateTime, Long> votosPorDia;
+    private final LocalDateTime calculadoEn;
+    private final int recuentos;
+
+    // Instancias propias: getOpciones() entrega copias porque VotacionOpcionDto es mutable
+    @Getter(lombok.AccessLevel.NONE)
+    private final List<VotacionOpcionDto> opciones;
+
+    ResultadoFinal(Long votacionId, long totalVotos, String ganador, long votosGanadora, boolean hayEmpate,
+                   List<VotacionOpcionDto> opciones, List<String> ganadoras,
+                   Map<LocalDateTime, Long> votosPorHora, Map<LocalDateTime, Long> votosPorDia,
+                   LocalDateTime calculadoEn, int recuentos) {
+        this.votacionId = votacionId;
+        this.totalVotos = totalVotos;
+        this.ganador = ganador;
+        this.votosGanadora = votosGanadora;
+        this.hayEmpate = hayEmpate;
+        this.opciones = List.copyOf(opciones);
+        this.ganadoras = List.copyOf(ganadoras);
+        this.votosPorHora = Collections.unmodifiableMap(new LinkedHashMap<>(votosPorHora));
+        this.votosPorDia = Collections.unmodifiableMap(new LinkedHashMap<>(votosPorDia));
+        this.calculadoEn = calculadoEn;
+        this.recuentos = recuentos;
+    }
+
+    public List<VotacionOpcionDto> getOpciones() {
+        return opciones.stream()
+                .map(opcion -> VotacionOpcionDto.builder()
+                        .id(opcion.getId())
+                        .votacionId(opcion.getVotacionId())
+                        .titulo(opcion.getTitulo())
+                        .descripcion(opcion.getDescripcion())
+                        .imagen(opcion.getImagen())
+                        .orden(opcion.getOrden())
+                        .totalVotos(opcion.getTotalVotos())
+                        .porcentaje(opcion.getPorcentaje())
+                        .build())
+                .toList();
+    }
+
+    /**
+     * Votos por título de opción, en orden
+     */
+    public Map<String, Long> getDistribucion() {
+        Map<String, Long> distribucion = new LinkedHashMap<>();
+        opciones.forEach(opcion -> distribucion.put(opcion.getTitulo(), opcion.getTotalVotos().longValue()));
+        return distribucion;
+    }
+
+    /**
+     * Porcentaje por título de opción (0.0 sin votos), redondeado a 2 decimales
+     */
+    public Map<String, Double> getPorcentajes() {
+        Map<String, Double> porcentajes = new LinkedHashMap<>();
+        opciones.forEach(opcion -> porcentajes.put(opcion.getTitulo(),
+                opcion.getPorcentaje() != null ? opcion.getPorcentaje() : 0.0));
+        return porcentajes;
+    }
+}
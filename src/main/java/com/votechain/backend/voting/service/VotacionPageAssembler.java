@@ -0,0 +1,185 @@
+package com.votechain.backend.voting.service;
+
+import com.votechain.backend.vote.repository.VoteRepository;
+import com.votechain.backend.vote.service.VoteTally;
+import com.votechain.backend.vote.service.VoteTallyRegistry;
+import com.votechain.backend.voting.dto.VotacionDto;
+import com.votechain.backend.voting.dto.VotacionOpcionDto;
+import com.votechain.backend.voting.model.Votacion;
+import com.votechain.backend.voting.model.VotacionEstado;
+import com.votechain.backend.voting.model.VotacionOpcion;
+import com.votechain.backend.voting.repository.VotacionOpcionRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Conversión de votaciones a VotacionDto. Para una página entera se cargan juntos, con consultas IN, los
+ * resultados congelados de las cerradas, las opciones, los recuentos (VoteTallyRegistry, un GROUP BY para
+ * las que no están sembradas) y las votaciones en las que ya votó el usuario: el número de consultas no
+ * depende del tamaño de la página
+ */
+@Component
+public class VotacionPageAssembler {
+
+    @Autowired
+    private VotacionOpcionRepository opcionRepository;
+
+    @Autowired
+    private VoteRepository voteRepository;
+
+    @Autowired
+    private VoteTallyRegistry voteTallyRegistry;
+
+    @Autowired
+    private VotacionResultadoService votacionResultadoService;
+
+    /**
+     * Página de DTOs; con userId != null también se rellena hasParticipated
+     */
+    public Page<VotacionDto> toDtoPage(Page<Votacion> page, Long userId) {
+        return new PageImpl<>(toDtos(page.getContent(), userId), page.getPageable(), page.getTotalElements());
+    }
+
+    public List<VotacionDto> toDtos(List<Votacion> votaciones, Long userId) {
+        if (votaciones.isEmpty()) {
+            return List.of();
+        }
+
+        List<Long> ids = votaciones.stream().map(Votacion::getId).collect(Collectors.toList());
+        List<Long> cerradas = votaciones.stream()
+                .filter(votacion -> votacion.getEstado() == VotacionEstado.CERRADA)
+                .map(Votacion::getId)
+                .collect(Collectors.toList());
+        Map<Long, ResultadoFinal> congelados = cerradas.isEmpty()
+                ? Map.of()
+                : votacionResultadoService.findAll(cerradas);
+
+        // Las cerradas sin resultado congelado (finalizadas antes de votacion_resultados) se cuentan en vivo
+        List<Long> enVivo = ids.stream().filter(id -> !congelados.containsKey(id)).collect(Collectors.toList());
+        Map<Long, List<Object[]>> opcionesPorVotacion = new HashMap<>();
+        Map<Long, VoteTally> tallies = Map.of();
+        if (!enVivo.isEmpty()) {
+            for (Object[] row : opcionRepository.findSummariesByVotacionIds(enVivo)) {
+                opcionesPorVotacion.computeIfAbsent((Long) row[0], id -> new ArrayList<>()).add(row);
+            }
+            tallies = voteTallyRegistry.getTallies(enVivo);
+        }
+
+        Set<Long> votadas = userId != null
+                ? new HashSet<>(voteRepository.findVotedVotacionIds(userId, ids))
+                : Set.of();
+
+        Map<Long, VoteTally> talliesPorVotacion = tallies;
+        return votaciones.stream().map(votacion -> {
+            ResultadoFinal resultadoFinal = congelados.get(votacion.getId());
+            VotacionDto dto;
+            if (resultadoFinal != null) {
+                dto = toDto(votacion, resultadoFinal);
+            } else {
+                VoteTally tally = talliesPorVotacion.get(votacion.getId());
+                List<VotacionOpcionDto> opcionesDto = opcionesPorVotacion.getOrDefault(votacion.getId(), List.of())
+                        .stream()
+                        .map(row -> toOpcionDto(votacion.getId(), (Integer) row[1], (String) row[2],
+                                (String) row[3], (String) row[4], tally))
+                        .collect(Collectors.toList());
+                dto = toDtoBuilder(votacion)
+                        .opciones(opcionesDto)
+                        .totalVotos((int) tally.getTotal())
+                        .build();
+            }
+            if (userId != null) {
+                dto.setHasParticipated(votadas.contains(votacion.getId()));
+            }
+            return dto;
+        }).collect(Collectors.toList());
+    }
+
+    public VotacionDto toDto(Votacion votacion) {
+        // Votación cerrada: resultado congelado, sin contar votos
+        if (votacion.getEstado() == VotacionEstado.CERRADA) {
+            Optional<ResultadoFinal> resultadoFinal = votacionResultadoService.find(votacion.getId());
+            if (resultadoFinal.isPresent()) {
+                return toDto(votacion, resultadoFinal.get());
+            }
+        }
+
+        List<VotacionOpcion> opciones = opcionRepository.findByVotacionIdOrderByOrden(votacion.getId());
+
+        // Recuento en memoria: sin COUNT por votación ni por opción
+        VoteTally tally = voteTallyRegistry.getTally(votacion.getId());
+
+        List<VotacionOpcionDto> opcionesDto = opciones.stream()
+                .map(opcion -> toOpcionDto(votacion.getId(), opcion.getOrden(), opcion.getTitulo(),
+                        opcion.getDescripcion(), opcion.getImagen(), tally))
+                .collect(Collectors.toList());
+
+        return toDtoBuilder(votacion)
+                .opciones(opcionesDto)
+                .totalVotos((int) tally.getTotal()) // Usar el total calculado correctamente
+                .build();
+    }
+
+    public VotacionDto toDto(Votacion votacion, ResultadoFinal resultadoFinal) {
+        return toDtoBuilder(votacion)
+                .opciones(resultadoFinal.getOpciones())
+                .totalVotos((int) resultadoFinal.getTotalVotos())
+                .build();
+    }
+
+    private static VotacionOpcionDto toOpcionDto(Long votacionId, Integer orden, String titulo, String descripcion,
+                                                 String imagen, VoteTally tally) {
+        // Votos por esta opción específica
+        long votosOpcion = tally.getCount(orden);
+        long totalVotosVotacion = tally.getTotal();
+
+        // Calcular porcentaje
+        Double porcentaje = null;
+        if (totalVotosVotacion > 0) {
+            porcentaje = VotacionOpcion.getPorcentajeVotos(votosOpcion, totalVotosVotacion);
+            // Redondear a 2 decimales
+            porcentaje = Math.round(porcentaje * 100.0) / 100.0;
+        }
+
+        return VotacionOpcionDto.builder()
+                .id((long) orden) // ✅ USAR ORDEN como ID público (1, 2, 3...)
+                .votacionId(votacionId)
+                .titulo(titulo)
+                .descripcion(descripcion)
+                .imagen(imagen)
+                .orden(orden)
+                .totalVotos((int) votosOpcion) // Agregar total de votos
+                .porcentaje(porcentaje) // Agregar porcentaje
+                .build();
+    }
+
+    private static VotacionDto.VotacionDtoBuilder toDtoBuilder(Votacion votacion) {
+        return VotacionDto.builder()
+                .id(votacion.getId())
+                .titulo(votacion.getTitulo())
+                .descripcion(votacion.getDescripcion())
+                .categoria(votacion.getCategoria())
+                .estado(votacion.getEstado())
+                .prioridad(votacion.getPrioridad())
+                .fechaInicio(votacion.getFechaInicio())
+                .fechaFin(votacion.getFechaFin())
+                .ubicacion(votacion.getUbicacion())
+                .organizador(votacion.getOrganizador())
+                .requisitos(votacion.getRequisitos())
+                .creadorId(votacion.getCreador().getId())
+                .creadorNombre(votacion.getCreador().getFullName())
+                .blockchainTransactionHash(votacion.getBlockchainTransactionHash())
+                .createdAt(votacion.getCreatedAt())
+                .updatedAt(votacion.getUpdatedAt());
+    }
+}
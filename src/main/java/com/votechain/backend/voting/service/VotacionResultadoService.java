@@ -0,0 +1,197 @@
+package com.votechain.backend.voting.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.votechain.backend.common.transaction.AfterCommit;
+import com.votechain.backend.vote.service.VoteActivity;
+import com.votechain.backend.vote.service.VoteActivityRegistry;
+import com.votechain.backend.vote.service.VoteTally;
+import com.votechain.backend.vote.service.VoteTallyRegistry;
+import com.votechain.backend.voting.dto.VotacionOpcionDto;
+import com.votechain.backend.voting.model.VotacionOpcion;
+import com.votechain.backend.voting.model.VotacionResultado;
+import com.votechain.backend.voting.repository.VotacionOpcionRepository;
+import com.votechain.backend.voting.repository.VotacionResultadoRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Resultados congelados de votaciones cerradas. Se calculan una vez al finalizar, a partir de un recuento
+ * recién sembrado desde la base de datos, y se guardan en votacion_resultados; las lecturas posteriores no
+ * cuentan votos y se sirven desde una caché local con TTL, para que un recuento hecho en otra instancia
+ * acabe viéndose en todas
+ */
+@Service
+@Slf4j
+public class VotacionResultadoService {
+
+    private static final TypeReference<List<VotacionOpcionDto>> OPCIONES_TYPE = new TypeReference<>() { };
+    private static final TypeReference<List<String>> GANADORAS_TYPE = new TypeReference<>() { };
+    private static final TypeReference<Map<LocalDateTime, Long>> HISTOGRAMA_TYPE = new TypeReference<>() { };
+
+    @Autowired
+    private VotacionResultadoRepository resultadoRepository;
+
+    @Autowired
+    private VotacionOpcionRepository opcionRepository;
+
+    @Autowired
+    private VoteTallyRegistry voteTallyRegistry;
+
+    @Autowired
+    private VoteActivityRegistry voteActivityRegistry;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${votes.results.cache.max-size:10000}")
+    private long cacheMaxSize;
+
+    @Value("${votes.results.cache.ttl-ms:300000}")
+    private long cacheTtlMs;
+
+    // Solo resultados existentes: una votación aún abierta no debe quedarse sin resultado tras cerrarse
+    private Cache<Long, ResultadoFinal> cache;
+
+    @PostConstruct
+    public void init() {
+        cache = Caffeine.newBuilder()
+                .maximumSize(cacheMaxSize)
+                .expireAfterWrite(Duration.ofMillis(cacheTtlMs))
+                .build();
+    }
+
+    /**
+     * Resultado congelado de la votación, si se finalizó (o se recontó) después de introducir esta tabla
+     */
+    @Transactional(readOnly = true)
+    public Optional<ResultadoFinal> find(Long votacionId) {
+        ResultadoFinal cached = cache.getIfPresent(votacionId);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+        Optional<ResultadoFinal> loaded = resultadoRepository.findByVotacionId(votacionId).map(this::toResultadoFinal);
+        loaded.ifPresent(resultado -> cache.put(votacionId, resultado));
+        return loaded;
+    }
+
+    /**
+     * Resultados congelados de varias votaciones; las que no están en caché se leen en una sola consulta IN
+     */
+    @Transactional(readOnly = true)
+    public Map<Long, ResultadoFinal> findAll(Collection<Long> votacionIds) {
+        // Las que no tienen resultado no se cachean: getAll solo guarda las claves que devuelve loadAll
+        return new HashMap<>(cache.getAll(votacionIds, this::loadAll));
+    }
+
+    /**
+     * Cuenta los votos desde la base de datos y guarda (o reemplaza) el resultado congelado de la votación.
+     * Debe llamarse dentro de la transacción que cierra la votación, con la fila de la votación ya bloqueada
+     * (VotacionRepository.findByIdForUpdate) para que ningún voto pueda confirmarse después del recuento;
+     * la caché local se actualiza tras el commit y las demás instancias lo ven al caducar su entrada
+     */
+    @Transactional
+    public ResultadoFinal freeze(Long votacionId) {
+        List<VotacionOpcion> opciones = opcionRepository.findByVotacionIdOrderByOrden(votacionId);
+        VoteTally tally = voteTallyRegistry.refresh(votacionId);
+        VoteActivity activity = voteActivityRegistry.refresh(votacionId);
+        long total = tally.getTotal();
+
+        List<VotacionOpcionDto> opcionesDto = opciones.stream()
+                .map(opcion -> {
+                    long votos = tally.getCount(opcion.getOrden());
+                    return VotacionOpcionDto.builder()
+                            .id((long) opcion.getOrden()) // Mismo ID público que convertToDto
+                            .votacionId(votacionId)
+                            .titulo(opcion.getTitulo())
+                            .descripcion(opcion.getDescripcion())
+                            .imagen(opcion.getImagen())
+                            .orden(opcion.getOrden())
+                            .totalVotos((int) votos)
+                            .porcentaje(total > 0 ? Math.round(votos * 100.0 / total * 100.0) / 100.0 : null)
+                            .build();
+                })
+                .collect(Collectors.toList());
+
+        // Ganador(es) - puede haber empate
+        long maxVotos = opcionesDto.stream().mapToLong(VotacionOpcionDto::getTotalVotos).max().orElse(0L);
+        List<String> ganadoras = opcionesDto.stream()
+                .filter(opcion -> opcion.getTotalVotos() == maxVotos)
+                .map(VotacionOpcionDto::getTitulo)
+                .collect(Collectors.toList());
+        String ganador = ganadoras.size() == 1 ? ganadoras.get(0) :
+                "Empate entre: " + String.join(", ", ganadoras);
+
+        VotacionResultado record = resultadoRepository.findByVotacionId(votacionId)
+                .map(existing -> {
+                    existing.setRecuentos(existing.getRecuentos() + 1);
+                    return existing;
+                })
+                .orElseGet(() -> VotacionResultado.builder().votacionId(votacionId).build());
+        record.setTotalVotos(total);
+        record.setGanador(ganador);
+        record.setVotosGanadora(maxVotos);
+        record.setHayEmpate(ganadoras.size() > 1);
+        record.setOpcionesJson(toJson(opcionesDto));
+        record.setGanadorasJson(toJson(ganadoras));
+        record.setVotosPorHoraJson(toJson(activity.getVotesByHour()));
+        record.setVotosPorDiaJson(toJson(activity.getVotesByDay()));
+        record.setCalculadoEn(LocalDateTime.now());
+
+        VotacionResultado saved = resultadoRepository.save(record);
+        ResultadoFinal resultado = new ResultadoFinal(votacionId, total, ganador, maxVotos, saved.isHayEmpate(),
+                opcionesDto, ganadoras, activity.getVotesByHour(), activity.getVotesByDay(),
+                saved.getCalculadoEn(), saved.getRecuentos());
+
+        AfterCommit.run(() -> cache.put(votacionId, resultado));
+        log.info("🧊 Resultado de la votación {} congelado: {} votos, ganador {} (recuento {})",
+                votacionId, total, ganador, saved.getRecuentos());
+        return resultado;
+    }
+
+    private Map<Long, ResultadoFinal> loadAll(Set<? extends Long> votacionIds) {
+        Map<Long, ResultadoFinal> loaded = new HashMap<>();
+        resultadoRepository.findByVotacionIdIn(List.copyOf(votacionIds))
+                .forEach(record -> loaded.put(record.getVotacionId(), toResultadoFinal(record)));
+        return loaded;
+    }
+
+    private ResultadoFinal toResultadoFinal(VotacionResultado record) {
+        try {
+            return new ResultadoFinal(record.getVotacionId(), record.getTotalVotos(), record.getGanador(),
+                    record.getVotosGanadora(), record.isHayEmpate(),
+                    objectMapper.readValue(record.getOpcionesJson(), OPCIONES_TYPE),
+                    objectMapper.readValue(record.getGanadorasJson(), GANADORAS_TYPE),
+                    objectMapper.readValue(record.getVotosPorHoraJson(), HISTOGRAMA_TYPE),
+                    objectMapper.readValue(record.getVotosPorDiaJson(), HISTOGRAMA_TYPE),
+                    record.getCalculadoEn(), record.getRecuentos());
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Stored result for votacion " + record.getVotacionId() + " is unreadable", e);
+        }
+    }
+
+    private String toJson(Object value) {
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize votacion result", e);
+        }
+    }
+}
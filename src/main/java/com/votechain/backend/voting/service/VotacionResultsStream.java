@@ -0,0 +1,385 @@
+package com.votechain.backend.voting.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.votechain.backend.vote.event.VoteCastEvent;
+import com.votechain.backend.vote.service.VoteTally;
+import com.votechain.backend.vote.service.VoteTallyRegistry;
+import com.votechain.backend.voting.dto.VotacionOpcionDto;
+import com.votechain.backend.voting.event.VotacionChangedEvent;
+import com.votechain.backend.voting.model.VotacionEstado;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Resultados en vivo por SSE. Un canal por votación con todos sus suscriptores: los votos confirmados
+ * solo marcan el canal como pendiente y un único envío por votación, como mucho max-updates-per-second
+ * veces por segundo, serializa una vez el recuento (VoteTallyRegistry) y lo reparte a todos. El envío solo
+ * encola el evento en cada suscriptor (cola acotada) y un pool de escritura aparte lo escribe: un cliente
+ * lento no frena a los demás. Al que se le llena la cola o lleva más de write-timeout-ms en una escritura
+ * se le cierra la conexión; al reconectar recibe los resultados actuales
+ */
+@Component
+@Slf4j
+public class VotacionResultsStream {
+
+    public static final String RESULTS_EVENT = "resultados";
+
+    @Autowired
+    private VoteTallyRegistry voteTallyRegistry;
+
+    @Autowired
+    private VotacionSnapshotCache votacionSnapshotCache;
+
+    @Autowired
+    private VotacionResultadoService votacionResultadoService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${votes.stream.max-updates-per-second:2}")
+    private int maxUpdatesPerSecond;
+
+    @Value("${votes.stream.max-subscribers:10000}")
+    private int maxSubscribers;
+
+    @Value("${votes.stream.emitter-timeout-ms:1800000}")
+    private long emitterTimeoutMs;
+
+    @Value("${votes.stream.heartbeat-interval-ms:15000}")
+    private long heartbeatIntervalMs;
+
+    @Value("${votes.stream.publisher-threads:2}")
+    private int publisherThreads;
+
+    @Value("${votes.stream.writer-threads:4}")
+    private int writerThreads;
+
+    @Value("${votes.stream.subscriber-queue-capacity:8}")
+    private int subscriberQueueCapacity;
+
+    @Value("${votes.stream.write-timeout-ms:5000}")
+    private long writeTimeoutMs;
+
+    private final ConcurrentHashMap<Long, Channel> channels = new ConcurrentHashMap<>();
+    private final AtomicInteger subscribers = new AtomicInteger();
+    private final AtomicLong dropped = new AtomicLong();
+    private ScheduledExecutorService scheduler;
+    private ThreadPoolExecutor writer;
+    private long minIntervalMs;
+
+    @PostConstruct
+    public void init() {
+        minIntervalMs = 1000L / Math.max(1, maxUpdatesPerSecond);
+        AtomicInteger counter = new AtomicInteger();
+        scheduler = Executors.newScheduledThreadPool(publisherThreads, runnable -> {
+            Thread thread = new Thread(runnable, "results-stream-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::heartbeat, heartbeatIntervalMs, heartbeatIntervalMs, TimeUnit.MILLISECONDS);
+        scheduler.scheduleWithFixedDelay(this::dropStalled, writeTimeoutMs, writeTimeoutMs, TimeUnit.MILLISECONDS);
+
+        // Cada suscriptor tiene como mucho una tarea de escritura pendiente: la cola no pasa de maxSubscribers
+        AtomicInteger writerCounter = new AtomicInteger();
+        writer = new ThreadPoolExecutor(writerThreads, writerThreads, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, maxSubscribers)),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "results-stream-writer-" + writerCounter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        writer.allowCoreThreadTimeOut(true);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+        writer.shutdownNow();
+        channels.values().forEach(channel -> channel.subscribers.forEach(subscriber -> subscriber.emitter.complete()));
+        channels.clear();
+    }
+
+    /**
+     * Nuevo suscriptor: recibe enseguida los resultados actuales y después cada actualización agrupada
+     */
+    public SseEmitter subscribe(Long votacionId) {
+        // Lanza EntityNotFoundException si la votación no existe
+        votacionSnapshotCache.get(votacionId);
+
+        if (subscribers.incrementAndGet() > maxSubscribers) {
+            subscribers.decrementAndGet();
+            throw new IllegalStateException("Too many live results subscribers, try again later");
+        }
+
+        SseEmitter emitter = new SseEmitter(emitterTimeoutMs);
+        Subscriber subscriber = new Subscriber(votacionId, emitter);
+        Channel channel = channels.compute(votacionId, (id, existing) -> {
+            Channel target = existing != null ? existing : new Channel(id);
+            target.subscribers.add(subscriber);
+            return target;
+        });
+        emitter.onCompletion(() -> unsubscribe(subscriber));
+        emitter.onTimeout(emitter::complete);
+        emitter.onError(error -> unsubscribe(subscriber));
+
+        Set<ResponseBodyEmitter.DataWithMediaType> event = channel.buildEvent();
+        if (event != null) {
+            subscriber.enqueue(event);
+        }
+        log.debug("Suscriptor de resultados en vivo para votación {} ({} en este nodo)", votacionId, subscribers.get());
+        return emitter;
+    }
+
+    @EventListener
+    public void onVoteCast(VoteCastEvent event) {
+        Channel channel = channels.get(event.getVotacionId());
+        if (channel != null) {
+            channel.markDirty();
+        }
+    }
+
+    @EventListener
+    public void onVotacionChanged(VotacionChangedEvent event) {
+        Channel channel = channels.get(event.getVotacionId());
+        if (channel != null) {
+            channel.markDirty();
+        }
+    }
+
+    public int getSubscriberCount() {
+        return subscribers.get();
+    }
+
+    /**
+     * Suscriptores desconectados por no seguir el ritmo de los envíos
+     */
+    public long getDroppedCount() {
+        return dropped.get();
+    }
+
+    private void unsubscribe(Subscriber subscriber) {
+        channels.computeIfPresent(subscriber.votacionId, (id, channel) -> {
+            if (channel.subscribers.remove(subscriber)) {
+                subscribers.decrementAndGet();
+            }
+            return channel.subscribers.isEmpty() ? null : channel;
+        });
+    }
+
+    /**
+     * Cierra la conexión de un suscriptor que se ha quedado atrás; el cliente reconecta y recibe el estado actual
+     */
+    private void drop(Subscriber subscriber, String reason) {
+        unsubscribe(subscriber);
+        dropped.incrementAndGet();
+        log.debug("Suscriptor de resultados en vivo de la votación {} desconectado: {}", subscriber.votacionId, reason);
+        try {
+            subscriber.emitter.complete();
+        } catch (RuntimeException e) {
+            // Ya completado
+        }
+    }
+
+    private void heartbeat() {
+        try {
+            Set<ResponseBodyEmitter.DataWithMediaType> ping = SseEmitter.event().comment("ping").build();
+            channels.values().forEach(channel -> channel.subscribers.forEach(subscriber -> subscriber.enqueue(ping)));
+        } catch (RuntimeException e) {
+            log.warn("⚠️ Error enviando heartbeat de resultados en vivo: {}", e.getMessage());
+        }
+    }
+
+    private void dropStalled() {
+        long now = System.currentTimeMillis();
+        channels.values().forEach(channel -> channel.subscribers.forEach(subscriber -> {
+            long startedAt = subscriber.sendStartedAt;
+            if (startedAt != 0 && now - startedAt > writeTimeoutMs) {
+                drop(subscriber, "escritura de más de " + writeTimeoutMs + " ms");
+            }
+        }));
+    }
+
+    /**
+     * Una conexión SSE con su cola de eventos pendientes; la vacía como mucho una tarea del pool de escritura
+     */
+    private final class Subscriber {
+        private final Long votacionId;
+        private final SseEmitter emitter;
+        private final BlockingQueue<Set<ResponseBodyEmitter.DataWithMediaType>> queue;
+        private final AtomicBoolean draining = new AtomicBoolean();
+        // Inicio de la escritura en curso; 0 si no hay ninguna
+        private volatile long sendStartedAt;
+
+        private Subscriber(Long votacionId, SseEmitter emitter) {
+            this.votacionId = votacionId;
+            this.emitter = emitter;
+            this.queue = new ArrayBlockingQueue<>(Math.max(1, subscriberQueueCapacity));
+        }
+
+        private void enqueue(Set<ResponseBodyEmitter.DataWithMediaType> event) {
+            if (!queue.offer(event)) {
+                drop(this, "cola llena");
+                return;
+            }
+            scheduleDrain();
+        }
+
+        private void scheduleDrain() {
+            if (queue.isEmpty() || !draining.compareAndSet(false, true)) {
+                return;
+            }
+            try {
+                writer.execute(this::drain);
+            } catch (RejectedExecutionException e) {
+                draining.set(false);
+                drop(this, "pool de escritura saturado");
+            }
+        }
+
+        private void drain() {
+            try {
+                Set<ResponseBodyEmitter.DataWithMediaType> event;
+                while ((event = queue.poll()) != null) {
+                    sendStartedAt = System.currentTimeMillis();
+                    try {
+                        emitter.send(event);
+                    } catch (IOException | IllegalStateException e) {
+                        // Cliente desconectado o emisor ya completado
+                        unsubscribe(this);
+                        queue.clear();
+                        return;
+                    } finally {
+                        sendStartedAt = 0;
+                    }
+                }
+            } finally {
+                draining.set(false);
+            }
+            // Eventos que llegaron mientras se cerraba el bucle
+            scheduleDrain();
+        }
+    }
+
+    private class Channel {
+        private final Long votacionId;
+        private final Set<Subscriber> subscribers = new CopyOnWriteArraySet<>();
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+        private final AtomicLong lastPublishedAt = new AtomicLong();
+        private final AtomicLong sequence = new AtomicLong();
+
+        private Channel(Long votacionId) {
+            this.votacionId = votacionId;
+        }
+
+        /**
+         * Programa un envío si no hay uno pendiente; los votos que llegan mientras tanto van en ese mismo envío
+         */
+        private void markDirty() {
+            if (!scheduled.compareAndSet(false, true)) {
+                return;
+            }
+            long delay = Math.max(0, lastPublishedAt.get() + minIntervalMs - System.currentTimeMillis());
+            try {
+                scheduler.schedule(this::publish, delay, TimeUnit.MILLISECONDS);
+            } catch (RuntimeException e) {
+                scheduled.set(false);
+            }
+        }
+
+        private void publish() {
+            scheduled.set(false);
+            lastPublishedAt.set(System.currentTimeMillis());
+            try {
+                Set<ResponseBodyEmitter.DataWithMediaType> event = buildEvent();
+                if (event != null) {
+                    subscribers.forEach(subscriber -> subscriber.enqueue(event));
+                }
+            } catch (RuntimeException e) {
+                log.warn("⚠️ Error publicando resultados en vivo de la votación {}: {}", votacionId, e.getMessage());
+            }
+        }
+
+        private Set<ResponseBodyEmitter.DataWithMediaType> buildEvent() {
+            VotacionSnapshot snapshot = votacionSnapshotCache.get(votacionId);
+
+            // Cerrada: el resultado congelado es el oficial; el contador en memoria solo mientras aún no existe
+            Optional<ResultadoFinal> resultado = snapshot.getEstado() == VotacionEstado.CERRADA
+                    ? votacionResultadoService.find(votacionId)
+                    : Optional.empty();
+
+            long total;
+            List<VotacionOpcionDto> opciones;
+            if (resultado.isPresent()) {
+                total = resultado.get().getTotalVotos();
+                opciones = resultado.get().getOpciones();
+            } else {
+                VoteTally tally = voteTallyRegistry.getTally(votacionId);
+                total = tally.getTotal();
+                opciones = snapshot.getOpcionesPorOrden().values().stream()
+                        .sorted(Comparator.comparing(VotacionSnapshot.Opcion::getOrden))
+                        .map(opcion -> {
+                            long votos = tally.getCount(opcion.getOrden());
+                            return VotacionOpcionDto.builder()
+                                    .id(opcion.getId())
+                                    .votacionId(votacionId)
+                                    .titulo(opcion.getTitulo())
+                                    .orden(opcion.getOrden())
+                                    .totalVotos((int) votos)
+                                    .porcentaje(total > 0 ? Math.round(votos * 100.0 / total * 100.0) / 100.0 : null)
+                                    .build();
+                        })
+                        .toList();
+            }
+
+            Map<String, Object> payload = new LinkedHashMap<>();
+            payload.put("votacionId", votacionId);
+            payload.put("estado", snapshot.getEstado());
+            payload.put("totalVotos", total);
+            payload.put("opciones", opciones);
+            payload.put("generadoEn", LocalDateTime.now());
+
+            try {
+                // Se serializa una sola vez para todos los suscriptores
+                return SseEmitter.event()
+                        .name(RESULTS_EVENT)
+                        .id(Long.toString(sequence.incrementAndGet()))
+                        .data(objectMapper.writeValueAsString(payload), MediaType.APPLICATION_JSON)
+                        .build();
+            } catch (JsonProcessingException e) {
+                log.warn("⚠️ No se pudieron serializar los resultados de la votación {}: {}", votacionId, e.getMessage());
+                return null;
+            }
+        }
+    }
+}
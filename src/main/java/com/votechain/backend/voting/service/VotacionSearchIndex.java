@@ -0,0 +1,430 @@
+package com.votechain.backend.voting.service;
+
+import com.votechain.backend.voting.event.VotacionChangedEvent;
+import com.votechain.backend.voting.model.VotacionCategoria;
+import com.votechain.backend.voting.model.VotacionEstado;
+import com.votechain.backend.voting.repository.VotacionRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.text.Normalizer;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+
+/**
+ * Índice invertido en memoria sobre título y descripción de las votaciones. Los textos se pasan a minúsculas
+ * sin tildes ("votación" = "votacion") y se parten en palabras; cada palabra de la búsqueda tiene que
+ * aparecer, entera o como prefijo. Los resultados se ordenan por relevancia (el título pesa más, las
+ * palabras raras más que las comunes) y después por fechaInicio. Se construye al arrancar y se mantiene con
+ * VotacionChangedEvent; mientras no está listo se busca con LIKE en la base de datos. Como el índice es de
+ * cada nodo, una pasada periódica (reconcile) lo vuelve a cuadrar con la base de datos
+ */
+@Component
+@Slf4j
+public class VotacionSearchIndex {
+
+    private static final int TITLE_WEIGHT = 3;
+    // Una coincidencia por prefijo ("vot" -> "votacion") cuenta la mitad que la palabra exacta
+    private static final double PREFIX_FACTOR = 0.5;
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{Nd}]+");
+    private static final Set<String> STOPWORDS = Set.of(
+            "a", "al", "con", "de", "del", "el", "en", "es", "la", "las", "lo", "los", "o", "para", "por",
+            "que", "se", "su", "sus", "un", "una", "uno", "y");
+
+    @Autowired
+    private VotacionRepository votacionRepository;
+
+    @Autowired
+    @Qualifier("applicationTaskExecutor")
+    private TaskExecutor taskExecutor;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${votacion.search.index-enabled:true}")
+    private boolean enabled;
+
+    @Value("${votacion.search.build-page-size:1000}")
+    private int buildPageSize;
+
+    // palabra -> (votacionId -> peso de la palabra en la votación)
+    private final ConcurrentSkipListMap<String, Map<Long, Integer>> postings = new ConcurrentSkipListMap<>();
+    private final ConcurrentHashMap<Long, Document> documents = new ConcurrentHashMap<>();
+
+    // Cambios pendientes de aplicar y reconcile solicitado; se atienden en un único hilo
+    private final Set<Long> pending = ConcurrentHashMap.newKeySet();
+    private final AtomicBoolean reconcileRequested = new AtomicBoolean();
+    private final AtomicBoolean draining = new AtomicBoolean();
+    private final Object writeLock = new Object();
+    private volatile boolean ready;
+
+    // Mientras se recorre la base de datos (construcción o reconcile), número de secuencia del último cambio
+    // de cada votación: una fila leída antes de ese cambio no puede pisar lo que ya aplicó drain
+    private final AtomicBoolean syncing = new AtomicBoolean();
+    private final AtomicLong changeSequence = new AtomicLong();
+    private final Map<Long, Long> changedDuringSync = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void init() {
+        meterRegistry.gauge("votechain.votacion.search.index.size", documents, Map::size);
+        meterRegistry.gauge("votechain.votacion.search.index.terms", postings, Map::size);
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (!enabled) {
+            log.info("🔎 Índice de búsqueda de votaciones desactivado: se usará LIKE");
+            return;
+        }
+        taskExecutor.execute(() -> {
+            try {
+                build();
+            } catch (RuntimeException e) {
+                log.error("❌ Error construyendo el índice de búsqueda de votaciones; se sigue usando LIKE", e);
+            }
+        });
+    }
+
+    @EventListener
+    public void onVotacionChanged(VotacionChangedEvent event) {
+        if (!enabled) {
+            return;
+        }
+        if (syncing.get()) {
+            changedDuringSync.put(event.getVotacionId(), changeSequence.incrementAndGet());
+        }
+        pending.add(event.getVotacionId());
+        scheduleDrain();
+    }
+
+    /**
+     * Pide volver a cuadrar el índice con la base de datos: reindexar todas las votaciones y quitar las que ya
+     * no existen, para recoger cambios perdidos (un drain que falló) y los hechos desde otros nodos. El
+     * recorrido lo hace el hilo del índice tras los cambios pendientes; el del scheduler solo lo solicita
+     */
+    @Scheduled(fixedDelayString = "${votacion.search.reconcile-interval-ms:600000}",
+            initialDelayString = "${votacion.search.reconcile-interval-ms:600000}")
+    public void reconcile() {
+        if (!enabled || !ready) {
+            return;
+        }
+        reconcileRequested.set(true);
+        scheduleDrain();
+    }
+
+    private void reconcileNow() {
+        try {
+            long start = System.currentTimeMillis();
+            int indexed = synchronizeWithDatabase();
+            log.debug("🔎 Índice de búsqueda de votaciones reconciliado: {} votaciones en {} ms",
+                    indexed, System.currentTimeMillis() - start);
+        } catch (RuntimeException e) {
+            log.warn("⚠️ No se pudo reconciliar el índice de búsqueda de votaciones: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Ids de la página pedida, por relevancia. Sin palabras buscables (vacío o solo "de", "la"...) devuelve
+     * todas las que cumplen los filtros por fechaInicio. within, si no es null, limita a esas votaciones
+     */
+    public Page<Long> search(String text, VotacionEstado estado, VotacionCategoria categoria,
+                             Collection<Long> within, Pageable pageable) {
+        Set<String> terms = queryTerms(text);
+        Map<Long, Double> scores = terms.isEmpty() ? allDocuments() : score(terms);
+        Set<Long> allowed = within != null ? new HashSet<>(within) : null;
+
+        Comparator<Map.Entry<Long, Double>> ranking = rankingComparator();
+        int limit = (int) Math.min(Integer.MAX_VALUE, pageable.getOffset() + pageable.getPageSize());
+        // Montículo con los "limit" mejores: el primero es el peor de ellos
+        PriorityQueue<Map.Entry<Long, Double>> top = new PriorityQueue<>(Math.max(1, limit), ranking.reversed());
+        long total = 0;
+        for (Map.Entry<Long, Double> entry : scores.entrySet()) {
+            Document document = documents.get(entry.getKey());
+            if (document == null
+                    || (estado != null && document.estado != estado)
+                    || (categoria != null && document.categoria != categoria)
+                    || (allowed != null && !allowed.contains(entry.getKey()))) {
+                continue;
+            }
+            total++;
+            top.offer(entry);
+            if (top.size() > limit) {
+                top.poll();
+            }
+        }
+
+        List<Map.Entry<Long, Double>> ranked = new ArrayList<>(top);
+        ranked.sort(ranking);
+        List<Long> ids = new ArrayList<>(pageable.getPageSize());
+        for (int i = (int) Math.min(pageable.getOffset(), ranked.size()); i < ranked.size(); i++) {
+            ids.add(ranked.get(i).getKey());
+        }
+        return new PageImpl<>(ids, pageable, total);
+    }
+
+    /**
+     * Minúsculas, sin tildes ni diéresis y partido en palabras
+     */
+    static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null || text.isBlank()) {
+            return tokens;
+        }
+        String folded = MARKS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("")
+                .toLowerCase(Locale.ROOT);
+        for (String token : SEPARATORS.split(folded)) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+
+    private void build() {
+        long start = System.currentTimeMillis();
+        int indexed = synchronizeWithDatabase();
+        ready = true;
+        log.info("🔎 Índice de búsqueda de votaciones listo: {} votaciones, {} palabras en {} ms",
+                indexed, postings.size(), System.currentTimeMillis() - start);
+    }
+
+    /**
+     * Recorre votaciones por páginas de ids. Antes de leer cada página se toma la secuencia de cambios: al
+     * aplicarla se saltan las votaciones con un cambio posterior, porque su fila es más antigua que la que
+     * lee (o ya leyó) drain. Al final se quitan las votaciones que no aparecieron y no cambiaron durante el
+     * recorrido
+     */
+    private int synchronizeWithDatabase() {
+        if (!syncing.compareAndSet(false, true)) {
+            return 0;
+        }
+        try {
+            long startSequence = changeSequence.get();
+            Set<Long> seen = new HashSet<>();
+            long afterId = 0;
+            List<Object[]> rows;
+            do {
+                long watermark = changeSequence.get();
+                rows = votacionRepository.findSearchRowsAfter(afterId, PageRequest.of(0, buildPageSize));
+                synchronized (writeLock) {
+                    for (Object[] row : rows) {
+                        Long id = (Long) row[0];
+                        seen.add(id);
+                        if (!changedAfter(id, watermark)) {
+                            index(row);
+                        }
+                    }
+                }
+                if (!rows.isEmpty()) {
+                    afterId = (Long) rows.get(rows.size() - 1)[0];
+                }
+            } while (rows.size() == buildPageSize);
+
+            synchronized (writeLock) {
+                for (Long id : new ArrayList<>(documents.keySet())) {
+                    if (!seen.contains(id) && !changedAfter(id, startSequence)) {
+                        remove(id);
+                    }
+                }
+            }
+            return seen.size();
+        } finally {
+            syncing.set(false);
+            changedDuringSync.clear();
+        }
+    }
+
+    private boolean changedAfter(Long id, long sequence) {
+        Long changed = changedDuringSync.get(id);
+        return changed != null && changed > sequence;
+    }
+
+    private void scheduleDrain() {
+        if ((pending.isEmpty() && !reconcileRequested.get()) || !draining.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            taskExecutor.execute(this::drain);
+        } catch (RuntimeException e) {
+            draining.set(false);
+            log.warn("⚠️ No se pudo programar la actualización del índice de búsqueda: {}", e.getMessage());
+        }
+    }
+
+    private void drain() {
+        try {
+            while (!pending.isEmpty()) {
+                List<Long> ids = new ArrayList<>(pending);
+                pending.removeAll(ids);
+                synchronized (writeLock) {
+                    Set<Long> missing = new HashSet<>(ids);
+                    for (Object[] row : votacionRepository.findSearchRowsByIds(ids)) {
+                        index(row);
+                        missing.remove((Long) row[0]);
+                    }
+                    // Votaciones borradas
+                    missing.forEach(this::remove);
+                }
+            }
+            if (reconcileRequested.compareAndSet(true, false)) {
+                reconcileNow();
+            }
+        } catch (RuntimeException e) {
+            log.warn("⚠️ No se pudo actualizar el índice de búsqueda de votaciones: {}", e.getMessage());
+        } finally {
+            draining.set(false);
+        }
+        // Cambios (o un reconcile) que llegaron mientras se cerraba el bucle
+        scheduleDrain();
+    }
+
+    private void index(Object[] row) {
+        Long id = (Long) row[0];
+        Map<String, Integer> weights = new HashMap<>();
+        for (String token : tokenize((String) row[1])) {
+            weights.merge(token, TITLE_WEIGHT, Integer::sum);
+        }
+        for (String token : tokenize((String) row[2])) {
+            weights.merge(token, 1, Integer::sum);
+        }
+
+        Document previous = documents.put(id, new Document(
+                (VotacionEstado) row[3], (VotacionCategoria) row[4], (LocalDateTime) row[5], weights.keySet()));
+        if (previous != null) {
+            removePostings(id, previous.terms, weights.keySet());
+        }
+        weights.forEach((term, weight) ->
+                postings.computeIfAbsent(term, key -> new ConcurrentHashMap<>()).put(id, weight));
+    }
+
+    private void remove(Long id) {
+        Document previous = documents.remove(id);
+        if (previous != null) {
+            removePostings(id, previous.terms, Set.of());
+        }
+    }
+
+    private void removePostings(Long id, Set<String> terms, Set<String> keep) {
+        for (String term : terms) {
+            if (!keep.contains(term)) {
+                postings.computeIfPresent(term, (key, ids) -> {
+                    ids.remove(id);
+                    return ids.isEmpty() ? null : ids;
+                });
+            }
+        }
+    }
+
+    /**
+     * Suma por palabra de la búsqueda de peso x idf; solo quedan las votaciones que contienen todas
+     */
+    private Map<Long, Double> score(Set<String> terms) {
+        double totalDocuments = Math.max(1, documents.size());
+        Map<Long, Double> scores = null;
+        for (String term : terms) {
+            Map<Long, Double> termScores = new HashMap<>();
+            for (Map.Entry<String, Map<Long, Integer>> posting
+                    : postings.subMap(term, true, term + Character.MAX_VALUE, true).entrySet()) {
+                Map<Long, Integer> ids = posting.getValue();
+                double idf = Math.log(1 + totalDocuments / Math.max(1, ids.size()));
+                double factor = posting.getKey().length() == term.length() ? 1.0 : PREFIX_FACTOR;
+                ids.forEach((id, weight) -> termScores.merge(id, weight * idf * factor, Math::max));
+            }
+
+            if (scores == null) {
+                scores = termScores;
+            } else {
+                Map<Long, Double> smaller = scores.size() <= termScores.size() ? scores : termScores;
+                Map<Long, Double> larger = smaller == scores ? termScores : scores;
+                Map<Long, Double> both = new HashMap<>();
+                smaller.forEach((id, score) -> {
+                    Double other = larger.get(id);
+                    if (other != null) {
+                        both.put(id, score + other);
+                    }
+                });
+                scores = both;
+            }
+            if (scores.isEmpty()) {
+                break;
+            }
+        }
+        return scores;
+    }
+
+    private Map<Long, Double> allDocuments() {
+        Map<Long, Double> all = new HashMap<>();
+        documents.keySet().forEach(id -> all.put(id, 0.0));
+        return all;
+    }
+
+    private Comparator<Map.Entry<Long, Double>> rankingComparator() {
+        Comparator<Map.Entry<Long, Double>> byScore = Map.Entry.comparingByValue(Comparator.reverseOrder());
+        return byScore
+                .thenComparing(entry -> fechaInicio(entry.getKey()), Comparator.nullsLast(Comparator.reverseOrder()))
+                .thenComparing(Map.Entry::getKey, Comparator.reverseOrder());
+    }
+
+    private LocalDateTime fechaInicio(Long id) {
+        Document document = documents.get(id);
+        return document != null ? document.fechaInicio : null;
+    }
+
+    private static Set<String> queryTerms(String text) {
+        Set<String> terms = new LinkedHashSet<>();
+        for (String token : tokenize(text)) {
+            if (!STOPWORDS.contains(token)) {
+                terms.add(token);
+            }
+        }
+        return terms;
+    }
+
+    private static final class Document {
+        private final VotacionEstado estado;
+        private final VotacionCategoria categoria;
+        private final LocalDateTime fechaInicio;
+        private final Set<String> terms;
+
+        private Document(VotacionEstado estado, VotacionCategoria categoria, LocalDateTime fechaInicio,
+                         Set<String> terms) {
+            this.estado = estado;
+            this.categoria = categoria;
+            this.fechaInicio = fechaInicio;
+            this.terms = terms;
+        }
+    }
+}
@@ -2,6 +2,7 @@ package com.votechain.backend.voting.service;
 
 import com.votechain.backend.auth.model.User;
 import com.votechain.backend.blockchain.service.BlockchainService;
+import com.votechain.backend.blockchain.transaction.SubmittedTransaction;
 import com.votechain.backend.voting.dto.CreateVotacionRequest;
 import com.votechain.backend.voting.dto.VotacionDto;
 import com.votechain.backend.voting.dto.VotacionOpcionDto;
@@ -9,15 +10,21 @@ import com.votechain.backend.auth.repository.UserRepository;
 import com.votechain.backend.voting.repository.VotacionOpcionRepository;
 import com.votechain.backend.voting.repository.VotacionRepository;
 import com.votechain.backend.common.logging.SystemLogService;
+import com.votechain.backend.common.pagination.Cursor;
+import com.votechain.backend.common.pagination.CursorPage;
+import com.votechain.backend.common.transaction.AfterCommit;
 import com.votechain.backend.voting.model.*;
 import com.votechain.backend.vote.repository.VoteRepository;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -25,7 +32,9 @@ import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -47,9 +56,24 @@ public class VotacionService {
     @Autowired
     private BlockchainService blockchainService;
 
+    @Autowired
+    private VotacionResultadoService votacionResultadoService;
+
+    @Autowired
+    private VotacionPageAssembler votacionPageAssembler;
+
+    @Autowired
+    private VotacionSearchIndex votacionSearchIndex;
+
     @Autowired
     private VoteRepository voteRepository;
 
+    @Value("${blockchain.votacion.recovery-grace-ms:600000}")
+    private long recoveryGraceMs;
+
+    @Value("${blockchain.votacion.recovery-batch-size:50}")
+    private int recoveryBatchSize;
+
     /**
      * Get public votaciones with pagination and filtering
      */
@@ -59,7 +83,9 @@ public class VotacionService {
         Pageable pageable = PageRequest.of(page, size, Sort.by("fechaInicio").descending());
 
         Page<Votacion> votacionesPage;
-        if (searchTerm != null && !searchTerm.isEmpty()) {
+        if (searchTerm != null && !searchTerm.isEmpty() && votacionSearchIndex.isReady()) {
+            votacionesPage = loadSearchPage(votacionSearchIndex.search(searchTerm, estado, categoria, null, pageable));
+        } else if (searchTerm != null && !searchTerm.isEmpty()) {
             votacionesPage = votacionRepository.searchVotaciones(searchTerm, estado, categoria, pageable);
         } else if (estado != null && categoria != null) {
             votacionesPage = votacionRepository.findByEstadoAndCategoria(estado, categoria, pageable);
@@ -71,7 +97,27 @@ public class VotacionService {
             votacionesPage = votacionRepository.findAll(pageable);
         }
 
-        return votacionesPage.map(this::convertToDto);
+        return votacionPageAssembler.toDtoPage(votacionesPage, null);
+    }
+
+    /**
+     * Public votaciones by cursor, newest first: cost does not depend on how deep the client has scrolled.
+     * The total is only counted when includeTotal is set
+     */
+    public CursorPage<VotacionDto> getPublicVotacionesByCursor(
+            String cursorToken, int size, VotacionEstado estado, VotacionCategoria categoria, boolean includeTotal) {
+
+        Cursor cursor = Cursor.decode(cursorToken);
+        int pageSize = Cursor.pageSize(size);
+        Pageable limit = PageRequest.of(0, pageSize + 1);
+
+        List<Votacion> rows = cursor == null
+                ? votacionRepository.findFirstKeysetPage(estado, categoria, limit)
+                : votacionRepository.findKeysetPageAfter(estado, categoria, cursor.getCreatedAt(), cursor.getId(), limit);
+        Long total = includeTotal ? votacionRepository.countFiltered(estado, categoria) : null;
+
+        return CursorPage.of(rows, pageSize, votacion -> new Cursor(votacion.getCreatedAt(), votacion.getId()),
+                page -> votacionPageAssembler.toDtos(page, null), total);
     }
 
     /**
@@ -79,8 +125,8 @@ public class VotacionService {
      */
     public Page<VotacionDto> getActiveVotaciones(int page, int size) {
         Pageable pageable = PageRequest.of(page, size);
-        return votacionRepository.findActiveVotaciones(LocalDateTime.now(), pageable)
-                .map(this::convertToDto);
+        return votacionPageAssembler.toDtoPage(
+                votacionRepository.findActiveVotaciones(LocalDateTime.now(), pageable), null);
     }
 
     /**
@@ -88,12 +134,19 @@ public class VotacionService {
      */
     public Page<VotacionDto> getUserVotaciones(
             Long userId, int page, int size, VotacionEstado estado,
-            VotacionCategoria categoria, Boolean participated) {
+            VotacionCategoria categoria, Boolean participated, String searchTerm) {
 
         Pageable pageable = PageRequest.of(page, size, Sort.by("fechaInicio").descending());
 
         Page<Votacion> votacionesPage;
-        if (participated != null && participated) {
+        if (searchTerm != null && !searchTerm.isEmpty() && votacionSearchIndex.isReady()) {
+            List<Long> within = participated != null && participated
+                    ? voteRepository.findVotacionIdsByUserId(userId)
+                    : null;
+            votacionesPage = loadSearchPage(votacionSearchIndex.search(searchTerm, estado, categoria, within, pageable));
+        } else if (searchTerm != null && !searchTerm.isEmpty() && (participated == null || !participated)) {
+            votacionesPage = votacionRepository.searchVotaciones(searchTerm, estado, categoria, pageable);
+        } else if (participated != null && participated) {
             votacionesPage = votacionRepository.findVotacionesByUserId(userId, pageable);
         } else {
             // Use the same filtering logic as public votaciones
@@ -108,12 +161,22 @@ public class VotacionService {
             }
         }
 
-        return votacionesPage.map(votacion -> {
-            VotacionDto dto = convertToDto(votacion);
-            // Set user-specific participation status
-            dto.setHasParticipated(hasUserVoted(userId, votacion.getId()));
-            return dto;
-        });
+        // Participation status for the whole page in a single query
+        return votacionPageAssembler.toDtoPage(votacionesPage, userId);
+    }
+
+    /**
+     * Load the votaciones of a search result page keeping the relevance order
+     */
+    private Page<Votacion> loadSearchPage(Page<Long> ids) {
+        Map<Long, Votacion> byId = votacionRepository.findAllById(ids.getContent()).stream()
+                .collect(Collectors.toMap(Votacion::getId, Function.identity()));
+        // Una votación borrada entre la búsqueda y la carga simplemente no aparece
+        List<Votacion> votaciones = ids.getContent().stream()
+                .map(byId::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+        return new PageImpl<>(votaciones, ids.getPageable(), ids.getTotalElements());
     }
 
     /**
@@ -232,48 +295,16 @@ public class VotacionService {
             }
         }
 
-        // 3. Create votacion in blockchain synchronously
+        // 3. Send votacion to blockchain; the contract id is filled in when the receipt arrives
         try {
             log.info("🔗 Creando votación en blockchain...");
-            BlockchainService.VotingCreationResult result = blockchainService.createVotacionInBlockchain(
-                savedVotacion.getId(),
-                savedVotacion.getTitulo(),
-                savedVotacion.getFechaInicio(),
-                savedVotacion.getFechaFin()
-            ).get(30, TimeUnit.SECONDS);
-
-            String txHashVotacion = result.getTransactionHash();
-            Long blockchainVotingId = result.getBlockchainVotingId();
-
-            log.info("✅ Votación creada en blockchain con hash: {}", txHashVotacion);
-            log.info("🔑 ID real en blockchain: {} (ID local: {})", blockchainVotingId, savedVotacion.getId());
-
-            // 4. Update votacion with blockchain information
-            savedVotacion.setBlockchainTransactionHash(txHashVotacion);
-            savedVotacion.setBlockchainVotingId(blockchainVotingId);
-            savedVotacion.setBlockchainVerified(true);
-            savedVotacion.setBlockchainVerifiedAt(LocalDateTime.now());
-
-            // Save updated votacion
-            savedVotacion = votacionRepository.save(savedVotacion);
-
-            // 5. Verify that the votacion exists in blockchain
-            log.info("🔍 Verificando votación en blockchain...");
-            boolean votacionExiste = blockchainService.checkVotacionExistsSafe(blockchainVotingId)
-                .get(30, TimeUnit.SECONDS);
-
-            if (votacionExiste) {
-                log.info("✅ Verificación: La votación existe en blockchain con ID {}", blockchainVotingId);
-            } else {
-                log.warn("⚠️ La votación no se pudo verificar en blockchain con ID {}", blockchainVotingId);
-            }
+            String txHashVotacion = submitToBlockchain(savedVotacion);
+            log.info("✅ Votación enviada a blockchain con hash: {}", txHashVotacion);
 
-            // 6. Log blockchain interaction
-            systemLogService.logBlockchainInteraction(creatorId, "Voting Creation", txHashVotacion);
             systemLogService.logAdminAction(creatorId, "Create Votacion with Blockchain",
                     "Created new votacion with blockchain: " + savedVotacion.getTitulo());
 
-            log.info("✅ Proceso de creación de votación completado exitosamente");
+            log.info("✅ Proceso de creación de votación completado, pendiente de confirmación en blockchain");
 
         } catch (Exception e) {
             log.error("❌ Error al crear votación en blockchain", e);
@@ -292,6 +323,90 @@ public class VotacionService {
         return convertToDto(savedVotacion);
     }
 
+    /**
+     * Envía la creación de la votación a la blockchain y devuelve el hash en cuanto el nodo acepta la transacción.
+     * El ID asignado por el contrato se guarda cuando el tracker de receipts confirma la transacción
+     */
+    public String submitToBlockchain(Votacion votacion) {
+        SubmittedTransaction<BlockchainService.VotingCreationResult> submitted = blockchainService.createVotacionInBlockchain(
+                votacion.getId(),
+                votacion.getTitulo(),
+                votacion.getFechaInicio(),
+                votacion.getFechaFin());
+
+        String transactionHash = submitted.getTransactionHash().orTimeout(30, TimeUnit.SECONDS).join();
+
+        votacion.setBlockchainTransactionHash(transactionHash);
+        votacion.setBlockchainVerified(false);
+        votacion.setBlockchainError(null);
+        votacionRepository.save(votacion);
+
+        Long votacionId = votacion.getId();
+        Long creatorId = votacion.getCreador() != null ? votacion.getCreador().getId() : null;
+        // La fila debe estar confirmada en BD antes de que el callback la actualice
+        AfterCommit.run(() -> submitted.getConfirmation().whenComplete((result, error) ->
+                confirmBlockchainCreation(votacionId, creatorId, result, error)));
+        return transactionHash;
+    }
+
+    /**
+     * Vuelve a consultar el receipt de las creaciones que siguen sin confirmar pasado el margen: el callback de
+     * submitToBlockchain vive solo en memoria y se pierde si la instancia se reinicia antes de que se mine
+     */
+    @Scheduled(fixedDelayString = "${blockchain.votacion.recovery-interval-ms:60000}")
+    public void recoverUnconfirmedCreations() {
+        if (!blockchainService.isContractLoaded()) {
+            return;
+        }
+        LocalDateTime before = LocalDateTime.now().minusNanos(recoveryGraceMs * 1_000_000L);
+        List<Votacion> unconfirmed = votacionRepository.findUnconfirmedBlockchainCreations(
+                before, PageRequest.of(0, recoveryBatchSize));
+
+        for (Votacion votacion : unconfirmed) {
+            Long creatorId = votacion.getCreador() != null ? votacion.getCreador().getId() : null;
+            try {
+                blockchainService.findVotingCreation(votacion.getBlockchainTransactionHash()).ifPresent(result -> {
+                    log.info("🔁 Confirmación de la votación {} recuperada desde su receipt", votacion.getId());
+                    confirmBlockchainCreation(votacion.getId(), creatorId, result, null);
+                });
+            } catch (Exception e) {
+                confirmBlockchainCreation(votacion.getId(), creatorId, null, e);
+            }
+        }
+    }
+
+    private void confirmBlockchainCreation(Long votacionId, Long creatorId,
+                                           BlockchainService.VotingCreationResult result, Throwable error) {
+        try {
+            Votacion votacion = votacionRepository.findById(votacionId)
+                    .orElseThrow(() -> new EntityNotFoundException("Votacion not found with id: " + votacionId));
+
+            if (error != null) {
+                Throwable cause = error.getCause() != null ? error.getCause() : error;
+                log.error("❌ La creación de la votación {} no se confirmó en blockchain: {}", votacionId, cause.getMessage());
+                votacion.setBlockchainVerified(false);
+                votacion.setBlockchainError(cause.getMessage());
+                votacionRepository.save(votacion);
+                systemLogService.logError("Blockchain Voting Creation",
+                        "Error confirming votacion " + votacionId + " on blockchain: " + cause.getMessage());
+                return;
+            }
+
+            votacion.setBlockchainTransactionHash(result.getTransactionHash());
+            votacion.setBlockchainVotingId(result.getBlockchainVotingId());
+            votacion.setBlockchainVerified(true);
+            votacion.setBlockchainVerifiedAt(LocalDateTime.now());
+            votacion.setBlockchainError(null);
+            votacionRepository.save(votacion);
+
+            log.info("🔑 Votación {} confirmada en blockchain con ID {} (tx {})",
+                    votacionId, result.getBlockchainVotingId(), result.getTransactionHash());
+            systemLogService.logBlockchainInteraction(creatorId, "Voting Creation", result.getTransactionHash());
+        } catch (Exception e) {
+            log.error("Error guardando la confirmación blockchain de la votación {}: {}", votacionId, e.getMessage(), e);
+        }
+    }
+
     /**
      * Update votacion
      */
@@ -453,7 +568,7 @@ public class VotacionService {
     public Page<VotacionDto> getVotacionesByCreator(Long creatorId, int page, int size) {
         Pageable pageable = PageRequest.of(page, size, Sort.by("createdAt").descending());
         Page<Votacion> votaciones = votacionRepository.findByCreadorId(creatorId, pageable);
-        return votaciones.map(this::convertToDto);
+        return votacionPageAssembler.toDtoPage(votaciones, null);
     }
 
     /**
@@ -522,7 +637,8 @@ public class VotacionService {
     public Map<String, Object> finalizarVotacion(Long id, Long userId) {
         log.info("🏁 Finalizando votación {} por usuario {}", id, userId);
 
-        Votacion votacion = votacionRepository.findById(id)
+        // Bloqueo exclusivo antes de contar: espera a los votos en curso y bloquea los nuevos hasta el commit
+        Votacion votacion = votacionRepository.findByIdForUpdate(id)
                 .orElseThrow(() -> new EntityNotFoundException("Votacion not found with id: " + id));
 
         // Validar que puede ser finalizada
@@ -530,38 +646,19 @@ public class VotacionService {
             throw new IllegalStateException("Solo se pueden finalizar votaciones abiertas. Estado actual: " + votacion.getEstado());
         }
 
-        // 📊 CALCULAR RESULTADOS FINALES DETALLADOS
-        Map<String, Long> distribucion = getVoteDistributionByOption(id);
-        List<VotacionOpcion> opciones = opcionRepository.findByVotacionId(id);
-
-        // Calcular estadísticas detalladas
-        long totalVotos = distribucion.values().stream()
-                .mapToLong(Long::longValue)
-                .sum();
-
-        // Encontrar ganador(es) - puede haber empate
-        Long maxVotos = distribucion.values().stream()
-                .max(Long::compareTo)
-                .orElse(0L);
-
-        List<String> ganadoras = distribucion.entrySet().stream()
-                .filter(entry -> entry.getValue().equals(maxVotos))
-                .map(Map.Entry::getKey)
-                .collect(Collectors.toList());
-
-        String opcionGanadora = ganadoras.size() == 1 ? ganadoras.get(0) :
-                "Empate entre: " + String.join(", ", ganadoras);
-
-        // Calcular porcentajes
-        Map<String, Double> porcentajes = new HashMap<>();
-        distribucion.forEach((opcion, votos) -> {
-            double porcentaje = totalVotos > 0 ? (votos * 100.0) / totalVotos : 0.0;
-            porcentajes.put(opcion, Math.round(porcentaje * 100.0) / 100.0); // Redondear a 2 decimales
-        });
+        // 📊 CALCULAR Y CONGELAR RESULTADOS FINALES (recuento desde la BD para cerrar con cifras exactas)
+        ResultadoFinal resultadoFinal = votacionResultadoService.freeze(id);
+        Map<String, Long> distribucion = resultadoFinal.getDistribucion();
+        Map<String, Double> porcentajes = resultadoFinal.getPorcentajes();
+        List<String> ganadoras = resultadoFinal.getGanadoras();
+        String opcionGanadora = resultadoFinal.getGanador();
+        long totalVotos = resultadoFinal.getTotalVotos();
+        long maxVotos = resultadoFinal.getVotosGanadora();
+        int totalOpciones = distribucion.size();
 
         // Estadísticas adicionales
-        double participacionPromedio = totalVotos > 0 ? (double) totalVotos / opciones.size() : 0.0;
-        boolean hayEmpate = ganadoras.size() > 1;
+        double participacionPromedio = totalVotos > 0 ? (double) totalVotos / totalOpciones : 0.0;
+        boolean hayEmpate = resultadoFinal.isHayEmpate();
 
         log.info("📊 Resultados calculados: Ganador(es)={} con {} votos de {} totales ({}%)",
                 opcionGanadora, maxVotos, totalVotos,
@@ -603,7 +700,7 @@ public class VotacionService {
 
         // 📊 CONSTRUIR RESPUESTA COMPLETA CON RESULTADOS DETALLADOS
         Map<String, Object> response = new HashMap<>();
-        response.put("votacion", convertToDto(saved));
+        response.put("votacion", votacionPageAssembler.toDto(saved, resultadoFinal));
 
         // Resultados detallados
         Map<String, Object> resultados = new HashMap<>();
@@ -614,7 +711,7 @@ public class VotacionService {
         resultados.put("distribucionVotos", distribucion);
         resultados.put("distribucionPorcentajes", porcentajes);
         resultados.put("totalVotos", totalVotos);
-        resultados.put("totalOpciones", opciones.size());
+        resultados.put("totalOpciones", totalOpciones);
         resultados.put("participacionPromedio", Math.round(participacionPromedio * 100.0) / 100.0);
         resultados.put("fechaFinalizacion", fechaFinalizacion);
 
@@ -640,12 +737,38 @@ public class VotacionService {
 
         log.info("🏆 Votación {} finalizada exitosamente. Ganador: {} con {} votos de {} totales ({}% participación)",
                 id, opcionGanadora, maxVotos, totalVotos,
-                totalVotos > 0 && opciones.size() > 0 ?
-                String.format("%.1f", (totalVotos * 100.0) / opciones.size()) : "N/A");
+                totalVotos > 0 && totalOpciones > 0 ?
+                String.format("%.1f", (totalVotos * 100.0) / totalOpciones) : "N/A");
 
         return response;
     }
 
+    /**
+     * Re-tally a closed votacion: recount its votes and replace the frozen result (admin only)
+     */
+    @Transactional
+    public ResultadoFinal recontarVotacion(Long id, Long userId) {
+        Votacion votacion = votacionRepository.findById(id)
+                .orElseThrow(() -> new EntityNotFoundException("Votacion not found with id: " + id));
+
+        if (votacion.getEstado() != VotacionEstado.CERRADA) {
+            throw new IllegalStateException("Solo se pueden recontar votaciones cerradas. Estado actual: " + votacion.getEstado());
+        }
+
+        ResultadoFinal resultadoFinal = votacionResultadoService.freeze(id);
+        votacion.setResultadoFinal(resultadoFinal.getGanador());
+        votacion.setVotosGanadora(resultadoFinal.getVotosGanadora());
+        votacionRepository.save(votacion);
+
+        systemLogService.logAdminAction(userId, "Retally Votacion",
+                String.format("Retallied votacion: %s. Winner: %s with %d votes of %d total votes",
+                        votacion.getTitulo(), resultadoFinal.getGanador(),
+                        resultadoFinal.getVotosGanadora(), resultadoFinal.getTotalVotos()));
+
+        log.info("🔁 Votación {} recontada por usuario {}: {} votos", id, userId, resultadoFinal.getTotalVotos());
+        return resultadoFinal;
+    }
+
     /**
      * Suspend a votacion temporarily
      */
@@ -748,73 +871,6 @@ public class VotacionService {
      * Convert entity to DTO
      */
     public VotacionDto convertToDto(Votacion votacion) {
-        List<VotacionOpcion> opciones = opcionRepository.findByVotacionIdOrderByOrden(votacion.getId());
-
-        // Calcular el total de votos de la votación
-        long totalVotosVotacion = voteRepository.countByVotacionId(votacion.getId());
-
-        List<VotacionOpcionDto> opcionesDto = opciones.stream()
-                .map(opcion -> {
-                    // Contar votos por esta opción específica
-                    long votosOpcion = voteRepository.countByVotacionIdAndOpcionSeleccionadaId(
-                        votacion.getId(), opcion.getId());
-
-                    // Calcular porcentaje
-                    Double porcentaje = null;
-                    if (totalVotosVotacion > 0) {
-                        porcentaje = (double) votosOpcion / totalVotosVotacion * 100.0;
-                        // Redondear a 2 decimales
-                        porcentaje = Math.round(porcentaje * 100.0) / 100.0;
-                    }
-
-                    return VotacionOpcionDto.builder()
-                            .id((long) opcion.getOrden()) // ✅ USAR ORDEN como ID público (1, 2, 3...)
-                            .votacionId(opcion.getVotacion().getId())
-                            .titulo(opcion.getTitulo())
-                            .descripcion(opcion.getDescripcion())
-                            .imagen(opcion.getImagen())
-                            .orden(opcion.getOrden())
-                            .totalVotos((int) votosOpcion) // Agregar total de votos
-                            .porcentaje(porcentaje) // Agregar porcentaje
-                            .build();
-                })
-                .collect(Collectors.toList());
-
-        return VotacionDto.builder()
-                .id(votacion.getId())
-                .titulo(votacion.getTitulo())
-                .descripcion(votacion.getDescripcion())
-                .categoria(votacion.getCategoria())
-                .estado(votacion.getEstado())
-                .prioridad(votacion.getPrioridad())
-                .fechaInicio(votacion.getFechaInicio())
-                .fechaFin(votacion.getFechaFin())
-                .ubicacion(votacion.getUbicacion())
-                .organizador(votacion.getOrganizador())
-                .requisitos(votacion.getRequisitos())
-                .creadorId(votacion.getCreador().getId())
-                .creadorNombre(votacion.getCreador().getFullName())
-                .opciones(opcionesDto)
-                .totalVotos((int) totalVotosVotacion) // Usar el total calculado correctamente
-                .blockchainTransactionHash(votacion.getBlockchainTransactionHash())
-                .createdAt(votacion.getCreatedAt())
-                .updatedAt(votacion.getUpdatedAt())
-                .build();
-    }
-
-    /**
-     * Get vote distribution by option for a specific votacion
-     */
-    private Map<String, Long> getVoteDistributionByOption(Long votacionId) {
-        List<VotacionOpcion> opciones = opcionRepository.findByVotacionIdOrderByOrden(votacionId);
-        Map<String, Long> distribution = new HashMap<>();
-
-        for (VotacionOpcion opcion : opciones) {
-            // Usar el VoteRepository para contar los votos reales por opción
-            long voteCount = voteRepository.countByVotacionIdAndOpcionSeleccionadaId(votacionId, opcion.getId());
-            distribution.put(opcion.getTitulo(), voteCount);
-        }
-
-        return distribution;
+        return votacionPageAssembler.toDto(votacion);
     }
 }
@@ -0,0 +1,62 @@
+package com.votechain.backend.voting.service;
+
+import com.votechain.backend.voting.model.Votacion;
+import com.votechain.backend.voting.model.VotacionEstado;
+import com.votechain.backend.voting.model.VotacionOpcion;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Copia inmutable de lo que hace falta para validar un voto: estado, fechas, creador y opciones por orden
+ */
+@Getter
+public final class VotacionSnapshot {
+
+    private final Long id;
+    private final String titulo;
+    private final Long creadorId;
+    private final VotacionEstado estado;
+    private final LocalDateTime fechaInicio;
+    private final LocalDateTime fechaFin;
+    private final Map<Integer, Opcion> opcionesPorOrden;
+
+    private VotacionSnapshot(Votacion votacion, Map<Integer, Opcion> opcionesPorOrden) {
+        this.id = votacion.getId();
+        this.titulo = votacion.getTitulo();
+        this.creadorId = votacion.getCreador() != null ? votacion.getCreador().getId() : null;
+        this.estado = votacion.getEstado();
+        this.fechaInicio = votacion.getFechaInicio();
+        this.fechaFin = votacion.getFechaFin();
+        this.opcionesPorOrden = Map.copyOf(opcionesPorOrden);
+    }
+
+    public static VotacionSnapshot of(Votacion votacion, List<VotacionOpcion> opciones) {
+        Map<Integer, Opcion> byOrden = new HashMap<>();
+        for (VotacionOpcion opcion : opciones) {
+            byOrden.put(opcion.getOrden(), new Opcion(opcion.getId(), opcion.getOrden(), opcion.getTitulo()));
+        }
+        return new VotacionSnapshot(votacion, byOrden);
+    }
+
+    public Optional<Opcion> findOpcion(int orden) {
+        return Optional.ofNullable(opcionesPorOrden.get(orden));
+    }
+
+    public boolean isOpenAt(LocalDateTime time) {
+        return !time.isBefore(fechaInicio) && !time.isAfter(fechaFin);
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static final class Opcion {
+        private final Long id;
+        private final Integer orden;
+        private final String titulo;
+    }
+}
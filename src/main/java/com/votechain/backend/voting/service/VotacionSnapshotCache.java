@@ -0,0 +1,84 @@
+package com.votechain.backend.voting.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.votechain.backend.voting.event.VotacionChangedEvent;
+import com.votechain.backend.voting.model.Votacion;
+import com.votechain.backend.voting.repository.VotacionOpcionRepository;
+import com.votechain.backend.voting.repository.VotacionRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityNotFoundException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Snapshots de votaciones para validar votos sin consultar la base de datos. Cada cambio confirmado en la
+ * votación o sus opciones invalida la entrada; la siguiente lectura vuelve a cargarla. Los eventos solo llegan
+ * a la instancia que hizo el cambio: ttl-ms acota cuánto tarda el resto en verlo
+ */
+@Component
+@Slf4j
+public class VotacionSnapshotCache {
+
+    @Autowired
+    private VotacionRepository votacionRepository;
+
+    @Autowired
+    private VotacionOpcionRepository opcionRepository;
+
+    @Value("${votacion.snapshot.cache.max-size:10000}")
+    private long cacheMaxSize;
+
+    @Value("${votacion.snapshot.cache.ttl-ms:60000}")
+    private long cacheTtlMs;
+
+    private Cache<Long, VotacionSnapshot> snapshots;
+
+    // Sube con cada invalidación: una carga que empezó antes no puede dejar un snapshot viejo en la caché
+    private final AtomicLong invalidations = new AtomicLong();
+
+    @PostConstruct
+    public void init() {
+        snapshots = Caffeine.newBuilder()
+                .maximumSize(cacheMaxSize)
+                .expireAfterWrite(Duration.ofMillis(cacheTtlMs))
+                .build();
+    }
+
+    public VotacionSnapshot get(Long votacionId) {
+        VotacionSnapshot snapshot = snapshots.getIfPresent(votacionId);
+        if (snapshot != null) {
+            return snapshot;
+        }
+
+        long generation = invalidations.get();
+        snapshot = load(votacionId);
+        if (invalidations.get() == generation) {
+            snapshots.asMap().putIfAbsent(votacionId, snapshot);
+            if (invalidations.get() != generation) {
+                snapshots.asMap().remove(votacionId, snapshot);
+            }
+        }
+        return snapshot;
+    }
+
+    @EventListener
+    public void onVotacionChanged(VotacionChangedEvent event) {
+        invalidations.incrementAndGet();
+        if (snapshots.asMap().remove(event.getVotacionId()) != null) {
+            log.debug("Snapshot de votación {} invalidado", event.getVotacionId());
+        }
+    }
+
+    private VotacionSnapshot load(Long votacionId) {
+        Votacion votacion = votacionRepository.findById(votacionId)
+                .orElseThrow(() -> new EntityNotFoundException("Votacion not found with id: " + votacionId));
+        return VotacionSnapshot.of(votacion, opcionRepository.findByVotacionIdOrderByOrden(votacionId));
+    }
+}
@@ -28,6 +28,14 @@ contract VoteChain {
         bool exists;
     }
 
+    // Lote de votos anclado por su raíz Merkle (modo de anclaje por lotes)
+    struct VoteBatch {
+        uint256 votingId;
+        uint256 leafCount;
+        uint256 timestamp;
+        bool exists;
+    }
+
     // Estructura para almacenar estadísticas de votación
     struct VotingStats {
         uint256 totalVotes;
@@ -39,6 +47,7 @@ contract VoteChain {
     mapping(string => Vote) public votes;
     mapping(uint256 => mapping(uint256 => bool)) public hasVoted; // votingId => userId => bool
     mapping(uint256 => VotingStats) private votingStats; // votingId => stats
+    mapping(bytes32 => VoteBatch) public voteBatches; // merkleRoot => lote
 
     uint256 public votingCounter;
     address public owner;
@@ -48,6 +57,7 @@ contract VoteChain {
     event VoteCast(uint256 indexed votingId, uint256 indexed userId, uint256 indexed optionId, string voteHash);
     event VotingStatusChanged(uint256 indexed votingId, bool active);
     event VotingClosed(uint256 indexed votingId, uint256 totalVotes);
+    event VoteBatchAnchored(uint256 indexed votingId, bytes32 indexed merkleRoot, uint256 leafCount);
 
     // Modificadores
     modifier onlyOwner() {
@@ -126,6 +136,32 @@ contract VoteChain {
         emit VoteCast(_votingId, _userId, _optionId, _voteHash);
     }
 
+    // Anclar un lote de votos: solo se guarda la raíz del árbol Merkle de sus hashes
+    function anchorVoteBatch(
+        uint256 _votingId,
+        bytes32 _merkleRoot,
+        uint256 _leafCount
+    ) public votingExists(_votingId) {
+        require(_leafCount > 0, "El lote no puede estar vacio");
+        require(!voteBatches[_merkleRoot].exists, "El lote ya fue anclado");
+
+        voteBatches[_merkleRoot] = VoteBatch({
+            votingId: _votingId,
+            leafCount: _leafCount,
+            timestamp: block.timestamp,
+            exists: true
+        });
+
+        votingStats[_votingId].totalVotes += _leafCount;
+
+        emit VoteBatchAnchored(_votingId, _merkleRoot, _leafCount);
+    }
+
+    // Verificar si un lote de votos ya está anclado
+    function isBatchAnchored(bytes32 _merkleRoot) public view returns (bool) {
+        return voteBatches[_merkleRoot].exists;
+    }
+
     // Verificar un voto
     function verifyVote(string memory _voteHash) public view returns (bool exists, uint256 votingId, uint256 optionId, uint256 timestamp) {
         Vote storage vote = votes[_voteHash];
@@ -3,7 +3,14 @@ package com.votechain.backend;
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.context.SpringBootTest;
 
-@SpringBootTest
+// Valores de prueba para los secretos que en despliegue vienen del entorno; chain-id fijo para no consultar el nodo
+@SpringBootTest(properties = {
+        "jwt.secret=dGVzdC1zZWNyZXQtZm9yLWNvbnRleHQtbG9hZHMtb25seS1ub3QtZm9yLXByb2R1Y3Rpb24tdXNl",
+        "blockchain.provider.url=http://localhost:8545",
+        "blockchain.contract.address=0x0000000000000000000000000000000000000001",
+        "blockchain.wallet.private-key=0x0000000000000000000000000000000000000000000000000000000000000001",
+        "blockchain.chain-id=1337"
+})
 class VotechainBackendApplicationTests {
 
     @Test
@@ -0,0 +1,167 @@
+package com.votechain.backend.auth.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.votechain.backend.auth.model.User;
+import com.votechain.backend.auth.model.UserActivitySummary;
+import com.votechain.backend.auth.repository.UserActivitySummaryRepository;
+import com.votechain.backend.auth.repository.UserRepository;
+import com.votechain.backend.vote.event.VoteCastEvent;
+import com.votechain.backend.vote.repository.VoteRepository;
+import com.votechain.backend.vote.service.VoteTallyRegistry;
+import com.votechain.backend.voting.repository.VotacionRepository;
+import com.votechain.backend.voting.service.VotacionSnapshot;
+import com.votechain.backend.voting.service.VotacionSnapshotCache;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Resumen de actividad: la reconstrucción lee la versión antes de calcular y las actualizaciones rechazadas
+ * o fallidas se reconcilian después
+ */
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class UserActivitySummaryServiceTest {
+
+    private static final Long VOTER_ID = 3L;
+    private static final Long CREADOR_ID = 9L;
+    private static final Long VOTACION_ID = 7L;
+
+    @Mock
+    private UserActivitySummaryRepository summaryRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private VotacionRepository votacionRepository;
+
+    @Mock
+    private VoteRepository voteRepository;
+
+    @Mock
+    private VotacionSnapshotCache votacionSnapshotCache;
+
+    @Mock
+    private VoteTallyRegistry voteTallyRegistry;
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper();
+
+    @Mock
+    private ExecutorService executor;
+
+    @InjectMocks
+    private UserActivitySummaryService service;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(service, "executor", executor);
+        ReflectionTestUtils.setField(service, "reconcileMaxPerPass", 200);
+        doAnswer(invocation -> {
+            invocation.<Runnable>getArgument(0).run();
+            return null;
+        }).when(executor).execute(any(Runnable.class));
+        when(userRepository.findById(anyLong())).thenAnswer(invocation -> Optional.of(new User()));
+        when(summaryRepository.save(any(UserActivitySummary.class))).thenAnswer(invocation -> invocation.getArgument(0));
+    }
+
+    @Test
+    void rebuildReadsVersionBeforeComputing() {
+        when(summaryRepository.findById(VOTER_ID))
+                .thenReturn(Optional.of(UserActivitySummary.builder().userId(VOTER_ID).version(4L).build()))
+                .thenReturn(Optional.of(UserActivitySummary.builder().userId(VOTER_ID).version(5L).build()));
+        when(summaryRepository.save(any(UserActivitySummary.class)))
+                .thenThrow(new OptimisticLockingFailureException("concurrent update"))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+
+        UserActivitySummary saved = service.rebuild(VOTER_ID);
+
+        InOrder order = inOrder(summaryRepository, userRepository);
+        order.verify(summaryRepository).findById(VOTER_ID);
+        order.verify(userRepository).findById(VOTER_ID);
+        order.verify(summaryRepository).save(any(UserActivitySummary.class));
+        order.verify(summaryRepository).findById(VOTER_ID);
+        order.verify(userRepository).findById(VOTER_ID);
+        assertThat(saved.getVersion()).isEqualTo(5L);
+        assertThat(service.getDirtyCount()).isZero();
+    }
+
+    @Test
+    void failedVoteUpdateIsReconciledForVoterAndCreador() {
+        VotacionSnapshot votacion = mock(VotacionSnapshot.class);
+        when(votacion.getCreadorId()).thenReturn(CREADOR_ID);
+        when(votacionSnapshotCache.get(VOTACION_ID))
+                .thenThrow(new IllegalStateException("database unavailable"))
+                .thenReturn(votacion);
+
+        service.onVoteCast(event());
+        assertThat(service.getDirtyCount()).isEqualTo(2);
+
+        service.reconcileDirty();
+
+        ArgumentCaptor<UserActivitySummary> saved = ArgumentCaptor.forClass(UserActivitySummary.class);
+        verify(summaryRepository, times(2)).save(saved.capture());
+        assertThat(saved.getAllValues()).extracting(UserActivitySummary::getUserId)
+                .containsExactlyInAnyOrder(VOTER_ID, CREADOR_ID);
+        assertThat(service.getDirtyCount()).isZero();
+    }
+
+    @Test
+    void rejectedVoteUpdateIsMarkedDirty() {
+        doThrow(new RejectedExecutionException("queue full")).when(executor).execute(any(Runnable.class));
+
+        service.onVoteCast(event());
+
+        assertThat(service.getDirtyCount()).isEqualTo(2);
+        verify(summaryRepository, never()).recordVoteCast(anyLong(), anyInt(), anyInt(), any(), any(), any());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void reconcileQueuesAtMostMaxPerPassRebuilds() {
+        ReflectionTestUtils.setField(service, "reconcileMaxPerPass", 2);
+        Set<Long> dirtyUsers = (Set<Long>) ReflectionTestUtils.getField(service, "dirtyUsers");
+        dirtyUsers.addAll(List.of(1L, 2L, 3L, 4L, 5L));
+
+        service.reconcileDirty();
+
+        verify(executor, times(2)).execute(any(Runnable.class));
+        verify(summaryRepository, times(2)).save(any(UserActivitySummary.class));
+        assertThat(service.getDirtyCount()).isEqualTo(3);
+    }
+
+    private static VoteCastEvent event() {
+        return new VoteCastEvent(1L, VOTACION_ID, VOTER_ID, 1, "hash", LocalDateTime.now());
+    }
+}
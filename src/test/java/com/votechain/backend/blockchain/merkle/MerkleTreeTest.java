@@ -0,0 +1,84 @@
+package com.votechain.backend.blockchain.merkle;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Árbol Merkle de un lote de votos: raíz determinista y pruebas de inclusión para cada hoja
+ */
+class MerkleTreeTest {
+
+    @Test
+    void everyLeafProofVerifiesForOddAndEvenSizes() {
+        for (int size : new int[]{1, 2, 3, 5, 8, 13}) {
+            List<String> hashes = voteHashes(size);
+            MerkleTree tree = MerkleTree.fromVoteHashes(hashes);
+
+            assertThat(tree.getLeafCount()).isEqualTo(size);
+            for (int i = 0; i < size; i++) {
+                List<String> proof = tree.getProof(i);
+                assertThat(MerkleTree.verify(hashes.get(i), i, proof, tree.getRootHex()))
+                        .as("leaf %d of %d", i, size)
+                        .isTrue();
+            }
+        }
+    }
+
+    @Test
+    void rootDependsOnContentAndOrder() {
+        List<String> hashes = voteHashes(4);
+        String root = MerkleTree.fromVoteHashes(hashes).getRootHex();
+
+        assertThat(MerkleTree.fromVoteHashes(voteHashes(4)).getRootHex()).isEqualTo(root);
+
+        List<String> swapped = new ArrayList<>(hashes);
+        swapped.set(0, hashes.get(1));
+        swapped.set(1, hashes.get(0));
+        assertThat(MerkleTree.fromVoteHashes(swapped).getRootHex()).isNotEqualTo(root);
+
+        List<String> changed = new ArrayList<>(hashes);
+        changed.set(3, "otro");
+        assertThat(MerkleTree.fromVoteHashes(changed).getRootHex()).isNotEqualTo(root);
+    }
+
+    @Test
+    void proofFailsForWrongHashPositionOrRoot() {
+        List<String> hashes = voteHashes(5);
+        MerkleTree tree = MerkleTree.fromVoteHashes(hashes);
+        List<String> proof = tree.getProof(2);
+
+        assertThat(MerkleTree.verify("manipulado", 2, proof, tree.getRootHex())).isFalse();
+        assertThat(MerkleTree.verify(hashes.get(2), 3, proof, tree.getRootHex())).isFalse();
+        assertThat(MerkleTree.verify(hashes.get(2), 2, proof,
+                MerkleTree.fromVoteHashes(voteHashes(6)).getRootHex())).isFalse();
+    }
+
+    @Test
+    void singleLeafIsNotItsOwnRoot() {
+        // Con prefijo de hoja, una hoja nunca coincide con un nodo interno
+        MerkleTree single = MerkleTree.fromVoteHashes(List.of("voto"));
+        assertThat(single.getProof(0)).isEmpty();
+        assertThat(MerkleTree.verify("voto", 0, List.of(), single.getRootHex())).isTrue();
+
+        MerkleTree pair = MerkleTree.fromVoteHashes(List.of("a", "b"));
+        assertThat(MerkleTree.verify(pair.getRootHex(), 0, List.of(), pair.getRootHex())).isFalse();
+    }
+
+    @Test
+    void rejectsEmptyTreeAndOutOfRangeLeaf() {
+        assertThatThrownBy(() -> MerkleTree.fromVoteHashes(List.of())).isInstanceOf(IllegalArgumentException.class);
+        MerkleTree tree = MerkleTree.fromVoteHashes(voteHashes(3));
+        assertThatThrownBy(() -> tree.getProof(3)).isInstanceOf(IndexOutOfBoundsException.class);
+        assertThatThrownBy(() -> tree.getProof(-1)).isInstanceOf(IndexOutOfBoundsException.class);
+    }
+
+    private static List<String> voteHashes(int size) {
+        return IntStream.range(0, size).mapToObj(i -> "vote-hash-" + i).toList();
+    }
+}
@@ -0,0 +1,165 @@
+package com.votechain.backend.blockchain.service;
+
+import com.votechain.backend.auth.model.User;
+import com.votechain.backend.blockchain.model.AnchoringMode;
+import com.votechain.backend.blockchain.model.BlockchainOutboxEntry;
+import com.votechain.backend.blockchain.model.OutboxStatus;
+import com.votechain.backend.blockchain.repository.BlockchainOutboxRepository;
+import com.votechain.backend.blockchain.transaction.SubmittedTransaction;
+import com.votechain.backend.vote.model.Vote;
+import com.votechain.backend.vote.repository.VoteRepository;
+import com.votechain.backend.voting.model.Votacion;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.web3j.protocol.core.methods.response.TransactionReceipt;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Reintentos del outbox: un voto que ya llegó a la blockchain se completa sin reenviarse
+ */
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class BlockchainOutboxDispatcherTest {
+
+    private static final Long ENTRY_ID = 1L;
+    private static final Long VOTE_ID = 10L;
+    private static final Long VOTACION_ID = 7L;
+    private static final Long USER_ID = 42L;
+
+    @Mock
+    private BlockchainOutboxRepository outboxRepository;
+
+    @Mock
+    private BlockchainOutboxService outboxService;
+
+    @Mock
+    private BlockchainService blockchainService;
+
+    @Mock
+    private VoteRepository voteRepository;
+
+    @InjectMocks
+    private BlockchainOutboxDispatcher dispatcher;
+
+    private BlockchainOutboxEntry entry;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(dispatcher, "maxConcurrency", 4);
+        ReflectionTestUtils.setField(dispatcher, "batchSize", 10);
+        dispatcher.init();
+
+        entry = BlockchainOutboxEntry.builder()
+                .id(ENTRY_ID)
+                .voteId(VOTE_ID)
+                .votacionId(VOTACION_ID)
+                .status(OutboxStatus.PENDING)
+                .nextAttemptAt(LocalDateTime.now())
+                .build();
+        Vote vote = Vote.builder()
+                .id(VOTE_ID)
+                .votacion(Votacion.builder().id(VOTACION_ID).build())
+                .user(User.builder().id(USER_ID).build())
+                .build();
+
+        when(blockchainService.isContractLoaded()).thenReturn(true);
+        when(blockchainService.getAnchoringMode()).thenReturn(AnchoringMode.PER_VOTE);
+        when(outboxRepository.findDue(eq(OutboxStatus.PENDING), any(LocalDateTime.class), any(Pageable.class)))
+                .thenReturn(List.of(entry));
+        when(outboxService.claim(ENTRY_ID)).thenReturn(true);
+        when(voteRepository.findForRegistrationById(VOTE_ID)).thenReturn(Optional.of(vote));
+    }
+
+    @Test
+    void firstAttemptSubmitsWithoutQueryingTheChain() {
+        when(blockchainService.registerVote(any(Vote.class))).thenReturn(pending("0xabc"));
+
+        dispatcher.dispatch();
+
+        verify(blockchainService).registerVote(any(Vote.class));
+        verify(outboxService).markSubmitted(ENTRY_ID, "0xabc");
+        verify(blockchainService, never()).hasUserVoted(anyLong(), anyLong());
+        verify(blockchainService, never()).findTransactionReceipt(any());
+    }
+
+    @Test
+    void retryCompletesFromStoredReceiptInsteadOfResubmitting() {
+        entry.setAttempts(1);
+        entry.setTransactionHash("0xabc");
+        TransactionReceipt receipt = new TransactionReceipt();
+        receipt.setTransactionHash("0xabc");
+        receipt.setStatus("0x1");
+        when(blockchainService.findTransactionReceipt("0xabc")).thenReturn(Optional.of(receipt));
+
+        dispatcher.dispatch();
+
+        verify(outboxService).markCompleted(ENTRY_ID, receipt);
+        verify(blockchainService, never()).registerVote(any(Vote.class));
+        verify(outboxService, never()).markAttemptFailed(anyLong(), any());
+    }
+
+    @Test
+    void retryCompletesWhenContractAlreadyHasTheVote() {
+        entry.setAttempts(2);
+        when(blockchainService.hasUserVoted(VOTACION_ID, USER_ID)).thenReturn(true);
+
+        dispatcher.dispatch();
+
+        verify(outboxService).markCompleted(eq(ENTRY_ID), isNull());
+        verify(blockchainService, never()).registerVote(any(Vote.class));
+    }
+
+    @Test
+    void retryResubmitsWhenTheVoteIsNotOnChain() {
+        entry.setAttempts(1);
+        entry.setTransactionHash("0xabc");
+        when(blockchainService.findTransactionReceipt("0xabc")).thenReturn(Optional.empty());
+        when(blockchainService.hasUserVoted(VOTACION_ID, USER_ID)).thenReturn(false);
+        when(blockchainService.registerVote(any(Vote.class))).thenReturn(pending("0xdef"));
+
+        dispatcher.dispatch();
+
+        verify(blockchainService).registerVote(any(Vote.class));
+        verify(outboxService).markSubmitted(ENTRY_ID, "0xdef");
+        verify(outboxService, never()).markCompleted(anyLong(), any());
+    }
+
+    @Test
+    void revertedReceiptDoesNotCountAsLanded() {
+        entry.setAttempts(1);
+        entry.setTransactionHash("0xabc");
+        TransactionReceipt reverted = new TransactionReceipt();
+        reverted.setStatus("0x0");
+        when(blockchainService.findTransactionReceipt("0xabc")).thenReturn(Optional.of(reverted));
+        when(blockchainService.registerVote(any(Vote.class))).thenReturn(pending("0xdef"));
+
+        dispatcher.dispatch();
+
+        verify(blockchainService).registerVote(any(Vote.class));
+        verify(outboxService, never()).markCompleted(anyLong(), any());
+    }
+
+    private static SubmittedTransaction<TransactionReceipt> pending(String transactionHash) {
+        return new SubmittedTransaction<>(CompletableFuture.completedFuture(transactionHash), new CompletableFuture<>());
+    }
+}
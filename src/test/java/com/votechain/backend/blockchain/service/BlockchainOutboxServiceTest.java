@@ -0,0 +1,140 @@
+package com.votechain.backend.blockchain.service;
+
+import com.votechain.backend.auth.model.User;
+import com.votechain.backend.blockchain.model.BlockchainOutboxEntry;
+import com.votechain.backend.blockchain.model.OutboxStatus;
+import com.votechain.backend.blockchain.repository.BlockchainOutboxRepository;
+import com.votechain.backend.common.logging.SystemLogService;
+import com.votechain.backend.vote.model.Vote;
+import com.votechain.backend.vote.model.VoteStatus;
+import com.votechain.backend.vote.repository.VoteRepository;
+import jakarta.persistence.EntityNotFoundException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.concurrent.CompletionException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+/**
+ * Transiciones del outbox: hash del envío, backoff entre intentos y abandono tras el máximo
+ */
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class BlockchainOutboxServiceTest {
+
+    private static final Long ENTRY_ID = 1L;
+    private static final Long VOTE_ID = 10L;
+
+    @Mock
+    private BlockchainOutboxRepository outboxRepository;
+
+    @Mock
+    private VoteRepository voteRepository;
+
+    @Mock
+    private SystemLogService systemLogService;
+
+    @InjectMocks
+    private BlockchainOutboxService outboxService;
+
+    private BlockchainOutboxEntry entry;
+    private Vote vote;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(outboxService, "maxAttempts", 3);
+        ReflectionTestUtils.setField(outboxService, "initialBackoffMs", 1000L);
+        ReflectionTestUtils.setField(outboxService, "maxBackoffMs", 4000L);
+
+        entry = BlockchainOutboxEntry.builder()
+                .id(ENTRY_ID)
+                .voteId(VOTE_ID)
+                .votacionId(7L)
+                .status(OutboxStatus.IN_FLIGHT)
+                .nextAttemptAt(LocalDateTime.now())
+                .updatedAt(LocalDateTime.now().minusMinutes(10))
+                .build();
+        vote = new Vote();
+        vote.setId(VOTE_ID);
+        vote.setUser(User.builder().id(42L).build());
+        vote.setStatus(VoteStatus.PENDING);
+
+        when(outboxRepository.findById(ENTRY_ID)).thenReturn(Optional.of(entry));
+        when(voteRepository.findById(VOTE_ID)).thenReturn(Optional.of(vote));
+        when(outboxRepository.save(any(BlockchainOutboxEntry.class))).thenAnswer(invocation -> invocation.getArgument(0));
+    }
+
+    @Test
+    void markSubmittedStoresHashAndRefreshesInFlightClock() {
+        LocalDateTime before = LocalDateTime.now();
+
+        outboxService.markSubmitted(ENTRY_ID, "0xabc");
+
+        assertThat(entry.getTransactionHash()).isEqualTo("0xabc");
+        assertThat(entry.getUpdatedAt()).isAfterOrEqualTo(before);
+        assertThat(vote.getBlockchainTransactionHash()).isEqualTo("0xabc");
+        assertThat(vote.getStatus()).isEqualTo(VoteStatus.PROCESSING);
+    }
+
+    @Test
+    void failedAttemptIsRescheduledWithBackoff() {
+        LocalDateTime before = LocalDateTime.now();
+
+        outboxService.markAttemptFailed(ENTRY_ID, new CompletionException(new RuntimeException("nonce too low")));
+
+        assertThat(entry.getStatus()).isEqualTo(OutboxStatus.PENDING);
+        assertThat(entry.getAttempts()).isEqualTo(1);
+        assertThat(entry.getLastError()).isEqualTo("nonce too low");
+        assertThat(entry.getNextAttemptAt()).isAfterOrEqualTo(before.plusSeconds(1));
+        assertThat(vote.getStatus()).isEqualTo(VoteStatus.PENDING);
+    }
+
+    @Test
+    void lastAttemptGivesUpAndRejectsTheVote() {
+        entry.setAttempts(2);
+
+        outboxService.markAttemptFailed(ENTRY_ID, new RuntimeException("execution reverted"));
+
+        assertThat(entry.getStatus()).isEqualTo(OutboxStatus.FAILED);
+        assertThat(entry.getAttempts()).isEqualTo(3);
+        assertThat(vote.getStatus()).isEqualTo(VoteStatus.REJECTED);
+    }
+
+    @Test
+    void missingVoteFailsImmediately() {
+        outboxService.markAttemptFailed(ENTRY_ID, new EntityNotFoundException("Vote not found with id: " + VOTE_ID));
+
+        assertThat(entry.getStatus()).isEqualTo(OutboxStatus.FAILED);
+    }
+
+    @Test
+    void completingWithoutReceiptKeepsTheSubmittedHash() {
+        entry.setTransactionHash("0xabc");
+
+        outboxService.markCompleted(ENTRY_ID, null);
+
+        assertThat(entry.getStatus()).isEqualTo(OutboxStatus.COMPLETED);
+        assertThat(vote.getStatus()).isEqualTo(VoteStatus.CONFIRMED);
+        assertThat(vote.getBlockchainTransactionHash()).isEqualTo("0xabc");
+        assertThat(vote.isBlockchainVerified()).isTrue();
+    }
+
+    @Test
+    void backoffIsExponentialAndCapped() {
+        assertThat(outboxService.backoffDelayMs(1)).isBetween(1000L, 1200L);
+        assertThat(outboxService.backoffDelayMs(2)).isBetween(2000L, 2400L);
+        assertThat(outboxService.backoffDelayMs(10)).isBetween(4000L, 4800L);
+    }
+}
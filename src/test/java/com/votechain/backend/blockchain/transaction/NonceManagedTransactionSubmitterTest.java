@@ -0,0 +1,213 @@
+package com.votechain.backend.blockchain.transaction;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.web3j.crypto.Credentials;
+import org.web3j.crypto.TransactionDecoder;
+import org.web3j.protocol.Web3j;
+import org.web3j.protocol.core.DefaultBlockParameter;
+import org.web3j.protocol.core.Request;
+import org.web3j.protocol.core.Response;
+import org.web3j.protocol.core.methods.response.EthGetTransactionCount;
+import org.web3j.protocol.core.methods.response.EthSendTransaction;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.mockingDetails;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Gestor de nonces: asignación local consecutiva, reenvío tras error de red, renumeración tras "nonce too low"
+ * y fallo de la transacción si el nodo la rechaza o el pool de firma está saturado
+ */
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class NonceManagedTransactionSubmitterTest {
+
+    private static final Credentials WALLET =
+            Credentials.create("0x0000000000000000000000000000000000000000000000000000000000000001");
+    private static final BigInteger GAS_PRICE = BigInteger.valueOf(1_000_000_000L);
+    private static final BigInteger GAS_LIMIT = BigInteger.valueOf(200_000L);
+
+    @Mock
+    private Web3j web3j;
+
+    @Mock
+    private TransactionReceiptTracker receiptTracker;
+
+    @Mock
+    private Request<?, EthGetTransactionCount> nonceRequest;
+
+    // Respuestas del nodo a cada envío en orden; vacía = aceptado
+    private final Deque<Object> sendResponses = new ArrayDeque<>();
+    // Nonce de cada transacción firmada que llega al nodo, en orden de envío
+    private final List<BigInteger> sentNonces = new CopyOnWriteArrayList<>();
+
+    private NonceManagerSettings settings;
+    private NonceManagedTransactionSubmitter submitter;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        doReturn(nonceRequest).when(web3j).ethGetTransactionCount(anyString(), any(DefaultBlockParameter.class));
+        chainNonce(5);
+        doAnswer(invocation -> sendRequest(invocation.getArgument(0))).when(web3j).ethSendRawTransaction(anyString());
+
+        settings = NonceManagerSettings.builder()
+                .stuckAfter(Duration.ofMinutes(5))
+                .receiptTimeout(Duration.ofMinutes(30))
+                .gasBumpPercent(15)
+                .maxReplacements(3)
+                .maxGasPrice(null)
+                .build();
+        submitter = new NonceManagedTransactionSubmitter(web3j, WALLET, 1337, Runnable::run, settings, receiptTracker);
+    }
+
+    @AfterEach
+    void tearDown() {
+        submitter.shutdown();
+    }
+
+    @Test
+    void noncesAreAllocatedLocallyAfterOneChainQuery() throws IOException {
+        submit();
+        submit();
+        submit();
+
+        awaitUntil(() -> sentNonces.size() == 3);
+        assertThat(sentNonces).containsExactly(BigInteger.valueOf(5), BigInteger.valueOf(6), BigInteger.valueOf(7));
+        verify(nonceRequest, times(1)).send();
+        assertThat(submitter.getPendingCount()).isEqualTo(3);
+    }
+
+    @Test
+    void networkErrorKeepsTheNonceAndResendsOnCheck() {
+        sendResponses.add(new IOException("connection reset"));
+
+        submit();
+        awaitUntil(() -> sentNonces.size() == 1);
+
+        submitter.checkPending();
+
+        awaitUntil(() -> sentNonces.size() == 2);
+        assertThat(sentNonces).containsExactly(BigInteger.valueOf(5), BigInteger.valueOf(5));
+        assertThat(submitter.getPendingCount()).isEqualTo(1);
+    }
+
+    @Test
+    void nonceTooLowRenumbersFromTheChainNonce() throws IOException {
+        sendResponses.add("nonce too low");
+
+        submit();
+        awaitUntil(() -> sentNonces.size() == 1);
+
+        // Otro proceso usó los nonces 5 y 6
+        chainNonce(7);
+        submitter.checkPending();
+        awaitUntil(() -> sentNonces.size() == 2);
+
+        // La siguiente sigue la secuencia resincronizada
+        submit();
+        awaitUntil(() -> sentNonces.size() == 3);
+        assertThat(sentNonces).containsExactly(BigInteger.valueOf(5), BigInteger.valueOf(7), BigInteger.valueOf(8));
+    }
+
+    @Test
+    void rejectedTransactionFailsAndLeavesThePendingSet() {
+        sendResponses.add("insufficient funds for gas * price + value");
+
+        PendingTransaction tx = submit();
+
+        awaitUntil(() -> tx.getReceipt().isDone());
+        assertThat(tx.getReceipt()).isCompletedExceptionally();
+        awaitUntil(() -> submitter.getPendingCount() == 0);
+    }
+
+    @Test
+    void saturatedSigningPoolFailsTheTransactionAndFreesItsNonce() {
+        AtomicBoolean saturated = new AtomicBoolean(true);
+        submitter.shutdown();
+        submitter = new NonceManagedTransactionSubmitter(web3j, WALLET, 1337, task -> {
+            if (saturated.get()) {
+                throw new RejectedExecutionException("signing queue full");
+            }
+            task.run();
+        }, settings, receiptTracker);
+
+        PendingTransaction rejected = submit();
+        assertThat(rejected.getReceipt()).isCompletedExceptionally();
+        assertThat(submitter.getPendingCount()).isZero();
+
+        // La revisión cierra el hueco: el nonce 5 se reutiliza
+        saturated.set(false);
+        submitter.checkPending();
+        // La resincronización consulta la red con el lock de nonces tomado: el siguiente envío espera a que termine
+        awaitUntil(() -> mockingDetails(nonceRequest).getInvocations().size() == 2);
+        submit();
+        awaitUntil(() -> sentNonces.size() == 1);
+        assertThat(sentNonces).containsExactly(BigInteger.valueOf(5));
+    }
+
+    private PendingTransaction submit() {
+        return submitter.submit("0x00000000000000000000000000000000000000c0", "0x", GAS_PRICE, GAS_LIMIT);
+    }
+
+    private Request<?, EthSendTransaction> sendRequest(String signedHex) throws IOException {
+        Request<?, EthSendTransaction> request = mock(Request.class);
+        doAnswer(invocation -> {
+            sentNonces.add(TransactionDecoder.decode(signedHex).getNonce());
+            Object next;
+            synchronized (sendResponses) {
+                next = sendResponses.poll();
+            }
+            if (next instanceof IOException e) {
+                throw e;
+            }
+            EthSendTransaction response = new EthSendTransaction();
+            if (next instanceof String error) {
+                response.setError(new Response.Error(-32000, error));
+            } else {
+                response.setResult("0xhash");
+            }
+            return response;
+        }).when(request).send();
+        return request;
+    }
+
+    private void chainNonce(long nonce) throws IOException {
+        EthGetTransactionCount count = new EthGetTransactionCount();
+        count.setResult("0x" + Long.toHexString(nonce));
+        doReturn(count).when(nonceRequest).send();
+    }
+
+    private static void awaitUntil(BooleanSupplier condition) {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(2);
+        while (!condition.getAsBoolean()) {
+            assertThat(System.nanoTime()).as("condition not met in time").isLessThan(deadline);
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(5));
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package com.votechain.backend.blockchain.transaction;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.web3j.protocol.Web3j;
+import org.web3j.protocol.core.DefaultBlockParameter;
+import org.web3j.protocol.core.Request;
+import org.web3j.protocol.core.methods.response.EthGetBalance;
+import org.web3j.protocol.core.methods.response.EthGetTransactionCount;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Salud de las wallets firmantes: una wallet excluida por fallos solo vuelve tras su espera y si responde la
+ * consulta de nonce, y vuelve a prueba
+ */
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class SignerWalletPoolTest {
+
+    private static final String ADDRESS = "0x00000000000000000000000000000000000000a1";
+    private static final int MAX_FAILURES = 3;
+
+    @Mock
+    private Web3j web3j;
+
+    @Mock
+    private NonceManagedTransactionSubmitter submitter;
+
+    @Mock
+    private Request<?, EthGetTransactionCount> nonceRequest;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        when(submitter.getAddress()).thenReturn(ADDRESS);
+        when(submitter.submit(any(), any(), any(), any()))
+                .thenAnswer(invocation -> PendingTransaction.failed(new IOException("node down")));
+
+        EthGetBalance balance = new EthGetBalance();
+        balance.setResult("0xde0b6b3a7640000");
+        Request<?, EthGetBalance> balanceRequest = mock(Request.class);
+        when(balanceRequest.send()).thenReturn(balance);
+        doReturn(balanceRequest).when(web3j).ethGetBalance(anyString(), any(DefaultBlockParameter.class));
+        doReturn(nonceRequest).when(web3j).ethGetTransactionCount(anyString(), any(DefaultBlockParameter.class));
+    }
+
+    @Test
+    void excludedWalletIsNotReenabledBeforeItsBackoff() throws IOException {
+        SignerWalletPool pool = pool(Duration.ofHours(1));
+        failRepeatedly(pool, MAX_FAILURES);
+        assertThat(healthy(pool)).isFalse();
+        nonceRespondsWith("0x5");
+
+        pool.refreshHealth();
+
+        assertThat(healthy(pool)).isFalse();
+        assertThat(pool.getWalletStatus().get(0).get("excludedUntil")).isNotNull();
+    }
+
+    @Test
+    void excludedWalletIsReenabledOnlyAfterNonceProbeAndOnProbation() throws IOException {
+        SignerWalletPool pool = pool(Duration.ZERO);
+        failRepeatedly(pool, MAX_FAILURES);
+
+        doThrow(new IOException("node down")).when(nonceRequest).send();
+        pool.refreshHealth();
+        assertThat(healthy(pool)).isFalse();
+
+        nonceRespondsWith("0x5");
+        pool.refreshHealth();
+        assertThat(healthy(pool)).isTrue();
+
+        // A prueba: basta un fallo para volver a excluirla
+        failRepeatedly(pool, 1);
+        assertThat(healthy(pool)).isFalse();
+    }
+
+    private SignerWalletPool pool(Duration backoff) {
+        return new SignerWalletPool(web3j, List.of(submitter), mock(ExecutorService.class),
+                WalletRoutingStrategy.ROUND_ROBIN, BigInteger.ONE, MAX_FAILURES, backoff, Duration.ofHours(2),
+                Duration.ofSeconds(30), new SimpleMeterRegistry());
+    }
+
+    private void failRepeatedly(SignerWalletPool pool, int times) {
+        for (int i = 0; i < times; i++) {
+            pool.submit("0xto", "0x", BigInteger.ONE, BigInteger.ONE);
+        }
+    }
+
+    private void nonceRespondsWith(String nonce) throws IOException {
+        EthGetTransactionCount count = new EthGetTransactionCount();
+        count.setResult(nonce);
+        doReturn(count).when(nonceRequest).send();
+    }
+
+    private static boolean healthy(SignerWalletPool pool) {
+        return (Boolean) pool.getWalletStatus().get(0).get("healthy");
+    }
+}
@@ -0,0 +1,166 @@
+package com.votechain.backend.dashboard.service;
+
+import com.votechain.backend.auth.model.User;
+import com.votechain.backend.auth.model.UserRole;
+import com.votechain.backend.auth.service.UserActivitySummaryService;
+import com.votechain.backend.vote.model.Vote;
+import com.votechain.backend.vote.service.VoteTallyRegistry;
+import com.votechain.backend.voting.model.Votacion;
+import com.votechain.backend.voting.model.VotacionCategoria;
+import com.votechain.backend.voting.model.VotacionChangeListener;
+import com.votechain.backend.voting.model.VotacionEstado;
+import com.votechain.backend.voting.model.VotacionOpcion;
+import com.votechain.backend.voting.service.VotacionSnapshotCache;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Sentencias SQL de cada endpoint del dashboard: un número fijo y pequeño, igual con pocas o muchas filas
+ */
+@Slf4j
+// Secciones en secuencia: los hilos del pool no ven los datos sin confirmar de la transacción del test
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "dashboard.sections.threads=0"
+})
+@ImportAutoConfiguration({JacksonAutoConfiguration.class, TaskExecutionAutoConfiguration.class})
+@Import({DashboardStatsService.class, UserActivitySummaryService.class, VotacionSnapshotCache.class,
+        VoteTallyRegistry.class, VotacionChangeListener.class})
+class DashboardStatsQueryCountTest {
+
+    private static final long MAX_SYSTEM_STATS_STATEMENTS = 25;
+    private static final long MAX_USER_STATS_STATEMENTS = 8;
+    private static final long MAX_PUBLIC_STATS_STATEMENTS = 8;
+
+    @Autowired
+    private DashboardStatsService dashboardStatsService;
+
+    @Autowired
+    private UserActivitySummaryService userActivitySummaryService;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private final List<User> users = new ArrayList<>();
+    private User creador;
+    private int userCount;
+
+    @Test
+    void statementCountDoesNotGrowWithTableSize() {
+        creador = persistUser();
+        seed(3, 4);
+        long systemSmall = countStatements(() -> dashboardStatsService.getSystemStats());
+        long userSmall = countStatements(() -> dashboardStatsService.getUserStats(creador.getId()));
+        long publicSmall = countStatements(() -> dashboardStatsService.getPublicStats());
+
+        seed(30, 40);
+        long systemLarge = countStatements(() -> dashboardStatsService.getSystemStats());
+        long userLarge = countStatements(() -> dashboardStatsService.getUserStats(creador.getId()));
+        long publicLarge = countStatements(() -> dashboardStatsService.getPublicStats());
+
+        log.info("Sentencias del dashboard (pocas / muchas filas): stats {} / {}, mis-stats {} / {}, public-stats {} / {}",
+                systemSmall, systemLarge, userSmall, userLarge, publicSmall, publicLarge);
+
+        assertThat(systemLarge).isEqualTo(systemSmall).isLessThanOrEqualTo(MAX_SYSTEM_STATS_STATEMENTS);
+        assertThat(userLarge).isEqualTo(userSmall).isLessThanOrEqualTo(MAX_USER_STATS_STATEMENTS);
+        assertThat(publicLarge).isEqualTo(publicSmall).isLessThanOrEqualTo(MAX_PUBLIC_STATS_STATEMENTS);
+    }
+
+    @Test
+    void aggregatesMatchSeededData() {
+        creador = persistUser();
+        seed(3, 4);
+
+        Map<String, Object> stats = dashboardStatsService.getSystemStats();
+
+        @SuppressWarnings("unchecked")
+        Map<String, Object> basic = (Map<String, Object>) stats.get("estadisticasBasicas");
+        assertThat(basic.get("totalVotaciones")).isEqualTo(3L);
+        assertThat(basic.get("votacionesActivas")).isEqualTo(3L);
+        assertThat(basic.get("totalVotos")).isEqualTo(12L);
+
+        @SuppressWarnings("unchecked")
+        List<Map<String, Object>> top = (List<Map<String, Object>>) stats.get("topVotaciones");
+        assertThat(top).hasSize(3).allSatisfy(votacion -> assertThat(votacion.get("totalVotos")).isEqualTo(4L));
+
+        @SuppressWarnings("unchecked")
+        Map<String, Object> userBasic = (Map<String, Object>) dashboardStatsService.getUserStats(creador.getId())
+                .get("estadisticasBasicas");
+        assertThat(userBasic.get("votacionesCreadas")).isEqualTo(3L);
+        assertThat(userBasic.get("votacionesActivasCreadas")).isEqualTo(3L);
+    }
+
+    private long countStatements(Supplier<Map<String, Object>> call) {
+        entityManager.flush();
+        entityManager.clear();
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        assertThat(call.get()).isNotEmpty();
+        return statistics.getPrepareStatementCount();
+    }
+
+    /**
+     * Votaciones abiertas del mismo creador, cada una con dos opciones y votosPorVotacion votos
+     */
+    private void seed(int votaciones, int votosPorVotacion) {
+        while (users.size() < votosPorVotacion) {
+            users.add(persistUser());
+        }
+        for (int i = 0; i < votaciones; i++) {
+            Votacion votacion = entityManager.persist(Votacion.builder()
+                    .titulo("Votación " + i)
+                    .categoria(VotacionCategoria.values()[i % VotacionCategoria.values().length])
+                    .estado(VotacionEstado.ABIERTA)
+                    .fechaInicio(LocalDateTime.now().minusDays(1))
+                    .fechaFin(LocalDateTime.now().plusDays(1))
+                    .creador(creador)
+                    .build());
+            VotacionOpcion si = entityManager.persist(VotacionOpcion.builder().titulo("Sí").orden(1).votacion(votacion).build());
+            VotacionOpcion no = entityManager.persist(VotacionOpcion.builder().titulo("No").orden(2).votacion(votacion).build());
+            for (int v = 0; v < votosPorVotacion; v++) {
+                entityManager.persist(Vote.builder()
+                        .user(users.get(v))
+                        .votacion(votacion)
+                        .opcionSeleccionada(v % 2 == 0 ? si : no)
+                        .voteHash(votacion.getId() + "-" + v)
+                        .build());
+            }
+        }
+        // Sin commit no hay eventos: el resumen de actividad del creador se reconstruye a mano
+        entityManager.flush();
+        userActivitySummaryService.rebuild(creador.getId());
+    }
+
+    private User persistUser() {
+        int i = ++userCount;
+        return entityManager.persist(User.builder()
+                .dni(String.format("%08d", i))
+                .firstName("Usuario")
+                .lastName("N" + i)
+                .email("usuario" + i + "@votechain.test")
+                .password("secret")
+                .role(UserRole.ROLE_USER)
+                .build());
+    }
+}
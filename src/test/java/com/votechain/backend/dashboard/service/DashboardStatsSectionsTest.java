@@ -0,0 +1,46 @@
+package com.votechain.backend.dashboard.service;
+
+import com.votechain.backend.auth.service.UserActivitySummaryService;
+import com.votechain.backend.vote.service.VoteTallyRegistry;
+import com.votechain.backend.voting.model.VotacionChangeListener;
+import com.votechain.backend.voting.service.VotacionSnapshotCache;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Secciones de /dashboard/stats en el pool: cada una en su transacción de solo lectura con timeout
+ */
+@DataJpaTest(properties = {
+        "dashboard.sections.threads=2",
+        "dashboard.sections.timeout-ms=3000"
+})
+@ImportAutoConfiguration({JacksonAutoConfiguration.class, TaskExecutionAutoConfiguration.class})
+@Import({DashboardStatsService.class, UserActivitySummaryService.class, VotacionSnapshotCache.class,
+        VoteTallyRegistry.class, VotacionChangeListener.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class DashboardStatsSectionsTest {
+
+    @Autowired
+    private DashboardStatsService dashboardStatsService;
+
+    @Test
+    void everySectionCompletesWithinItsTransactionTimeout() {
+        Map<String, Object> stats = dashboardStatsService.getSystemStats();
+
+        assertThat((Map<?, ?>) stats.get(DashboardStatsService.SECTION_STATUS_KEY))
+                .isNotEmpty()
+                .allSatisfy((section, status) -> assertThat(status).isEqualTo(DashboardStatsService.SECTION_OK));
+        assertThat(stats.get(DashboardStatsService.COMPLETE_KEY)).isEqualTo(true);
+    }
+}
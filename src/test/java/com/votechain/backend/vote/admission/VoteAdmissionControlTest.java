@@ -0,0 +1,173 @@
+package com.votechain.backend.vote.admission;
+
+import com.votechain.backend.blockchain.model.OutboxStatus;
+import com.votechain.backend.blockchain.repository.BlockchainOutboxRepository;
+import com.votechain.backend.blockchain.transaction.TransactionReceiptTracker;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Admisión de votos: modo según el backlog de blockchain, 429 con el pool de BD saturado o demasiados votos
+ * en curso, el permiso se devuelve al cerrar la admisión y una muestra caducada no aplica su modo
+ */
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class VoteAdmissionControlTest {
+
+    @Mock
+    private BlockchainOutboxRepository outboxRepository;
+
+    @Mock
+    private TransactionReceiptTracker receiptTracker;
+
+    @Mock
+    private DataSource dataSource;
+
+    @Spy
+    private SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @InjectMocks
+    private VoteAdmissionControl admissionControl;
+
+    private final HikariPoolMXBean hikariPool = mock(HikariPoolMXBean.class);
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        HikariDataSource hikari = mock(HikariDataSource.class);
+        when(hikari.getHikariPoolMXBean()).thenReturn(hikariPool);
+        when(dataSource.isWrapperFor(HikariDataSource.class)).thenReturn(true);
+        when(dataSource.unwrap(HikariDataSource.class)).thenReturn(hikari);
+
+        ReflectionTestUtils.setField(admissionControl, "enabled", true);
+        ReflectionTestUtils.setField(admissionControl, "deferAnchoringBacklog", 100L);
+        ReflectionTestUtils.setField(admissionControl, "shedBacklog", 1000L);
+        ReflectionTestUtils.setField(admissionControl, "maxThreadsAwaitingConnection", 5);
+        ReflectionTestUtils.setField(admissionControl, "maxConcurrentCasts", 2);
+        ReflectionTestUtils.setField(admissionControl, "backlogRetryAfterSeconds", 10L);
+        ReflectionTestUtils.setField(admissionControl, "overloadRetryAfterSeconds", 1L);
+        ReflectionTestUtils.setField(admissionControl, "sampleIntervalMs", 1000L);
+        ReflectionTestUtils.setField(admissionControl, "staleAfterIntervals", 5);
+        admissionControl.init();
+    }
+
+    @Test
+    void modeFollowsBlockchainBacklog() {
+        backlog(10, 5);
+        try (VoteAdmissionControl.Admission admission = admissionControl.admit()) {
+            assertThat(admission.isDeferAnchoring()).isFalse();
+        }
+
+        backlog(80, 30);
+        assertThat(admissionControl.getBlockchainBacklog()).isEqualTo(110);
+        try (VoteAdmissionControl.Admission admission = admissionControl.admit()) {
+            assertThat(admission.isDeferAnchoring()).isTrue();
+        }
+
+        backlog(900, 200);
+        assertThatThrownBy(admissionControl::admit)
+                .isInstanceOfSatisfying(VoteAdmissionRejectedException.class, e -> {
+                    assertThat(e.getStatus()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+                    assertThat(e.getRetryAfterSeconds()).isEqualTo(10L);
+                });
+
+        backlog(0, 0);
+        assertThat(admissionControl.admit().isDeferAnchoring()).isFalse();
+    }
+
+    @Test
+    void concurrentCastsAreLimitedAndPermitsReturnOnClose() {
+        VoteAdmissionControl.Admission first = admissionControl.admit();
+        VoteAdmissionControl.Admission second = admissionControl.admit();
+
+        assertThatThrownBy(admissionControl::admit)
+                .isInstanceOfSatisfying(VoteAdmissionRejectedException.class, e -> {
+                    assertThat(e.getStatus()).isEqualTo(HttpStatus.TOO_MANY_REQUESTS);
+                    assertThat(e.getRetryAfterSeconds()).isEqualTo(1L);
+                });
+
+        first.close();
+        admissionControl.admit().close();
+        second.close();
+        assertThat(meterRegistry.counter("votechain.votes.admission.rejected", "reason", "concurrency").count())
+                .isEqualTo(1.0);
+    }
+
+    @Test
+    void saturatedConnectionPoolIsRejectedWithoutTakingAPermit() {
+        when(hikariPool.getThreadsAwaitingConnection()).thenReturn(6);
+
+        assertThatThrownBy(admissionControl::admit)
+                .isInstanceOfSatisfying(VoteAdmissionRejectedException.class,
+                        e -> assertThat(e.getStatus()).isEqualTo(HttpStatus.TOO_MANY_REQUESTS));
+        assertThat(admissionControl.getStatus()).containsEntry("castsInFlight", 0);
+
+        when(hikariPool.getThreadsAwaitingConnection()).thenReturn(5);
+        admissionControl.admit().close();
+    }
+
+    @Test
+    void disabledControlAdmitsEverything() {
+        ReflectionTestUtils.setField(admissionControl, "enabled", false);
+        backlog(5000, 0);
+        when(hikariPool.getThreadsAwaitingConnection()).thenReturn(100);
+
+        for (int i = 0; i < 5; i++) {
+            assertThat(admissionControl.admit().isDeferAnchoring()).isFalse();
+        }
+    }
+
+    @Test
+    void staleSampleFallsBackToNormal() {
+        backlog(900, 200);
+        assertThatThrownBy(admissionControl::admit).isInstanceOf(VoteAdmissionRejectedException.class);
+
+        // El sampler deja de avanzar durante más de cinco intervalos
+        ReflectionTestUtils.setField(admissionControl, "sampledAtNanos", System.nanoTime() - TimeUnit.SECONDS.toNanos(6));
+
+        assertThat(admissionControl.admit().isDeferAnchoring()).isFalse();
+        assertThat(admissionControl.getStatus())
+                .containsEntry("mode", VoteAdmissionControl.Mode.NORMAL)
+                .containsEntry("sampledMode", VoteAdmissionControl.Mode.SHEDDING);
+        assertThat((Long) admissionControl.getStatus().get("sampleAgeMs")).isGreaterThanOrEqualTo(6000L);
+    }
+
+    @Test
+    void failedSampleDoesNotRefreshTheSampleTime() {
+        backlog(900, 200);
+        ReflectionTestUtils.setField(admissionControl, "sampledAtNanos", System.nanoTime() - TimeUnit.SECONDS.toNanos(6));
+        when(outboxRepository.countByStatus(OutboxStatus.PENDING)).thenThrow(new IllegalStateException("db down"));
+
+        admissionControl.sample();
+
+        assertThat(admissionControl.getSampleAgeMs()).isGreaterThanOrEqualTo(6000L);
+        assertThat(admissionControl.currentMode()).isEqualTo(VoteAdmissionControl.Mode.NORMAL);
+    }
+
+    private void backlog(long outbox, int unconfirmed) {
+        when(outboxRepository.countByStatus(OutboxStatus.PENDING)).thenReturn(outbox);
+        when(outboxRepository.countByStatus(OutboxStatus.IN_FLIGHT)).thenReturn(0L);
+        when(receiptTracker.getTrackedCount()).thenReturn(unconfirmed);
+        admissionControl.sample();
+    }
+}
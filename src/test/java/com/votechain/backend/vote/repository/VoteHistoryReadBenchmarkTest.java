@@ -0,0 +1,178 @@
+package com.votechain.backend.vote.repository;
+
+import com.votechain.backend.auth.model.User;
+import com.votechain.backend.auth.model.UserRole;
+import com.votechain.backend.vote.dto.VoteHistoryRow;
+import com.votechain.backend.vote.model.Vote;
+import com.votechain.backend.vote.model.VoteStatus;
+import com.votechain.backend.voting.model.Votacion;
+import com.votechain.backend.voting.model.VotacionEstado;
+import com.votechain.backend.voting.model.VotacionOpcion;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import java.lang.management.ManagementFactory;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.IntFunction;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Historial de votos de un usuario leído como entidades (Vote más su User, Votacion y opción) frente a la
+ * proyección VoteHistoryRow: filas por segundo, bytes asignados por fila y sentencias SQL.
+ * Se ejecuta con mvn test -Pbenchmark
+ */
+@Slf4j
+@Tag("benchmark")
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class VoteHistoryReadBenchmarkTest {
+
+    private static final int VOTES = 500;
+    private static final int PAGE_SIZE = 50;
+    private static final int WARMUP_ITERATIONS = 5;
+    private static final int MEASURED_ITERATIONS = 20;
+
+    @Autowired
+    private VoteRepository voteRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Long voterId;
+
+    @BeforeEach
+    void setUp() {
+        User creador = entityManager.persist(user(0));
+        User voter = entityManager.persist(user(1));
+        voterId = voter.getId();
+
+        for (int i = 0; i < VOTES; i++) {
+            Votacion votacion = entityManager.persist(Votacion.builder()
+                    .titulo("Votación " + i)
+                    .descripcion("Descripción larga de la votación " + i)
+                    .estado(VotacionEstado.ABIERTA)
+                    .fechaInicio(LocalDateTime.now().minusDays(1))
+                    .fechaFin(LocalDateTime.now().plusDays(1))
+                    .creador(creador)
+                    .build());
+            VotacionOpcion opcion = entityManager.persist(
+                    VotacionOpcion.builder().titulo("Sí").orden(1).votacion(votacion).build());
+            entityManager.persist(VotacionOpcion.builder().titulo("No").orden(2).votacion(votacion).build());
+            entityManager.persist(Vote.builder()
+                    .user(voter)
+                    .votacion(votacion)
+                    .opcionSeleccionada(opcion)
+                    .voteHash("hash-" + i)
+                    .blockchainMetadata("{\"tx\":\"" + "0".repeat(512) + "\"}")
+                    .status(VoteStatus.CONFIRMED)
+                    .build());
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void projectionReadsHistoryWithFewerStatementsThanEntities() {
+        Result entities = measure("entidades", page -> voteRepository.findByUserId(voterId,
+                PageRequest.of(page, PAGE_SIZE, Sort.by("createdAt").descending().and(Sort.by("id").descending())))
+                .map(vote -> vote.getId() + vote.getUser().getEmail() + vote.getVotacion().getTitulo()
+                        + vote.getOpcionSeleccionada().getTitulo()));
+        Result projection = measure("proyección", page -> voteRepository.findHistoryRowsByUser(voterId,
+                PageRequest.of(page, PAGE_SIZE))
+                .map(row -> row.getId() + row.getUserEmail() + row.getVotacionTitulo() + row.getOpcionTitulo()));
+
+        assertThat(projection.rows).isEqualTo(entities.rows).isEqualTo((long) VOTES * MEASURED_ITERATIONS);
+        assertThat(projection.statements).isLessThanOrEqualTo(entities.statements);
+    }
+
+    @Test
+    void projectionReturnsTheSameHistoryAsEntities() {
+        List<Long> fromEntities = new ArrayList<>();
+        List<Long> fromProjection = new ArrayList<>();
+        for (int page = 0; page * PAGE_SIZE < VOTES; page++) {
+            voteRepository.findByUserId(voterId, PageRequest.of(page, PAGE_SIZE,
+                    Sort.by("createdAt").descending().and(Sort.by("id").descending())))
+                    .forEach(vote -> fromEntities.add(vote.getId()));
+            voteRepository.findHistoryRowsByUser(voterId, PageRequest.of(page, PAGE_SIZE))
+                    .map(VoteHistoryRow::getId)
+                    .forEach(fromProjection::add);
+        }
+        assertThat(fromProjection).hasSize(VOTES).isEqualTo(fromEntities);
+    }
+
+    private Result measure(String name, IntFunction<Page<String>> readPage) {
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            readAll(readPage);
+        }
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+        long allocatedBefore = threads.getThreadAllocatedBytes(threadId);
+        long start = System.nanoTime();
+
+        long rows = 0;
+        for (int i = 0; i < MEASURED_ITERATIONS; i++) {
+            rows += readAll(readPage);
+        }
+
+        long elapsedNanos = System.nanoTime() - start;
+        long allocated = threads.getThreadAllocatedBytes(threadId) - allocatedBefore;
+        Result result = new Result(rows, statistics.getPrepareStatementCount());
+        log.info("{}: {} filas, {} filas/s, {} bytes asignados por fila, {} sentencias, {} entidades cargadas",
+                name, rows, rows * 1_000_000_000L / Math.max(1, elapsedNanos), allocated / Math.max(1, rows),
+                result.statements, statistics.getEntityLoadCount());
+        return result;
+    }
+
+    private long readAll(IntFunction<Page<String>> readPage) {
+        long rows = 0;
+        Page<String> page;
+        int number = 0;
+        do {
+            // Sin contexto de persistencia previo: cada lectura hidrata como lo haría una petición nueva
+            entityManager.clear();
+            page = readPage.apply(number++);
+            rows += page.getNumberOfElements();
+        } while (page.hasNext());
+        return rows;
+    }
+
+    private static User user(int i) {
+        return User.builder()
+                .dni(String.format("%08d", i))
+                .firstName("Votante")
+                .lastName("N" + i)
+                .email("votante" + i + "@votechain.test")
+                .password("secret")
+                .role(UserRole.ROLE_USER)
+                .build();
+    }
+
+    private static final class Result {
+        private final long rows;
+        private final long statements;
+
+        private Result(long rows, long statements) {
+            this.rows = rows;
+            this.statements = statements;
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.votechain.backend.vote.repository;
+
+import com.votechain.backend.auth.model.User;
+import com.votechain.backend.auth.model.UserRole;
+import com.votechain.backend.vote.model.Vote;
+import com.votechain.backend.vote.model.VoteStatus;
+import com.votechain.backend.voting.model.Votacion;
+import com.votechain.backend.voting.model.VotacionEstado;
+import com.votechain.backend.voting.model.VotacionOpcion;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * INSERT condicional del voto: solo entra si la votación está abierta y el usuario no había votado
+ */
+@DataJpaTest
+class VoteInsertIfOpenTest {
+
+    @Autowired
+    private VoteRepository voteRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    private User voter;
+    private Votacion votacion;
+    private VotacionOpcion opcion;
+
+    @BeforeEach
+    void setUp() {
+        User creador = entityManager.persist(user(0));
+        voter = entityManager.persist(user(1));
+        votacion = entityManager.persist(Votacion.builder()
+                .titulo("Consulta")
+                .estado(VotacionEstado.ABIERTA)
+                .fechaInicio(LocalDateTime.now().minusDays(1))
+                .fechaFin(LocalDateTime.now().plusDays(1))
+                .creador(creador)
+                .build());
+        opcion = entityManager.persist(VotacionOpcion.builder().titulo("Sí").orden(1).votacion(votacion).build());
+        entityManager.flush();
+    }
+
+    @Test
+    void insertsOnceAndSkipsTheDuplicate() {
+        Optional<Long> id = voteRepository.insertIfOpen(vote("hash-1"));
+
+        assertThat(id).isPresent();
+        entityManager.clear();
+        Vote stored = voteRepository.findById(id.get()).orElseThrow();
+        assertThat(stored.getVoteHash()).isEqualTo("hash-1");
+        assertThat(stored.getStatus()).isEqualTo(VoteStatus.PENDING);
+        assertThat(stored.isBlockchainVerified()).isFalse();
+
+        assertThat(voteRepository.insertIfOpen(vote("hash-2"))).isEmpty();
+        assertThat(voteRepository.count()).isEqualTo(1);
+    }
+
+    @Test
+    void doesNotInsertIntoAClosedVotacion() {
+        votacion.setEstado(VotacionEstado.CERRADA);
+        entityManager.flush();
+
+        assertThat(voteRepository.insertIfOpen(vote("hash-1"))).isEmpty();
+        assertThat(voteRepository.count()).isZero();
+    }
+
+    private Vote vote(String hash) {
+        return Vote.builder()
+                .votacion(votacion)
+                .user(voter)
+                .opcionSeleccionada(opcion)
+                .voteHash(hash)
+                .status(VoteStatus.PENDING)
+                .createdAt(LocalDateTime.now())
+                .build();
+    }
+
+    private static User user(int i) {
+        return User.builder()
+                .dni(String.format("%08d", i))
+                .firstName("Votante")
+                .lastName("N" + i)
+                .email("votante" + i + "@votechain.test")
+                .password("secret")
+                .role(UserRole.ROLE_USER)
+                .build();
+    }
+}
@@ -0,0 +1,84 @@
+package com.votechain.backend.vote.service;
+
+import com.votechain.backend.vote.event.VoteCastEvent;
+import com.votechain.backend.vote.repository.VoteRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+
+/**
+ * Siembra de los histogramas: los votos confirmados mientras corre la consulta se fusionan por id
+ */
+@ExtendWith(MockitoExtension.class)
+class VoteActivityRegistryTest {
+
+    private static final Long VOTACION_ID = 7L;
+
+    @Mock
+    private VoteRepository voteRepository;
+
+    @InjectMocks
+    private VoteActivityRegistry registry;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(registry, "minuteWindow", 1440);
+        ReflectionTestUtils.setField(registry, "maxAgeMs", 300_000L);
+        ReflectionTestUtils.setField(registry, "idleEvictMs", 3_600_000L);
+        ReflectionTestUtils.setField(registry, "settleWindowMs", 60_000L);
+    }
+
+    @Test
+    void eventsDuringSeedAreMergedByVoteId() {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime old = now.minusHours(2).truncatedTo(ChronoUnit.MINUTES);
+        when(voteRepository.countVotesByMinuteCreatedBefore(eq(VOTACION_ID), any(LocalDateTime.class)))
+                .thenAnswer(invocation -> {
+                    registry.onVoteCast(event(3L, old));
+                    registry.onVoteCast(event(1L, now.minusSeconds(1)));
+                    registry.onVoteCast(event(2L, now));
+                    return List.<Object[]>of(new Object[]{old.getYear(), old.getMonthValue(), old.getDayOfMonth(),
+                            old.getHour(), old.getMinute(), 4L});
+                });
+        when(voteRepository.findVoteTimesCreatedSince(eq(VOTACION_ID), any(LocalDateTime.class)))
+                .thenReturn(List.<Object[]>of(new Object[]{1L, now.minusSeconds(1)}));
+
+        VoteActivity activity = registry.getActivity(VOTACION_ID);
+
+        // 4 antiguos + el reciente que leyó la consulta + el confirmado después; el 3 y el 1 no se repiten
+        assertThat(activity.getVotesByDay().values().stream().mapToLong(Long::longValue).sum()).isEqualTo(6);
+        assertThat(activity.getVotesSince(now.minusMinutes(2))).isEqualTo(2);
+    }
+
+    @Test
+    void repeatedEventAfterSeedIsNotCountedTwice() {
+        LocalDateTime now = LocalDateTime.now();
+        when(voteRepository.countVotesByMinuteCreatedBefore(eq(VOTACION_ID), any(LocalDateTime.class)))
+                .thenReturn(List.of());
+        when(voteRepository.findVoteTimesCreatedSince(eq(VOTACION_ID), any(LocalDateTime.class)))
+                .thenReturn(List.<Object[]>of(new Object[]{10L, now.minusSeconds(5)}));
+        registry.getActivity(VOTACION_ID);
+
+        registry.onVoteCast(event(10L, now.minusSeconds(5)));
+        registry.onVoteCast(event(11L, now));
+
+        assertThat(registry.getActivity(VOTACION_ID).getVotesSince(now.minusMinutes(2))).isEqualTo(2);
+    }
+
+    private static VoteCastEvent event(Long voteId, LocalDateTime castAt) {
+        return new VoteCastEvent(voteId, VOTACION_ID, voteId, 1, "hash-" + voteId, castAt);
+    }
+}
@@ -0,0 +1,183 @@
+package com.votechain.backend.vote.service;
+
+import com.votechain.backend.auth.model.User;
+import com.votechain.backend.auth.model.UserRole;
+import com.votechain.backend.auth.repository.UserRepository;
+import com.votechain.backend.blockchain.repository.BlockchainOutboxRepository;
+import com.votechain.backend.blockchain.service.BlockchainOutboxDispatcher;
+import com.votechain.backend.blockchain.service.BlockchainOutboxService;
+import com.votechain.backend.blockchain.service.BlockchainService;
+import com.votechain.backend.blockchain.service.MerkleBatchAnchorService;
+import com.votechain.backend.common.config.HibernateCacheConfig;
+import com.votechain.backend.common.logging.SystemLogService;
+import com.votechain.backend.vote.dto.CastVoteRequest;
+import com.votechain.backend.vote.dto.VoteDto;
+import com.votechain.backend.vote.repository.VoteRepository;
+import com.votechain.backend.voting.model.Votacion;
+import com.votechain.backend.voting.model.VotacionChangeListener;
+import com.votechain.backend.voting.model.VotacionEstado;
+import com.votechain.backend.voting.model.VotacionOpcion;
+import com.votechain.backend.voting.repository.VotacionOpcionRepository;
+import com.votechain.backend.voting.repository.VotacionRepository;
+import com.votechain.backend.voting.service.VotacionResultadoService;
+import com.votechain.backend.voting.service.VotacionSnapshotCache;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Sentencias SQL por voto en el camino rápido: con el snapshot y el registro de votantes ya cargados,
+ * cada voto debe costar como mucho dos (INSERT del voto, que comprueba y bloquea la votación abierta, e
+ * INSERT de su entrada de outbox). Cada voto se confirma en su propia transacción y los votantes se leen
+ * de la caché de segundo nivel, como en producción
+ */
+@Slf4j
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Import({VoteService.class, VoterRegistry.class, VoteCastLocks.class, VotacionSnapshotCache.class,
+        VoteTallyRegistry.class, VoteActivityRegistry.class, BlockchainOutboxService.class,
+        VotacionChangeListener.class, HibernateCacheConfig.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class VoteCastStatementCountTest {
+
+    private static final int VOTERS = 50;
+    private static final int MAX_STATEMENTS_PER_VOTE = 2;
+
+    @Autowired
+    private VoteService voteService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private VotacionRepository votacionRepository;
+
+    @Autowired
+    private VotacionOpcionRepository opcionRepository;
+
+    @Autowired
+    private VoteRepository voteRepository;
+
+    @Autowired
+    private BlockchainOutboxRepository outboxRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate tx;
+
+    @MockitoBean
+    private BlockchainService blockchainService;
+
+    @MockitoBean
+    private BlockchainOutboxDispatcher blockchainOutboxDispatcher;
+
+    @MockitoBean
+    private MerkleBatchAnchorService merkleBatchAnchorService;
+
+    @MockitoBean
+    private SystemLogService systemLogService;
+
+    @MockitoBean
+    private VotacionResultadoService votacionResultadoService;
+
+    private Votacion votacion;
+    private final List<User> voters = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        tx = new TransactionTemplate(transactionManager);
+        tx.executeWithoutResult(status -> {
+            User creador = userRepository.save(user(0));
+            votacion = votacionRepository.save(Votacion.builder()
+                    .titulo("Presupuesto participativo")
+                    .estado(VotacionEstado.ABIERTA)
+                    .fechaInicio(LocalDateTime.now().minusDays(1))
+                    .fechaFin(LocalDateTime.now().plusDays(1))
+                    .creador(creador)
+                    .build());
+            opcionRepository.save(VotacionOpcion.builder().titulo("Parque").orden(1).votacion(votacion).build());
+            opcionRepository.save(VotacionOpcion.builder().titulo("Biblioteca").orden(2).votacion(votacion).build());
+
+            for (int i = 1; i <= VOTERS + 1; i++) {
+                voters.add(userRepository.save(user(i)));
+            }
+        });
+
+        // El login lee al usuario y lo deja en la región users
+        voters.forEach(voter -> tx.executeWithoutResult(status -> userRepository.findById(voter.getId())));
+    }
+
+    @AfterEach
+    void tearDown() {
+        tx.executeWithoutResult(status -> {
+            outboxRepository.deleteAll();
+            voteRepository.deleteAll();
+            opcionRepository.deleteAll();
+            votacionRepository.deleteAll();
+            userRepository.deleteAll();
+        });
+    }
+
+    @Test
+    void castVoteUsesAtMostTwoStatementsPerVote() {
+        // El primer voto carga el snapshot de la votación y el bitmap de votantes
+        voteService.castVote(voters.get(0).getId(), request(1L));
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        long start = System.nanoTime();
+        for (int i = 1; i <= VOTERS; i++) {
+            VoteDto vote = voteService.castVote(voters.get(i).getId(), request(i % 2 + 1L));
+            assertThat(vote.getId()).isNotNull();
+            assertThat(vote.getVoteHash()).isNotBlank();
+            assertThat(vote.getUserEmail()).isEqualTo(voters.get(i).getEmail());
+            assertThat(vote.getUserName()).isEqualTo(voters.get(i).getFullName());
+        }
+        long elapsedMicros = (System.nanoTime() - start) / 1_000;
+
+        long statements = statistics.getPrepareStatementCount();
+        log.info("{} votos: {} sentencias ({} por voto), {} µs por voto",
+                VOTERS, statements, (double) statements / VOTERS, elapsedMicros / VOTERS);
+
+        assertThat(statistics.getEntityLoadCount()).as("entities loaded").isZero();
+        assertThat(statements).as("statements for %d votes", VOTERS)
+                .isLessThanOrEqualTo((long) MAX_STATEMENTS_PER_VOTE * VOTERS);
+    }
+
+    private CastVoteRequest request(long orden) {
+        return CastVoteRequest.builder().votacionId(votacion.getId()).opcionId(orden).build();
+    }
+
+    private static User user(int i) {
+        return User.builder()
+                .dni(String.format("%08d", i))
+                .firstName("Votante")
+                .lastName("N" + i)
+                .email("votante" + i + "@votechain.test")
+                .password("secret")
+                .role(UserRole.ROLE_USER)
+                .build();
+    }
+}
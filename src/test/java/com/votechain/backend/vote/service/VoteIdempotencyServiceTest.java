@@ -0,0 +1,142 @@
+package com.votechain.backend.vote.service;
+
+import com.votechain.backend.vote.dto.CastVoteRequest;
+import com.votechain.backend.vote.dto.VoteDto;
+import com.votechain.backend.vote.model.VoteIdempotencyRecord;
+import com.votechain.backend.vote.model.VoteIdempotencyStatus;
+import com.votechain.backend.vote.model.VoteStatus;
+import com.votechain.backend.vote.repository.VoteIdempotencyRecordRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Idempotency-Key: la primera petición reserva la clave en vote_idempotency_keys, las concurrentes reciben
+ * 409 hasta que termina y después su respuesta; una reserva fallida o caducada se puede volver a tomar
+ */
+@DataJpaTest
+@Import(VoteIdempotencyService.class)
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class VoteIdempotencyServiceTest {
+
+    private static final Long USER_ID = 5L;
+    private static final String KEY = "retry-key-1";
+
+    @Autowired
+    private VoteIdempotencyService idempotencyService;
+
+    @Autowired
+    private VoteIdempotencyRecordRepository recordRepository;
+
+    @AfterEach
+    void tearDown() {
+        recordRepository.deleteAll();
+    }
+
+    @Test
+    void concurrentRequestWithSameKeyIsRejectedUntilTheFirstCompletes() {
+        assertThat(idempotencyService.reserve(USER_ID, KEY, request(1L))).isEmpty();
+
+        assertThatThrownBy(() -> idempotencyService.reserve(USER_ID, KEY, request(1L)))
+                .isInstanceOf(IdempotencyKeyInProgressException.class)
+                .extracting("retryAfterSeconds").isEqualTo(2L);
+
+        idempotencyService.complete(USER_ID, KEY, request(1L), response(42L));
+
+        Optional<VoteDto> replay = idempotencyService.reserve(USER_ID, KEY, request(1L));
+        assertThat(replay).map(VoteDto::getId).contains(42L);
+        assertThat(recordRepository.findByUserIdAndIdempotencyKey(USER_ID, KEY))
+                .map(VoteIdempotencyRecord::getStatus).contains(VoteIdempotencyStatus.COMPLETED);
+    }
+
+    @Test
+    void onlyOneOfManySimultaneousRequestsReservesTheKey() throws Exception {
+        int requests = 8;
+        ExecutorService pool = Executors.newFixedThreadPool(requests);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            Callable<Boolean> attempt = () -> {
+                start.await();
+                try {
+                    return idempotencyService.reserve(USER_ID, KEY, request(1L)).isEmpty();
+                } catch (IdempotencyKeyInProgressException e) {
+                    return false;
+                }
+            };
+            List<Future<Boolean>> results = new ArrayList<>();
+            for (int i = 0; i < requests; i++) {
+                results.add(pool.submit(attempt));
+            }
+            start.countDown();
+
+            int reserved = 0;
+            for (Future<Boolean> result : results) {
+                reserved += result.get() ? 1 : 0;
+            }
+            assertThat(reserved).isEqualTo(1);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    void releasedReservationCanBeTakenAgain() {
+        assertThat(idempotencyService.reserve(USER_ID, KEY, request(1L))).isEmpty();
+        idempotencyService.release(USER_ID, KEY);
+
+        assertThat(idempotencyService.reserve(USER_ID, KEY, request(1L))).isEmpty();
+    }
+
+    @Test
+    void expiredReservationIsTakenOver() {
+        recordRepository.save(VoteIdempotencyRecord.builder()
+                .userId(USER_ID)
+                .idempotencyKey(KEY)
+                .requestFingerprint("1:1")
+                .status(VoteIdempotencyStatus.IN_PROGRESS)
+                .responseBody("")
+                .expiresAt(LocalDateTime.now().minusSeconds(1))
+                .build());
+
+        assertThat(idempotencyService.reserve(USER_ID, KEY, request(1L))).isEmpty();
+        assertThat(recordRepository.findByUserIdAndIdempotencyKey(USER_ID, KEY))
+                .map(VoteIdempotencyRecord::getExpiresAt).get()
+                .matches(expiresAt -> expiresAt.isAfter(LocalDateTime.now()));
+    }
+
+    @Test
+    void keyReusedForAnotherOptionIsRejected() {
+        assertThat(idempotencyService.reserve(USER_ID, KEY, request(1L))).isEmpty();
+
+        assertThatThrownBy(() -> idempotencyService.reserve(USER_ID, KEY, request(2L)))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static CastVoteRequest request(long opcion) {
+        return CastVoteRequest.builder().votacionId(1L).opcionId(opcion).build();
+    }
+
+    private static VoteDto response(Long voteId) {
+        return VoteDto.builder().id(voteId).votacionId(1L).opcionId(1L).status(VoteStatus.PENDING).build();
+    }
+}
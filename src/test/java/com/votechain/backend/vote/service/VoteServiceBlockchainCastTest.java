@@ -0,0 +1,211 @@
+package com.votechain.backend.vote.service;
+
+import com.votechain.backend.auth.model.User;
+import com.votechain.backend.auth.repository.UserRepository;
+import com.votechain.backend.blockchain.model.AnchoringMode;
+import com.votechain.backend.blockchain.model.BlockchainOutboxEntry;
+import com.votechain.backend.blockchain.model.OutboxStatus;
+import com.votechain.backend.blockchain.service.BlockchainOutboxDispatcher;
+import com.votechain.backend.blockchain.service.BlockchainOutboxService;
+import com.votechain.backend.blockchain.service.BlockchainService;
+import com.votechain.backend.common.logging.SystemLogService;
+import com.votechain.backend.vote.dto.CastVoteRequest;
+import com.votechain.backend.vote.dto.VoteDto;
+import com.votechain.backend.vote.model.Vote;
+import com.votechain.backend.vote.model.VoteStatus;
+import com.votechain.backend.vote.repository.VoteRepository;
+import com.votechain.backend.voting.model.Votacion;
+import com.votechain.backend.voting.model.VotacionEstado;
+import com.votechain.backend.voting.model.VotacionOpcion;
+import com.votechain.backend.voting.repository.VotacionOpcionRepository;
+import com.votechain.backend.voting.repository.VotacionRepository;
+import com.votechain.backend.voting.service.VotacionSnapshot;
+import com.votechain.backend.voting.service.VotacionSnapshotCache;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.AbstractPlatformTransactionManager;
+import org.springframework.transaction.support.DefaultTransactionStatus;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * POST /votes con blockchain: el voto se confirma antes de enviarse y la espera del hash no retiene
+ * ni la transacción ni el lock del usuario; un envío lento o fallido no deshace el voto
+ */
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class VoteServiceBlockchainCastTest {
+
+    private static final Long VOTACION_ID = 7L;
+    private static final Long USER_ID = 42L;
+
+    @Mock
+    private VoteRepository voteRepository;
+
+    @Mock
+    private VotacionRepository votacionRepository;
+
+    @Mock
+    private VotacionOpcionRepository opcionRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private BlockchainService blockchainService;
+
+    @Mock
+    private BlockchainOutboxService blockchainOutboxService;
+
+    @Mock
+    private BlockchainOutboxDispatcher blockchainOutboxDispatcher;
+
+    @Mock
+    private SystemLogService systemLogService;
+
+    @Mock
+    private VoterRegistry voterRegistry;
+
+    @Mock
+    private VotacionSnapshotCache votacionSnapshotCache;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Spy
+    private VoteCastLocks voteCastLocks = new VoteCastLocks(16, 100);
+
+    @InjectMocks
+    private VoteService voteService;
+
+    private final AtomicInteger commits = new AtomicInteger();
+    private BlockchainOutboxEntry entry;
+    private Vote savedVote;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(voteService, "transactionTemplate", new TransactionTemplate(new CountingTransactionManager()));
+        ReflectionTestUtils.setField(voteService, "submitTimeoutMs", 100L);
+
+        Votacion votacion = Votacion.builder()
+                .id(VOTACION_ID)
+                .titulo("Consulta")
+                .estado(VotacionEstado.ABIERTA)
+                .fechaInicio(LocalDateTime.now().minusDays(1))
+                .fechaFin(LocalDateTime.now().plusDays(1))
+                .build();
+        VotacionOpcion opcion = VotacionOpcion.builder().id(70L).orden(1).titulo("Sí").votacion(votacion).build();
+
+        when(blockchainService.getAnchoringMode()).thenReturn(AnchoringMode.PER_VOTE);
+        when(votacionSnapshotCache.get(VOTACION_ID)).thenReturn(VotacionSnapshot.of(votacion, List.of(opcion)));
+        when(votacionRepository.getReferenceById(VOTACION_ID)).thenReturn(votacion);
+        when(opcionRepository.getReferenceById(70L)).thenReturn(opcion);
+        when(userRepository.getReferenceById(anyLong())).thenAnswer(invocation ->
+                User.builder().id(invocation.getArgument(0)).build());
+        when(voteRepository.insertIfOpen(any(Vote.class))).thenAnswer(invocation -> {
+            savedVote = invocation.getArgument(0);
+            return Optional.of(100L);
+        });
+
+        entry = BlockchainOutboxEntry.builder().id(1L).voteId(100L).votacionId(VOTACION_ID)
+                .status(OutboxStatus.IN_FLIGHT).nextAttemptAt(LocalDateTime.now()).build();
+        when(blockchainOutboxService.enqueueClaimedVoteRegistration(any(Vote.class))).thenReturn(entry);
+    }
+
+    @Test
+    void submitsAfterCommitAndReturnsTheTransactionHash() {
+        AtomicBoolean submittedInsideTransaction = new AtomicBoolean(true);
+        AtomicInteger commitsBeforeSubmit = new AtomicInteger();
+        when(blockchainOutboxDispatcher.submitClaimed(entry)).thenAnswer(invocation -> {
+            submittedInsideTransaction.set(TransactionSynchronizationManager.isSynchronizationActive());
+            commitsBeforeSubmit.set(commits.get());
+            return CompletableFuture.completedFuture("0xabc");
+        });
+
+        VoteDto dto = voteService.castVoteWithBlockchain(USER_ID, request());
+
+        assertThat(submittedInsideTransaction).isFalse();
+        assertThat(commitsBeforeSubmit.get()).isEqualTo(1);
+        assertThat(dto.getBlockchainTransactionHash()).isEqualTo("0xabc");
+        assertThat(dto.getStatus()).isEqualTo(VoteStatus.PROCESSING);
+        // El lock del usuario ya está libre mientras se espera a la blockchain
+        assertThat(voteService.castVoteWithBlockchain(USER_ID + 1, request())).isNotNull();
+    }
+
+    @Test
+    void slowNodeReturnsThePendingVoteInsteadOfFailing() {
+        when(blockchainOutboxDispatcher.submitClaimed(entry)).thenReturn(new CompletableFuture<>());
+
+        VoteDto dto = voteService.castVoteWithBlockchain(USER_ID, request());
+
+        assertThat(dto.getId()).isEqualTo(100L);
+        assertThat(dto.getBlockchainTransactionHash()).isNull();
+        assertThat(dto.getBlockchainStatus()).isEqualTo("PENDING");
+        assertThat(savedVote.getStatus()).isEqualTo(VoteStatus.PENDING);
+        assertThat(commits.get()).isEqualTo(1);
+    }
+
+    @Test
+    void failedSubmissionLeavesTheVoteToTheOutbox() {
+        when(blockchainOutboxDispatcher.submitClaimed(entry))
+                .thenReturn(CompletableFuture.failedFuture(new IllegalStateException("nonce too low")));
+
+        VoteDto dto = voteService.castVoteWithBlockchain(USER_ID, request());
+
+        assertThat(dto.getStatus()).isEqualTo(VoteStatus.PENDING);
+        assertThat(savedVote.getStatus()).isNotEqualTo(VoteStatus.REJECTED);
+        verify(blockchainOutboxService, never()).enqueueVoteRegistration(any(Vote.class));
+    }
+
+    private static CastVoteRequest request() {
+        return CastVoteRequest.builder().votacionId(VOTACION_ID).opcionId(1L).build();
+    }
+
+    /**
+     * Gestor de transacciones sin recursos: activa la sincronización como el real y cuenta los commits
+     */
+    private class CountingTransactionManager extends AbstractPlatformTransactionManager {
+
+        @Override
+        protected Object doGetTransaction() {
+            return new Object();
+        }
+
+        @Override
+        protected void doBegin(Object transaction, TransactionDefinition definition) {
+        }
+
+        @Override
+        protected void doCommit(DefaultTransactionStatus status) {
+            commits.incrementAndGet();
+        }
+
+        @Override
+        protected void doRollback(DefaultTransactionStatus status) {
+        }
+    }
+}
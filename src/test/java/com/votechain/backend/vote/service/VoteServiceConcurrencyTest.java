@@ -0,0 +1,284 @@
+package com.votechain.backend.vote.service;
+
+import com.votechain.backend.auth.model.User;
+import com.votechain.backend.auth.repository.UserRepository;
+import com.votechain.backend.blockchain.service.BlockchainOutboxService;
+import com.votechain.backend.common.logging.SystemLogService;
+import com.votechain.backend.vote.dto.CastVoteRequest;
+import com.votechain.backend.vote.event.VoteCastEvent;
+import com.votechain.backend.vote.model.Vote;
+import com.votechain.backend.vote.repository.VoteRepository;
+import com.votechain.backend.voting.model.Votacion;
+import com.votechain.backend.voting.model.VotacionEstado;
+import com.votechain.backend.voting.model.VotacionOpcion;
+import com.votechain.backend.voting.repository.VotacionOpcionRepository;
+import com.votechain.backend.voting.repository.VotacionRepository;
+import com.votechain.backend.voting.service.VotacionSnapshot;
+import com.votechain.backend.voting.service.VotacionSnapshotCache;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Envíos simultáneos del mismo usuario: solo uno llega a insertar, el resto se rechaza como voto duplicado
+ */
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class VoteServiceConcurrencyTest {
+
+    private static final Long VOTACION_ID = 7L;
+    private static final Long USER_ID = 42L;
+    private static final int THREADS = 32;
+    private static final int ROUNDS = 20;
+
+    @Mock
+    private VoteRepository voteRepository;
+
+    @Mock
+    private VotacionRepository votacionRepository;
+
+    @Mock
+    private VotacionOpcionRepository opcionRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private SystemLogService systemLogService;
+
+    @Mock
+    private BlockchainOutboxService blockchainOutboxService;
+
+    @Mock
+    private VoterRegistry voterRegistry;
+
+    @Mock
+    private VotacionSnapshotCache votacionSnapshotCache;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Spy
+    private VoteCastLocks voteCastLocks = new VoteCastLocks(1024, 10_000);
+
+    @InjectMocks
+    private VoteService voteService;
+
+    // Filas de la tabla votes (restricción única simulada) y votantes visibles tras el commit
+    private final Set<String> rows = ConcurrentHashMap.newKeySet();
+    private final Set<String> committedVoters = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger inserts = new AtomicInteger();
+    private final AtomicLong voteIds = new AtomicLong();
+
+    @BeforeEach
+    void setUp() {
+        Votacion votacion = Votacion.builder()
+                .id(VOTACION_ID)
+                .titulo("Consulta")
+                .estado(VotacionEstado.ABIERTA)
+                .fechaInicio(LocalDateTime.now().minusDays(1))
+                .fechaFin(LocalDateTime.now().plusDays(1))
+                .build();
+        VotacionOpcion opcion = VotacionOpcion.builder().id(70L).orden(1).titulo("Sí").votacion(votacion).build();
+
+        when(votacionSnapshotCache.get(VOTACION_ID)).thenReturn(VotacionSnapshot.of(votacion, List.of(opcion)));
+        when(votacionRepository.getReferenceById(VOTACION_ID)).thenReturn(votacion);
+        when(opcionRepository.getReferenceById(70L)).thenReturn(opcion);
+        when(userRepository.getReferenceById(anyLong())).thenAnswer(invocation ->
+                User.builder().id(invocation.getArgument(0)).build());
+
+        when(voterRegistry.hasVoted(anyLong(), anyLong())).thenAnswer(invocation ->
+                committedVoters.contains(key(invocation.getArgument(0), invocation.getArgument(1))));
+
+        // INSERT ... ON CONFLICT DO NOTHING: el duplicado no inserta ninguna fila
+        when(voteRepository.insertIfOpen(any(Vote.class))).thenAnswer(invocation -> {
+            Vote vote = invocation.getArgument(0);
+            // Ensancha la ventana entre la comprobación y la inserción
+            Thread.sleep(2);
+            if (!rows.add(key(vote.getVotacion().getId(), vote.getUser().getId()))) {
+                return Optional.empty();
+            }
+            inserts.incrementAndGet();
+            return Optional.of(voteIds.incrementAndGet());
+        });
+        when(voteRepository.existsByVotacionIdAndUserId(anyLong(), anyLong())).thenAnswer(invocation ->
+                rows.contains(key(invocation.getArgument(0), invocation.getArgument(1))));
+
+        doAnswer(invocation -> {
+            VoteCastEvent event = invocation.getArgument(0);
+            committedVoters.add(key(event.getVotacionId(), event.getUserId()));
+            return null;
+        }).when(eventPublisher).publishEvent(any(Object.class));
+    }
+
+    @Test
+    void concurrentCastsFromSameUserInsertExactlyOnce() throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        try {
+            for (int round = 0; round < ROUNDS; round++) {
+                rows.clear();
+                committedVoters.clear();
+                inserts.set(0);
+
+                CountDownLatch ready = new CountDownLatch(THREADS);
+                CountDownLatch start = new CountDownLatch(1);
+                AtomicInteger accepted = new AtomicInteger();
+                AtomicInteger rejected = new AtomicInteger();
+                AtomicInteger unexpected = new AtomicInteger();
+
+                List<Future<?>> futures = new ArrayList<>();
+                for (int i = 0; i < THREADS; i++) {
+                    futures.add(pool.submit(() -> {
+                        ready.countDown();
+                        try {
+                            start.await();
+                            inTransaction(() -> voteService.castVote(USER_ID, request(VOTACION_ID)));
+                            accepted.incrementAndGet();
+                        } catch (IllegalStateException e) {
+                            if ("User has already voted in this voting".equals(e.getMessage())) {
+                                rejected.incrementAndGet();
+                            } else {
+                                unexpected.incrementAndGet();
+                            }
+                        } catch (Exception e) {
+                            unexpected.incrementAndGet();
+                        }
+                        return null;
+                    }));
+                }
+
+                assertThat(ready.await(10, TimeUnit.SECONDS)).isTrue();
+                start.countDown();
+                for (Future<?> future : futures) {
+                    future.get(30, TimeUnit.SECONDS);
+                }
+
+                assertThat(accepted.get()).as("round %d accepted", round).isEqualTo(1);
+                assertThat(rejected.get()).as("round %d rejected", round).isEqualTo(THREADS - 1);
+                assertThat(unexpected.get()).as("round %d unexpected errors", round).isZero();
+                assertThat(inserts.get()).as("round %d inserts", round).isEqualTo(1);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        // El lock hace que los perdedores se rechacen en memoria, sin llegar a chocar con la restricción única
+        verify(voteRepository, times(ROUNDS)).insertIfOpen(any(Vote.class));
+    }
+
+    @Test
+    void differentUsersCastConcurrently() throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < THREADS; i++) {
+                long userId = 1000L + i;
+                futures.add(pool.submit(() -> {
+                    start.await();
+                    inTransaction(() -> voteService.castVote(userId, request(VOTACION_ID)));
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        assertThat(inserts.get()).isEqualTo(THREADS);
+    }
+
+    @Test
+    void duplicateKeyFromDatabaseIsReportedAsAlreadyVoted() {
+        // Registro en memoria desactualizado: solo la restricción única detecta el duplicado
+        when(voterRegistry.hasVoted(eq(VOTACION_ID), eq(USER_ID))).thenReturn(false);
+        rows.add(key(VOTACION_ID, USER_ID));
+
+        assertThatThrownBy(() -> inTransaction(() -> voteService.castVote(USER_ID, request(VOTACION_ID))))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("User has already voted in this voting");
+    }
+
+    @Test
+    void lockIsReleasedWhenTransactionRollsBack() throws Exception {
+        // Primer intento rechazado con el lock ya tomado, en otro hilo (el lock es reentrante)
+        committedVoters.add(key(VOTACION_ID, USER_ID));
+        ExecutorService other = Executors.newSingleThreadExecutor();
+        try {
+            Future<?> rejectedCast = other.submit(() -> inTransaction(() -> voteService.castVote(USER_ID, request(VOTACION_ID))));
+            assertThatThrownBy(() -> rejectedCast.get(10, TimeUnit.SECONDS))
+                    .hasCauseInstanceOf(IllegalStateException.class);
+        } finally {
+            other.shutdownNow();
+        }
+
+        // Si el rollback no hubiera liberado la franja, este intento caducaría esperando el lock
+        committedVoters.clear();
+        inTransaction(() -> voteService.castVote(USER_ID, request(VOTACION_ID)));
+        assertThat(inserts.get()).isEqualTo(1);
+    }
+
+    private static CastVoteRequest request(Long votacionId) {
+        return CastVoteRequest.builder().votacionId(votacionId).opcionId(1L).build();
+    }
+
+    private static String key(Long votacionId, Long userId) {
+        return votacionId + ":" + userId;
+    }
+
+    /**
+     * Simula la demarcación de @Transactional: commit si no hay excepción, rollback en caso contrario
+     */
+    private static void inTransaction(Runnable body) {
+        TransactionSynchronizationManager.initSynchronization();
+        boolean committed = false;
+        try {
+            body.run();
+            committed = true;
+        } finally {
+            List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+            TransactionSynchronizationManager.clearSynchronization();
+            if (committed) {
+                synchronizations.forEach(TransactionSynchronization::afterCommit);
+            }
+            int status = committed ? TransactionSynchronization.STATUS_COMMITTED : TransactionSynchronization.STATUS_ROLLED_BACK;
+            synchronizations.forEach(synchronization -> synchronization.afterCompletion(status));
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package com.votechain.backend.vote.service;
+
+import com.votechain.backend.vote.event.VoteCastEvent;
+import com.votechain.backend.vote.repository.VoteRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+
+/**
+ * Siembra del recuento: los votos que se confirman mientras corre la consulta se fusionan por id, sin
+ * perderse ni contarse dos veces
+ */
+@ExtendWith(MockitoExtension.class)
+class VoteTallyRegistryTest {
+
+    private static final Long VOTACION_ID = 7L;
+
+    @Mock
+    private VoteRepository voteRepository;
+
+    @InjectMocks
+    private VoteTallyRegistry registry;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(registry, "maxAgeMs", 300_000L);
+        ReflectionTestUtils.setField(registry, "idleEvictMs", 3_600_000L);
+        ReflectionTestUtils.setField(registry, "settleWindowMs", 60_000L);
+    }
+
+    @Test
+    void eventsDuringSeedAreMergedByVoteId() {
+        LocalDateTime now = LocalDateTime.now();
+        when(voteRepository.countVotesByOpcionOrdenCreatedBefore(eq(VOTACION_ID), any(LocalDateTime.class)))
+                .thenAnswer(invocation -> {
+                    // Confirmados mientras corre la consulta: uno antiguo (ya en el GROUP BY), uno que la
+                    // consulta de recientes ve (id 1) y uno que se confirma después de ella (id 2)
+                    registry.onVoteCast(event(3L, 1, now.minusMinutes(10)));
+                    registry.onVoteCast(event(1L, 1, now.minusSeconds(1)));
+                    registry.onVoteCast(event(2L, 2, now));
+                    return List.<Object[]>of(new Object[]{1, 5L}, new Object[]{2, 3L});
+                });
+        when(voteRepository.findVoteOrdenesCreatedSince(eq(VOTACION_ID), any(LocalDateTime.class)))
+                .thenReturn(List.<Object[]>of(new Object[]{1L, 1}));
+
+        VoteTally tally = registry.getTally(VOTACION_ID);
+
+        assertThat(tally.getCount(1)).isEqualTo(6);
+        assertThat(tally.getCount(2)).isEqualTo(4);
+    }
+
+    @Test
+    void lateOrRepeatedEventForSeededVoteIsNotCountedTwice() {
+        LocalDateTime now = LocalDateTime.now();
+        when(voteRepository.countVotesByOpcionOrdenCreatedBefore(eq(VOTACION_ID), any(LocalDateTime.class)))
+                .thenReturn(List.<Object[]>of(new Object[]{1, 5L}));
+        when(voteRepository.findVoteOrdenesCreatedSince(eq(VOTACION_ID), any(LocalDateTime.class)))
+                .thenReturn(List.<Object[]>of(new Object[]{10L, 1}));
+        registry.getTally(VOTACION_ID);
+
+        // Publicado tras la siembra aunque la consulta ya lo había visto
+        registry.onVoteCast(event(10L, 1, now.minusSeconds(2)));
+        registry.onVoteCast(event(11L, 1, now));
+        registry.onVoteCast(event(11L, 1, now));
+
+        assertThat(registry.getTally(VOTACION_ID).getCount(1)).isEqualTo(7);
+    }
+
+    @Test
+    void eventsAfterTheWindowAreCountedDirectly() {
+        ReflectionTestUtils.setField(registry, "settleWindowMs", 0L);
+        when(voteRepository.countVotesByOpcionOrdenCreatedBefore(eq(VOTACION_ID), any(LocalDateTime.class)))
+                .thenReturn(List.<Object[]>of(new Object[]{1, 5L}));
+        when(voteRepository.findVoteOrdenesCreatedSince(eq(VOTACION_ID), any(LocalDateTime.class)))
+                .thenReturn(List.of());
+        registry.getTally(VOTACION_ID);
+
+        registry.onVoteCast(event(20L, 1, LocalDateTime.now().plusSeconds(1)));
+        registry.onVoteCast(event(21L, 1, LocalDateTime.now().plusSeconds(1)));
+
+        assertThat(registry.getTally(VOTACION_ID).getCount(1)).isEqualTo(7);
+    }
+
+    @Test
+    void batchSeedMergesEachVotacionIndependently() {
+        LocalDateTime now = LocalDateTime.now();
+        when(voteRepository.countVotesByVotacionIdsAndOpcionOrdenCreatedBefore(anyCollection(), any(LocalDateTime.class)))
+                .thenAnswer(invocation -> {
+                    registry.onVoteCast(new VoteCastEvent(30L, 8L, 1L, 1, "h", now));
+                    return List.<Object[]>of(new Object[]{VOTACION_ID, 1, 2L}, new Object[]{8L, 1, 4L});
+                });
+        when(voteRepository.findVoteOrdenesByVotacionIdsCreatedSince(anyCollection(), any(LocalDateTime.class)))
+                .thenReturn(List.<Object[]>of(new Object[]{8L, 30L, 1}, new Object[]{VOTACION_ID, 31L, 1}));
+
+        Map<Long, VoteTally> tallies = registry.getTallies(List.of(VOTACION_ID, 8L));
+
+        assertThat(tallies.get(VOTACION_ID).getCount(1)).isEqualTo(3);
+        assertThat(tallies.get(8L).getCount(1)).isEqualTo(5);
+    }
+
+    private static VoteCastEvent event(Long voteId, int orden, LocalDateTime castAt) {
+        return new VoteCastEvent(voteId, VOTACION_ID, voteId, orden, "hash-" + voteId, castAt);
+    }
+}
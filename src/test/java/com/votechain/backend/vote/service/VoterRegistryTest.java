@@ -0,0 +1,81 @@
+package com.votechain.backend.vote.service;
+
+import com.votechain.backend.vote.event.VoteCastEvent;
+import com.votechain.backend.vote.repository.VoteRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Carga perezosa de votantes: un voto confirmado mientras se leen las páginas de la BD no se pierde
+ */
+@ExtendWith(MockitoExtension.class)
+class VoterRegistryTest {
+
+    private static final Long VOTACION_ID = 7L;
+
+    @Mock
+    private VoteRepository voteRepository;
+
+    @InjectMocks
+    private VoterRegistry registry;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(registry, "loadPageSize", 2);
+        ReflectionTestUtils.setField(registry, "idleEvictMs", 3_600_000L);
+    }
+
+    @Test
+    void voteCastDuringTheKeysetLoadIsSeen() {
+        when(voteRepository.findVoterIdsAfter(eq(VOTACION_ID), eq(0L), any(Pageable.class)))
+                .thenReturn(List.of(10L, 20L));
+        when(voteRepository.findVoterIdsAfter(eq(VOTACION_ID), eq(20L), any(Pageable.class)))
+                .thenAnswer(invocation -> {
+                    // Confirmado después de que la consulta leyera su instantánea: solo llega por evento.
+                    // El usuario 15 queda además por detrás del cursor, así que ninguna página lo vería
+                    registry.onVoteCast(event(15L));
+                    registry.onVoteCast(event(40L));
+                    return List.of(30L);
+                });
+
+        assertThat(registry.hasVoted(VOTACION_ID, 99L)).isFalse();
+
+        assertThat(registry.hasVoted(VOTACION_ID, 15L)).isTrue();
+        assertThat(registry.hasVoted(VOTACION_ID, 40L)).isTrue();
+        assertThat(registry.hasVoted(VOTACION_ID, 10L)).isTrue();
+        assertThat(registry.hasVoted(VOTACION_ID, 30L)).isTrue();
+        verify(voteRepository, times(2)).findVoterIdsAfter(eq(VOTACION_ID), any(Long.class), any(Pageable.class));
+    }
+
+    @Test
+    void voteCastAfterTheLoadIsSeenWithoutQuerying() {
+        when(voteRepository.findVoterIdsAfter(eq(VOTACION_ID), eq(0L), any(Pageable.class)))
+                .thenReturn(List.of());
+
+        assertThat(registry.hasVoted(VOTACION_ID, 5L)).isFalse();
+        registry.onVoteCast(event(5L));
+
+        assertThat(registry.hasVoted(VOTACION_ID, 5L)).isTrue();
+        verify(voteRepository, times(1)).findVoterIdsAfter(eq(VOTACION_ID), any(Long.class), any(Pageable.class));
+    }
+
+    private static VoteCastEvent event(Long userId) {
+        return new VoteCastEvent(userId * 100, VOTACION_ID, userId, 1, "hash-" + userId, LocalDateTime.now());
+    }
+}
@@ -0,0 +1,169 @@
+package com.votechain.backend.voting.repository;
+
+import com.votechain.backend.auth.model.User;
+import com.votechain.backend.auth.model.UserRole;
+import com.votechain.backend.common.pagination.Cursor;
+import com.votechain.backend.common.pagination.CursorPage;
+import com.votechain.backend.voting.controller.VotacionController;
+import com.votechain.backend.voting.dto.VotacionDto;
+import com.votechain.backend.voting.model.Votacion;
+import com.votechain.backend.voting.model.VotacionEstado;
+import com.votechain.backend.voting.service.VotacionPageAssembler;
+import com.votechain.backend.voting.service.VotacionService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Paginación por cursor sobre (createdAt, id): recorre todas las páginas sin repetir ni saltar filas aunque
+ * muchas compartan createdAt, rechaza cursores mal formados con 400 y limita el tamaño de página
+ */
+@DataJpaTest
+class VotacionKeysetPaginationTest {
+
+    private static final int TOTAL = 105;
+    private static final int TIED = 40;
+
+    @Autowired
+    private VotacionRepository votacionRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    private VotacionController controller;
+    private List<Long> expectedOrder;
+
+    @BeforeEach
+    void setUp() {
+        User creador = entityManager.persist(User.builder()
+                .dni("00000000")
+                .firstName("Creador")
+                .lastName("Test")
+                .email("creador@votechain.test")
+                .password("secret")
+                .role(UserRole.ROLE_ADMIN)
+                .build());
+
+        // @CreationTimestamp ignora el valor del builder: se fija después con un UPDATE
+        LocalDateTime base = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+        LocalDateTime tied = base.minusHours(1);
+        List<Votacion> votaciones = new ArrayList<>();
+        for (int i = 0; i < TOTAL; i++) {
+            Votacion votacion = entityManager.persist(Votacion.builder()
+                    .titulo("Votación " + i)
+                    .estado(VotacionEstado.ABIERTA)
+                    .fechaInicio(base.minusDays(1))
+                    .fechaFin(base.plusDays(1))
+                    .creador(creador)
+                    .build());
+            LocalDateTime createdAt = i < TIED ? tied : base.minusMinutes(i);
+            entityManager.getEntityManager()
+                    .createQuery("UPDATE Votacion v SET v.createdAt = :createdAt WHERE v.id = :id")
+                    .setParameter("createdAt", createdAt)
+                    .setParameter("id", votacion.getId())
+                    .executeUpdate();
+            votacion.setCreatedAt(createdAt);
+            votaciones.add(votacion);
+        }
+        entityManager.clear();
+
+        expectedOrder = votaciones.stream()
+                .sorted(Comparator.comparing(Votacion::getCreatedAt).thenComparing(Votacion::getId).reversed())
+                .map(Votacion::getId)
+                .toList();
+
+        VotacionPageAssembler assembler = mock(VotacionPageAssembler.class);
+        when(assembler.toDtos(any(), any())).thenAnswer(invocation -> {
+            List<Votacion> page = invocation.getArgument(0);
+            return page.stream().map(votacion -> VotacionDto.builder().id(votacion.getId()).build()).toList();
+        });
+        VotacionService votacionService = new VotacionService();
+        ReflectionTestUtils.setField(votacionService, "votacionRepository", votacionRepository);
+        ReflectionTestUtils.setField(votacionService, "votacionPageAssembler", assembler);
+        controller = new VotacionController();
+        ReflectionTestUtils.setField(controller, "votacionService", votacionService);
+    }
+
+    @Test
+    void walkingEveryPageReturnsEachRowOnceInOrder() {
+        List<Long> seen = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            CursorPage<VotacionDto> page = page(cursor, 7);
+            page.getContent().forEach(dto -> seen.add(dto.getId()));
+            assertThat(page.getContent()).hasSizeLessThanOrEqualTo(7);
+            assertThat(page.isHasNext()).isEqualTo(page.getNextCursor() != null);
+            cursor = page.getNextCursor();
+            pages++;
+        } while (cursor != null);
+
+        Set<Long> unique = new HashSet<>(seen);
+        assertThat(unique).hasSize(seen.size());
+        assertThat(seen).containsExactlyElementsOf(expectedOrder);
+        assertThat(pages).isEqualTo((TOTAL + 6) / 7);
+    }
+
+    @Test
+    void pageBoundaryInsideTheTiedBlockResumesAtTheNextId() {
+        // Las primeras 65 filas tienen createdAt distintos; la página de 70 corta dentro del bloque empatado
+        CursorPage<VotacionDto> first = page(null, 70);
+        CursorPage<VotacionDto> second = page(first.getNextCursor(), 70);
+
+        assertThat(first.getContent()).extracting(VotacionDto::getId).containsExactlyElementsOf(expectedOrder.subList(0, 70));
+        assertThat(second.getContent()).extracting(VotacionDto::getId).containsExactlyElementsOf(expectedOrder.subList(70, TOTAL));
+        assertThat(second.isHasNext()).isFalse();
+        assertThat(second.getNextCursor()).isNull();
+    }
+
+    @Test
+    void malformedCursorIsRejectedWithBadRequest() {
+        for (String token : List.of("not-a-cursor", "%%%", token("2024-01-01T00:00|abc"),
+                token("yesterday|5"), token("no-separator"))) {
+            ResponseEntity<?> response = controller.getPublicVotacionesByCursor(token, 10, null, null, false);
+
+            assertThat(response.getStatusCode()).as(token).isEqualTo(HttpStatus.BAD_REQUEST);
+        }
+    }
+
+    @Test
+    void pageSizeIsCappedAtOneHundred() {
+        CursorPage<VotacionDto> page = page(null, 500);
+
+        assertThat(page.getSize()).isEqualTo(Cursor.MAX_PAGE_SIZE);
+        assertThat(page.getContent()).hasSize(Cursor.MAX_PAGE_SIZE);
+        assertThat(page.isHasNext()).isTrue();
+        assertThat(page(page.getNextCursor(), 500).getContent()).hasSize(TOTAL - Cursor.MAX_PAGE_SIZE);
+    }
+
+    private static String token(String raw) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @SuppressWarnings("unchecked")
+    private CursorPage<VotacionDto> page(String cursor, int size) {
+        ResponseEntity<?> response = controller.getPublicVotacionesByCursor(cursor, size, null, null, false);
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        return (CursorPage<VotacionDto>) response.getBody();
+    }
+}
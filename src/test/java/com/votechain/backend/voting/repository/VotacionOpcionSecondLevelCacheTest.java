@@ -0,0 +1,139 @@
+package com.votechain.backend.voting.repository;
+
+import com.votechain.backend.auth.model.User;
+import com.votechain.backend.auth.model.UserRole;
+import com.votechain.backend.auth.repository.UserRepository;
+import com.votechain.backend.common.config.HibernateCacheConfig;
+import com.votechain.backend.voting.model.Votacion;
+import com.votechain.backend.voting.model.VotacionEstado;
+import com.votechain.backend.voting.model.VotacionOpcion;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.cache.spi.CacheImplementor;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Caché de segundo nivel: las opciones de una votación se sirven desde la caché de consultas sin SQL y
+ * cualquier escritura en votacion_opciones (alta, edición, borrado) se ve en la siguiente lectura
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Import(HibernateCacheConfig.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class VotacionOpcionSecondLevelCacheTest {
+
+    @Autowired
+    private VotacionOpcionRepository opcionRepository;
+
+    @Autowired
+    private VotacionRepository votacionRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate tx;
+    private Statistics statistics;
+    private Long votacionId;
+
+    @BeforeEach
+    void setUp() {
+        tx = new TransactionTemplate(transactionManager);
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        votacionId = tx.execute(status -> {
+            User creador = userRepository.save(User.builder()
+                    .dni("00000001")
+                    .firstName("Creador")
+                    .lastName("Cache")
+                    .email("creador@votechain.test")
+                    .password("secret")
+                    .role(UserRole.ROLE_USER)
+                    .build());
+            Votacion votacion = votacionRepository.save(Votacion.builder()
+                    .titulo("Votación cacheada")
+                    .estado(VotacionEstado.ABIERTA)
+                    .fechaInicio(LocalDateTime.now().minusDays(1))
+                    .fechaFin(LocalDateTime.now().plusDays(1))
+                    .creador(creador)
+                    .build());
+            opcionRepository.save(VotacionOpcion.builder().titulo("Sí").orden(1).votacion(votacion).build());
+            opcionRepository.save(VotacionOpcion.builder().titulo("No").orden(2).votacion(votacion).build());
+            return votacion.getId();
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        tx.executeWithoutResult(status -> {
+            opcionRepository.deleteAll();
+            votacionRepository.deleteAll();
+            userRepository.deleteAll();
+        });
+    }
+
+    @Test
+    void everyCachedEntityAndQueryHasItsOwnRegion() {
+        titulos();
+
+        SessionFactory sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+        assertThat(sessionFactory.getSessionFactoryOptions().isSecondLevelCacheEnabled()).isTrue();
+        assertThat(sessionFactory.getSessionFactoryOptions().isQueryCacheEnabled()).isTrue();
+        // Con MISSING_CACHE_STRATEGY=fail una región sin configurar no llega a crearse
+        assertThat(((CacheImplementor) sessionFactory.getCache()).getCacheRegionNames())
+                .contains(Votacion.CACHE_REGION, VotacionOpcion.CACHE_REGION, User.CACHE_REGION,
+                        VotacionOpcionRepository.OPCIONES_POR_VOTACION_REGION);
+    }
+
+    @Test
+    void repeatedReadsAreServedFromTheCacheWithoutStatements() {
+        assertThat(titulos()).containsExactly("Sí", "No");
+
+        statistics.clear();
+        assertThat(titulos()).containsExactly("Sí", "No");
+        assertThat(statistics.getQueryCacheHitCount()).isEqualTo(1);
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+    }
+
+    @Test
+    void writesToOptionsInvalidateTheCachedQuery() {
+        assertThat(titulos()).containsExactly("Sí", "No");
+
+        tx.executeWithoutResult(status -> {
+            VotacionOpcion si = opcionRepository.findByVotacionIdAndOrden(votacionId, 1).orElseThrow();
+            si.setTitulo("Sí, a favor");
+            opcionRepository.save(si);
+            opcionRepository.save(VotacionOpcion.builder().titulo("Abstención").orden(3)
+                    .votacion(votacionRepository.getReferenceById(votacionId)).build());
+        });
+        assertThat(titulos()).containsExactly("Sí, a favor", "No", "Abstención");
+
+        tx.executeWithoutResult(status -> opcionRepository.delete(
+                opcionRepository.findByVotacionIdAndOrden(votacionId, 2).orElseThrow()));
+        assertThat(titulos()).containsExactly("Sí, a favor", "Abstención");
+    }
+
+    private List<String> titulos() {
+        return tx.execute(status -> opcionRepository.findByVotacionIdOrderByOrden(votacionId).stream()
+                .map(VotacionOpcion::getTitulo)
+                .toList());
+    }
+}
@@ -0,0 +1,98 @@
+package com.votechain.backend.voting.service;
+
+import com.votechain.backend.blockchain.service.BlockchainService;
+import com.votechain.backend.common.logging.SystemLogService;
+import com.votechain.backend.voting.model.Votacion;
+import com.votechain.backend.voting.repository.VotacionRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Recuperación de las confirmaciones de creación en blockchain que se perdieron con el callback en memoria
+ */
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class VotacionCreationRecoveryTest {
+
+    private static final String TX_HASH = "0xabc";
+
+    @Mock
+    private VotacionRepository votacionRepository;
+
+    @Mock
+    private BlockchainService blockchainService;
+
+    @Mock
+    private SystemLogService systemLogService;
+
+    @InjectMocks
+    private VotacionService votacionService;
+
+    private Votacion votacion;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(votacionService, "recoveryGraceMs", 600000L);
+        ReflectionTestUtils.setField(votacionService, "recoveryBatchSize", 50);
+
+        votacion = Votacion.builder().id(5L).titulo("Consulta").blockchainTransactionHash(TX_HASH).build();
+        when(blockchainService.isContractLoaded()).thenReturn(true);
+        when(votacionRepository.findUnconfirmedBlockchainCreations(any(LocalDateTime.class), any(Pageable.class)))
+                .thenReturn(List.of(votacion));
+        when(votacionRepository.findById(5L)).thenReturn(Optional.of(votacion));
+    }
+
+    @Test
+    void minedCreationIsConfirmedFromItsReceipt() {
+        when(blockchainService.findVotingCreation(TX_HASH))
+                .thenReturn(Optional.of(new BlockchainService.VotingCreationResult(TX_HASH, 12L)));
+
+        votacionService.recoverUnconfirmedCreations();
+
+        assertThat(votacion.isBlockchainVerified()).isTrue();
+        assertThat(votacion.getBlockchainVotingId()).isEqualTo(12L);
+        verify(votacionRepository).save(votacion);
+    }
+
+    @Test
+    void pendingCreationIsLeftForTheNextPass() {
+        when(blockchainService.findVotingCreation(TX_HASH)).thenReturn(Optional.empty());
+
+        votacionService.recoverUnconfirmedCreations();
+
+        assertThat(votacion.isBlockchainVerified()).isFalse();
+        verify(votacionRepository, never()).save(any());
+    }
+
+    @Test
+    void revertedCreationRecordsTheError() {
+        when(blockchainService.findVotingCreation(TX_HASH))
+                .thenThrow(new IllegalStateException("Transaction 0xabc reverted with status 0x0"));
+
+        votacionService.recoverUnconfirmedCreations();
+
+        assertThat(votacion.isBlockchainVerified()).isFalse();
+        assertThat(votacion.getBlockchainError()).contains("reverted");
+        verify(votacionRepository).save(votacion);
+        verify(systemLogService).logError(eq("Blockchain Voting Creation"), any());
+    }
+}
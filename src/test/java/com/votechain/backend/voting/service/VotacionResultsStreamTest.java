@@ -0,0 +1,170 @@
+package com.votechain.backend.voting.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.votechain.backend.vote.service.VoteTally;
+import com.votechain.backend.vote.service.VoteTallyRegistry;
+import com.votechain.backend.voting.dto.VotacionOpcionDto;
+import com.votechain.backend.voting.model.VotacionEstado;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadPoolExecutor;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Resultados en vivo: los envíos solo encolan en cada suscriptor y se desconecta al que se queda atrás
+ */
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class VotacionResultsStreamTest {
+
+    private static final Long VOTACION_ID = 7L;
+
+    @Mock
+    private VoteTallyRegistry voteTallyRegistry;
+
+    @Mock
+    private VotacionSnapshotCache votacionSnapshotCache;
+
+    @Mock
+    private VotacionResultadoService votacionResultadoService;
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+
+    @InjectMocks
+    private VotacionResultsStream stream;
+
+    private final CountDownLatch writerBlocked = new CountDownLatch(1);
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(stream, "maxUpdatesPerSecond", 2);
+        ReflectionTestUtils.setField(stream, "maxSubscribers", 10);
+        ReflectionTestUtils.setField(stream, "emitterTimeoutMs", 60000L);
+        ReflectionTestUtils.setField(stream, "heartbeatIntervalMs", 60000L);
+        ReflectionTestUtils.setField(stream, "publisherThreads", 1);
+        ReflectionTestUtils.setField(stream, "writerThreads", 1);
+        ReflectionTestUtils.setField(stream, "subscriberQueueCapacity", 1);
+        ReflectionTestUtils.setField(stream, "writeTimeoutMs", 5000L);
+        stream.init();
+
+        when(votacionSnapshotCache.get(anyLong())).thenReturn(mock(VotacionSnapshot.class));
+        VoteTally tally = mock(VoteTally.class);
+        when(voteTallyRegistry.getTally(anyLong())).thenReturn(tally);
+    }
+
+    @AfterEach
+    void tearDown() {
+        writerBlocked.countDown();
+        stream.shutdown();
+    }
+
+    @Test
+    void subscriberWhoseQueueFillsIsDroppedWithoutBlockingThePublisher() {
+        blockWriter();
+        stream.subscribe(VOTACION_ID);
+        assertThat(stream.getSubscriberCount()).isEqualTo(1);
+
+        ReflectionTestUtils.invokeMethod(stream, "heartbeat");
+
+        assertThat(stream.getDroppedCount()).isEqualTo(1);
+        assertThat(stream.getSubscriberCount()).isZero();
+    }
+
+    @Test
+    void subscriberStuckInAWriteIsDropped() {
+        blockWriter();
+        stream.subscribe(VOTACION_ID);
+        Object subscriber = subscribers().iterator().next();
+        ReflectionTestUtils.setField(subscriber, "sendStartedAt", System.currentTimeMillis() - 10000);
+
+        ReflectionTestUtils.invokeMethod(stream, "dropStalled");
+
+        assertThat(stream.getDroppedCount()).isEqualTo(1);
+        assertThat(stream.getSubscriberCount()).isZero();
+    }
+
+    @Test
+    void closedVotacionEventCarriesTheFrozenResultNotTheTally() {
+        VotacionSnapshot snapshot = mock(VotacionSnapshot.class);
+        when(snapshot.getEstado()).thenReturn(VotacionEstado.CERRADA);
+        when(votacionSnapshotCache.get(VOTACION_ID)).thenReturn(snapshot);
+        VotacionOpcionDto opcion = VotacionOpcionDto.builder()
+                .id(70L).votacionId(VOTACION_ID).titulo("Sí").orden(1).totalVotos(42).porcentaje(100.0).build();
+        when(votacionResultadoService.find(VOTACION_ID)).thenReturn(Optional.of(new ResultadoFinal(
+                VOTACION_ID, 42, "Sí", 42, false, List.of(opcion), List.of("Sí"),
+                Map.of(), Map.of(), LocalDateTime.now(), 1)));
+
+        String event = buildEvent();
+
+        assertThat(event).contains("\"estado\":\"CERRADA\"", "\"totalVotos\":42", "\"titulo\":\"Sí\"");
+        verify(voteTallyRegistry, never()).getTally(anyLong());
+    }
+
+    @Test
+    void closedVotacionFallsBackToTheTallyUntilTheResultIsFrozen() {
+        VotacionSnapshot snapshot = mock(VotacionSnapshot.class);
+        when(snapshot.getEstado()).thenReturn(VotacionEstado.CERRADA);
+        when(votacionSnapshotCache.get(VOTACION_ID)).thenReturn(snapshot);
+        when(votacionResultadoService.find(VOTACION_ID)).thenReturn(Optional.empty());
+
+        buildEvent();
+
+        verify(voteTallyRegistry, atLeastOnce()).getTally(VOTACION_ID);
+    }
+
+    @SuppressWarnings("unchecked")
+    private String buildEvent() {
+        stream.subscribe(VOTACION_ID);
+        Map<?, ?> channels = (Map<?, ?>) ReflectionTestUtils.getField(stream, "channels");
+        Set<ResponseBodyEmitter.DataWithMediaType> event = (Set<ResponseBodyEmitter.DataWithMediaType>)
+                ReflectionTestUtils.invokeMethod(channels.get(VOTACION_ID), "buildEvent");
+        StringBuilder text = new StringBuilder();
+        event.forEach(part -> text.append(part.getData()));
+        return text.toString();
+    }
+
+    /**
+     * Ocupa el único hilo de escritura: lo que se publique se queda en las colas
+     */
+    private void blockWriter() {
+        ThreadPoolExecutor writer = (ThreadPoolExecutor) ReflectionTestUtils.getField(stream, "writer");
+        writer.execute(() -> {
+            try {
+                writerBlocked.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+    }
+
+    private Set<?> subscribers() {
+        Map<?, ?> channels = (Map<?, ?>) ReflectionTestUtils.getField(stream, "channels");
+        return (Set<?>) ReflectionTestUtils.getField(channels.get(VOTACION_ID), "subscribers");
+    }
+}
@@ -0,0 +1,182 @@
+package com.votechain.backend.voting.service;
+
+import com.votechain.backend.voting.event.VotacionChangedEvent;
+import com.votechain.backend.voting.model.VotacionCategoria;
+import com.votechain.backend.voting.model.VotacionEstado;
+import com.votechain.backend.voting.repository.VotacionRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+/**
+ * Índice de búsqueda: normalización de palabras, coincidencia de todas las palabras (enteras o por prefijo),
+ * cambios incrementales y reconstrucción sin pisar cambios más nuevos
+ */
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class VotacionSearchIndexTest {
+
+    private static final LocalDateTime INICIO = LocalDateTime.of(2026, 1, 1, 0, 0);
+    private static final Pageable PAGE = PageRequest.of(0, 10);
+
+    @Mock
+    private VotacionRepository votacionRepository;
+
+    @InjectMocks
+    private VotacionSearchIndex index;
+
+    private final List<Object[]> database = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(index, "taskExecutor", (TaskExecutor) Runnable::run);
+        ReflectionTestUtils.setField(index, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(index, "enabled", true);
+        ReflectionTestUtils.setField(index, "buildPageSize", 100);
+        index.init();
+
+        when(votacionRepository.findSearchRowsAfter(anyLong(), any(Pageable.class)))
+                .thenAnswer(invocation -> rowsAfter(invocation.getArgument(0)));
+        when(votacionRepository.findSearchRowsByIds(anyCollection()))
+                .thenAnswer(invocation -> database.stream()
+                        .filter(row -> invocation.<Collection<Long>>getArgument(0).contains((Long) row[0]))
+                        .toList());
+    }
+
+    @Test
+    void tokenizeFoldsAccentsCaseAndPunctuation() {
+        assertThat(VotacionSearchIndex.tokenize("¿Votación del Presupuesto-2026? Pingüino"))
+                .containsExactly("votacion", "del", "presupuesto", "2026", "pinguino");
+        assertThat(VotacionSearchIndex.tokenize("  ")).isEmpty();
+        assertThat(VotacionSearchIndex.tokenize(null)).isEmpty();
+    }
+
+    @Test
+    void everyTermMustMatchWholeOrAsPrefix() {
+        database.add(row(1L, "Presupuesto participativo", "Votación del barrio"));
+        database.add(row(2L, "Presupuesto anual", "Cuentas del ayuntamiento"));
+        database.add(row(3L, "Fiestas del barrio", "Votación de la programación"));
+        index.onApplicationReady();
+
+        assertThat(index.isReady()).isTrue();
+        assertThat(index.search("presupuesto votacion", null, null, null, PAGE).getContent()).containsExactly(1L);
+        assertThat(index.search("VOTACIÓN", null, null, null, PAGE).getContent())
+                .containsExactlyInAnyOrder(1L, 3L);
+        assertThat(index.search("presu", null, null, null, PAGE).getContent()).containsExactlyInAnyOrder(1L, 2L);
+        assertThat(index.search("presupuesto inexistente", null, null, null, PAGE).getContent()).isEmpty();
+        // Solo palabras vacías: todas las votaciones
+        assertThat(index.search("de la", null, null, null, PAGE).getTotalElements()).isEqualTo(3);
+    }
+
+    @Test
+    void exactMatchRanksAboveTitlePrefixAndTitleAboveDescription() {
+        database.add(row(1L, "Parque", "Votación sobre el parque central"));
+        database.add(row(2L, "Parques y jardines", "Mantenimiento"));
+        database.add(row(3L, "Jardines", "Reforma del parque"));
+        index.onApplicationReady();
+
+        assertThat(index.search("parque", null, null, null, PAGE).getContent()).containsExactly(1L, 2L, 3L);
+    }
+
+    @Test
+    void incrementalChangesReindexAndRemove() {
+        database.add(row(1L, "Presupuesto participativo", null));
+        database.add(row(2L, "Fiestas del barrio", null));
+        index.onApplicationReady();
+
+        database.set(0, row(1L, "Carril bici", null));
+        database.remove(1);
+        index.onVotacionChanged(new VotacionChangedEvent(1L, null));
+        index.onVotacionChanged(new VotacionChangedEvent(2L, null));
+
+        assertThat(index.search("presupuesto", null, null, null, PAGE).getContent()).isEmpty();
+        assertThat(index.search("bici", null, null, null, PAGE).getContent()).containsExactly(1L);
+        assertThat(index.search("fiestas", null, null, null, PAGE).getContent()).isEmpty();
+    }
+
+    @Test
+    void buildDoesNotOverwriteNewerIncrementalChange() {
+        database.add(row(1L, "Titulo antiguo", null));
+        when(votacionRepository.findSearchRowsAfter(anyLong(), any(Pageable.class))).thenAnswer(invocation -> {
+            List<Object[]> snapshot = rowsAfter(invocation.getArgument(0));
+            // La votación cambia después de leer la página y antes de aplicarla
+            database.set(0, row(1L, "Titulo nuevo", null));
+            index.onVotacionChanged(new VotacionChangedEvent(1L, null));
+            return snapshot;
+        });
+
+        index.onApplicationReady();
+
+        assertThat(index.search("nuevo", null, null, null, PAGE).getContent()).containsExactly(1L);
+        assertThat(index.search("antiguo", null, null, null, PAGE).getContent()).isEmpty();
+    }
+
+    @Test
+    void reconcilePicksUpChangesWithoutEvents() {
+        database.add(row(1L, "Presupuesto participativo", null));
+        database.add(row(2L, "Fiestas del barrio", null));
+        index.onApplicationReady();
+
+        // Cambios hechos desde otro nodo: este no recibe los eventos
+        database.remove(1);
+        database.add(row(3L, "Carril bici", null));
+        index.reconcile();
+
+        assertThat(index.search("fiestas", null, null, null, PAGE).getContent()).isEmpty();
+        assertThat(index.search("bici", null, null, null, PAGE).getContent()).containsExactly(3L);
+        assertThat(index.search("", null, null, null, PAGE).getTotalElements()).isEqualTo(2);
+    }
+
+    @Test
+    void reconcileRunsOnTheIndexThreadNotTheScheduler() {
+        database.add(row(1L, "Presupuesto participativo", null));
+        index.onApplicationReady();
+
+        List<Runnable> indexThread = new ArrayList<>();
+        ReflectionTestUtils.setField(index, "taskExecutor", (TaskExecutor) indexThread::add);
+        database.add(row(2L, "Carril bici", null));
+        clearInvocations(votacionRepository);
+
+        index.reconcile();
+        index.reconcile();
+
+        // El scheduler solo lo solicita, una vez aunque se pida dos
+        verifyNoInteractions(votacionRepository);
+        assertThat(indexThread).hasSize(1);
+
+        indexThread.remove(0).run();
+        assertThat(index.search("bici", null, null, null, PAGE).getContent()).containsExactly(2L);
+        assertThat(indexThread).isEmpty();
+    }
+
+    private List<Object[]> rowsAfter(long afterId) {
+        return database.stream().filter(row -> (Long) row[0] > afterId).toList();
+    }
+
+    private static Object[] row(Long id, String titulo, String descripcion) {
+        return new Object[]{id, titulo, descripcion, VotacionEstado.ABIERTA, VotacionCategoria.values()[0], INICIO};
+    }
+}